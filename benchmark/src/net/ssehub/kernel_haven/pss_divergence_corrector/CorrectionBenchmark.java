@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.ssehub.kernel_haven.SetUpException;
+import net.ssehub.kernel_haven.analysis.AnalysisComponent;
+import net.ssehub.kernel_haven.config.Configuration;
+import net.ssehub.kernel_haven.config.DefaultSettings;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionProvider;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.test_utils.TestConfiguration;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class contains the JMH benchmarks of the correction pipeline. It measures the throughput of providing,
+ * describing, and rendering single {@link Correction}s as well as the end-to-end throughput of the loop in
+ * {@link ProblemSolutionSpaceDivergenceCorrector#execute()} for synthetic streams of divergences (see
+ * {@link TestDivergences#generate(int, int, int)}). Running the
+ * benchmarks with the <code>gc</code> profiler (see the <i>benchmark</i> target in <i>build.xml</i>) additionally
+ * reports the allocation rates.
+ * 
+ * @author Christian Kröher
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorrectionBenchmark {
+
+    /**
+     * The number of divergences in the synthetic stream.
+     */
+    @Param({"1000", "10000"})
+    private int divergencesCount;
+
+    /**
+     * The number of source files and code elements involved in each synthetic undefined variable divergence.
+     */
+    @Param({"1", "10", "100"})
+    private int involvedElements;
+
+    /**
+     * The synthetic stream of divergences.
+     */
+    private @NonNull List<@NonNull Divergence> divergences = Collections.emptyList();
+
+    /**
+     * The corrections for the {@link #divergences} created once for filling the cache of the previous run (see
+     * {@link CachedDescriptions}).
+     */
+    private @NonNull Correction @NonNull [] corrections = new Correction[0];
+
+    /**
+     * The index of the next divergence or correction to use by the single-item benchmarks.
+     */
+    private int nextIndex;
+
+    /**
+     * The correction exposing {@link Correction#toDescriptionString(String)} to the benchmarks.
+     */
+    private @NonNull DescriptionStringProbe probe = new DescriptionStringProbe(
+            TestDivergences.create(UnusedVariableDivergence.class, "", "", ""));
+
+    /**
+     * Generates the synthetic stream of divergences and their corrections.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        divergences = TestDivergences.generate(divergencesCount, involvedElements, divergencesCount / 4);
+        corrections = new Correction[divergencesCount];
+        for (int i = 0; i < divergencesCount; i++) {
+            corrections[i] = CorrectionProvider.getCorrection(divergences.get(i));
+        }
+        nextIndex = 0;
+    }
+
+    /**
+     * Returns the index of the next divergence or correction to use by the single-item benchmarks.
+     * 
+     * @return the index of the next divergence or correction
+     */
+    private int next() {
+        int index = nextIndex;
+        nextIndex = (index + 1) % divergencesCount;
+        return index;
+    }
+
+    /**
+     * Measures {@link CorrectionProvider#getCorrection(Divergence)}, i.e., resolving the factory and constructing the
+     * correction; the involved elements of the divergence are not queried before they are requested.
+     * 
+     * @return the provided correction
+     */
+    @Benchmark
+    public Correction getCorrection() {
+        return CorrectionProvider.getCorrection(divergences.get(next()));
+    }
+
+    /**
+     * Measures {@link Correction#getDescription()} of a new correction; descriptions are memoized per correction.
+     * 
+     * @return the description
+     */
+    @Benchmark
+    public String getDescription() {
+        Correction correction = CorrectionProvider.getCorrection(divergences.get(next()));
+        return correction != null ? correction.getDescription() : null;
+    }
+
+    /**
+     * Measures {@link Correction#getFingerprint()} of a new correction, which the {@link CorrectionCache} computes for
+     * each correction.
+     * 
+     * @return the fingerprint
+     */
+    @Benchmark
+    public long getFingerprint() {
+        Correction correction = CorrectionProvider.getCorrection(divergences.get(next()));
+        return correction != null ? correction.getFingerprint() : 0;
+    }
+
+    /**
+     * Measures {@link Correction#getDescription()} of a new correction, which is restored from a
+     * {@link CorrectionCache} containing the descriptions of all divergences: computing its fingerprint, searching
+     * the mapped cache file, and decoding the cached descriptions. Compared to {@link #getDescription()}, this shows
+     * whether caching descriptions pays off.
+     * 
+     * @param cachedDescriptions the {@link CachedDescriptions} providing the cache
+     * @return the description
+     */
+    @Benchmark
+    public String getCachedDescription(CachedDescriptions cachedDescriptions) {
+        Correction correction = CorrectionProvider.getCorrection(divergences.get(next()));
+        String description = null;
+        if (correction != null) {
+            cachedDescriptions.cache.restore(correction);
+            description = correction.getDescription();
+        }
+        return description;
+    }
+
+    /**
+     * Measures {@link Correction#toDescriptionString(String)} for the involved code elements of a divergence.
+     * 
+     * @return the formatted description string
+     */
+    @Benchmark
+    public String toDescriptionString() {
+        return probe.format(divergences.get(next()).getInvolvedCodeElementsString());
+    }
+
+    /**
+     * Measures {@link Correction#getHeader()} and {@link Correction#getContent()} of a new correction, i.e., rendering
+     * a table row including its description; descriptions are memoized per correction.
+     * 
+     * @param blackhole the {@link Blackhole} consuming the header and content
+     */
+    @Benchmark
+    public void getContentAndHeader(Blackhole blackhole) {
+        Correction correction = CorrectionProvider.getCorrection(divergences.get(next()));
+        if (correction != null) {
+            blackhole.consume(correction.getHeader());
+            blackhole.consume(correction.getContent());
+        }
+    }
+
+    /**
+     * Measures the end-to-end throughput of {@link ProblemSolutionSpaceDivergenceCorrector#execute()}: receiving the
+     * divergences from a {@link StubDetector}, constructing the corrections and rendering their descriptions in the
+     * {@link CorrectionWorkerPool}, and providing each correction as a result, which is rendered as a table row. As
+     * the number of divergences is a parameter, the reported throughput is per stream of {@link #divergencesCount}
+     * divergences.
+     * 
+     * @param pipeline the {@link Pipeline} defining the number of worker threads and the batch size
+     * @param blackhole the {@link Blackhole} consuming the rendered rows
+     * @throws SetUpException if the configuration of the given {@link Pipeline} is invalid
+     */
+    @Benchmark
+    public void execute(Pipeline pipeline, Blackhole blackhole) throws SetUpException {
+        ProblemSolutionSpaceDivergenceCorrector corrector = new ProblemSolutionSpaceDivergenceCorrector(
+                pipeline.config, new StubDetector(pipeline.config, divergences));
+        // Requesting the first result starts the corrector, which starts the detector in turn
+        Correction correction = corrector.getNextResult();
+        while (correction != null) {
+            blackhole.consume(correction.getContent());
+            correction = corrector.getNextResult();
+        }
+    }
+
+    /**
+     * This class defines the configuration of the {@link ProblemSolutionSpaceDivergenceCorrector} in the end-to-end
+     * benchmark. It is a separate state, as only this benchmark depends on the number of worker threads and the batch
+     * size.
+     */
+    @State(Scope.Benchmark)
+    public static class Pipeline {
+
+        /**
+         * The number of worker threads.
+         */
+        @Param({"1", "4"})
+        private int threads;
+
+        /**
+         * The maximum number of divergences received from the {@link StubDetector} and submitted at once.
+         */
+        @Param({"1", "64"})
+        private int batchSize;
+
+        /**
+         * The {@link Configuration} of the corrector defining the {@link #threads} and the {@link #batchSize}.
+         */
+        private Configuration config;
+
+        /**
+         * Creates the {@link #config} with a temporary output and cache directory.
+         * 
+         * @throws IOException if creating the temporary directory fails
+         * @throws SetUpException if creating the configuration fails
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException, SetUpException {
+            File directory = Files.createTempDirectory("pss_corrector_benchmark").toFile();
+            directory.deleteOnExit();
+            Properties properties = new Properties();
+            properties.setProperty(DefaultSettings.OUTPUT_DIR.getKey(), directory.getAbsolutePath());
+            properties.setProperty(DefaultSettings.CACHE_DIR.getKey(), directory.getAbsolutePath());
+            properties.setProperty(CorrectorSettings.THREADS.getKey(), Integer.toString(threads));
+            properties.setProperty(CorrectorSettings.BATCH_SIZE.getKey(), Integer.toString(batchSize));
+            config = new TestConfiguration(properties);
+        }
+
+    }
+
+    /**
+     * This class provides the {@link CorrectionCache} for the benchmark of restoring descriptions. The cache of the
+     * previous run contains the descriptions of all corrections of the benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class CachedDescriptions {
+
+        /**
+         * The signature of the {@link #cache}.
+         */
+        private static final @NonNull String SIGNATURE = "benchmark";
+
+        /**
+         * The temporary cache directory.
+         */
+        private File directory;
+
+        /**
+         * The cache of the current run, which maps the cache of the previous run.
+         */
+        private CorrectionCache cache;
+
+        /**
+         * Writes the descriptions of all corrections of the given benchmark as the cache of the previous run and
+         * creates the {@link #cache} of the current run.
+         * 
+         * @param benchmark the {@link CorrectionBenchmark} providing the corrections
+         * @throws IOException if writing or mapping the cache fails
+         */
+        @Setup(Level.Trial)
+        public void setUp(CorrectionBenchmark benchmark) throws IOException {
+            directory = Files.createTempDirectory("pss_corrector_cache_benchmark").toFile();
+            CorrectionCache previousCache = new CorrectionCache(directory, SIGNATURE, null);
+            for (Correction correction : benchmark.corrections) {
+                previousCache.record(correction);
+            }
+            previousCache.close(new File(directory, "obsolete.csv"));
+            cache = new CorrectionCache(directory, SIGNATURE, null);
+        }
+
+        /**
+         * Discards the {@link #cache} and deletes the temporary cache directory.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cache.discard();
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+
+    }
+
+    /**
+     * This class realizes a divergence detector, which provides a given list of divergences as its results. With a
+     * batch size of 1, it runs in its own thread like the actual detector and passes its results to the corrector via
+     * the result queue of its {@link AnalysisComponent}. Otherwise, the corrector drains it via
+     * {@link BatchResultSource}.
+     */
+    private static class StubDetector extends AnalysisComponent<Divergence> implements BatchResultSource<Divergence> {
+
+        /**
+         * The divergences provided by this detector.
+         */
+        private @NonNull List<@NonNull Divergence> divergences;
+
+        /**
+         * The index of the next divergence provided via {@link #getNextResults(Divergence[])}.
+         */
+        private int nextIndex;
+
+        /**
+         * Creates a {@link StubDetector} instance.
+         * 
+         * @param config the global {@link Configuration}
+         * @param divergences the divergences provided by this detector
+         */
+        private StubDetector(@NonNull Configuration config, @NonNull List<@NonNull Divergence> divergences) {
+            super(config);
+            this.divergences = divergences;
+        }
+
+        @Override
+        public int getNextResults(@Nullable Divergence @NonNull [] results) {
+            int count = Math.min(results.length, divergences.size() - nextIndex);
+            for (int i = 0; i < count; i++) {
+                results[i] = divergences.get(nextIndex++);
+            }
+            return count;
+        }
+
+        @Override
+        protected void execute() {
+            for (Divergence divergence : divergences) {
+                addResult(divergence);
+            }
+        }
+
+        @Override
+        public @NonNull String getResultName() {
+            return "Synthetic Divergences";
+        }
+
+    }
+
+    /**
+     * This class exposes the protected {@link Correction#toDescriptionString(String)} to the benchmarks.
+     */
+    private static class DescriptionStringProbe extends Correction {
+
+        /**
+         * Creates a {@link DescriptionStringProbe} instance.
+         * 
+         * @param divergence the {@link Divergence} required by the super constructor
+         */
+        private DescriptionStringProbe(@NonNull Divergence divergence) {
+            super(divergence);
+        }
+
+        /**
+         * Formats the given involved elements for a correction description.
+         * 
+         * @param involvedElements the string containing whitespace-separated elements
+         * @return the formatted string
+         */
+        private @NonNull String format(@NonNull String involvedElements) {
+            return toDescriptionString(involvedElements);
+        }
+
+        @Override
+        protected @NonNull List<@NonNull String> createAlternativeDescriptions() {
+            return Collections.emptyList();
+        }
+
+    }
+
+}
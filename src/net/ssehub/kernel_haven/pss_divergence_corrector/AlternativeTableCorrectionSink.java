@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionAlternative;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.ValidationResult;
+import net.ssehub.kernel_haven.util.io.ITableCollection;
+import net.ssehub.kernel_haven.util.io.ITableWriter;
+import net.ssehub.kernel_haven.util.io.TableCollectionWriterFactory;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class realizes a {@link CorrectionSink}, which writes each structured alternative of a {@link Correction} (see
+ * {@link Correction#getStructuredAlternatives()}) as a row of a table. Hence, the action, the target artifact, and
+ * the involved elements of each alternative as well as its {@link ValidationResult}, if the correction was validated,
+ * are available as separate columns. Corrections without structured
+ * alternatives are written as a single row with empty action and artifact. The format of the table (e.g., CSV or
+ * Excel) is defined by the file extension of the output file.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class AlternativeTableCorrectionSink implements CorrectionSink {
+
+    /**
+     * The header of the table.
+     */
+    private static final @Nullable Object @NonNull [] HEADER = {"Correction Type", "Fingerprint", "Divergences",
+        "Alternative", "Action", "Artifact", "Variables", "Source Files", "Code Elements", "Validation"};
+
+    /**
+     * The {@link ITableCollection} representing the output file.
+     */
+    private @NonNull ITableCollection tableCollection;
+
+    /**
+     * The {@link ITableWriter} writing the alternatives to the table.
+     */
+    private @NonNull ITableWriter tableWriter;
+
+    /**
+     * Creates an {@link AlternativeTableCorrectionSink} instance.
+     * 
+     * @param outputFile the file to write the table to; its extension defines the format of the table
+     * @param tableName the name of the table, e.g., the name of the sheet in an Excel file
+     * @throws IOException if creating the output file or writing the header fails
+     */
+    AlternativeTableCorrectionSink(@NonNull File outputFile, @NonNull String tableName) throws IOException {
+        tableCollection = TableCollectionWriterFactory.INSTANCE.createCollection(outputFile);
+        tableWriter = tableCollection.getWriter(tableName);
+        tableWriter.writeHeader(HEADER);
+    }
+
+    @Override
+    public void write(@NonNull Correction correction) throws IOException {
+        String correctionType = correction.getCorrectionType();
+        String fingerprint = Long.toHexString(correction.getFingerprint());
+        int divergencesCount = correction.getDivergencesCount();
+        List<@NonNull CorrectionAlternative> alternatives = correction.getStructuredAlternatives();
+        List<@NonNull ValidationResult> validationResults = correction.getValidationResults();
+        if (alternatives.isEmpty()) {
+            tableWriter.writeRow(correctionType, fingerprint, divergencesCount, 1, "", "",
+                    correction.getInvolvedVariablesString(), correction.getInvolvedSourceFilesString(),
+                    correction.getInvolvedCodeElementsString(), "");
+        } else {
+            for (int i = 0; i < alternatives.size(); i++) {
+                CorrectionAlternative alternative = alternatives.get(i);
+                tableWriter.writeRow(correctionType, fingerprint, divergencesCount, i + 1, alternative.getAction(),
+                        alternative.getArtifact(), String.join(" ", alternative.getVariables()),
+                        String.join(" ", alternative.getSourceFiles()),
+                        String.join(" ", alternative.getCodeElements()),
+                        i < validationResults.size() ? validationResults.get(i) : "");
+            }
+        }
+        correction.release();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            tableWriter.close();
+        } finally {
+            tableCollection.close();
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import net.ssehub.kernel_haven.analysis.AnalysisComponent;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This interface extends {@link AnalysisComponent}s by providing their results in batches. The
+ * {@link ProblemSolutionSpaceDivergenceCorrector} drains its divergence detector via this interface, if the detector
+ * implements it and batches are enabled (see {@link CorrectorSettings#BATCH_SIZE}). This amortizes the synchronization
+ * of the result handoff over all results of a batch. Detectors not implementing this interface are drained via
+ * {@link AnalysisComponent#getNextResult()} one result at a time.
+ * 
+ * @param <T> the type of the provided results
+ * 
+ * @author Christian Kröher
+ *
+ */
+public interface BatchResultSource<T> {
+
+    /**
+     * Fills the given array with the next results. This call blocks until at least one result is available or no
+     * more results will be provided.
+     * 
+     * @param results the array to fill starting at index <code>0</code>; its length defines the maximum number of
+     *        returned results
+     * @return the number of results written to the given array; <code>0</code>, if no more results will be provided
+     */
+    int getNextResults(@Nullable T @NonNull [] results);
+
+}
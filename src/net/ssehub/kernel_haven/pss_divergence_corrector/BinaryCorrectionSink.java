@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.BinaryCorrectionWriter;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class realizes a {@link CorrectionSink}, which writes {@link Correction}s to a file of the binary correction
+ * format using a {@link BinaryCorrectionWriter}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class BinaryCorrectionSink implements CorrectionSink {
+
+    /**
+     * The {@link BinaryCorrectionWriter} writing the corrections.
+     */
+    private @NonNull BinaryCorrectionWriter writer;
+
+    /**
+     * Creates a {@link BinaryCorrectionSink} instance.
+     * 
+     * @param outputFile the file to write the corrections to
+     * @param writeDescriptions <code>true</code>, if the description of each correction shall be written, or
+     *        <code>false</code> otherwise
+     * @throws IOException if creating the output file fails
+     */
+    BinaryCorrectionSink(@NonNull File outputFile, boolean writeDescriptions) throws IOException {
+        writer = new BinaryCorrectionWriter(outputFile, writeDescriptions);
+    }
+
+    @Override
+    public void write(@NonNull Correction correction) throws IOException {
+        writer.write(correction);
+        correction.release();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
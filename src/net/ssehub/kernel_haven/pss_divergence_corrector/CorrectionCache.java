@@ -0,0 +1,545 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Fingerprint;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndex;
+import net.ssehub.kernel_haven.util.Logger;
+import net.ssehub.kernel_haven.util.io.ITableCollection;
+import net.ssehub.kernel_haven.util.io.ITableWriter;
+import net.ssehub.kernel_haven.util.io.TableCollectionWriterFactory;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class realizes a persistent cache of the descriptions of {@link Correction}s across analysis runs. The cache is
+ * keyed by the fingerprint of each correction (see {@link Correction#getFingerprint()}), which is derived from the
+ * type and the involved elements of the corrected divergence. Corrections for divergences, which were already corrected
+ * in the previous run, reuse the cached descriptions instead of creating them again. Cached corrections, which are not
+ * requested in the current run, are obsolete; they are reported in a separate table at the end of the run. If the
+ * descriptions contain the locations of the involved variables, each entry stores the digest of these locations (see
+ * {@link LocationIndex#getDigest(String)}). An entry is only restored, if this digest is equal to the digest of the
+ * current locations; hence, a changed location only invalidates the entries of its variable.<br>
+ * <br>
+ * A cache file consists of the {@link #MAGIC} number and the signature of the cache, the entries (the digest of the
+ * locations of the involved variables of a correction, the number of alternative descriptions followed by each
+ * description as its length in bytes and its UTF-8 encoding), the index (the sorted fingerprints of all entries
+ * followed by the offsets of their entries in the same order), and the footer (the offset of the index, the number
+ * of entries, and the {@link #MAGIC} number).<br>
+ * <br>
+ * The cache file of the previous run is mapped into memory when creating an instance of this class; an entry is only
+ * decoded, if a binary search of the index finds the fingerprint of a requested correction. Hence, the heap required
+ * for the previous run is independent of its size. The cache of the current run is written sequentially to a
+ * temporary file; only the fingerprints and offsets of its entries are kept in memory for writing the index in
+ * {@link #close(File)}, which replaces the previous cache file by the temporary file. The cache is discarded, if its
+ * signature (e.g., the settings affecting the descriptions) changed. Cache files larger than 2 GB are discarded as
+ * well.
+ *
+ * @author Christian Kröher
+ *
+ */
+class CorrectionCache {
+
+    /**
+     * The {@link Logger} for logging problems with the cache file.
+     */
+    private static final @NonNull Logger LOGGER = Logger.get();
+
+    /**
+     * The magic number identifying cache files ("PSCC" in ASCII).
+     */
+    private static final int MAGIC = 0x50534343;
+
+    /**
+     * The size of the footer of cache files in bytes.
+     */
+    private static final int FOOTER_SIZE = 8 + 4 + 4;
+
+    /**
+     * The name of the cache file in the cache directory.
+     */
+    private static final @NonNull String CACHE_FILE_NAME = "pss_corrections.cache";
+
+    /**
+     * The cache file.
+     */
+    private @NonNull File cacheFile;
+
+    /**
+     * The temporary file the cache of the current run is written to.
+     */
+    private @NonNull File temporaryCacheFile;
+
+    /**
+     * The stream writing the cache of the current run to the {@link #temporaryCacheFile}.
+     */
+    private @NonNull DataOutputStream cacheOutputStream;
+
+    /**
+     * The number of bytes written to the {@link #cacheOutputStream} so far.
+     */
+    private long position;
+
+    /**
+     * The signature of this cache; cache files with a different signature are discarded.
+     */
+    private @NonNull String signature;
+
+    /**
+     * The {@link LocationIndex} providing the locations in the descriptions of the corrections; is <code>null</code>,
+     * if the descriptions do not contain locations.
+     */
+    private @Nullable LocationIndex locationIndex;
+
+    /**
+     * The {@link RandomAccessFile} providing the mapped cache file of the previous run; is <code>null</code>, if no
+     * valid cache file of the previous run exists.
+     */
+    private @Nullable RandomAccessFile previousFile;
+
+    /**
+     * The content of the mapped cache file of the previous run; is <code>null</code>, if no valid cache file of the
+     * previous run exists.
+     */
+    private @Nullable ByteBuffer previousCache;
+
+    /**
+     * The offset of the index in the cache file of the previous run.
+     */
+    private int previousIndexOffset;
+
+    /**
+     * The number of entries in the cache file of the previous run.
+     */
+    private int previousCount;
+
+    /**
+     * The fingerprints of the corrections recorded in the current run; only the first {@link #recordedCounter}
+     * elements are valid.
+     */
+    private long @NonNull [] recordedFingerprints;
+
+    /**
+     * The offsets of the entries of the corrections recorded in the current run in the same order as the
+     * {@link #recordedFingerprints}.
+     */
+    private int @NonNull [] recordedOffsets;
+
+    /**
+     * The number of corrections recorded in the current run.
+     */
+    private int recordedCounter;
+
+    /**
+     * The number of corrections, which reused cached descriptions of the previous run.
+     */
+    private @NonNull AtomicInteger reusedCounter;
+
+    /**
+     * The number of corrections, which were cached in the previous run, but not reused as their locations changed.
+     */
+    private @NonNull AtomicInteger outdatedCounter;
+
+    /**
+     * Creates a {@link CorrectionCache} instance, which maps the cache of the previous run from the given directory.
+     *
+     * @param cacheDirectory the directory containing the cache file
+     * @param signature the signature of the cache; a cache file with a different signature is discarded
+     * @param locationIndex the {@link LocationIndex} providing the locations in the descriptions of the corrections;
+     *        may be <code>null</code>, if the descriptions do not contain locations
+     * @throws IOException if creating the temporary cache file fails
+     */
+    CorrectionCache(@NonNull File cacheDirectory, @NonNull String signature, @Nullable LocationIndex locationIndex)
+            throws IOException {
+        this.signature = signature;
+        this.locationIndex = locationIndex;
+        cacheFile = new File(cacheDirectory, CACHE_FILE_NAME);
+        load();
+        recordedFingerprints = new long[1024];
+        recordedOffsets = new int[1024];
+        recordedCounter = 0;
+        reusedCounter = new AtomicInteger(0);
+        outdatedCounter = new AtomicInteger(0);
+        temporaryCacheFile = File.createTempFile(CACHE_FILE_NAME, ".tmp", cacheDirectory);
+        cacheOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryCacheFile),
+                1 << 16));
+        position = 0;
+        cacheOutputStream.writeInt(MAGIC);
+        position += 4;
+        writeString(signature);
+    }
+
+    /**
+     * Restores the descriptions of the given {@link Correction} from the cache of the previous run, if available and
+     * the locations of its involved variables did not change. This method is thread-safe.
+     *
+     * @param correction the {@link Correction} to restore
+     * @return <code>true</code>, if the descriptions of the given correction were restored, or <code>false</code>, if
+     *         the cache does not contain the given correction or the locations of its involved variables changed
+     */
+    boolean restore(@NonNull Correction correction) {
+        ByteBuffer cache = previousCache;
+        boolean restored = false;
+        if (cache != null) {
+            int entryOffset = find(cache, correction.getFingerprint());
+            if (entryOffset >= 0) {
+                try {
+                    if (cache.getLong(entryOffset) == getLocationDigest(correction)) {
+                        correction.restoreAlternativeDescriptions(readEntry(cache, entryOffset));
+                        reusedCounter.incrementAndGet();
+                        restored = true;
+                    } else {
+                        outdatedCounter.incrementAndGet();
+                    }
+                } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                    LOGGER.logException("Correction cache " + cacheFile.getAbsolutePath() + " is corrupt", e);
+                }
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Records the given {@link Correction} in the cache of the current run. This method must only be called by a
+     * single thread and before the given correction is merged with other corrections.
+     *
+     * @param correction the {@link Correction} to record
+     * @throws IOException if writing the correction to the temporary cache file fails or the cache exceeds 2 GB
+     */
+    void record(@NonNull Correction correction) throws IOException {
+        if (position > Integer.MAX_VALUE) {
+            // Larger cache files cannot be mapped and would be discarded by the next run anyway
+            throw new IOException("Correction cache exceeds 2 GB");
+        }
+        if (recordedCounter == recordedFingerprints.length) {
+            recordedFingerprints = Arrays.copyOf(recordedFingerprints, recordedCounter * 2);
+            recordedOffsets = Arrays.copyOf(recordedOffsets, recordedCounter * 2);
+        }
+        recordedFingerprints[recordedCounter] = correction.getFingerprint();
+        recordedOffsets[recordedCounter] = (int) position;
+        recordedCounter++;
+        cacheOutputStream.writeLong(getLocationDigest(correction));
+        List<@NonNull String> alternativeDescriptions = correction.getAlternativeDescriptions();
+        cacheOutputStream.writeInt(alternativeDescriptions.size());
+        position += 8 + 4;
+        for (String alternativeDescription : alternativeDescriptions) {
+            writeString(alternativeDescription);
+        }
+    }
+
+    /**
+     * Finishes the cache of the current run, which replaces the cache of the previous run, and writes the obsolete
+     * corrections to the given file.
+     *
+     * @param obsoleteCorrectionsFile the table file to write the obsolete corrections to; this file is only created,
+     *        if obsolete corrections exist
+     * @return the number of obsolete corrections
+     * @throws IOException if writing the cache or the obsolete corrections fails
+     */
+    int close(@NonNull File obsoleteCorrectionsFile) throws IOException {
+        int obsoleteCounter;
+        try {
+            try {
+                writeIndex();
+            } finally {
+                cacheOutputStream.close();
+            }
+            obsoleteCounter = writeObsoleteCorrections(obsoleteCorrectionsFile);
+        } finally {
+            // The previous cache file must not be mapped anymore, when it is replaced
+            closePreviousCache();
+        }
+        Files.move(temporaryCacheFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        LOGGER.logInfo2("Correction cache: ", reusedCounter.get(), " of ", recordedCounter,
+                " corrections reused from previous run, ", outdatedCounter.get(), " described again due to changed "
+                + "locations");
+        return obsoleteCounter;
+    }
+
+    /**
+     * Discards the cache of the current run without replacing the cache of the previous run.
+     */
+    void discard() {
+        try {
+            cacheOutputStream.close();
+        } catch (IOException e) {
+            LOGGER.logException("Closing temporary correction cache failed", e);
+        }
+        if (!temporaryCacheFile.delete()) {
+            LOGGER.logWarning2("Cannot delete temporary correction cache ", temporaryCacheFile.getAbsolutePath());
+        }
+        closePreviousCache();
+    }
+
+    /**
+     * Sorts the recorded fingerprints, removes duplicate fingerprints, and writes the index and the footer to the
+     * {@link #cacheOutputStream}. Afterwards, the {@link #recordedCounter} is the number of distinct fingerprints.
+     *
+     * @throws IOException if writing fails
+     */
+    private void writeIndex() throws IOException {
+        // Equal fingerprints are ordered by their offsets
+        Fingerprint.sort(recordedFingerprints, recordedOffsets, recordedCounter);
+        int distinctCounter = 0;
+        for (int i = 0; i < recordedCounter; i++) {
+            // The first (earliest written) entry of equal fingerprints is kept
+            if (distinctCounter == 0 || recordedFingerprints[i] != recordedFingerprints[distinctCounter - 1]) {
+                recordedFingerprints[distinctCounter] = recordedFingerprints[i];
+                recordedOffsets[distinctCounter] = recordedOffsets[i];
+                distinctCounter++;
+            }
+        }
+        recordedCounter = distinctCounter;
+        long indexOffset = position;
+        for (int i = 0; i < recordedCounter; i++) {
+            cacheOutputStream.writeLong(recordedFingerprints[i]);
+        }
+        for (int i = 0; i < recordedCounter; i++) {
+            cacheOutputStream.writeLong(recordedOffsets[i]);
+        }
+        cacheOutputStream.writeLong(indexOffset);
+        cacheOutputStream.writeInt(recordedCounter);
+        cacheOutputStream.writeInt(MAGIC);
+        position += 16L * recordedCounter + FOOTER_SIZE;
+    }
+
+    /**
+     * Writes the entries of the cache of the previous run, which were not recorded in the current run, to the given
+     * file. The obsolete entries are found by a single pass over both sorted sets of fingerprints. This method must be
+     * called after {@link #writeIndex()}.
+     *
+     * @param obsoleteCorrectionsFile the table file to write the obsolete corrections to; this file is only created,
+     *        if obsolete corrections exist
+     * @return the number of obsolete corrections
+     * @throws IOException if writing the obsolete corrections fails
+     */
+    private int writeObsoleteCorrections(@NonNull File obsoleteCorrectionsFile) throws IOException {
+        int obsoleteCounter = 0;
+        ByteBuffer cache = previousCache;
+        if (cache != null) {
+            ITableCollection tableCollection = null;
+            ITableWriter tableWriter = null;
+            try {
+                int recordedIndex = 0;
+                for (int i = 0; i < previousCount; i++) {
+                    long previousFingerprint = cache.getLong(previousIndexOffset + 8 * i);
+                    while (recordedIndex < recordedCounter
+                            && recordedFingerprints[recordedIndex] < previousFingerprint) {
+                        recordedIndex++;
+                    }
+                    if (recordedIndex == recordedCounter
+                            || recordedFingerprints[recordedIndex] != previousFingerprint) {
+                        if (tableWriter == null) {
+                            tableCollection = TableCollectionWriterFactory.INSTANCE
+                                    .createCollection(obsoleteCorrectionsFile);
+                            tableWriter = tableCollection.getWriter("PSS_Obsolete_Corrections");
+                            tableWriter.writeHeader("Fingerprint", "Correction");
+                        }
+                        int entryOffset = (int) cache.getLong(previousIndexOffset + 8 * (previousCount + i));
+                        tableWriter.writeRow(Long.toHexString(previousFingerprint),
+                                String.join("\nOR\n", readEntry(cache, entryOffset)));
+                        obsoleteCounter++;
+                    }
+                }
+            } finally {
+                if (tableWriter != null) {
+                    tableWriter.close();
+                }
+                if (tableCollection != null) {
+                    tableCollection.close();
+                }
+            }
+        }
+        return obsoleteCounter;
+    }
+
+    /**
+     * Maps the cache of the previous run from the {@link #cacheFile}, if it exists and its signature is equal to the
+     * {@link #signature}. Otherwise, the {@link #previousCache} remains <code>null</code>.
+     */
+    private void load() {
+        if (cacheFile.isFile()) {
+            RandomAccessFile file = null;
+            try {
+                file = new RandomAccessFile(cacheFile, "r");
+                long fileSize = file.length();
+                if (fileSize > Integer.MAX_VALUE) {
+                    throw new IOException("Correction cache is larger than 2 GB");
+                }
+                ByteBuffer cache = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+                if (isValid(cache)) {
+                    int footerOffset = cache.limit() - FOOTER_SIZE;
+                    previousIndexOffset = (int) cache.getLong(footerOffset);
+                    previousCount = cache.getInt(footerOffset + 8);
+                    previousCache = cache;
+                    previousFile = file;
+                    file = null;
+                } else {
+                    LOGGER.logInfo2("Correction cache ", cacheFile.getAbsolutePath(),
+                            " was created with different settings and is discarded");
+                }
+            } catch (IOException e) {
+                LOGGER.logException("Reading correction cache " + cacheFile.getAbsolutePath() + " failed", e);
+            } finally {
+                if (file != null) {
+                    try {
+                        file.close();
+                    } catch (IOException e) {
+                        LOGGER.logException("Closing correction cache " + cacheFile.getAbsolutePath() + " failed", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given mapped cache file is complete and has the {@link #signature} of this cache.
+     *
+     * @param cache the mapped cache file
+     * @return <code>true</code>, if the given cache file is valid, <code>false</code> otherwise
+     */
+    private boolean isValid(@NonNull ByteBuffer cache) {
+        byte[] encodedSignature = signature.getBytes(StandardCharsets.UTF_8);
+        int headerSize = 4 + 4 + encodedSignature.length;
+        boolean valid = cache.limit() >= headerSize + FOOTER_SIZE && cache.getInt(0) == MAGIC
+                && cache.getInt(cache.limit() - 4) == MAGIC && cache.getInt(4) == encodedSignature.length;
+        if (valid) {
+            ByteBuffer header = cache.duplicate();
+            header.position(8);
+            header.limit(headerSize);
+            valid = header.equals(ByteBuffer.wrap(encodedSignature));
+        }
+        if (valid) {
+            int footerOffset = cache.limit() - FOOTER_SIZE;
+            long indexOffset = cache.getLong(footerOffset);
+            int count = cache.getInt(footerOffset + 8);
+            valid = indexOffset >= headerSize && count >= 0 && indexOffset + 16L * count == footerOffset;
+        }
+        return valid;
+    }
+
+    /**
+     * Closes the mapped cache file of the previous run, if it is available.
+     */
+    private void closePreviousCache() {
+        RandomAccessFile file = previousFile;
+        previousCache = null;
+        previousFile = null;
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                LOGGER.logException("Closing correction cache " + cacheFile.getAbsolutePath() + " failed", e);
+            }
+        }
+    }
+
+    /**
+     * Searches the index of the given mapped cache file for the given fingerprint.
+     *
+     * @param cache the mapped cache file of the previous run
+     * @param fingerprint the fingerprint to search for
+     * @return the offset of the entry with the given fingerprint or <code>-1</code>, if the cache file does not contain
+     *         the given fingerprint
+     */
+    private int find(@NonNull ByteBuffer cache, long fingerprint) {
+        int entryOffset = -1;
+        int low = 0;
+        int high = previousCount - 1;
+        while (low <= high && entryOffset < 0) {
+            int middle = (low + high) >>> 1;
+            long middleFingerprint = cache.getLong(previousIndexOffset + 8 * middle);
+            if (middleFingerprint < fingerprint) {
+                low = middle + 1;
+            } else if (middleFingerprint > fingerprint) {
+                high = middle - 1;
+            } else {
+                entryOffset = (int) cache.getLong(previousIndexOffset + 8 * (previousCount + middle));
+            }
+        }
+        return entryOffset;
+    }
+
+    /**
+     * Computes the digest of the locations of the involved variables of the given {@link Correction}.
+     *
+     * @param correction the {@link Correction} to compute the digest for
+     * @return the digest of the locations of the involved variables; is <code>0</code>, if the {@link #locationIndex}
+     *         is not available
+     */
+    private long getLocationDigest(@NonNull Correction correction) {
+        LocationIndex index = locationIndex;
+        long digest = 0;
+        if (index != null) {
+            for (String variable : correction.getInvolvedVariables()) {
+                digest = digest * 31 + index.getDigest(variable);
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * Decodes the alternative descriptions of the entry at the given offset of the given mapped cache file.
+     *
+     * @param cache the mapped cache file of the previous run
+     * @param entryOffset the offset of the entry
+     * @return the unmodifiable list of alternative descriptions
+     */
+    private static @NonNull List<@NonNull String> readEntry(@NonNull ByteBuffer cache, int entryOffset) {
+        ByteBuffer entry = cache.duplicate();
+        // Skip the digest of the locations
+        entry.position(entryOffset + 8);
+        int alternativesCount = entry.getInt();
+        List<@NonNull String> alternativeDescriptions = new ArrayList<>(alternativesCount);
+        for (int i = 0; i < alternativesCount; i++) {
+            byte[] encodedDescription = new byte[entry.getInt()];
+            entry.get(encodedDescription);
+            alternativeDescriptions.add(new String(encodedDescription, StandardCharsets.UTF_8));
+        }
+        return Collections.unmodifiableList(alternativeDescriptions);
+    }
+
+    /**
+     * Writes the given string as its length in bytes followed by its UTF-8 encoding to the
+     * {@link #cacheOutputStream}.
+     *
+     * @param string the string to write
+     * @throws IOException if writing fails
+     */
+    private void writeString(@NonNull String string) throws IOException {
+        byte[] encodedString = string.getBytes(StandardCharsets.UTF_8);
+        cacheOutputStream.writeInt(encodedString.length);
+        cacheOutputStream.write(encodedString);
+        position += 4 + encodedString.length;
+    }
+
+}
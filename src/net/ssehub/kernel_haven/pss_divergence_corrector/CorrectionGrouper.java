@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class merges {@link Correction}s of the same type, which share a common element as defined by a
+ * {@link GroupingMode}, into a single, aggregated correction. The aggregated corrections are passed to the given
+ * consumer in the order in which their groups were encountered first, when {@link #flush()} is called.<br>
+ * <br>
+ * Each grouped element, e.g., each involved source file in {@link GroupingMode#SOURCE_FILE}, identifies a group on its
+ * own. A correction involving multiple elements joins the groups of all its elements; if these are different groups,
+ * they are merged into the group encountered first. Hence, the groups are the connected components of corrections
+ * sharing elements: corrections involving <code>a.c b.c</code> and <code>a.c</code> are merged as well as corrections
+ * involving <code>a.c</code>, <code>a.c b.c</code>, and <code>b.c</code>. The key of a group is the distinct, sorted
+ * elements of its aggregated correction (see {@link #normalize(List)}). Corrections without any grouped element, e.g.,
+ * a correction without involved source files in {@link GroupingMode#SOURCE_FILE}, do not share anything with other
+ * corrections and are passed to the consumer directly without being merged.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class CorrectionGrouper {
+
+    /**
+     * The separator between the type of a correction and a grouped element in the keys of the {@link #elementGroups}.
+     */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * The {@link GroupingMode} defining which corrections are merged.
+     */
+    private @NonNull GroupingMode mode;
+
+    /**
+     * The consumer receiving the aggregated corrections.
+     */
+    private @NonNull Consumer<@NonNull Correction> consumer;
+
+    /**
+     * The groups in the order of their creation. Groups merged into an earlier group remain in this list, but do not
+     * aggregate a correction anymore.
+     */
+    private @NonNull List<@NonNull Group> groups;
+
+    /**
+     * The group of each grouped element identified by the type of its corrections and the element. The mapped group
+     * may have been merged into another group afterwards (see {@link Group#find()}).
+     */
+    private @NonNull Map<String, Group> elementGroups;
+
+    /**
+     * Creates a {@link CorrectionGrouper} instance.
+     * 
+     * @param mode the {@link GroupingMode} defining which corrections are merged; must not be
+     *        {@link GroupingMode#NONE}
+     * @param consumer the consumer receiving the aggregated corrections
+     */
+    CorrectionGrouper(@NonNull GroupingMode mode, @NonNull Consumer<@NonNull Correction> consumer) {
+        this.mode = mode;
+        this.consumer = consumer;
+        groups = new ArrayList<>();
+        elementGroups = new HashMap<>();
+    }
+
+    /**
+     * Adds the given {@link Correction} to the groups of its grouped elements. If none of its elements belongs to a
+     * group yet, the given correction becomes the aggregated correction of a new group. Otherwise, the given
+     * correction and all other groups of its elements are merged into the group encountered first. If the given
+     * correction does not have a grouped element, it is passed to the consumer directly.
+     * 
+     * @param correction the {@link Correction} to add
+     */
+    void add(@NonNull Correction correction) {
+        List<@NonNull String> groupedElements = getGroupedElements(correction);
+        if (groupedElements.isEmpty()) {
+            // Written with the aggregation columns like all other corrections, but with an empty group
+            correction.setGroupKey("");
+            consumer.accept(correction);
+        } else {
+            String keyPrefix = correction.getCorrectionType() + KEY_SEPARATOR;
+            Group target = null;
+            for (String element : groupedElements) {
+                Group group = elementGroups.get(keyPrefix + element);
+                if (group != null) {
+                    group = group.find();
+                    if (target == null) {
+                        target = group;
+                    } else if (group != target) {
+                        target = Group.union(target, group);
+                    }
+                }
+            }
+            if (target == null) {
+                target = new Group(correction, groups.size());
+                groups.add(target);
+            } else {
+                Correction aggregatedCorrection = target.aggregatedCorrection;
+                if (aggregatedCorrection != null) {
+                    aggregatedCorrection.merge(correction);
+                }
+            }
+            for (String element : groupedElements) {
+                elementGroups.put(keyPrefix + element, target);
+            }
+        }
+    }
+
+    /**
+     * Passes all aggregated corrections to the consumer and clears all groups.
+     */
+    void flush() {
+        for (Group group : groups) {
+            Correction aggregatedCorrection = group.aggregatedCorrection;
+            if (aggregatedCorrection != null) {
+                aggregatedCorrection.setGroupKey(normalize(getGroupedElements(aggregatedCorrection)));
+                consumer.accept(aggregatedCorrection);
+            }
+        }
+        groups.clear();
+        elementGroups.clear();
+    }
+
+    /**
+     * Returns the elements of the given {@link Correction}, which identify its groups (in combination with its type).
+     * 
+     * @param correction the {@link Correction} for which the grouped elements shall be returned
+     * @return the grouped elements of the given correction; can be <i>empty</i>
+     */
+    private @NonNull List<@NonNull String> getGroupedElements(@NonNull Correction correction) {
+        List<@NonNull String> groupedElements;
+        switch (mode) {
+        case VARIABLE:
+            groupedElements = correction.getInvolvedVariables();
+            break;
+        case SOURCE_FILE:
+            groupedElements = correction.getInvolvedSourceFiles();
+            break;
+        default:
+            groupedElements = Collections.singletonList(correction.getCorrectionType());
+            break;
+        }
+        return groupedElements;
+    }
+
+    /**
+     * Normalizes the given elements to a key, which is independent of their order and duplicates.
+     * 
+     * @param elements the elements to normalize
+     * @return the distinct, sorted, and whitespace-separated elements; <i>empty</i>, if no elements are given
+     */
+    static @NonNull String normalize(@NonNull List<@NonNull String> elements) {
+        String key;
+        if (elements.isEmpty()) {
+            key = "";
+        } else if (elements.size() == 1) {
+            key = elements.get(0);
+        } else {
+            key = String.join(" ", new TreeSet<>(elements));
+        }
+        return key;
+    }
+
+    /**
+     * This class represents a group of merged corrections. Merging two groups keeps the group created first and
+     * links the other group to it, like the union operation of a disjoint-set forest.
+     * 
+     * @author Christian Kröher
+     *
+     */
+    private static class Group {
+
+        /**
+         * The correction aggregating all corrections of this group; is <code>null</code>, if this group was merged
+         * into another group.
+         */
+        private @Nullable Correction aggregatedCorrection;
+
+        /**
+         * The index of this group in the order of creation.
+         */
+        private int index;
+
+        /**
+         * The group this group was merged into; is <code>null</code>, if this group was not merged.
+         */
+        private @Nullable Group mergedInto;
+
+        /**
+         * Creates a {@link Group} instance.
+         * 
+         * @param aggregatedCorrection the first correction of this group
+         * @param index the index of this group in the order of creation
+         */
+        private Group(@NonNull Correction aggregatedCorrection, int index) {
+            this.aggregatedCorrection = aggregatedCorrection;
+            this.index = index;
+        }
+
+        /**
+         * Returns the group, which currently aggregates the corrections of this group. Links on the way are
+         * shortened to that group.
+         * 
+         * @return this group or the group this group was merged into (directly or indirectly)
+         */
+        private @NonNull Group find() {
+            Group root = this;
+            Group next = root.mergedInto;
+            while (next != null) {
+                root = next;
+                next = root.mergedInto;
+            }
+            Group current = this;
+            while (current != root) {
+                next = current.mergedInto;
+                current.mergedInto = root;
+                current = next;
+            }
+            return root;
+        }
+
+        /**
+         * Merges the given, distinct groups into the group created first.
+         * 
+         * @param first the first group to merge; must not have been merged into another group
+         * @param second the second group to merge; must not have been merged into another group
+         * @return the group, which aggregates the corrections of both groups
+         */
+        private static @NonNull Group union(@NonNull Group first, @NonNull Group second) {
+            Group target = first.index < second.index ? first : second;
+            Group source = target == first ? second : first;
+            Correction targetCorrection = target.aggregatedCorrection;
+            Correction sourceCorrection = source.aggregatedCorrection;
+            if (targetCorrection != null && sourceCorrection != null) {
+                targetCorrection.merge(sourceCorrection);
+            }
+            source.aggregatedCorrection = null;
+            source.mergedInto = target;
+            return target;
+        }
+
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class keeps the {@link Correction}s with the highest scores as defined by a {@link RankingCriterion}. The
+ * corrections are kept in a bounded min-heap, which holds at most the given number of corrections; a new correction
+ * replaces the correction with the lowest score, if its score is higher. Hence, the memory required by this class
+ * depends on the number of kept corrections instead of the number of added corrections. The kept corrections are
+ * passed to the given consumer in descending order of their scores, when {@link #flush()} is called. Corrections with
+ * equal scores are kept and passed in the order in which they were added.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class CorrectionRanker {
+
+    /**
+     * The order of {@link RankedCorrection}s by their ranks, i.e., the highest score and the earliest sequence number
+     * first.
+     */
+    private static final @NonNull Comparator<RankedCorrection> RANK_ORDER = (first, second) -> {
+        int order = Long.compare(second.score, first.score);
+        return order != 0 ? order : Long.compare(first.sequenceNumber, second.sequenceNumber);
+    };
+
+    /**
+     * The {@link RankingCriterion} defining the scores of the corrections.
+     */
+    private @NonNull RankingCriterion criterion;
+
+    /**
+     * The maximum number of kept corrections.
+     */
+    private int capacity;
+
+    /**
+     * The consumer receiving the kept corrections.
+     */
+    private @NonNull Consumer<@NonNull Correction> consumer;
+
+    /**
+     * The kept corrections with the lowest ranked correction at the head.
+     */
+    private @NonNull PriorityQueue<RankedCorrection> keptCorrections;
+
+    /**
+     * The number of corrections added so far; also serves as the sequence number of the next added correction.
+     */
+    private long addedCounter;
+
+    /**
+     * Creates a {@link CorrectionRanker} instance.
+     * 
+     * @param criterion the {@link RankingCriterion} defining the scores of the corrections; must not be
+     *        {@link RankingCriterion#NONE}
+     * @param capacity the maximum number of kept corrections; must be greater than <code>0</code>
+     * @param consumer the consumer receiving the kept corrections
+     */
+    CorrectionRanker(@NonNull RankingCriterion criterion, int capacity,
+            @NonNull Consumer<@NonNull Correction> consumer) {
+        this.criterion = criterion;
+        this.capacity = capacity;
+        this.consumer = consumer;
+        // The heap never grows beyond its capacity; hence, do not allocate more than needed for small streams
+        keptCorrections = new PriorityQueue<>(Math.min(capacity, 1024) + 1, RANK_ORDER.reversed());
+        addedCounter = 0;
+    }
+
+    /**
+     * Adds the given {@link Correction}. It is kept, if less than the maximum number of corrections are kept or its
+     * score is higher than the lowest score of the kept corrections. In the latter case, the correction with the
+     * lowest score is released (see {@link Correction#release()}). Otherwise, the given correction is released.
+     * 
+     * @param correction the {@link Correction} to add
+     */
+    void add(@NonNull Correction correction) {
+        RankedCorrection rankedCorrection = new RankedCorrection(correction, getScore(correction), addedCounter++);
+        if (keptCorrections.size() < capacity) {
+            keptCorrections.add(rankedCorrection);
+        } else if (rankedCorrection.score > keptCorrections.peek().score) {
+            keptCorrections.poll().correction.release();
+            keptCorrections.add(rankedCorrection);
+        } else {
+            correction.release();
+        }
+    }
+
+    /**
+     * Passes all kept corrections to the consumer in descending order of their scores and clears the kept
+     * corrections.
+     */
+    void flush() {
+        RankedCorrection[] rankedCorrections = keptCorrections.toArray(new RankedCorrection[keptCorrections.size()]);
+        keptCorrections.clear();
+        Arrays.sort(rankedCorrections, RANK_ORDER);
+        for (RankedCorrection rankedCorrection : rankedCorrections) {
+            consumer.accept(rankedCorrection.correction);
+        }
+    }
+
+    /**
+     * Returns the number of corrections added so far.
+     * 
+     * @return the number of added corrections
+     */
+    long getAddedCount() {
+        return addedCounter;
+    }
+
+    /**
+     * Returns the score of the given {@link Correction} as defined by the {@link #criterion}.
+     * 
+     * @param correction the {@link Correction} for which the score shall be returned
+     * @return the score of the given correction; higher scores are ranked first
+     */
+    private long getScore(@NonNull Correction correction) {
+        long score;
+        switch (criterion) {
+        case CODE_ELEMENTS:
+            score = correction.getInvolvedCodeElementsCount();
+            break;
+        case SOURCE_FILES:
+            score = correction.getInvolvedSourceFilesCount();
+            break;
+        case VARIABLES:
+            score = correction.getInvolvedVariablesCount();
+            break;
+        case DIVERGENCES:
+            score = correction.getDivergencesCount();
+            break;
+        default:
+            score = (long) correction.getInvolvedVariablesCount() + correction.getInvolvedSourceFilesCount()
+                    + correction.getInvolvedCodeElementsCount();
+            break;
+        }
+        return score;
+    }
+
+    /**
+     * This class represents a kept {@link Correction} together with its score and sequence number.
+     */
+    private static class RankedCorrection {
+
+        /**
+         * The kept {@link Correction}.
+         */
+        private @NonNull Correction correction;
+
+        /**
+         * The score of the {@link #correction}.
+         */
+        private long score;
+
+        /**
+         * The sequence number of the {@link #correction}, which breaks ties between equal scores.
+         */
+        private long sequenceNumber;
+
+        /**
+         * Creates a {@link RankedCorrection} instance.
+         * 
+         * @param correction the kept {@link Correction}
+         * @param score the score of the given correction
+         * @param sequenceNumber the sequence number of the given correction
+         */
+        private RankedCorrection(@NonNull Correction correction, long score, long sequenceNumber) {
+            this.correction = correction;
+            this.score = score;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This interface defines a sink, which writes {@link Correction}s directly to an output as soon as they are provided
+ * instead of passing them to the next analysis component. A sink releases each written correction (see
+ * {@link Correction#release()}). Hence, the memory required by the corrector does not depend on the number of
+ * provided corrections.
+ * 
+ * @author Christian Kröher
+ *
+ */
+interface CorrectionSink extends Closeable {
+
+    /**
+     * Writes the given {@link Correction} to the output of this sink and releases it afterwards.
+     * 
+     * @param correction the {@link Correction} to write
+     * @throws IOException if writing the correction fails
+     */
+    void write(@NonNull Correction correction) throws IOException;
+
+}
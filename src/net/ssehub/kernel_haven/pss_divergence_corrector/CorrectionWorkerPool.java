@@ -0,0 +1,400 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.util.Logger;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class constructs {@link Correction}s for submitted {@link Divergence}s using a pool of worker threads. The
+ * constructed corrections are always passed to the given consumer in the thread, which submits the divergences or
+ * calls {@link #finish()}. Hence, the consumer does not need to be thread-safe.<br>
+ * <br>
+ * Divergences are submitted either one by one via {@link #submit(Divergence)} or in chunks via
+ * {@link #submitAll(Divergence[], int)}. Each submission results in a single task of the worker threads; hence,
+ * submitting chunks amortizes the synchronization and the thread wake-ups per task over all divergences of a chunk.
+ * <br>
+ * <br>
+ * The number of divergences in progress is bounded by a capacity. If this capacity is reached, submitting blocks
+ * until enough corrections are available. This back-pressure prevents the divergence detector from filling the heap
+ * with divergences, which cannot be corrected fast enough.
+ * 
+ * @author Christian Kröher
+ * 
+ */
+class CorrectionWorkerPool {
+
+    /**
+     * The {@link Logger} for logging failed constructions of corrections.
+     */
+    private static final @NonNull Logger LOGGER = Logger.get();
+
+    /**
+     * The {@link ForkJoinPool} executing the construction of corrections; is <code>null</code>, if only a single
+     * thread is requested and, hence, all corrections are constructed directly in the submitting thread.
+     */
+    private @Nullable ForkJoinPool executor;
+
+    /**
+     * The maximum number of divergences in progress at the same time.
+     */
+    private int capacity;
+
+    /**
+     * The function constructing the correction for a given divergence; returns <code>null</code>, if no correction is
+     * available for the given divergence. This function is called by the worker threads concurrently.
+     */
+    private @NonNull Function<@NonNull Divergence, @Nullable Correction> constructor;
+
+    /**
+     * The consumer receiving the constructed (non-<code>null</code>) corrections.
+     */
+    private @NonNull Consumer<@NonNull Correction> consumer;
+
+    /**
+     * The pending chunks in the order of their submission; only used in ordered mode.
+     */
+    private @NonNull Queue<Chunk> pendingChunks;
+
+    /**
+     * The {@link CompletionService} providing the constructed chunks in the order of their completion; only used in
+     * unordered mode.
+     */
+    private @Nullable CompletionService<Chunk> completionService;
+
+    /**
+     * The number of submitted chunks, which are not passed to the {@link #consumer} yet; only used in unordered mode.
+     */
+    private int inProgressChunksCounter;
+
+    /**
+     * The number of submitted divergences, whose corrections are not passed to the {@link #consumer} yet.
+     */
+    private int inProgressCounter;
+
+    /**
+     * Creates a {@link CorrectionWorkerPool} instance.
+     * 
+     * @param threads the number of worker threads; values less than or equal to <code>1</code> result in constructing
+     *        all corrections directly in the submitting thread
+     * @param capacity the maximum number of divergences in progress at the same time; values less than
+     *        <code>1</code> are treated as <code>1</code>
+     * @param ordered <code>true</code>, if the corrections shall be passed to the consumer in the order of the
+     *        submitted divergences, or <code>false</code>, if they shall be passed in the order of their completion
+     * @param constructor the thread-safe function constructing the correction for a given divergence
+     * @param consumer the consumer receiving the constructed corrections
+     */
+    CorrectionWorkerPool(int threads, int capacity, boolean ordered,
+            @NonNull Function<@NonNull Divergence, @Nullable Correction> constructor,
+            @NonNull Consumer<@NonNull Correction> consumer) {
+        this.capacity = Math.max(1, capacity);
+        this.constructor = constructor;
+        this.consumer = consumer;
+        pendingChunks = new ArrayDeque<>();
+        inProgressChunksCounter = 0;
+        inProgressCounter = 0;
+        if (threads > 1) {
+            executor = new ForkJoinPool(threads);
+            if (!ordered) {
+                completionService = new ExecutorCompletionService<>(executor);
+            }
+        }
+    }
+
+    /**
+     * Submits the given {@link Divergence} for constructing its {@link Correction}. This call blocks, if the capacity
+     * of this pool is reached, until the next correction is available.
+     * 
+     * @param divergence the {@link Divergence} for which the {@link Correction} shall be constructed
+     */
+    void submit(@NonNull Divergence divergence) {
+        if (executor == null) {
+            deliver(construct(divergence));
+        } else {
+            submit(new Chunk(new Divergence[] {divergence}, 1));
+        }
+    }
+
+    /**
+     * Submits the given {@link Divergence}s as a single chunk for constructing their {@link Correction}s. This call
+     * blocks, if the capacity of this pool is reached, until enough corrections are available. The given array is
+     * not referenced after this call; hence, it may be reused by the caller.
+     * 
+     * @param divergences the array containing the {@link Divergence}s for which the {@link Correction}s shall be
+     *        constructed
+     * @param count the number of divergences at the beginning of the given array to submit
+     */
+    void submitAll(@NonNull Divergence @NonNull [] divergences, int count) {
+        if (executor == null) {
+            for (int i = 0; i < count; i++) {
+                deliver(construct(divergences[i]));
+            }
+        } else if (count > 0) {
+            submit(new Chunk(Arrays.copyOf(divergences, count), count));
+        }
+    }
+
+    /**
+     * Submits the given {@link Chunk} to the worker threads. Before, all finished chunks are delivered and, if the
+     * capacity would be exceeded, this call waits for further chunks.
+     * 
+     * @param chunk the {@link Chunk} to submit
+     */
+    private void submit(@NonNull Chunk chunk) {
+        ForkJoinPool pool = executor;
+        CompletionService<Chunk> unorderedService = completionService;
+        if (pool != null && unorderedService != null) {
+            drainCompleted(unorderedService);
+            while (inProgressChunksCounter > 0 && inProgressCounter + chunk.count > capacity) {
+                deliver(take(unorderedService));
+            }
+            unorderedService.submit(chunk);
+            inProgressChunksCounter++;
+            inProgressCounter += chunk.count;
+        } else if (pool != null) {
+            while (!pendingChunks.isEmpty() && pendingChunks.peek().isDone()) {
+                deliver(await(pendingChunks.poll()));
+            }
+            while (!pendingChunks.isEmpty() && inProgressCounter + chunk.count > capacity) {
+                deliver(await(pendingChunks.poll()));
+            }
+            chunk.future = pool.submit(chunk);
+            pendingChunks.add(chunk);
+            inProgressCounter += chunk.count;
+        }
+    }
+
+    /**
+     * Returns the number of submitted divergences, whose corrections are not passed to the consumer yet.
+     * 
+     * @return the number of divergences in progress; always <code>0</code>, if all corrections are constructed
+     *         directly in the submitting thread
+     */
+    int getInProgressCount() {
+        return inProgressCounter;
+    }
+
+    /**
+     * Waits for all submitted constructions to finish, passes their corrections to the consumer, and shuts down the
+     * worker threads. No further divergences may be submitted afterwards.
+     */
+    void finish() {
+        ForkJoinPool pool = executor;
+        CompletionService<Chunk> unorderedService = completionService;
+        if (pool != null) {
+            if (unorderedService != null) {
+                while (inProgressChunksCounter > 0) {
+                    deliver(take(unorderedService));
+                }
+            } else {
+                while (!pendingChunks.isEmpty()) {
+                    deliver(await(pendingChunks.poll()));
+                }
+            }
+            pool.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Passes all corrections of already finished chunks to the consumer without blocking; only used in unordered
+     * mode.
+     * 
+     * @param unorderedService the {@link CompletionService} providing the finished chunks
+     */
+    private void drainCompleted(@NonNull CompletionService<Chunk> unorderedService) {
+        Future<Chunk> completed;
+        while (inProgressChunksCounter > 0 && (completed = unorderedService.poll()) != null) {
+            inProgressChunksCounter--;
+            deliver(await(completed));
+        }
+    }
+
+    /**
+     * Waits for the next finished chunk and returns it; only used in unordered mode.
+     * 
+     * @param unorderedService the {@link CompletionService} providing the finished chunks
+     * @return the finished chunk or <code>null</code>, if waiting was interrupted
+     */
+    private @Nullable Chunk take(@NonNull CompletionService<Chunk> unorderedService) {
+        Chunk chunk = null;
+        try {
+            inProgressChunksCounter--;
+            chunk = await(unorderedService.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.logException("Interrupted while waiting for the construction of corrections", e);
+        }
+        return chunk;
+    }
+
+    /**
+     * Waits for the given pending chunk to finish and returns it; only used in ordered mode.
+     * 
+     * @param chunk the pending chunk to wait for
+     * @return the finished chunk; its corrections are <code>null</code>, if waiting was interrupted
+     */
+    private @NonNull Chunk await(@NonNull Chunk chunk) {
+        Future<Chunk> future = chunk.future;
+        if (future != null) {
+            await(future);
+        }
+        return chunk;
+    }
+
+    /**
+     * Waits for the given construction of a chunk to finish and returns the chunk.
+     * 
+     * @param construction the construction to wait for
+     * @return the finished chunk or <code>null</code>, if waiting was interrupted
+     */
+    private @Nullable Chunk await(@NonNull Future<Chunk> construction) {
+        Chunk chunk = null;
+        try {
+            chunk = construction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.logException("Interrupted while waiting for the construction of corrections", e);
+        } catch (ExecutionException e) {
+            // Chunks handle failures of single constructions themselves
+            LOGGER.logException("Construction of corrections failed", e.getCause());
+        }
+        return chunk;
+    }
+
+    /**
+     * Passes the constructed corrections of the given chunk to the consumer in the order of their divergences.
+     * 
+     * @param chunk the chunk to deliver; may be <code>null</code>
+     */
+    private void deliver(@Nullable Chunk chunk) {
+        if (chunk != null) {
+            inProgressCounter -= chunk.count;
+            Correction[] corrections = chunk.corrections;
+            if (corrections != null) {
+                for (Correction correction : corrections) {
+                    deliver(correction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the given correction to the consumer, if it is not <code>null</code>.
+     * 
+     * @param correction the correction to pass to the consumer; may be <code>null</code>
+     */
+    private void deliver(@Nullable Correction correction) {
+        if (correction != null) {
+            consumer.accept(correction);
+        }
+    }
+
+    /**
+     * Constructs the correction for the given divergence. Failures are logged instead of being propagated; hence, a
+     * failing construction does not affect the constructions of the other divergences of the same chunk.
+     * 
+     * @param divergence the {@link Divergence} for which the {@link Correction} shall be constructed
+     * @return the constructed correction or <code>null</code>, if no correction is available for the given
+     *         divergence or the construction failed
+     */
+    private @Nullable Correction construct(@NonNull Divergence divergence) {
+        Correction correction = null;
+        try {
+            correction = constructor.apply(divergence);
+        } catch (RuntimeException e) {
+            LOGGER.logException("Construction of a correction failed", e);
+        }
+        return correction;
+    }
+
+    /**
+     * This class represents a chunk of divergences submitted as a single task to the worker threads.
+     */
+    private class Chunk implements Callable<Chunk> {
+
+        /**
+         * The divergences of this chunk; is <code>null</code> after the corrections are constructed.
+         */
+        private @NonNull Divergence @Nullable [] divergences;
+
+        /**
+         * The number of divergences of this chunk.
+         */
+        private int count;
+
+        /**
+         * The corrections constructed for the {@link #divergences} in the same order; is <code>null</code> until the
+         * corrections are constructed.
+         */
+        private @Nullable Correction @Nullable [] corrections;
+
+        /**
+         * The construction of this chunk; only used in ordered mode.
+         */
+        private @Nullable Future<Chunk> future;
+
+        /**
+         * Creates a {@link Chunk} instance.
+         * 
+         * @param divergences the divergences of this chunk
+         * @param count the number of divergences of this chunk
+         */
+        private Chunk(@NonNull Divergence @NonNull [] divergences, int count) {
+            this.divergences = divergences;
+            this.count = count;
+        }
+
+        /**
+         * Checks whether the construction of this chunk is finished; only used in ordered mode.
+         * 
+         * @return <code>true</code>, if the construction is finished, <code>false</code> otherwise
+         */
+        private boolean isDone() {
+            Future<Chunk> chunkFuture = future;
+            return chunkFuture != null && chunkFuture.isDone();
+        }
+
+        @Override
+        public @NonNull Chunk call() {
+            Divergence[] chunkDivergences = divergences;
+            if (chunkDivergences != null) {
+                Correction[] chunkCorrections = new Correction[count];
+                for (int i = 0; i < count; i++) {
+                    chunkCorrections[i] = construct(chunkDivergences[i]);
+                }
+                corrections = chunkCorrections;
+                // The divergences are only referenced by their corrections from now on
+                divergences = null;
+            }
+            return this;
+        }
+
+    }
+
+}
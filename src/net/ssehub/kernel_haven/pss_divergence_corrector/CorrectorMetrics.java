@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.JsonStrings;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class collects the metrics of a single run of the {@link ProblemSolutionSpaceDivergenceCorrector}. It
+ * distinguishes the time the corrector waits for the divergence detector, the time spent building corrections, the
+ * time spent rendering their descriptions, and the time spent delivering corrections (grouping, writing, or passing
+ * them to the next analysis component). Hence, the metrics reveal, whether the detector or the corrector is the
+ * bottleneck of an analysis. In addition, the metrics contain the counts and build latencies per divergence type, the
+ * render latencies, and the number of divergences in progress (queue depth).<br>
+ * <br>
+ * The methods recording received divergences, delivered corrections, and queue depths must only be called by the
+ * thread of the corrector. The functions returned by {@link #timeConstruction(Function)} and
+ * {@link #timeRendering(Consumer)} are thread-safe.
+ *
+ * @author Christian Kröher
+ *
+ */
+class CorrectorMetrics {
+
+    /**
+     * The percentiles of the build latencies included in the exported metrics.
+     */
+    private static final double @NonNull [] PERCENTILES = {50, 90, 99};
+
+    /**
+     * The metrics of each divergence type indexed by the simple name of the type.
+     */
+    private @NonNull Map<String, TypeMetrics> typeMetrics;
+
+    /**
+     * The latencies of rendering the descriptions of corrections in all threads.
+     */
+    private @NonNull LatencyHistogram renderLatencies;
+
+    /**
+     * The start time of the run as returned by {@link System#nanoTime()}.
+     */
+    private long startNanos;
+
+    /**
+     * The end time of the run as returned by {@link System#nanoTime()}; is <code>0</code> until {@link #stop()}.
+     */
+    private long stopNanos;
+
+    /**
+     * The time the corrector waited for the divergence detector to provide the next divergence.
+     */
+    private long detectorWaitNanos;
+
+    /**
+     * The time the corrector spent delivering corrections; measured in the thread of the corrector.
+     */
+    private long deliveryNanos;
+
+    /**
+     * The number of received divergences.
+     */
+    private long receivedCounter;
+
+    /**
+     * The number of delivered corrections (before grouping and fan-out).
+     */
+    private long deliveredCounter;
+
+    /**
+     * The number of queue depth samples.
+     */
+    private long queueDepthSamplesCounter;
+
+    /**
+     * The sum of all queue depth samples.
+     */
+    private long queueDepthSum;
+
+    /**
+     * The maximum of all queue depth samples.
+     */
+    private int queueDepthMax;
+
+    /**
+     * Creates a {@link CorrectorMetrics} instance and starts measuring the run.
+     */
+    CorrectorMetrics() {
+        typeMetrics = new ConcurrentHashMap<>();
+        renderLatencies = new LatencyHistogram();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the reception of the given {@link Divergence}.
+     *
+     * @param divergence the received {@link Divergence}
+     * @param waitNanos the time waited for the divergence detector to provide the given divergence
+     */
+    void recordReceived(@NonNull Divergence divergence, long waitNanos) {
+        getTypeMetrics(divergence).receivedCounter.increment();
+        detectorWaitNanos += waitNanos;
+        receivedCounter++;
+    }
+
+    /**
+     * Records the time waited for the divergence detector to signal the end of its results.
+     *
+     * @param waitNanos the time waited for the divergence detector
+     */
+    void recordDetectorWait(long waitNanos) {
+        detectorWaitNanos += waitNanos;
+    }
+
+    /**
+     * Records the current number of divergences in progress.
+     *
+     * @param queueDepth the number of divergences in progress
+     */
+    void recordQueueDepth(int queueDepth) {
+        queueDepthSamplesCounter++;
+        queueDepthSum += queueDepth;
+        queueDepthMax = Math.max(queueDepthMax, queueDepth);
+    }
+
+    /**
+     * Returns a function, which measures the build latency of each {@link Correction} constructed by the given
+     * function. The returned function is thread-safe, if the given function is thread-safe.
+     *
+     * @param constructor the function constructing the correction for a given divergence
+     * @return the measuring function
+     */
+    @NonNull Function<@NonNull Divergence, @Nullable Correction> timeConstruction(
+            @NonNull Function<@NonNull Divergence, @Nullable Correction> constructor) {
+        return (divergence) -> {
+            long start = System.nanoTime();
+            Correction correction = constructor.apply(divergence);
+            TypeMetrics metrics = getTypeMetrics(divergence);
+            metrics.buildLatencies.record(System.nanoTime() - start);
+            if (correction != null) {
+                metrics.correctedCounter.increment();
+            }
+            return correction;
+        };
+    }
+
+    /**
+     * Returns a consumer, which measures the render latency of the description of each {@link Correction} rendered by
+     * the given consumer. The returned consumer is thread-safe, if the given consumer is thread-safe.
+     *
+     * @param renderer the consumer rendering the description of a given correction
+     * @return the measuring consumer
+     */
+    @NonNull Consumer<@NonNull Correction> timeRendering(@NonNull Consumer<@NonNull Correction> renderer) {
+        return (correction) -> {
+            long start = System.nanoTime();
+            renderer.accept(correction);
+            renderLatencies.record(System.nanoTime() - start);
+        };
+    }
+
+    /**
+     * Returns a consumer, which measures the time the given consumer spends delivering each {@link Correction}.
+     *
+     * @param consumer the consumer delivering the corrections
+     * @return the measuring consumer
+     */
+    @NonNull Consumer<@NonNull Correction> timeDelivery(@NonNull Consumer<@NonNull Correction> consumer) {
+        return (correction) -> {
+            long start = System.nanoTime();
+            consumer.accept(correction);
+            deliveryNanos += System.nanoTime() - start;
+            deliveredCounter++;
+        };
+    }
+
+    /**
+     * Stops measuring the run.
+     */
+    void stop() {
+        stopNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the time the corrector waited for the divergence detector so far.
+     *
+     * @return the time waited for the divergence detector in milliseconds
+     */
+    long getDetectorWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(detectorWaitNanos);
+    }
+
+    /**
+     * Returns the time all threads spent building corrections so far.
+     *
+     * @return the cumulative build time in milliseconds
+     */
+    long getBuildMillis() {
+        long buildNanos = 0;
+        for (TypeMetrics metrics : typeMetrics.values()) {
+            buildNanos += metrics.buildLatencies.getSum();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(buildNanos);
+    }
+
+    /**
+     * Returns the time all threads spent rendering the descriptions of corrections so far.
+     *
+     * @return the cumulative render time in milliseconds
+     */
+    long getRenderMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(renderLatencies.getSum());
+    }
+
+    /**
+     * Returns the elapsed time of the run.
+     *
+     * @return the elapsed time in milliseconds until {@link #stop()} or, if not stopped yet, until now
+     */
+    long getElapsedMillis() {
+        long endNanos = stopNanos != 0 ? stopNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+    }
+
+    /**
+     * Writes the collected metrics as a JSON object to the given file.
+     *
+     * @param metricsFile the file to write the metrics to
+     * @param threads the number of worker threads of the corrector
+     * @param queueCapacity the maximum number of divergences in progress of the corrector
+     * @param providedCorrections the number of provided corrections (after grouping and fan-out)
+     * @throws IOException if writing the file fails
+     */
+    void export(@NonNull File metricsFile, int threads, int queueCapacity, long providedCorrections)
+            throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(metricsFile.toPath()),
+                StandardCharsets.UTF_8))) {
+            writer.write("{\n");
+            writeMember(writer, 1, "elapsedMillis", getElapsedMillis());
+            writeMember(writer, 1, "threads", threads);
+            writeMember(writer, 1, "receivedDivergences", receivedCounter);
+            writeMember(writer, 1, "deliveredCorrections", deliveredCounter);
+            writeMember(writer, 1, "providedCorrections", providedCorrections);
+            writeMember(writer, 1, "detectorWaitMillis", getDetectorWaitMillis());
+            writeMember(writer, 1, "buildMillis", getBuildMillis());
+            writeMember(writer, 1, "renderMillis", getRenderMillis());
+            writeMember(writer, 1, "deliveryMillis", TimeUnit.NANOSECONDS.toMillis(deliveryNanos));
+            writeLatencies(writer, 1, "renderLatencyNanos", renderLatencies);
+            writer.write(",\n");
+            writer.write("  \"queueDepth\": {\n");
+            writeMember(writer, 2, "capacity", queueCapacity);
+            writeMember(writer, 2, "max", queueDepthMax);
+            writer.write("    \"mean\": ");
+            writer.write(String.format(Locale.ROOT, "%.2f",
+                    queueDepthSamplesCounter > 0 ? (double) queueDepthSum / queueDepthSamplesCounter : 0.0));
+            writer.write("\n  },\n");
+            writer.write("  \"divergenceTypes\": {");
+            String separator = "\n";
+            for (Map.Entry<String, TypeMetrics> entry : new TreeMap<>(typeMetrics).entrySet()) {
+                writer.write(separator);
+                writer.write("    \"");
+                JsonStrings.appendEscaped(writer, entry.getKey(), 0, entry.getKey().length());
+                writer.write("\": {\n");
+                entry.getValue().export(writer);
+                writer.write("    }");
+                separator = ",\n";
+            }
+            writer.write("\n  }\n}\n");
+        }
+    }
+
+    /**
+     * Returns the {@link TypeMetrics} for the type of the given {@link Divergence}, which are created, if they do not
+     * exist yet.
+     *
+     * @param divergence the {@link Divergence} for which the metrics shall be returned
+     * @return the {@link TypeMetrics} of the type of the given divergence
+     */
+    private @NonNull TypeMetrics getTypeMetrics(@NonNull Divergence divergence) {
+        String typeName = divergence.getClass().getSimpleName();
+        TypeMetrics metrics = typeMetrics.get(typeName);
+        if (metrics == null) {
+            metrics = typeMetrics.computeIfAbsent(typeName, (name) -> new TypeMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Writes a JSON member with a numeric value followed by a comma and a line break.
+     *
+     * @param writer the {@link Writer} to write to
+     * @param level the indentation level of the member
+     * @param name the name of the member
+     * @param value the value of the member
+     * @throws IOException if writing fails
+     */
+    private static void writeMember(@NonNull Writer writer, int level, @NonNull String name, long value)
+            throws IOException {
+        for (int i = 0; i < level; i++) {
+            writer.write("  ");
+        }
+        writer.write("\"" + name + "\": " + value + ",\n");
+    }
+
+    /**
+     * Writes a JSON member with the given {@link LatencyHistogram} as an object containing the count, the sum, the
+     * percentiles, the maximum, and the non-empty buckets of the histogram. Neither a comma nor a line break is
+     * written after the member.
+     *
+     * @param writer the {@link Writer} to write to
+     * @param level the indentation level of the member
+     * @param name the name of the member
+     * @param latencies the histogram to write
+     * @throws IOException if writing fails
+     */
+    private static void writeLatencies(@NonNull Writer writer, int level, @NonNull String name,
+            @NonNull LatencyHistogram latencies) throws IOException {
+        for (int i = 0; i < level; i++) {
+            writer.write("  ");
+        }
+        writer.write("\"" + name + "\": {\n");
+        writeMember(writer, level + 1, "count", latencies.getCount());
+        writeMember(writer, level + 1, "sum", latencies.getSum());
+        for (double percentile : PERCENTILES) {
+            writeMember(writer, level + 1, "p" + (int) percentile, latencies.getPercentile(percentile));
+        }
+        writeMember(writer, level + 1, "max", latencies.getMax());
+        for (int i = 0; i <= level; i++) {
+            writer.write("  ");
+        }
+        writer.write("\"buckets\": [");
+        String separator = "";
+        for (int i = 0; i < latencies.getBucketsCount(); i++) {
+            long bucketCount = latencies.getBucketCount(i);
+            if (bucketCount > 0) {
+                writer.write(separator + "{\"upperBound\": " + LatencyHistogram.getUpperBound(i) + ", \"count\": "
+                        + bucketCount + "}");
+                separator = ", ";
+            }
+        }
+        writer.write("]\n");
+        for (int i = 0; i < level; i++) {
+            writer.write("  ");
+        }
+        writer.write("}");
+    }
+
+    /**
+     * This class contains the metrics of a single divergence type. All members are thread-safe.
+     */
+    private static class TypeMetrics {
+
+        /**
+         * The number of received divergences of this type.
+         */
+        private @NonNull LongAdder receivedCounter = new LongAdder();
+
+        /**
+         * The number of divergences of this type, for which a correction was built.
+         */
+        private @NonNull LongAdder correctedCounter = new LongAdder();
+
+        /**
+         * The latencies of building corrections for divergences of this type.
+         */
+        private @NonNull LatencyHistogram buildLatencies = new LatencyHistogram();
+
+        /**
+         * Writes the members of these metrics as part of a JSON object.
+         *
+         * @param writer the {@link Writer} to write to
+         * @throws IOException if writing fails
+         */
+        private void export(@NonNull Writer writer) throws IOException {
+            writeMember(writer, 3, "received", receivedCounter.sum());
+            writeMember(writer, 3, "corrected", correctedCounter.sum());
+            writeLatencies(writer, 3, "buildLatencyNanos", buildLatencies);
+            writer.write("\n");
+        }
+
+    }
+
+}
@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import net.ssehub.kernel_haven.SetUpException;
+import net.ssehub.kernel_haven.config.Configuration;
+import net.ssehub.kernel_haven.config.EnumSetting;
+import net.ssehub.kernel_haven.config.Setting;
+import net.ssehub.kernel_haven.config.Setting.Type;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.DescriptionFormat;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.DescriptionTemplateKey;
+import net.ssehub.kernel_haven.pss_divergence_corrector.patch.UndefinedVariableStrategy;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class provides the {@link Setting}s of the {@link ProblemSolutionSpaceDivergenceCorrector}. All settings are
+ * optional; their default values reproduce the original, sequential behavior of the corrector.
+ * 
+ * @author Christian Kröher
+ * 
+ */
+public class CorrectorSettings {
+
+    /**
+     * The number of worker threads, which construct corrections concurrently. A value of <code>1</code> (default)
+     * constructs all corrections in the thread of the corrector itself.
+     */
+    public static final @NonNull Setting<@NonNull Integer> THREADS = new Setting<>("analysis.pss_corrector.threads",
+            Type.INTEGER, true, "1", "The number of worker threads constructing corrections and rendering their"
+                    + " descriptions concurrently. A value of 1 constructs all corrections sequentially in the thread"
+                    + " of the corrector.");
+
+    /**
+     * Defines whether the corrections shall be provided in the same order as the divergences were received (default)
+     * or in the order of their completion.
+     */
+    public static final @NonNull Setting<@NonNull Boolean> ORDERED = new Setting<>("analysis.pss_corrector.ordered",
+            Type.BOOLEAN, true, "true", "Defines whether corrections are provided in the order of the received"
+                    + " divergences (true) or in the order of their completion by the worker threads (false).");
+
+    /**
+     * The maximum number of divergences, which are in progress at the same time. If this number is reached, the
+     * corrector stops pulling further divergences until the next correction is available.
+     */
+    public static final @NonNull Setting<@NonNull Integer> QUEUE_CAPACITY = new Setting<>(
+            "analysis.pss_corrector.queue_capacity", Type.INTEGER, true, "1024", "The maximum number of divergences"
+                    + " in progress at the same time. If this number is reached, no further divergences are pulled"
+                    + " from the divergence detector until the next correction is available.");
+
+    /**
+     * The fully qualified class names of additional
+     * {@link net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionFactory}s, which shall be
+     * registered at the {@link net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionProvider} of
+     * the corrector.
+     */
+    public static final @NonNull Setting<@NonNull List<@NonNull String>> CORRECTION_FACTORIES = new Setting<>(
+            "analysis.pss_corrector.correction_factories", Type.STRING_LIST, false, null, "A comma-separated list of"
+                    + " fully qualified class names of additional correction factories. Each class must implement"
+                    + " CorrectionFactory and provide a public constructor without parameters. Factories defined here"
+                    + " replace the factories of this plug-in for the same type of divergences.");
+
+    /**
+     * The maximum number of divergences received from a divergence detector implementing {@link BatchResultSource}
+     * and submitted to the worker threads at once. Other detectors are always drained one divergence at a time.
+     */
+    public static final @NonNull Setting<@NonNull Integer> BATCH_SIZE = new Setting<>(
+            "analysis.pss_corrector.batch_size", Type.INTEGER, true, "1", "The maximum number of divergences received"
+                    + " from a divergence detector implementing BatchResultSource and submitted to the worker threads"
+                    + " at once. Values greater than 1 amortize the synchronization and thread wake-ups per divergence"
+                    + " over a batch. Divergences of other detectors are submitted one at a time as they arrive,"
+                    + " independent of this setting.");
+
+    /**
+     * The simple or fully qualified class names of the divergence types, which shall be corrected.
+     */
+    public static final @NonNull Setting<@NonNull List<@NonNull String>> FILTER_TYPES = new Setting<>(
+            "analysis.pss_corrector.filter.types", Type.STRING_LIST, false, null, "A comma-separated list of simple"
+                    + " or fully qualified class names of the divergence types to correct; subtypes are included. If"
+                    + " not specified, divergences of all types are corrected.");
+
+    /**
+     * The pattern, which at least one involved variable of a divergence must match for correcting it.
+     */
+    public static final @NonNull Setting<@NonNull Pattern> FILTER_VARIABLES = new Setting<>(
+            "analysis.pss_corrector.filter.variables", Type.REGEX, false, null, "A regular expression, which at least"
+                    + " one involved variable of a divergence must match completely for correcting it, e.g.,"
+                    + " \"CONFIG_USB_.*\". If not specified, divergences involving any variables are corrected.");
+
+    /**
+     * The path prefixes, of which at least one involved source file of a divergence must start with one for correcting
+     * it.
+     */
+    public static final @NonNull Setting<@NonNull List<@NonNull String>> FILTER_PATHS = new Setting<>(
+            "analysis.pss_corrector.filter.paths", Type.STRING_LIST, false, null, "A comma-separated list of path"
+                    + " prefixes, e.g., \"drivers/usb/\", of which at least one involved source file of a divergence"
+                    + " must start with one for correcting it. If not specified, divergences involving any source"
+                    + " files are corrected.");
+
+    /**
+     * The number of shards the divergences are split into by the hash of their primary variable.
+     */
+    public static final @NonNull Setting<@NonNull Integer> SHARD_COUNT = new Setting<>(
+            "analysis.pss_corrector.shard.count", Type.INTEGER, true, "1", "The number of shards the divergences are"
+                    + " split into by the hash of their first involved variable. Each process correcting the same"
+                    + " divergences with the same number of shards, but a different shard index corrects a disjoint"
+                    + " part of the divergences.");
+
+    /**
+     * The index of the shard of divergences, which shall be corrected.
+     */
+    public static final @NonNull Setting<@NonNull Integer> SHARD_INDEX = new Setting<>(
+            "analysis.pss_corrector.shard.index", Type.INTEGER, true, "0", "The index of the shard of divergences"
+                    + " corrected by this process; must be greater than or equal to 0 and less than the number of"
+                    + " shards.");
+
+    /**
+     * The {@link GroupingMode} defining which corrections are merged into a single, aggregated correction.
+     */
+    public static final @NonNull EnumSetting<@NonNull GroupingMode> GROUPING = new EnumSetting<>(
+            "analysis.pss_corrector.grouping", GroupingMode.class, true, GroupingMode.NONE, "Defines which"
+                    + " corrections of the same type are merged into a single, aggregated correction: NONE (no"
+                    + " merging), VARIABLE (sharing an involved variable), SOURCE_FILE (sharing an involved source"
+                    + " file), or CORRECTION_TYPE (all corrections of the same type).");
+
+    /**
+     * The {@link RankingCriterion} defining the scores by which the corrections are ranked.
+     */
+    public static final @NonNull EnumSetting<@NonNull RankingCriterion> RANKING = new EnumSetting<>(
+            "analysis.pss_corrector.ranking", RankingCriterion.class, true, RankingCriterion.NONE, "Defines whether"
+                    + " only the corrections with the highest scores are provided in descending order of their scores"
+                    + " at the end of the analysis run: NONE (all corrections are provided), CODE_ELEMENTS,"
+                    + " SOURCE_FILES, VARIABLES (number of involved code elements, source files, or variables),"
+                    + " DIVERGENCES (number of grouped divergences), or INVOLVED_ELEMENTS (total number of involved"
+                    + " elements).");
+
+    /**
+     * The maximum number of corrections provided, if corrections are ranked.
+     */
+    public static final @NonNull Setting<@NonNull Integer> RANKING_TOP_K = new Setting<>(
+            "analysis.pss_corrector.ranking.top_k", Type.INTEGER, true, "100", "The maximum number of corrections"
+                    + " provided, if corrections are ranked; must be greater than 0. Only this number of corrections is"
+                    + " kept in memory.");
+
+    /**
+     * Defines whether each alternative of a correction shall be provided as a separate correction.
+     */
+    public static final @NonNull Setting<@NonNull Boolean> FAN_OUT = new Setting<>("analysis.pss_corrector.fan_out",
+            Type.BOOLEAN, true, "false", "Defines whether each alternative of a correction is provided as a separate"
+                    + " correction (true) or all alternatives are provided as a single correction (false).");
+
+    /**
+     * The {@link OutputMode} defining how the corrections are provided.
+     */
+    public static final @NonNull EnumSetting<@NonNull OutputMode> OUTPUT_MODE = new EnumSetting<>(
+            "analysis.pss_corrector.output.mode", OutputMode.class, true, OutputMode.RESULT, "Defines how corrections"
+                    + " are provided: RESULT (as results of the analysis component) or TABLE (written directly to a"
+                    + " table file in the output directory as soon as they are available), ALTERNATIVES (each"
+                    + " structured alternative written directly as a row of a table file), JSON (written directly to a"
+                    + " JSON Lines file), or BINARY (written directly to a file of the compact binary correction format"
+                    + " in the output directory). In all modes except RESULT, no results are passed to the next"
+                    + " analysis component.");
+
+    /**
+     * The file extension defining the format of the table file written in {@link OutputMode#TABLE} and
+     * {@link OutputMode#ALTERNATIVES}.
+     */
+    public static final @NonNull Setting<@NonNull String> OUTPUT_FORMAT = new Setting<>(
+            "analysis.pss_corrector.output.format", Type.STRING, true, "csv", "The file extension defining the format"
+                    + " of the table file written, if the output mode is TABLE or ALTERNATIVES, e.g., csv or xlsx.");
+
+    /**
+     * Defines whether the descriptions of corrections shall be stored in the file written in {@link OutputMode#BINARY}.
+     */
+    public static final @NonNull Setting<@NonNull Boolean> OUTPUT_BINARY_DESCRIPTIONS = new Setting<>(
+            "analysis.pss_corrector.output.binary_descriptions", Type.BOOLEAN, true, "true", "Defines whether the"
+                    + " descriptions of corrections are stored in the file of the binary correction format written, if"
+                    + " the output mode is BINARY. Without descriptions, only the kinds, types, and involved elements"
+                    + " of the corrections are stored and descriptions are not rendered at all.");
+
+    /**
+     * Defines whether the descriptions of corrections shall be cached in the cache directory and reused in the next
+     * analysis run.
+     */
+    public static final @NonNull Setting<@NonNull Boolean> CACHE = new Setting<>("analysis.pss_corrector.cache",
+            Type.BOOLEAN, true, "false", "Defines whether the descriptions of corrections are cached in the cache"
+                    + " directory and reused for unchanged divergences in the next analysis run. Cached corrections,"
+                    + " which are not provided anymore, are written to a separate table in the output directory.");
+
+    /**
+     * Defines whether metrics of the corrector shall be collected and written to a JSON file in the output directory.
+     */
+    public static final @NonNull Setting<@NonNull Boolean> METRICS = new Setting<>("analysis.pss_corrector.metrics",
+            Type.BOOLEAN, true, "false", "Defines whether metrics of the corrector are collected and written to a"
+                    + " JSON file in the output directory: the time waiting for the divergence detector, building"
+                    + " corrections, rendering their descriptions, and delivering corrections, the render latency"
+                    + " histogram, the counts and build latency histograms per divergence type, and the queue depths.");
+
+    /**
+     * The interval in seconds for logging the progress of the corrector.
+     */
+    public static final @NonNull Setting<@NonNull Integer> PROGRESS_INTERVAL = new Setting<>(
+            "analysis.pss_corrector.progress_interval", Type.INTEGER, true, "0", "The interval in seconds for"
+                    + " logging the progress of the corrector, i.e., the numbers of received divergences, provided"
+                    + " corrections, and divergences in progress. A value of 0 disables progress logging.");
+
+    /**
+     * The file of the binary correction format containing the corrections of a baseline run, to which the corrections
+     * of the current run shall be compared.
+     */
+    public static final @NonNull Setting<@NonNull File> DIFF_BASELINE = new Setting<>(
+            "analysis.pss_corrector.diff.baseline", Type.FILE, false, null, "The file of the binary correction format"
+                    + " (*.pssc) written by a baseline run, e.g., for the previous release. If specified, the"
+                    + " corrections of the current run are compared to the baseline corrections and written as new,"
+                    + " fixed, or persistent corrections to a separate table in the output directory. Requires the"
+                    + " output mode BINARY.");
+
+    /**
+     * The memory budget in megabytes for sorting the corrections of both runs, if they are compared.
+     */
+    public static final @NonNull Setting<@NonNull Integer> DIFF_MEMORY = new Setting<>(
+            "analysis.pss_corrector.diff.memory", Type.INTEGER, true, "64", "The memory budget in megabytes for"
+                    + " sorting the corrections of the baseline and the current run, if they are compared. Larger"
+                    + " sets of corrections are sorted using temporary files in the cache directory.");
+
+    /**
+     * The {@link PatchMode} defining whether patches correcting the divergences shall be generated.
+     */
+    public static final @NonNull EnumSetting<@NonNull PatchMode> PATCH_MODE = new EnumSetting<>(
+            "analysis.pss_corrector.patch.mode", PatchMode.class, true, PatchMode.NONE, "Defines whether patches"
+                    + " correcting unused and undefined variables automatically are generated: NONE (no patches),"
+                    + " SCRIPT (patches are written as a unified diff to the output directory), or APPLY (patches are"
+                    + " written to the output directory and applied to the source tree).");
+
+    /**
+     * The {@link UndefinedVariableStrategy} defining how patches correct undefined variables.
+     */
+    public static final @NonNull EnumSetting<@NonNull UndefinedVariableStrategy> PATCH_UNDEFINED_VARIABLES =
+            new EnumSetting<>("analysis.pss_corrector.patch.undefined_variables", UndefinedVariableStrategy.class,
+                    true, UndefinedVariableStrategy.REMOVE_REFERENCES, "Defines how patches correct undefined"
+                    + " variables: REMOVE_REFERENCES (references in build and code artifacts are replaced by their"
+                    + " constant value) or DEFINE (the variables are defined in the nearest Kconfig file).");
+
+    /**
+     * Defines whether the locations of variables in the source tree shall be indexed and added to the descriptions of
+     * corrections.
+     */
+    public static final @NonNull Setting<@NonNull Boolean> LOCATIONS = new Setting<>(
+            "analysis.pss_corrector.locations", Type.BOOLEAN, true, "false", "Defines whether the Kconfig, build,"
+                    + " and code files of the source tree are indexed once per analysis run for adding the files,"
+                    + " lines, and columns of the definitions and references to be changed to the descriptions of"
+                    + " corrections. The files are scanned lexically instead of using the models of the extractors;"
+                    + " hence, the locations may disagree with these models, e.g., for files excluded by file-level"
+                    + " presence conditions or generated files.");
+
+    /**
+     * Defines whether each correction shall be validated by applying its alternatives virtually to a snapshot of the
+     * variability, build, and code models derived from the source tree.
+     */
+    public static final @NonNull Setting<@NonNull Boolean> VALIDATION = new Setting<>(
+            "analysis.pss_corrector.validation", Type.BOOLEAN, true, "false", "Defines whether the alternatives of"
+                    + " each correction are applied virtually to a snapshot of the definitions of and references to"
+                    + " variables in the Kconfig, build, and code files of the source tree for checking whether they"
+                    + " resolve the divergence or introduce new ones.");
+
+    /**
+     * The {@link DescriptionFormat} in which the descriptions of corrections are rendered.
+     */
+    public static final @NonNull EnumSetting<@NonNull DescriptionFormat> DESCRIPTION_FORMAT = new EnumSetting<>(
+            "analysis.pss_corrector.description.format", DescriptionFormat.class, true, DescriptionFormat.PLAIN,
+            "Defines the format of the descriptions of corrections: PLAIN (text with alternatives separated by \"OR\"),"
+                    + " MARKDOWN (involved elements as code), or JSON (an array of the alternatives).");
+
+    /**
+     * The templates of the descriptions of corrections indexed by their {@link DescriptionTemplateKey}. The key of
+     * each setting is <code>analysis.pss_corrector.description.template.</code> followed by the name of the template
+     * and its default value is the built-in template.
+     */
+    public static final @NonNull Map<@NonNull DescriptionTemplateKey, @NonNull Setting<@NonNull String>>
+            DESCRIPTION_TEMPLATES = createDescriptionTemplateSettings();
+
+    /**
+     * Creates a {@link CorrectorSettings} instance, which should never be used as this class only provides constants.
+     */
+    private CorrectorSettings() {}
+
+    /**
+     * Registers all settings of this class in the given {@link Configuration}.
+     * 
+     * @param config the {@link Configuration} to register the settings in
+     * @throws SetUpException if registering one of the settings fails
+     */
+    public static void registerAllSettings(@NonNull Configuration config) throws SetUpException {
+        config.registerSetting(THREADS);
+        config.registerSetting(ORDERED);
+        config.registerSetting(QUEUE_CAPACITY);
+        config.registerSetting(CORRECTION_FACTORIES);
+        config.registerSetting(BATCH_SIZE);
+        config.registerSetting(FILTER_TYPES);
+        config.registerSetting(FILTER_VARIABLES);
+        config.registerSetting(FILTER_PATHS);
+        config.registerSetting(SHARD_COUNT);
+        config.registerSetting(SHARD_INDEX);
+        config.registerSetting(GROUPING);
+        config.registerSetting(RANKING);
+        config.registerSetting(RANKING_TOP_K);
+        config.registerSetting(FAN_OUT);
+        config.registerSetting(OUTPUT_MODE);
+        config.registerSetting(OUTPUT_FORMAT);
+        config.registerSetting(OUTPUT_BINARY_DESCRIPTIONS);
+        config.registerSetting(CACHE);
+        config.registerSetting(METRICS);
+        config.registerSetting(PROGRESS_INTERVAL);
+        config.registerSetting(DIFF_BASELINE);
+        config.registerSetting(DIFF_MEMORY);
+        config.registerSetting(PATCH_MODE);
+        config.registerSetting(PATCH_UNDEFINED_VARIABLES);
+        config.registerSetting(LOCATIONS);
+        config.registerSetting(VALIDATION);
+        config.registerSetting(DESCRIPTION_FORMAT);
+        for (Setting<@NonNull String> templateSetting : DESCRIPTION_TEMPLATES.values()) {
+            config.registerSetting(templateSetting);
+        }
+    }
+
+    /**
+     * Creates the settings of the templates of the descriptions of corrections; one for each
+     * {@link DescriptionTemplateKey}.
+     * 
+     * @return the unmodifiable settings indexed by the {@link DescriptionTemplateKey} of their template
+     */
+    private static @NonNull Map<@NonNull DescriptionTemplateKey, @NonNull Setting<@NonNull String>>
+            createDescriptionTemplateSettings() {
+        Map<DescriptionTemplateKey, Setting<@NonNull String>> templateSettings =
+                new EnumMap<>(DescriptionTemplateKey.class);
+        for (DescriptionTemplateKey key : DescriptionTemplateKey.values()) {
+            templateSettings.put(key, new Setting<>("analysis.pss_corrector.description.template." + key.getName(),
+                    Type.STRING, true, key.getDefaultTemplate(), "The template of the description "
+                    + key.getName() + " of corrections."));
+        }
+        return Collections.unmodifiableMap(templateSettings);
+    }
+
+}
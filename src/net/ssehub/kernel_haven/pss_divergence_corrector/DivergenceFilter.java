@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class decides which {@link Divergence}s are corrected before any correction is created for them. A divergence
+ * is accepted, if it passes all configured filters and belongs to the configured shard:
+ * <ul>
+ * <li>Its type or one of its supertypes is one of the given types (simple or fully qualified class names)</li>
+ * <li>At least one of its involved variables matches the given pattern</li>
+ * <li>At least one of its involved source files starts with one of the given path prefixes</li>
+ * <li>The hash of its primary (first involved) variable modulo the number of shards is the index of the shard</li>
+ * </ul>
+ * All filters are precompiled when creating an instance of this class and evaluated on the whitespace-separated
+ * strings of involved elements without splitting them. The shard of a divergence only depends on its primary variable;
+ * hence, each divergence belongs to exactly one shard in each analysis run and in each process. This class is not
+ * thread-safe.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class DivergenceFilter {
+
+    /**
+     * The simple and fully qualified class names of the accepted divergence types; is <code>null</code>, if all
+     * types are accepted.
+     */
+    private @Nullable Set<String> acceptedTypeNames;
+
+    /**
+     * Defines for each concrete divergence type encountered so far whether it is accepted.
+     */
+    private @NonNull Map<Class<?>, Boolean> resolvedTypes;
+
+    /**
+     * The reusable {@link Matcher} of the pattern, which at least one involved variable must match; is
+     * <code>null</code>, if the variables are not filtered.
+     */
+    private @Nullable Matcher variableMatcher;
+
+    /**
+     * The path prefixes, of which at least one involved source file must start with one; is <code>null</code>, if the
+     * source files are not filtered.
+     */
+    private @NonNull String @Nullable [] pathPrefixes;
+
+    /**
+     * The number of shards.
+     */
+    private int shardsCount;
+
+    /**
+     * The index of the accepted shard.
+     */
+    private int shardIndex;
+
+    /**
+     * Creates a {@link DivergenceFilter} instance.
+     * 
+     * @param typeNames the simple or fully qualified class names of the accepted divergence types; may be
+     *        <code>null</code> or <i>empty</i>, which results in accepting all types
+     * @param variablePattern the pattern, which at least one involved variable must match completely; may be
+     *        <code>null</code>, which results in accepting all variables
+     * @param pathPrefixes the path prefixes, of which at least one involved source file must start with one; may be
+     *        <code>null</code> or <i>empty</i>, which results in accepting all source files
+     * @param shardsCount the number of shards; must be greater than <code>0</code>
+     * @param shardIndex the index of the accepted shard; must be less than the given number of shards
+     */
+    DivergenceFilter(@Nullable List<String> typeNames, @Nullable Pattern variablePattern,
+            @Nullable List<String> pathPrefixes, int shardsCount, int shardIndex) {
+        if (typeNames != null && !typeNames.isEmpty()) {
+            Set<String> typeNamesSet = new HashSet<>();
+            for (String typeName : typeNames) {
+                typeNamesSet.add(typeName.trim());
+            }
+            acceptedTypeNames = typeNamesSet;
+        }
+        resolvedTypes = new HashMap<>();
+        if (variablePattern != null) {
+            variableMatcher = variablePattern.matcher("");
+        }
+        if (pathPrefixes != null && !pathPrefixes.isEmpty()) {
+            String[] prefixes = new String[pathPrefixes.size()];
+            for (int i = 0; i < prefixes.length; i++) {
+                prefixes[i] = pathPrefixes.get(i).trim();
+            }
+            this.pathPrefixes = prefixes;
+        }
+        this.shardsCount = shardsCount;
+        this.shardIndex = shardIndex;
+    }
+
+    /**
+     * Checks whether any divergences are rejected by this filter.
+     * 
+     * @return <code>true</code>, if at least one filter is configured or more than one shard exists,
+     *         <code>false</code> otherwise
+     */
+    boolean isFiltering() {
+        return acceptedTypeNames != null || variableMatcher != null || pathPrefixes != null || shardsCount > 1;
+    }
+
+    /**
+     * Checks whether the given {@link Divergence} shall be corrected.
+     * 
+     * @param divergence the {@link Divergence} to check
+     * @return <code>true</code>, if the given divergence passes all filters and belongs to the accepted shard,
+     *         <code>false</code> otherwise
+     */
+    boolean accept(@NonNull Divergence divergence) {
+        return acceptType(divergence.getClass())
+                && acceptVariables(divergence.getInvolvedVariablesString())
+                && acceptSourceFiles(divergence.getInvolvedSourceFilesString())
+                && acceptShard(divergence.getInvolvedVariablesString());
+    }
+
+    /**
+     * Checks whether the given divergence type is accepted. The result is cached per concrete type.
+     * 
+     * @param divergenceType the concrete type of the divergence
+     * @return <code>true</code>, if the given type or one of its supertypes is accepted, <code>false</code> otherwise
+     */
+    private boolean acceptType(@NonNull Class<?> divergenceType) {
+        Set<String> typeNames = acceptedTypeNames;
+        boolean accepted = typeNames == null;
+        if (typeNames != null) {
+            Boolean resolved = resolvedTypes.get(divergenceType);
+            if (resolved == null) {
+                Class<?> currentType = divergenceType;
+                while (!accepted && currentType != null) {
+                    accepted = typeNames.contains(currentType.getSimpleName())
+                            || typeNames.contains(currentType.getName());
+                    currentType = currentType.getSuperclass();
+                }
+                resolvedTypes.put(divergenceType, accepted);
+            } else {
+                accepted = resolved;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Checks whether at least one of the given variables matches the variable pattern.
+     * 
+     * @param involvedVariables the whitespace-separated involved variables; may be <code>null</code>
+     * @return <code>true</code>, if the variables are not filtered or at least one variable matches,
+     *         <code>false</code> otherwise
+     */
+    private boolean acceptVariables(@Nullable String involvedVariables) {
+        Matcher matcher = variableMatcher;
+        boolean accepted = matcher == null;
+        if (matcher != null && involvedVariables != null) {
+            matcher.reset(involvedVariables);
+            int tokenStart = nextTokenStart(involvedVariables, 0);
+            while (!accepted && tokenStart < involvedVariables.length()) {
+                int tokenEnd = nextTokenEnd(involvedVariables, tokenStart);
+                // Matching the region of the token avoids creating a substring
+                accepted = matcher.region(tokenStart, tokenEnd).matches();
+                tokenStart = nextTokenStart(involvedVariables, tokenEnd);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Checks whether at least one of the given source files starts with one of the path prefixes.
+     * 
+     * @param involvedSourceFiles the whitespace-separated involved source files; may be <code>null</code>
+     * @return <code>true</code>, if the source files are not filtered or at least one source file starts with a path
+     *         prefix, <code>false</code> otherwise
+     */
+    private boolean acceptSourceFiles(@Nullable String involvedSourceFiles) {
+        String[] prefixes = pathPrefixes;
+        boolean accepted = prefixes == null;
+        if (prefixes != null && involvedSourceFiles != null) {
+            int tokenStart = nextTokenStart(involvedSourceFiles, 0);
+            while (!accepted && tokenStart < involvedSourceFiles.length()) {
+                int tokenEnd = nextTokenEnd(involvedSourceFiles, tokenStart);
+                for (int i = 0; !accepted && i < prefixes.length; i++) {
+                    accepted = prefixes[i].length() <= tokenEnd - tokenStart
+                            && involvedSourceFiles.startsWith(prefixes[i], tokenStart);
+                }
+                tokenStart = nextTokenStart(involvedSourceFiles, tokenEnd);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Checks whether the primary variable of the given variables belongs to the accepted shard. The shard is derived
+     * from {@link String#hashCode()}, which is specified by the Java language and, hence, stable across processes.
+     * 
+     * @param involvedVariables the whitespace-separated involved variables; may be <code>null</code>
+     * @return <code>true</code>, if only one shard exists or the primary variable belongs to the accepted shard,
+     *         <code>false</code> otherwise
+     */
+    private boolean acceptShard(@Nullable String involvedVariables) {
+        boolean accepted = shardsCount <= 1;
+        if (!accepted) {
+            int hash = 0;
+            if (involvedVariables != null) {
+                int tokenStart = nextTokenStart(involvedVariables, 0);
+                int tokenEnd = nextTokenEnd(involvedVariables, tokenStart);
+                for (int i = tokenStart; i < tokenEnd; i++) {
+                    hash = 31 * hash + involvedVariables.charAt(i);
+                }
+            }
+            // Spread the bits of the hash, as similar variable names only differ in their last characters
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            accepted = Math.floorMod(hash, shardsCount) == shardIndex;
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns the index of the first non-whitespace character in the given string starting at the given index.
+     * 
+     * @param elements the string containing whitespace-separated elements
+     * @param index the index to start searching at
+     * @return the index of the first non-whitespace character or the length of the given string
+     */
+    private static int nextTokenStart(@NonNull String elements, int index) {
+        int tokenStart = index;
+        while (tokenStart < elements.length() && Character.isWhitespace(elements.charAt(tokenStart))) {
+            tokenStart++;
+        }
+        return tokenStart;
+    }
+
+    /**
+     * Returns the index after the last non-whitespace character of the element starting at the given index.
+     * 
+     * @param elements the string containing whitespace-separated elements
+     * @param index the index of the first character of the element
+     * @return the index after the element
+     */
+    private static int nextTokenEnd(@NonNull String elements, int index) {
+        int tokenEnd = index;
+        while (tokenEnd < elements.length() && !Character.isWhitespace(elements.charAt(tokenEnd))) {
+            tokenEnd++;
+        }
+        return tokenEnd;
+    }
+
+}
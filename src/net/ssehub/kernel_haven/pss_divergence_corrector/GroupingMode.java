@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+/**
+ * This enumeration defines the available modes for grouping corrections of the same type into a single, aggregated
+ * correction.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum GroupingMode {
+
+    /**
+     * Corrections are not grouped; each divergence results in its own correction.
+     */
+    NONE,
+
+    /**
+     * Corrections of the same type for divergences sharing at least one involved variable are grouped, also
+     * transitively via other corrections.
+     */
+    VARIABLE,
+
+    /**
+     * Corrections of the same type for divergences sharing at least one involved source file are grouped, also
+     * transitively via other corrections.
+     */
+    SOURCE_FILE,
+
+    /**
+     * All corrections of the same type are grouped.
+     */
+    CORRECTION_TYPE;
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.JsonCorrectionWriter;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class realizes a {@link CorrectionSink}, which writes {@link Correction}s with their structured alternatives as
+ * JSON Lines using a {@link JsonCorrectionWriter}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class JsonCorrectionSink implements CorrectionSink {
+
+    /**
+     * The {@link JsonCorrectionWriter} writing the corrections.
+     */
+    private @NonNull JsonCorrectionWriter writer;
+
+    /**
+     * Creates a {@link JsonCorrectionSink} instance.
+     * 
+     * @param outputFile the file to write the corrections to
+     * @throws IOException if creating the output file fails
+     */
+    JsonCorrectionSink(@NonNull File outputFile) throws IOException {
+        writer = new JsonCorrectionWriter(outputFile);
+    }
+
+    @Override
+    public void write(@NonNull Correction correction) throws IOException {
+        writer.write(correction);
+        correction.release();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class realizes a thread-safe histogram of latencies in nanoseconds. The latencies are counted in buckets of
+ * exponentially growing size: bucket <code>i</code> counts the latencies in the range
+ * <code>[2<sup>i-1</sup>, 2<sup>i</sup>)</code>. Hence, recording a latency requires constant time and memory
+ * independent of the number of recorded latencies, while percentiles are approximated by the upper bound of the
+ * respective bucket.
+ *
+ * @author Christian Kröher
+ *
+ */
+class LatencyHistogram {
+
+    /**
+     * The number of buckets; sufficient for all non-negative <code>long</code> values.
+     */
+    private static final int BUCKETS_COUNT = 64;
+
+    /**
+     * The number of recorded latencies per bucket.
+     */
+    private @NonNull AtomicLongArray buckets;
+
+    /**
+     * The sum of all recorded latencies.
+     */
+    private @NonNull LongAdder sum;
+
+    /**
+     * The maximum of all recorded latencies.
+     */
+    private @NonNull AtomicLong max;
+
+    /**
+     * Creates an empty {@link LatencyHistogram} instance.
+     */
+    LatencyHistogram() {
+        buckets = new AtomicLongArray(BUCKETS_COUNT);
+        sum = new LongAdder();
+        max = new AtomicLong(0);
+    }
+
+    /**
+     * Records the given latency. This method is thread-safe.
+     *
+     * @param nanos the latency in nanoseconds; negative values are recorded as <code>0</code>
+     */
+    void record(long nanos) {
+        long latency = Math.max(0, nanos);
+        buckets.incrementAndGet(Math.min(BUCKETS_COUNT - 1, 64 - Long.numberOfLeadingZeros(latency)));
+        sum.add(latency);
+        long currentMax = max.get();
+        while (latency > currentMax && !max.compareAndSet(currentMax, latency)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded latencies.
+     *
+     * @return the sum of all recorded latencies in nanoseconds
+     */
+    long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the maximum of all recorded latencies.
+     *
+     * @return the maximum of all recorded latencies in nanoseconds or <code>0</code>, if no latency was recorded
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the approximated percentile of the recorded latencies.
+     *
+     * @param percentile the percentile in the range <code>(0, 100]</code>
+     * @return the upper bound of the bucket containing the given percentile, but at most the {@link #getMax()}, in
+     *         nanoseconds; <code>0</code>, if no latency was recorded
+     */
+    long getPercentile(double percentile) {
+        long count = getCount();
+        long threshold = (long) Math.ceil(count * percentile / 100);
+        long cumulativeCount = 0;
+        long value = 0;
+        for (int i = 0; i < BUCKETS_COUNT && count > 0; i++) {
+            cumulativeCount += buckets.get(i);
+            if (cumulativeCount >= threshold) {
+                value = Math.min(getUpperBound(i), getMax());
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of buckets of this histogram.
+     *
+     * @return the number of buckets
+     */
+    int getBucketsCount() {
+        return BUCKETS_COUNT;
+    }
+
+    /**
+     * Returns the number of latencies recorded in the bucket with the given index.
+     *
+     * @param index the index of the bucket
+     * @return the number of latencies in the bucket
+     */
+    long getBucketCount(int index) {
+        return buckets.get(index);
+    }
+
+    /**
+     * Returns the (inclusive) upper bound of the bucket with the given index.
+     *
+     * @param index the index of the bucket
+     * @return the largest latency in nanoseconds counted in the bucket
+     */
+    static long getUpperBound(int index) {
+        long upperBound;
+        if (index >= BUCKETS_COUNT - 1) {
+            upperBound = Long.MAX_VALUE;
+        } else {
+            upperBound = (1L << index) - 1;
+        }
+        return upperBound;
+    }
+
+}
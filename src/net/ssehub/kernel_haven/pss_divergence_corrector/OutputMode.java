@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+/**
+ * This enumeration defines the available modes for providing the corrections of the
+ * {@link ProblemSolutionSpaceDivergenceCorrector}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum OutputMode {
+
+    /**
+     * The corrections are provided as results of the analysis component and, hence, written by KernelHaven or
+     * consumed by the next analysis component.
+     */
+    RESULT,
+
+    /**
+     * The corrections are written directly to a table file in the output directory as soon as they are provided. The
+     * columns of this table are the same for all types of corrections. No results are passed to the next analysis
+     * component.
+     */
+    TABLE,
+
+    /**
+     * Each structured alternative of each correction (see
+     * {@link net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction#getStructuredAlternatives()}) is
+     * written directly as a row of a table file in the output directory as soon as the correction is provided. The
+     * action, the target artifact, and the involved elements of an alternative are written in separate columns. No
+     * results are passed to the next analysis component.
+     */
+    ALTERNATIVES,
+
+    /**
+     * The corrections including their structured alternatives are written directly to a JSON Lines file in the output
+     * directory as soon as they are provided. No results are passed to the next analysis component.
+     */
+    JSON,
+
+    /**
+     * The corrections are written directly to a file of the compact binary correction format in the output directory
+     * as soon as they are provided. No results are passed to the next analysis component. Such files can be read via
+     * the {@link net.ssehub.kernel_haven.pss_divergence_corrector.io.BinaryCorrectionReader}.
+     */
+    BINARY;
+
+}
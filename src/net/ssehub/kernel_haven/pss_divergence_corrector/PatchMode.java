@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+/**
+ * This enumeration defines the available modes for generating patches from the corrections of the
+ * {@link ProblemSolutionSpaceDivergenceCorrector} (see
+ * {@link net.ssehub.kernel_haven.pss_divergence_corrector.patch.PatchGenerator}).
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum PatchMode {
+
+    /**
+     * No patches are generated.
+     */
+    NONE,
+
+    /**
+     * The edits correcting the divergences are written as a unified diff to the output directory. The source tree is
+     * not changed.
+     */
+    SCRIPT,
+
+    /**
+     * The edits correcting the divergences are written as a unified diff to the output directory and applied to the
+     * source tree.
+     */
+    APPLY;
+
+}
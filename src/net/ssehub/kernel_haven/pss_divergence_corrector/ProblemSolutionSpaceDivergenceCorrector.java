@@ -12,12 +12,37 @@
  */
 package net.ssehub.kernel_haven.pss_divergence_corrector;
 
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import net.ssehub.kernel_haven.SetUpException;
 import net.ssehub.kernel_haven.analysis.AnalysisComponent;
 import net.ssehub.kernel_haven.config.Configuration;
+import net.ssehub.kernel_haven.config.DefaultSettings;
+import net.ssehub.kernel_haven.config.Setting;
 import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
 import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionProvider;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.DescriptionTemplateKey;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.DescriptionTemplates;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.NamePool;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.ValidationResult;
+import net.ssehub.kernel_haven.pss_divergence_corrector.diff.CorrectionDiff;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndex;
+import net.ssehub.kernel_haven.pss_divergence_corrector.patch.PatchGenerator;
+import net.ssehub.kernel_haven.pss_divergence_corrector.patch.UndefinedVariableStrategy;
+import net.ssehub.kernel_haven.pss_divergence_corrector.validation.CorrectionValidator;
+import net.ssehub.kernel_haven.pss_divergence_corrector.validation.ModelSnapshot;
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
 import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
 
 /**
  * This class provides {@link Correction}s for unintended {@link Divergence}s between problem and solution space
@@ -28,6 +53,16 @@ import net.ssehub.kernel_haven.util.null_checks.NonNull;
  */
 public class ProblemSolutionSpaceDivergenceCorrector extends AnalysisComponent<Correction> {
     
+    /**
+     * The file extension of files of the binary correction format written in {@link OutputMode#BINARY}.
+     */
+    private static final @NonNull String BINARY_FILE_EXTENSION = "pssc";
+    
+    /**
+     * The file extension of the JSON Lines files written in {@link OutputMode#JSON}.
+     */
+    private static final @NonNull String JSON_FILE_EXTENSION = "jsonl";
+    
     /**
      * The {@link AnalysisComponent} providing the set of detected {@link Divergence}s.
      */
@@ -39,45 +74,891 @@ public class ProblemSolutionSpaceDivergenceCorrector extends AnalysisComponent<C
      */
     private int receivedDivergencesCounter;
     
+    /**
+     * The number of received {@link Divergence}s rejected by the {@link #divergenceFilter}. The purpose of this
+     * attribute is to log the number of filtered divergences.
+     */
+    private int filteredDivergencesCounter;
+    
+    /**
+     * The {@link DivergenceFilter} deciding which received {@link Divergence}s are corrected as defined by
+     * {@link CorrectorSettings#FILTER_TYPES}, {@link CorrectorSettings#FILTER_VARIABLES},
+     * {@link CorrectorSettings#FILTER_PATHS}, {@link CorrectorSettings#SHARD_COUNT}, and
+     * {@link CorrectorSettings#SHARD_INDEX}; is <code>null</code>, if all divergences are corrected.
+     */
+    private @Nullable DivergenceFilter divergenceFilter;
+    
     /**
      * The number of provided {@link Correction}s for the received {@link Divergence}s. The purpose of this attribute
      * is to log the number of received divergences.
      */
     private int providedCorrectionsCounter;
+    
+    /**
+     * The number of worker threads constructing {@link Correction}s concurrently as defined by
+     * {@link CorrectorSettings#THREADS}.
+     */
+    private int threads;
+    
+    /**
+     * Defines whether {@link Correction}s are provided in the order of the received {@link Divergence}s as defined by
+     * {@link CorrectorSettings#ORDERED}.
+     */
+    private boolean ordered;
+    
+    /**
+     * The maximum number of {@link Divergence}s in progress at the same time as defined by
+     * {@link CorrectorSettings#QUEUE_CAPACITY}.
+     */
+    private int queueCapacity;
+    
+    /**
+     * The maximum number of {@link Divergence}s received from a {@link BatchResultSource} and submitted at once as
+     * defined by {@link CorrectorSettings#BATCH_SIZE}.
+     */
+    private int batchSize;
+    
+    /**
+     * Defines whether the {@link #pssDivergenceDetector} signaled that it provides no more {@link Divergence}s.
+     */
+    private boolean detectorFinished;
+    
+    /**
+     * The {@link GroupingMode} defining which {@link Correction}s are merged as defined by
+     * {@link CorrectorSettings#GROUPING}.
+     */
+    private @NonNull GroupingMode groupingMode;
+    
+    /**
+     * The {@link RankingCriterion} defining the scores by which {@link Correction}s are ranked as defined by
+     * {@link CorrectorSettings#RANKING}.
+     */
+    private @NonNull RankingCriterion rankingCriterion;
+    
+    /**
+     * The maximum number of {@link Correction}s provided, if they are ranked, as defined by
+     * {@link CorrectorSettings#RANKING_TOP_K}.
+     */
+    private int rankingTopK;
+    
+    /**
+     * Defines whether each alternative of a {@link Correction} is provided as a separate correction as defined by
+     * {@link CorrectorSettings#FAN_OUT}.
+     */
+    private boolean fanOut;
+    
+    /**
+     * The {@link OutputMode} defining how {@link Correction}s are provided as defined by
+     * {@link CorrectorSettings#OUTPUT_MODE}.
+     */
+    private @NonNull OutputMode outputMode;
+    
+    /**
+     * The file extension defining the format of the table file written in {@link OutputMode#TABLE} as defined by
+     * {@link CorrectorSettings#OUTPUT_FORMAT}.
+     */
+    private @NonNull String outputFormat;
+    
+    /**
+     * The directory to write output files to as defined by {@link DefaultSettings#OUTPUT_DIR}.
+     */
+    private @NonNull File outputDirectory;
+    
+    /**
+     * The {@link CorrectionSink} writing the provided {@link Correction}s directly to an output file; is
+     * <code>null</code>, if the corrections are provided as results of this component.
+     */
+    private @Nullable CorrectionSink correctionSink;
+    
+    /**
+     * Defines whether the descriptions of {@link Correction}s are cached across analysis runs as defined by
+     * {@link CorrectorSettings#CACHE}.
+     */
+    private boolean cacheEnabled;
+    
+    /**
+     * The directory to store the {@link CorrectionCache} in as defined by {@link DefaultSettings#CACHE_DIR}.
+     */
+    private @NonNull File cacheDirectory;
+    
+    /**
+     * The {@link CorrectionCache} providing the descriptions of {@link Correction}s of the previous analysis run; is
+     * <code>null</code>, if caching is disabled or the cache is not available.
+     */
+    private @Nullable CorrectionCache correctionCache;
+    
+    /**
+     * Defines whether {@link CorrectorMetrics} are collected and exported as defined by
+     * {@link CorrectorSettings#METRICS}.
+     */
+    private boolean metricsEnabled;
+    
+    /**
+     * The interval in nanoseconds for logging the progress of this corrector as defined by
+     * {@link CorrectorSettings#PROGRESS_INTERVAL}; values less than or equal to <code>0</code> disable progress
+     * logging.
+     */
+    private long progressIntervalNanos;
+    
+    /**
+     * The {@link CorrectorMetrics} of the current run; is <code>null</code>, if metrics are disabled.
+     */
+    private @Nullable CorrectorMetrics metrics;
+    
+    /**
+     * Defines whether the descriptions of corrections are written in {@link OutputMode#BINARY} as defined by
+     * {@link CorrectorSettings#OUTPUT_BINARY_DESCRIPTIONS}.
+     */
+    private boolean binaryDescriptions;
+    
+    /**
+     * The file containing the corrections of the baseline run as defined by {@link CorrectorSettings#DIFF_BASELINE};
+     * is <code>null</code>, if the corrections are not compared.
+     */
+    private @Nullable File diffBaselineFile;
+    
+    /**
+     * The memory budget in bytes for comparing the corrections as defined by {@link CorrectorSettings#DIFF_MEMORY}.
+     */
+    private long diffMemoryBudget;
+    
+    /**
+     * The file of the binary correction format written in the current run; is <code>null</code>, if the output mode
+     * is not {@link OutputMode#BINARY} or writing failed.
+     */
+    private @Nullable File binaryOutputFile;
+    
+    /**
+     * The {@link PatchMode} defining whether patches are generated as defined by {@link CorrectorSettings#PATCH_MODE}.
+     */
+    private @NonNull PatchMode patchMode;
+    
+    /**
+     * The {@link UndefinedVariableStrategy} of the generated patches as defined by
+     * {@link CorrectorSettings#PATCH_UNDEFINED_VARIABLES}.
+     */
+    private @NonNull UndefinedVariableStrategy undefinedVariableStrategy;
+    
+    /**
+     * Defines whether the locations of variables are indexed as defined by {@link CorrectorSettings#LOCATIONS}.
+     */
+    private boolean locationsEnabled;
+    
+    /**
+     * The {@link LocationIndex} set to each {@link Correction} of the current run for adding the locations of its
+     * involved variables to its description; is <code>null</code>, if locations are disabled or not available.
+     */
+    private @Nullable LocationIndex locationIndex;
+    
+    /**
+     * Defines whether corrections are validated as defined by {@link CorrectorSettings#VALIDATION}.
+     */
+    private boolean validationEnabled;
+    
+    /**
+     * The root directory of the source tree to patch or index as defined by {@link DefaultSettings#SOURCE_TREE}; is
+     * <code>null</code>, if neither patches are generated nor locations are indexed nor corrections are validated.
+     */
+    private @Nullable File sourceTree;
+    
+    /**
+     * The compiled templates of the descriptions of corrections as defined by
+     * {@link CorrectorSettings#DESCRIPTION_FORMAT} and {@link CorrectorSettings#DESCRIPTION_TEMPLATES}.
+     */
+    private @NonNull DescriptionTemplates descriptionTemplates;
+    
+    /**
+     * The {@link CorrectionProvider} of this corrector, which provides the factories of the singleton instance and
+     * the additional factories defined by {@link CorrectorSettings#CORRECTION_FACTORIES}.
+     */
+    private @NonNull CorrectionProvider correctionProvider;
 
     /**
      * Creates an {@link ProblemSolutionSpaceDivergenceCorrector} instance.
      * 
      * @param config the globale {@link Configuration}
      * @param pssDivergenceDetector the {@link AnalysisComponent} providing the {@link Divergence}s
+     * @throws SetUpException if registering one of the {@link CorrectorSettings} fails or their values are invalid
      */
     public ProblemSolutionSpaceDivergenceCorrector(@NonNull Configuration config,
-            @NonNull AnalysisComponent<Divergence> pssDivergenceDetector) {
+            @NonNull AnalysisComponent<Divergence> pssDivergenceDetector) throws SetUpException {
         super(config);
         this.pssDivergenceDetector = pssDivergenceDetector;
         receivedDivergencesCounter = 0;
+        filteredDivergencesCounter = 0;
         providedCorrectionsCounter = 0;
+        outputDirectory = config.getValue(DefaultSettings.OUTPUT_DIR);
+        cacheDirectory = config.getValue(DefaultSettings.CACHE_DIR);
+        readSettings(config);
     }
-
+    
+    /**
+     * Registers and reads the {@link CorrectorSettings} in the given {@link Configuration}. The additional correction
+     * factories are only registered, if all other settings are valid.
+     * 
+     * @param config the global {@link Configuration}
+     * @throws SetUpException if registering one of the settings fails or their values are invalid
+     */
+    private void readSettings(@NonNull Configuration config) throws SetUpException {
+        CorrectorSettings.registerAllSettings(config);
+        threads = config.getValue(CorrectorSettings.THREADS);
+        ordered = config.getValue(CorrectorSettings.ORDERED);
+        queueCapacity = config.getValue(CorrectorSettings.QUEUE_CAPACITY);
+        batchSize = Math.max(1, config.getValue(CorrectorSettings.BATCH_SIZE));
+        divergenceFilter = createDivergenceFilter(config);
+        groupingMode = config.getValue(CorrectorSettings.GROUPING);
+        rankingCriterion = config.getValue(CorrectorSettings.RANKING);
+        rankingTopK = config.getValue(CorrectorSettings.RANKING_TOP_K);
+        if (rankingCriterion != RankingCriterion.NONE && rankingTopK < 1) {
+            throw new SetUpException("The number of ranked corrections must be greater than 0, but is "
+                    + rankingTopK);
+        }
+        fanOut = config.getValue(CorrectorSettings.FAN_OUT);
+        outputMode = config.getValue(CorrectorSettings.OUTPUT_MODE);
+        outputFormat = config.getValue(CorrectorSettings.OUTPUT_FORMAT);
+        binaryDescriptions = config.getValue(CorrectorSettings.OUTPUT_BINARY_DESCRIPTIONS);
+        cacheEnabled = config.getValue(CorrectorSettings.CACHE);
+        metricsEnabled = config.getValue(CorrectorSettings.METRICS);
+        progressIntervalNanos = TimeUnit.SECONDS.toNanos(config.getValue(CorrectorSettings.PROGRESS_INTERVAL));
+        diffBaselineFile = config.getValue(CorrectorSettings.DIFF_BASELINE);
+        diffMemoryBudget = config.getValue(CorrectorSettings.DIFF_MEMORY) * (1L << 20);
+        if (diffBaselineFile != null && outputMode != OutputMode.BINARY) {
+            throw new SetUpException("Comparing corrections to " + diffBaselineFile + " requires the output mode "
+                    + OutputMode.BINARY);
+        }
+        patchMode = config.getValue(CorrectorSettings.PATCH_MODE);
+        undefinedVariableStrategy = config.getValue(CorrectorSettings.PATCH_UNDEFINED_VARIABLES);
+        locationsEnabled = config.getValue(CorrectorSettings.LOCATIONS);
+        validationEnabled = config.getValue(CorrectorSettings.VALIDATION);
+        if (patchMode != PatchMode.NONE || locationsEnabled || validationEnabled) {
+            sourceTree = config.getValue(DefaultSettings.SOURCE_TREE);
+        }
+        descriptionTemplates = createDescriptionTemplates(config);
+        // The factories of the configuration only apply to this corrector
+        CorrectionProvider provider = new CorrectionProvider(CorrectionProvider.getInstance());
+        provider.register(config.getValue(CorrectorSettings.CORRECTION_FACTORIES));
+        correctionProvider = provider;
+    }
+    
     @Override
     protected void execute() {
         if (pssDivergenceDetector != null) {
-            Divergence receivedDivergence;
-            Correction divergenceCorrection;
-            while ((receivedDivergence = pssDivergenceDetector.getNextResult()) != null) {
-                divergenceCorrection = CorrectionProvider.getCorrection(receivedDivergence);
-                if (divergenceCorrection != null) {
-                    addResult(divergenceCorrection);
-                    providedCorrectionsCounter++;
+            CorrectorMetrics runMetrics = metricsEnabled ? new CorrectorMetrics() : null;
+            metrics = runMetrics;
+            correctionSink = createCorrectionSink();
+            LocationIndex index = createLocationIndex();
+            locationIndex = locationsEnabled ? index : null;
+            // The signature of the cache depends on the locations in the descriptions
+            correctionCache = createCorrectionCache();
+            CorrectionValidator validator = createCorrectionValidator(index);
+            Consumer<@NonNull Correction> correctionConsumer = this::provideCorrection;
+            boolean describedOutput = outputMode != OutputMode.JSON && outputMode != OutputMode.ALTERNATIVES
+                    && (outputMode != OutputMode.BINARY || binaryDescriptions);
+            boolean providedAsConstructed = groupingMode == GroupingMode.NONE
+                    && rankingCriterion == RankingCriterion.NONE;
+            if (describedOutput && !providedAsConstructed) {
+                // Grouped or ranked corrections are only described, if they are provided
+                correctionConsumer = describeBeforeProviding(createRenderer(true, runMetrics), correctionConsumer);
+            }
+            CorrectionRanker ranker = null;
+            if (rankingCriterion != RankingCriterion.NONE) {
+                ranker = new CorrectionRanker(rankingCriterion, rankingTopK, correctionConsumer);
+                correctionConsumer = ranker::add;
+            }
+            CorrectionGrouper grouper = null;
+            if (groupingMode != GroupingMode.NONE) {
+                if (validator != null) {
+                    // Merging discards validation results; hence, only the merged corrections are validated
+                    correctionConsumer = validator.validateDelivery(correctionConsumer);
+                }
+                grouper = new CorrectionGrouper(groupingMode, correctionConsumer);
+                correctionConsumer = grouper::add;
+            }
+            if (correctionCache != null) {
+                correctionConsumer = recordCorrection(correctionConsumer);
+            }
+            PatchGenerator patchGenerator = createPatchGenerator();
+            if (patchGenerator != null) {
+                Consumer<@NonNull Correction> nextConsumer = correctionConsumer;
+                correctionConsumer = (correction) -> {
+                    patchGenerator.add(correction);
+                    nextConsumer.accept(correction);
+                };
+            }
+            Function<@NonNull Divergence, @Nullable Correction> correctionConstructor = this::createCorrection;
+            if (runMetrics != null) {
+                correctionConsumer = runMetrics.timeDelivery(correctionConsumer);
+                correctionConstructor = runMetrics.timeConstruction(correctionConstructor);
+            }
+            boolean describeConstructed = describedOutput && providedAsConstructed;
+            if (describeConstructed || correctionCache != null) {
+                correctionConstructor = renderDescriptions(correctionConstructor,
+                        createRenderer(describeConstructed, runMetrics));
+            }
+            if (validator != null && grouper == null) {
+                correctionConstructor = validator.validateConstruction(correctionConstructor);
+            }
+            CorrectionWorkerPool workerPool = new CorrectionWorkerPool(threads, queueCapacity, ordered,
+                    correctionConstructor, correctionConsumer);
+            DivergenceFilter filter = divergenceFilter;
+            long nextProgressNanos = System.nanoTime() + progressIntervalNanos;
+            long waitStartNanos = System.nanoTime();
+            Divergence[] batch = new Divergence[batchSize];
+            int receivedCount;
+            while ((receivedCount = receiveDivergences(batch)) > 0) {
+                long waitNanos = System.nanoTime() - waitStartNanos;
+                // Accepted divergences are moved to the beginning of the batch
+                int acceptedCount = 0;
+                for (int i = 0; i < receivedCount; i++) {
+                    Divergence receivedDivergence = batch[i];
+                    batch[i] = null;
+                    if (runMetrics != null) {
+                        runMetrics.recordReceived(receivedDivergence, i == 0 ? waitNanos : 0);
+                    }
+                    if (filter == null || filter.accept(receivedDivergence)) {
+                        batch[acceptedCount++] = receivedDivergence;
+                    } else {
+                        filteredDivergencesCounter++;
+                    }
+                }
+                if (acceptedCount == 1) {
+                    workerPool.submit(batch[0]);
+                } else {
+                    workerPool.submitAll(batch, acceptedCount);
+                }
+                Arrays.fill(batch, 0, acceptedCount, null);
+                receivedDivergencesCounter += receivedCount;
+                if (runMetrics != null) {
+                    runMetrics.recordQueueDepth(workerPool.getInProgressCount());
                 }
-                receivedDivergencesCounter++;
+                if (progressIntervalNanos > 0 && System.nanoTime() - nextProgressNanos >= 0) {
+                    logProgress(workerPool.getInProgressCount());
+                    nextProgressNanos = System.nanoTime() + progressIntervalNanos;
+                }
+                waitStartNanos = System.nanoTime();
+            }
+            if (runMetrics != null) {
+                runMetrics.recordDetectorWait(System.nanoTime() - waitStartNanos);
+            }
+            workerPool.finish();
+            if (grouper != null) {
+                grouper.flush();
+            }
+            if (ranker != null) {
+                LOGGER.logInfo2("Ranking: providing the top ", Math.min(rankingTopK, ranker.getAddedCount()), " of ",
+                        ranker.getAddedCount(), " corrections by ", rankingCriterion);
+                ranker.flush();
+            }
+            if (validator != null) {
+                LOGGER.logInfo2("Validation: ", validator.getResultCount(ValidationResult.RESOLVES),
+                        " alternatives resolve their divergence, ",
+                        validator.getResultCount(ValidationResult.RESOLVES_WITH_NEW_DIVERGENCES),
+                        " resolve it with new divergences, ",
+                        validator.getResultCount(ValidationResult.DOES_NOT_RESOLVE), " do not resolve it, and ",
+                        validator.getResultCount(ValidationResult.UNKNOWN), " cannot be validated");
             }
+            NamePool.clear();
+            locationIndex = null;
+            closeCorrectionSink();
+            diffCorrections();
+            closeCorrectionCache();
+            if (patchGenerator != null) {
+                generatePatches(patchGenerator);
+            }
+            exportMetrics();
         } else {
             LOGGER.logWarning2("No divergence detector specified - no divergence correction possible");
         }
+        if (divergenceFilter != null) {
+            LOGGER.logInfo2(filteredDivergencesCounter, " of ", receivedDivergencesCounter,
+                    " received divergences filtered");
+        }
         LOGGER.logInfo2(providedCorrectionsCounter + " corrections for " + receivedDivergencesCounter 
                 + " received divergences provided");
     }
+    
+    /**
+     * Receives the next {@link Divergence}s from the {@link #pssDivergenceDetector}. If the given array can hold
+     * multiple divergences and the detector is a {@link BatchResultSource}, they are received in a single call.
+     * Otherwise, a single divergence is received via {@link AnalysisComponent#getNextResult()}; waiting for further
+     * divergences of such a detector would only delay the submission of the already received ones.
+     * 
+     * @param batch the array to fill with the received divergences starting at index <code>0</code>
+     * @return the number of received divergences; <code>0</code>, if the detector provides no more divergences
+     */
+    @SuppressWarnings("unchecked")
+    private int receiveDivergences(@Nullable Divergence @NonNull [] batch) {
+        AnalysisComponent<Divergence> detector = pssDivergenceDetector;
+        int receivedCount = 0;
+        if (detector != null && !detectorFinished) {
+            if (batch.length > 1 && detector instanceof BatchResultSource) {
+                receivedCount = ((BatchResultSource<Divergence>) detector).getNextResults(batch);
+                detectorFinished = receivedCount == 0;
+            } else {
+                Divergence receivedDivergence = detector.getNextResult();
+                if (receivedDivergence != null) {
+                    batch[0] = receivedDivergence;
+                    receivedCount = 1;
+                } else {
+                    detectorFinished = true;
+                }
+            }
+        }
+        return receivedCount;
+    }
+    
+    /**
+     * Compiles the templates of the descriptions of corrections defined in the given {@link Configuration}.
+     * 
+     * @param config the global {@link Configuration}
+     * @return the compiled {@link DescriptionTemplates}
+     * @throws SetUpException if one of the templates contains an unknown, unsupported, or unterminated placeholder
+     */
+    private static @NonNull DescriptionTemplates createDescriptionTemplates(@NonNull Configuration config)
+            throws SetUpException {
+        Map<@NonNull DescriptionTemplateKey, @NonNull String> templateTexts =
+                new EnumMap<>(DescriptionTemplateKey.class);
+        for (Map.Entry<@NonNull DescriptionTemplateKey, @NonNull Setting<@NonNull String>> templateSetting
+                : CorrectorSettings.DESCRIPTION_TEMPLATES.entrySet()) {
+            templateTexts.put(templateSetting.getKey(), config.getValue(templateSetting.getValue()));
+        }
+        DescriptionTemplates templates;
+        try {
+            templates = new DescriptionTemplates(templateTexts, config.getValue(CorrectorSettings.DESCRIPTION_FORMAT));
+        } catch (IllegalArgumentException e) {
+            throw new SetUpException(e.getMessage());
+        }
+        return templates;
+    }
+    
+    /**
+     * Creates the {@link DivergenceFilter} based on the filter and shard settings in the given {@link Configuration}.
+     * 
+     * @param config the global {@link Configuration}
+     * @return the {@link DivergenceFilter} or <code>null</code>, if all divergences shall be corrected
+     * @throws SetUpException if the shard settings are invalid
+     */
+    private static @Nullable DivergenceFilter createDivergenceFilter(@NonNull Configuration config)
+            throws SetUpException {
+        int shardsCount = config.getValue(CorrectorSettings.SHARD_COUNT);
+        int shardIndex = config.getValue(CorrectorSettings.SHARD_INDEX);
+        if (shardsCount < 1 || shardIndex < 0 || shardIndex >= shardsCount) {
+            throw new SetUpException("Invalid shard " + shardIndex + " of " + shardsCount + " shards");
+        }
+        DivergenceFilter filter = new DivergenceFilter(config.getValue(CorrectorSettings.FILTER_TYPES),
+                config.getValue(CorrectorSettings.FILTER_VARIABLES), config.getValue(CorrectorSettings.FILTER_PATHS),
+                shardsCount, shardIndex);
+        return filter.isFiltering() ? filter : null;
+    }
+    
+    /**
+     * Compares the corrections written to the {@link #binaryOutputFile} to the corrections of the baseline run, if a
+     * {@link #diffBaselineFile} is defined, and writes the compared corrections to a table in the
+     * {@link #outputDirectory}.
+     */
+    private void diffCorrections() {
+        File baselineFile = diffBaselineFile;
+        File currentFile = binaryOutputFile;
+        if (baselineFile != null && currentFile != null) {
+            File diffFile = getOutputFile("diff." + outputFormat);
+            CorrectionDiff diff = new CorrectionDiff(diffMemoryBudget, cacheDirectory);
+            try {
+                diff.diff(baselineFile, currentFile, diffFile);
+                LOGGER.logInfo2("Correction diff to ", baselineFile.getAbsolutePath(), ": ", diff.getNewCount(),
+                        " new, ", diff.getFixedCount(), " fixed, ", diff.getPersistentCount(),
+                        " persistent corrections; see ", diffFile.getAbsolutePath());
+            } catch (IOException e) {
+                LOGGER.logException("Comparing corrections to " + baselineFile.getAbsolutePath() + " failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Builds the {@link LocationIndex} of the {@link #sourceTree}, if locations shall be indexed or corrections shall
+     * be validated. Failing to build the index is logged; the corrections are then described without locations and
+     * not validated.
+     * 
+     * @return the {@link LocationIndex} or <code>null</code>, if no locations shall be or can be indexed
+     */
+    private @Nullable LocationIndex createLocationIndex() {
+        LocationIndex index = null;
+        File indexedSourceTree = sourceTree;
+        if ((locationsEnabled || validationEnabled) && indexedSourceTree != null) {
+            long startNanos = System.nanoTime();
+            try {
+                index = LocationIndex.build(indexedSourceTree, threads);
+                LOGGER.logInfo2("Location index: ", index.getLocationsCount(), " locations of ",
+                        index.getVariablesCount(), " variables in ", index.getFilesCount(), " files indexed in ",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), " ms");
+            } catch (IOException e) {
+                LOGGER.logException("Indexing locations in " + indexedSourceTree.getAbsolutePath() + " failed", e);
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Creates the {@link CorrectionValidator} based on a {@link ModelSnapshot} of the given {@link LocationIndex}, if
+     * corrections shall be validated.
+     * 
+     * @param index the {@link LocationIndex} of the {@link #sourceTree}; may be <code>null</code>, if building the
+     *        index failed
+     * @return the {@link CorrectionValidator} or <code>null</code>, if no corrections shall be or can be validated
+     */
+    private @Nullable CorrectionValidator createCorrectionValidator(@Nullable LocationIndex index) {
+        CorrectionValidator validator = null;
+        if (validationEnabled) {
+            if (index != null) {
+                validator = new CorrectionValidator(new ModelSnapshot(index));
+            } else {
+                LOGGER.logWarning2("No snapshot of the source tree available - corrections are not validated");
+            }
+        }
+        return validator;
+    }
+    
+    /**
+     * Creates the {@link PatchGenerator}, if patches shall be generated.
+     * 
+     * @return the {@link PatchGenerator} or <code>null</code>, if no patches shall be generated
+     */
+    private @Nullable PatchGenerator createPatchGenerator() {
+        PatchGenerator patchGenerator = null;
+        File patchedSourceTree = sourceTree;
+        if (patchMode != PatchMode.NONE && patchedSourceTree != null) {
+            patchGenerator = new PatchGenerator(patchedSourceTree, undefinedVariableStrategy);
+        }
+        return patchGenerator;
+    }
+    
+    /**
+     * Generates the patches for all provided {@link Correction}s and writes them to a unified diff in the
+     * {@link #outputDirectory}. In {@link PatchMode#APPLY}, the patches are also applied to the {@link #sourceTree}.
+     * 
+     * @param patchGenerator the {@link PatchGenerator} containing all provided corrections
+     */
+    private void generatePatches(@NonNull PatchGenerator patchGenerator) {
+        File patchFile = getOutputFile("patch");
+        try {
+            patchGenerator.generate(patchFile, patchMode == PatchMode.APPLY);
+        } catch (IOException e) {
+            LOGGER.logException("Generating patches in " + patchFile.getAbsolutePath() + " failed", e);
+        }
+    }
+    
+    /**
+     * Logs the progress of this corrector. If {@link #metrics} are collected, the time waited for the divergence
+     * detector and the time spent building and describing corrections so far are logged as well.
+     * 
+     * @param inProgressCount the number of divergences in progress
+     */
+    private void logProgress(int inProgressCount) {
+        CorrectorMetrics runMetrics = metrics;
+        if (runMetrics != null) {
+            LOGGER.logInfo2("Progress: ", receivedDivergencesCounter, " divergences received, ",
+                    providedCorrectionsCounter, " corrections provided, ", inProgressCount, " in progress; ",
+                    runMetrics.getDetectorWaitMillis(), " ms waiting for detector, ", runMetrics.getBuildMillis(),
+                    " ms building and ", runMetrics.getRenderMillis(), " ms describing corrections in ",
+                    runMetrics.getElapsedMillis(), " ms");
+        } else {
+            LOGGER.logInfo2("Progress: ", receivedDivergencesCounter, " divergences received, ",
+                    providedCorrectionsCounter, " corrections provided, ", inProgressCount, " in progress");
+        }
+    }
+    
+    /**
+     * Stops the {@link #metrics}, if they are collected, logs their summary, and writes them to a JSON file in the
+     * {@link #outputDirectory}.
+     */
+    private void exportMetrics() {
+        CorrectorMetrics runMetrics = metrics;
+        if (runMetrics != null) {
+            metrics = null;
+            runMetrics.stop();
+            LOGGER.logInfo2("Corrector metrics: ", runMetrics.getElapsedMillis(), " ms elapsed, ",
+                    runMetrics.getDetectorWaitMillis(), " ms waiting for detector, ", runMetrics.getBuildMillis(),
+                    " ms building and ", runMetrics.getRenderMillis(), " ms describing corrections (", threads,
+                    " threads)");
+            File metricsFile = getOutputFile("metrics.json");
+            try {
+                runMetrics.export(metricsFile, threads, queueCapacity, providedCorrectionsCounter);
+                LOGGER.logInfo2("Corrector metrics written to ", metricsFile.getAbsolutePath());
+            } catch (IOException e) {
+                LOGGER.logException("Writing corrector metrics to " + metricsFile.getAbsolutePath() + " failed", e);
+            }
+        }
+    }
+
+    /**
+     * Creates the {@link Correction} for the given {@link Divergence}, sets the {@link #descriptionTemplates} and the
+     * {@link #locationIndex} for its description, and restores its descriptions from the {@link #correctionCache}, if
+     * available. This method is called by the worker threads concurrently.
+     * 
+     * @param divergence the {@link Divergence} to correct
+     * @return the {@link Correction} for the given divergence or <code>null</code>, if no correction is available
+     */
+    private @Nullable Correction createCorrection(@NonNull Divergence divergence) {
+        Correction correction = correctionProvider.createCorrection(divergence);
+        if (correction != null) {
+            correction.setDescriptionTemplates(descriptionTemplates);
+            correction.setLocationIndex(locationIndex);
+            CorrectionCache cache = correctionCache;
+            if (cache != null) {
+                cache.restore(correction);
+            }
+        }
+        return correction;
+    }
+    
+    /**
+     * Creates the consumer rendering the description of a given {@link Correction}. The rendered description is
+     * cached by the correction.
+     * 
+     * @param complete <code>true</code>, if the complete description shall be rendered, or <code>false</code>, if
+     *        only the descriptions of the alternatives shall be rendered, e.g., for caching corrections, which are
+     *        merged before they are provided
+     * @param runMetrics the {@link CorrectorMetrics} measuring the render latencies; may be <code>null</code>, if
+     *        metrics are disabled
+     * @return the thread-safe rendering consumer
+     */
+    private static @NonNull Consumer<@NonNull Correction> createRenderer(boolean complete,
+            @Nullable CorrectorMetrics runMetrics) {
+        Consumer<@NonNull Correction> renderer;
+        if (complete) {
+            renderer = Correction::getDescription;
+        } else {
+            renderer = Correction::getAlternativeDescriptions;
+        }
+        if (runMetrics != null) {
+            renderer = runMetrics.timeRendering(renderer);
+        }
+        return renderer;
+    }
+    
+    /**
+     * Returns a function, which renders the description of each {@link Correction} constructed by the given function
+     * directly in the calling worker thread. Hence, rendering is parallelized and the consumers as well as the next
+     * analysis components only read the cached descriptions. The returned function is thread-safe, if the given
+     * function is thread-safe.
+     * 
+     * @param constructor the function constructing the correction for a given divergence
+     * @param renderer the consumer rendering the description of a given correction (see
+     *        {@link #createRenderer(boolean, CorrectorMetrics)})
+     * @return the rendering function
+     */
+    private static @NonNull Function<@NonNull Divergence, @Nullable Correction> renderDescriptions(
+            @NonNull Function<@NonNull Divergence, @Nullable Correction> constructor,
+            @NonNull Consumer<@NonNull Correction> renderer) {
+        return (divergence) -> {
+            Correction correction = constructor.apply(divergence);
+            if (correction != null) {
+                renderer.accept(correction);
+            }
+            return correction;
+        };
+    }
+    
+    /**
+     * Returns a consumer, which renders the description of each {@link Correction} before passing it to the given
+     * consumer. This is used for corrections, which are merged or ranked before they are provided; their descriptions
+     * are rendered in the thread of the corrector.
+     * 
+     * @param renderer the consumer rendering the description of a given correction (see
+     *        {@link #createRenderer(boolean, CorrectorMetrics)})
+     * @param nextConsumer the consumer receiving the described corrections
+     * @return the rendering consumer
+     */
+    private static @NonNull Consumer<@NonNull Correction> describeBeforeProviding(
+            @NonNull Consumer<@NonNull Correction> renderer, @NonNull Consumer<@NonNull Correction> nextConsumer) {
+        return (correction) -> {
+            renderer.accept(correction);
+            nextConsumer.accept(correction);
+        };
+    }
+    
+    /**
+     * Returns a consumer, which records each {@link Correction} in the {@link #correctionCache} before passing it to
+     * the given consumer. If recording fails, the cache is discarded.
+     * 
+     * @param nextConsumer the consumer receiving the recorded corrections
+     * @return the recording consumer
+     */
+    private @NonNull Consumer<@NonNull Correction> recordCorrection(
+            @NonNull Consumer<@NonNull Correction> nextConsumer) {
+        return (correction) -> {
+            CorrectionCache cache = correctionCache;
+            if (cache != null) {
+                try {
+                    cache.record(correction);
+                } catch (IOException e) {
+                    LOGGER.logException("Writing correction cache failed - cache is discarded", e);
+                    correctionCache = null;
+                    cache.discard();
+                }
+            }
+            nextConsumer.accept(correction);
+        };
+    }
+    
+    /**
+     * Provides the given {@link Correction} as a result of this corrector. If {@link #fanOut} is enabled, each
+     * alternative of the given correction is provided as a separate result.
+     * 
+     * @param correction the {@link Correction} to provide
+     */
+    private void provideCorrection(@NonNull Correction correction) {
+        if (fanOut) {
+            for (Correction alternative : correction.getAlternatives()) {
+                emit(alternative);
+            }
+        } else {
+            emit(correction);
+        }
+    }
+    
+    /**
+     * Writes the given {@link Correction} to the {@link #correctionSink} or, if no sink is available, adds it as a
+     * result of this component. If writing to the sink fails, the sink is closed and this and all further corrections
+     * are added as results of this component.
+     * 
+     * @param correction the {@link Correction} to emit
+     */
+    private void emit(@NonNull Correction correction) {
+        CorrectionSink sink = correctionSink;
+        boolean written = false;
+        if (sink != null) {
+            try {
+                sink.write(correction);
+                written = true;
+            } catch (IOException e) {
+                LOGGER.logException("Writing correction failed - providing remaining corrections as results", e);
+                closeCorrectionSink();
+                binaryOutputFile = null;
+            }
+        }
+        if (!written) {
+            addResult(correction);
+        }
+        providedCorrectionsCounter++;
+    }
+    
+    /**
+     * Creates the {@link CorrectionSink} for the {@link #outputMode}.
+     * 
+     * @return the {@link CorrectionSink} or <code>null</code>, if the corrections shall be provided as results of this
+     *         component or creating the sink fails
+     */
+    private @Nullable CorrectionSink createCorrectionSink() {
+        CorrectionSink sink = null;
+        if (outputMode != OutputMode.RESULT) {
+            File outputFile;
+            if (outputMode == OutputMode.BINARY) {
+                outputFile = getOutputFile(BINARY_FILE_EXTENSION);
+            } else if (outputMode == OutputMode.JSON) {
+                outputFile = getOutputFile(JSON_FILE_EXTENSION);
+            } else {
+                outputFile = getOutputFile(outputFormat);
+            }
+            try {
+                if (outputMode == OutputMode.BINARY) {
+                    sink = new BinaryCorrectionSink(outputFile, binaryDescriptions);
+                    binaryOutputFile = outputFile;
+                } else if (outputMode == OutputMode.JSON) {
+                    sink = new JsonCorrectionSink(outputFile);
+                } else if (outputMode == OutputMode.ALTERNATIVES) {
+                    sink = new AlternativeTableCorrectionSink(outputFile, getResultName());
+                } else {
+                    sink = new TableCorrectionSink(outputFile, getResultName());
+                }
+                LOGGER.logInfo2("Writing corrections to ", outputFile.getAbsolutePath());
+            } catch (IOException e) {
+                LOGGER.logException("Creating correction output file " + outputFile.getAbsolutePath()
+                        + " failed - providing corrections as results", e);
+            }
+        }
+        return sink;
+    }
+    
+    /**
+     * Creates the {@link CorrectionCache}, if caching is enabled.
+     * 
+     * @return the {@link CorrectionCache} or <code>null</code>, if caching is disabled or creating the cache fails
+     */
+    private @Nullable CorrectionCache createCorrectionCache() {
+        CorrectionCache cache = null;
+        if (cacheEnabled) {
+            try {
+                cache = new CorrectionCache(cacheDirectory, getCacheSignature(), locationIndex);
+            } catch (IOException e) {
+                LOGGER.logException("Creating correction cache in " + cacheDirectory.getAbsolutePath()
+                        + " failed - corrections are not cached", e);
+            }
+        }
+        return cache;
+    }
+    
+    /**
+     * Returns the signature of the {@link CorrectionCache}, which identifies the format of the cached descriptions
+     * including the {@link #descriptionTemplates} and whether locations are added to the descriptions. Cached
+     * descriptions of previous runs with a different signature are discarded. Changed locations in the source tree do
+     * not affect the signature; the cache only invalidates the entries of the variables with changed locations.
+     * 
+     * @return the signature of the {@link CorrectionCache}
+     */
+    private @NonNull String getCacheSignature() {
+        String signature = "descriptions-v3:" + descriptionTemplates.getSignature();
+        if (locationIndex != null) {
+            signature += "+locations";
+        }
+        return signature;
+    }
+    
+    /**
+     * Closes the {@link #correctionCache}, if it is available, and logs the number of obsolete corrections.
+     */
+    private void closeCorrectionCache() {
+        CorrectionCache cache = correctionCache;
+        if (cache != null) {
+            correctionCache = null;
+            File obsoleteCorrectionsFile = getOutputFile("obsolete." + outputFormat);
+            try {
+                int obsoleteCorrectionsCounter = cache.close(obsoleteCorrectionsFile);
+                if (obsoleteCorrectionsCounter > 0) {
+                    LOGGER.logInfo2(obsoleteCorrectionsCounter, " corrections of the previous run are obsolete; see ",
+                            obsoleteCorrectionsFile.getAbsolutePath());
+                }
+            } catch (IOException e) {
+                LOGGER.logException("Closing correction cache failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Returns a new file in the {@link #outputDirectory}, which is named after the result of this component and the
+     * current time.
+     * 
+     * @param extension the file extension (without the leading dot)
+     * @return the output file
+     */
+    private @NonNull File getOutputFile(@NonNull String extension) {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        return new File(outputDirectory, getResultName() + "_" + timestamp + "." + extension);
+    }
+    
+    /**
+     * Closes the {@link #correctionSink}, if it is available.
+     */
+    private void closeCorrectionSink() {
+        CorrectionSink sink = correctionSink;
+        if (sink != null) {
+            correctionSink = null;
+            try {
+                sink.close();
+            } catch (IOException e) {
+                LOGGER.logException("Closing correction output failed", e);
+            }
+        }
+    }
 
     @Override
     public @NonNull String getResultName() {
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+/**
+ * This enumeration defines the available criteria for ranking corrections. If corrections are ranked, only the
+ * corrections with the highest scores are provided.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum RankingCriterion {
+
+    /**
+     * Corrections are not ranked; all corrections are provided in the order of their divergences.
+     */
+    NONE,
+
+    /**
+     * Corrections are scored by the number of their involved code elements.
+     */
+    CODE_ELEMENTS,
+
+    /**
+     * Corrections are scored by the number of their involved source files.
+     */
+    SOURCE_FILES,
+
+    /**
+     * Corrections are scored by the number of their involved variables.
+     */
+    VARIABLES,
+
+    /**
+     * Corrections are scored by the number of divergences they correct, which is only greater than <code>1</code> for
+     * grouped corrections.
+     */
+    DIVERGENCES,
+
+    /**
+     * Corrections are scored by the total number of their involved variables, source files, and code elements.
+     */
+    INVOLVED_ELEMENTS;
+
+}
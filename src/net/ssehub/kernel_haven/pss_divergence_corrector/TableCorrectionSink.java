@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.util.io.ITableCollection;
+import net.ssehub.kernel_haven.util.io.ITableWriter;
+import net.ssehub.kernel_haven.util.io.TableCollectionWriterFactory;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class realizes a {@link CorrectionSink}, which writes {@link Correction}s as rows of a table. The format of the
+ * table (e.g., CSV or Excel) is defined by the file extension of the output file. As the header of a correction
+ * depends on the type of its divergence (see {@link Correction#getHeader()}), but a table has a single header, the rows
+ * consist of the type-independent columns of the {@link #HEADER}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class TableCorrectionSink implements CorrectionSink {
+
+    /**
+     * The header of the table.
+     */
+    private static final @Nullable Object @NonNull [] HEADER = {"Correction Type", "Group", "Divergences",
+        "Variables", "Source Files", "Code Elements", "Correction"};
+
+    /**
+     * The {@link ITableCollection} representing the output file.
+     */
+    private @NonNull ITableCollection tableCollection;
+
+    /**
+     * The {@link ITableWriter} writing the corrections to the table.
+     */
+    private @NonNull ITableWriter tableWriter;
+
+    /**
+     * Creates a {@link TableCorrectionSink} instance.
+     * 
+     * @param outputFile the file to write the table to; its extension defines the format of the table
+     * @param tableName the name of the table, e.g., the name of the sheet in an Excel file
+     * @throws IOException if creating the output file or writing the header fails
+     */
+    TableCorrectionSink(@NonNull File outputFile, @NonNull String tableName) throws IOException {
+        tableCollection = TableCollectionWriterFactory.INSTANCE.createCollection(outputFile);
+        tableWriter = tableCollection.getWriter(tableName);
+        tableWriter.writeHeader(HEADER);
+    }
+
+    @Override
+    public void write(@NonNull Correction correction) throws IOException {
+        String groupKey = correction.getGroupKey();
+        tableWriter.writeRow(correction.getCorrectionType(), groupKey != null ? groupKey : "",
+                correction.getDivergencesCount(), correction.getInvolvedVariablesString(),
+                correction.getInvolvedSourceFilesString(), correction.getInvolvedCodeElementsString(),
+                correction.getDescription());
+        correction.release();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            tableWriter.close();
+        } finally {
+            tableCollection.close();
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.util.Collections;
+import java.util.List;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class represents a single alternative of another {@link Correction}. It is created by
+ * {@link Correction#getAlternatives()} for providing each alternative of a correction as a separate result.
+ *
+ * @author Christian Kröher
+ *
+ */
+class AlternativeCorrection extends Correction {
+
+    /**
+     * The {@link Correction} this correction is an alternative of.
+     */
+    private @NonNull Correction parent;
+
+    /**
+     * The index of the alternative of the {@link #parent} described by this correction.
+     */
+    private int alternativeIndex;
+
+    /**
+     * Creates an {@link AlternativeCorrection} instance.
+     *
+     * @param parent the {@link Correction} this correction is an alternative of
+     * @param alternativeIndex the index of the alternative of the given parent described by this correction
+     */
+    AlternativeCorrection(@NonNull Correction parent, int alternativeIndex) {
+        super(parent);
+        this.parent = parent;
+        this.alternativeIndex = alternativeIndex;
+        List<@NonNull ValidationResult> parentResults = parent.getValidationResults();
+        if (alternativeIndex < parentResults.size()) {
+            setValidationResults(Collections.singletonList(parentResults.get(alternativeIndex)));
+        }
+    }
+
+    @Override
+    protected @NonNull List<@NonNull String> createAlternativeDescriptions() {
+        return Collections.singletonList(parent.getAlternativeDescriptions().get(alternativeIndex));
+    }
+
+    @Override
+    protected @NonNull List<@NonNull CorrectionAlternative> createStructuredAlternatives() {
+        List<@NonNull CorrectionAlternative> parentAlternatives = parent.getStructuredAlternatives();
+        List<@NonNull CorrectionAlternative> alternatives;
+        if (alternativeIndex < parentAlternatives.size()) {
+            alternatives = Collections.singletonList(parentAlternatives.get(alternativeIndex));
+        } else {
+            alternatives = Collections.emptyList();
+        }
+        return alternatives;
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * The fingerprint of the {@link #parent} is extended by the index and, if available, the {@link CorrectionAction}
+     * of the described alternative. Hence, the alternatives of the same correction have different fingerprints.
+     */
+    @Override
+    public long getFingerprint() {
+        String alternative = Integer.toString(alternativeIndex);
+        List<@NonNull CorrectionAlternative> alternatives = getStructuredAlternatives();
+        if (!alternatives.isEmpty()) {
+            alternative += " " + alternatives.get(0).getAction().name();
+        }
+        return Fingerprint.extend(super.getFingerprint(), alternative);
+    }
+
+    @Override
+    public @NonNull String getCorrectionType() {
+        return parent.getCorrectionType();
+    }
+
+    @Override
+    public @NonNull CorrectionKind getKind() {
+        return parent.getKind();
+    }
+
+}
@@ -13,8 +13,17 @@
 package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.Location;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndex;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationKind;
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
 import net.ssehub.kernel_haven.util.io.ITableRow;
 import net.ssehub.kernel_haven.util.null_checks.NonNull;
@@ -31,9 +40,133 @@ import net.ssehub.kernel_haven.util.null_checks.Nullable;
 public abstract class Correction implements ITableRow {
     
     /**
-     * The {@link Divergence} to be corrected by this correction.
+     * The maximum number of locations listed in a description (see {@link #toLocationsDescription(LocationKind)}).
      */
-    protected @NonNull Divergence divergence;
+    private static final int MAX_DESCRIBED_LOCATIONS = 10;
+    
+    /**
+     * The header of the column containing the description of a correction.
+     */
+    private static final @NonNull String CORRECTION_HEADER = "Correction";
+    
+    /**
+     * The header shared by all aggregated corrections (see {@link #setGroupKey(String)}).
+     */
+    private static final @Nullable Object @NonNull [] AGGREGATED_HEADER = {"Correction Type", "Group", "Divergences",
+        CORRECTION_HEADER};
+    
+    /**
+     * The header of the corrections for each type of {@link Divergence}s, which consists of the header of the
+     * respective divergence extended by the {@link #CORRECTION_HEADER}. Each header is created only once and shared by
+     * all corrections of the same divergence type.
+     */
+    private static final @NonNull Map<Class<?>, @Nullable Object @NonNull []> HEADERS = new ConcurrentHashMap<>();
+    
+    /**
+     * The {@link Divergence} to be corrected by this correction. If this correction is merged with other corrections,
+     * this is the divergence of the first correction of the merged ones. This reference is <code>null</code> after
+     * {@link #release()} was called.
+     */
+    protected @Nullable Divergence divergence;
+    
+    /**
+     * The involved variables of all {@link Divergence}s corrected by this correction; is <code>null</code> as long as
+     * this correction is not merged with other corrections.
+     */
+    private @Nullable Set<String> mergedVariables;
+    
+    /**
+     * The involved source files of all {@link Divergence}s corrected by this correction; is <code>null</code> as long
+     * as this correction is not merged with other corrections.
+     */
+    private @Nullable Set<String> mergedSourceFiles;
+    
+    /**
+     * The involved code elements of all {@link Divergence}s corrected by this correction; is <code>null</code> as long
+     * as this correction is not merged with other corrections.
+     */
+    private @Nullable Set<String> mergedCodeElements;
+    
+    /**
+     * The number of {@link Divergence}s corrected by this correction.
+     */
+    private int divergencesCounter;
+    
+    /**
+     * The key of the group of corrections this correction aggregates; is <code>null</code>, if this correction is not
+     * the result of grouping corrections. Aggregating corrections are written with the aggregation columns (see
+     * {@link #getHeader()}) instead of the columns of their {@link Divergence}.
+     */
+    private @Nullable String groupKey;
+    
+    /**
+     * The whitespace-separated involved variables of all merged {@link Divergence}s; is <code>null</code> as long as
+     * it was not requested since the last merge.
+     */
+    private @Nullable String mergedVariablesString;
+    
+    /**
+     * The whitespace-separated involved source files of all merged {@link Divergence}s; is <code>null</code> as long
+     * as it was not requested since the last merge.
+     */
+    private @Nullable String mergedSourceFilesString;
+    
+    /**
+     * The whitespace-separated involved code elements of all merged {@link Divergence}s; is <code>null</code> as long
+     * as it was not requested since the last merge.
+     */
+    private @Nullable String mergedCodeElementsString;
+    
+    /**
+     * The descriptions of the alternatives of this correction as created by {@link #createAlternativeDescriptions()};
+     * is <code>null</code> as long as they were not requested since the creation or the last merge of this
+     * correction.
+     */
+    private volatile @Nullable List<@NonNull String> alternativeDescriptions;
+    
+    /**
+     * The structured alternatives of this correction as created by {@link #createStructuredAlternatives()}; is
+     * <code>null</code> as long as they were not requested since the creation or the last merge of this correction.
+     */
+    private volatile @Nullable List<@NonNull CorrectionAlternative> structuredAlternatives;
+    
+    /**
+     * The {@link ValidationResult} of each structured alternative of this correction as set by
+     * {@link #setValidationResults(List)}; is <code>null</code> as long as this correction is not validated since its
+     * creation or its last merge.
+     */
+    private volatile @Nullable List<@NonNull ValidationResult> validationResults;
+    
+    /**
+     * The description of this correction; is <code>null</code> as long as it was not requested since the creation or
+     * the last merge of this correction.
+     */
+    private volatile @Nullable String description;
+    
+    /**
+     * The {@link DescriptionTemplates} rendering the description of this correction as set by
+     * {@link #setDescriptionTemplates(DescriptionTemplates)}; the built-in templates by default.
+     */
+    private @NonNull DescriptionTemplates descriptionTemplates;
+    
+    /**
+     * The {@link LocationIndex} providing the locations of the involved variables for the description of this
+     * correction as set by {@link #setLocationIndex(LocationIndex)}; is <code>null</code>, if the description does not
+     * contain locations.
+     */
+    private @Nullable LocationIndex locationIndex;
+    
+    /**
+     * The fully qualified class name of the {@link #divergence}; retained for computing the fingerprint of this
+     * correction after {@link #release()}.
+     */
+    private @NonNull String divergenceType;
+    
+    /**
+     * The fingerprint of this correction as computed by {@link #getFingerprint()}; is <code>0</code> as long as it
+     * was not requested since the creation or the last merge of this correction.
+     */
+    private volatile long fingerprint;
     
     /**
      * Creates an {@link Correction} instance.
@@ -42,33 +175,451 @@ public abstract class Correction implements ITableRow {
      */
     public Correction(@NonNull Divergence divergence) {
         this.divergence = divergence;
+        divergencesCounter = 1;
+        descriptionTemplates = DescriptionTemplates.getDefault();
+        divergenceType = divergence.getClass().getName();
+    }
+    
+    /**
+     * Creates an {@link Correction} instance, which corrects the same {@link Divergence}s as the given correction.
+     * 
+     * @param template the {@link Correction} providing the {@link Divergence}s to be corrected by this correction
+     */
+    protected Correction(@NonNull Correction template) {
+        this.divergence = template.divergence;
+        this.mergedVariables = template.mergedVariables;
+        this.mergedSourceFiles = template.mergedSourceFiles;
+        this.mergedCodeElements = template.mergedCodeElements;
+        this.divergencesCounter = template.divergencesCounter;
+        this.groupKey = template.groupKey;
+        this.descriptionTemplates = template.descriptionTemplates;
+        this.locationIndex = template.locationIndex;
+        this.divergenceType = template.divergenceType;
     }
     
     /**
-     * Returns a textual description of this correction, e.g., how to correct the targeted divergence.
+     * Creates the textual descriptions of the alternative ways to correct the targeted divergence. Applying any one
+     * of these alternatives corrects the divergence. This method is called at most once per correction (and merge);
+     * its result is cached by {@link #getAlternativeDescriptions()}.
+     * 
+     * @return the descriptions of the alternatives of this correction; never empty
+     */
+    protected abstract @NonNull List<@NonNull String> createAlternativeDescriptions();
+    
+    /**
+     * Creates the structured alternatives of this correction (see {@link CorrectionAlternative}). If this method is
+     * overridden, the returned alternatives must correspond to the descriptions created by
+     * {@link #createAlternativeDescriptions()} in number and order, e.g., by creating these descriptions via
+     * {@link #describeStructuredAlternatives()}. This method is called at most once per correction (and merge); its
+     * result is cached by {@link #getStructuredAlternatives()}.
+     * 
+     * @return the structured alternatives of this correction; is <i>empty</i> by default, which means that this
+     *         correction is only described textually
+     */
+    protected @NonNull List<@NonNull CorrectionAlternative> createStructuredAlternatives() {
+        return Collections.emptyList();
+    }
+    
+    /**
+     * Returns the structured alternatives of this correction, which provide the action, the target artifact, and the
+     * involved elements of each alternative without the need for parsing its description. The alternatives are
+     * created on the first call of this method and cached afterwards.
+     * 
+     * @return the unmodifiable structured alternatives of this correction; can be <i>empty</i>, if this correction is
+     *         only described textually
+     */
+    public final @NonNull List<@NonNull CorrectionAlternative> getStructuredAlternatives() {
+        List<@NonNull CorrectionAlternative> alternatives = structuredAlternatives;
+        if (alternatives == null) {
+            alternatives = Collections.unmodifiableList(createStructuredAlternatives());
+            structuredAlternatives = alternatives;
+        }
+        return alternatives;
+    }
+    
+    /**
+     * Sets the {@link ValidationResult} of each structured alternative of this correction (see
+     * {@link #getStructuredAlternatives()}). Merging this correction discards the results.
+     * 
+     * @param results the results in the order of the structured alternatives
+     */
+    public final void setValidationResults(@NonNull List<@NonNull ValidationResult> results) {
+        validationResults = Collections.unmodifiableList(results);
+    }
+    
+    /**
+     * Returns the {@link ValidationResult} of each structured alternative of this correction.
+     * 
+     * @return the unmodifiable results in the order of the structured alternatives; is <i>empty</i>, if this
+     *         correction is not validated
+     */
+    public final @NonNull List<@NonNull ValidationResult> getValidationResults() {
+        List<@NonNull ValidationResult> results = validationResults;
+        if (results == null) {
+            results = Collections.emptyList();
+        }
+        return results;
+    }
+    
+    /**
+     * Creates the textual descriptions of the structured alternatives of this correction as provided by
+     * {@link #getStructuredAlternatives()}. Each alternative is described by rendering its template; alternatives
+     * without template are described by their string representation.
+     * 
+     * @return the descriptions of the structured alternatives in their order
+     */
+    protected @NonNull List<@NonNull String> describeStructuredAlternatives() {
+        List<@NonNull CorrectionAlternative> alternatives = getStructuredAlternatives();
+        List<@NonNull String> descriptions = new ArrayList<>(alternatives.size());
+        for (CorrectionAlternative alternative : alternatives) {
+            DescriptionTemplateKey templateKey = alternative.getTemplateKey();
+            if (templateKey != null) {
+                descriptions.add(renderDescription(templateKey));
+            } else {
+                descriptions.add(alternative.toString());
+            }
+        }
+        return descriptions;
+    }
+    
+    /**
+     * Returns the textual descriptions of the alternative ways to correct the targeted divergence. Applying any one
+     * of these alternatives corrects the divergence. The descriptions are created on the first call of this method
+     * and cached afterwards.
+     * 
+     * @return the unmodifiable descriptions of the alternatives of this correction; never empty
+     */
+    public final @NonNull List<@NonNull String> getAlternativeDescriptions() {
+        List<@NonNull String> descriptions = alternativeDescriptions;
+        if (descriptions == null) {
+            descriptions = Collections.unmodifiableList(createAlternativeDescriptions());
+            alternativeDescriptions = descriptions;
+        }
+        return descriptions;
+    }
+    
+    /**
+     * Sets the descriptions of the alternatives of this correction, which were created by another instance of this
+     * correction for the same {@link Divergence} before, e.g., in a previous analysis run. Hence, the descriptions do
+     * not need to be created again by {@link #createAlternativeDescriptions()}.
+     * 
+     * @param restoredAlternativeDescriptions the descriptions of the alternatives of this correction
+     */
+    public void restoreAlternativeDescriptions(@NonNull List<@NonNull String> restoredAlternativeDescriptions) {
+        alternativeDescriptions = Collections.unmodifiableList(restoredAlternativeDescriptions);
+        description = null;
+    }
+    
+    /**
+     * Sets the {@link DescriptionTemplates} rendering the description of this correction. The templates are kept by
+     * this correction; hence, its description can be created at any time, e.g., after the analysis run finished.
+     * Descriptions created before are discarded.
+     * 
+     * @param descriptionTemplates the {@link DescriptionTemplates} rendering the description of this correction
+     */
+    public void setDescriptionTemplates(@NonNull DescriptionTemplates descriptionTemplates) {
+        this.descriptionTemplates = descriptionTemplates;
+        alternativeDescriptions = null;
+        description = null;
+    }
+    
+    /**
+     * Sets the {@link LocationIndex} providing the locations of the involved variables for the description of this
+     * correction. The index is kept by this correction; hence, its description can be created at any time, e.g., after
+     * the analysis run finished. Descriptions created before are discarded.
+     * 
+     * @param locationIndex the {@link LocationIndex} or <code>null</code>, if the description shall not contain
+     *        locations
+     */
+    public void setLocationIndex(@Nullable LocationIndex locationIndex) {
+        this.locationIndex = locationIndex;
+        alternativeDescriptions = null;
+        description = null;
+    }
+    
+    /**
+     * Returns a textual description of this correction, e.g., how to correct the targeted divergence. This
+     * description contains all alternatives as provided by {@link #getAlternativeDescriptions()} joined according to
+     * the {@link DescriptionFormat} of the {@link DescriptionTemplates} of this correction. The description is created
+     * on the first call of this method and cached afterwards.
      * 
      * @return the description of this correction
      */
-    public abstract @NonNull String getDescription();
+    public final @NonNull String getDescription() {
+        String cachedDescription = description;
+        if (cachedDescription == null) {
+            cachedDescription = descriptionTemplates.joinAlternatives(getAlternativeDescriptions());
+            description = cachedDescription;
+        }
+        return cachedDescription;
+    }
+    
+    /**
+     * Returns the type of this correction, which is the simple name of its class by default.
+     * 
+     * @return the type of this correction
+     */
+    public @NonNull String getCorrectionType() {
+        return getClass().getSimpleName();
+    }
+    
+    /**
+     * Returns the fingerprint of this correction, which identifies this correction across analysis runs. It is
+     * computed by {@link Fingerprint#of(String, String, String, String, String)} from the type of the corrected
+     * {@link Divergence}, the type of this correction, and the involved elements.
+     * 
+     * @return the fingerprint of this correction
+     */
+    public long getFingerprint() {
+        long currentFingerprint = fingerprint;
+        if (currentFingerprint == 0) {
+            currentFingerprint = Fingerprint.of(divergenceType, getCorrectionType(), getInvolvedVariablesString(),
+                    getInvolvedSourceFilesString(), getInvolvedCodeElementsString());
+            fingerprint = currentFingerprint;
+        }
+        return currentFingerprint;
+    }
+    
+    /**
+     * Returns the {@link CorrectionKind} of this correction, which is {@link CorrectionKind#OTHER} by default.
+     * 
+     * @return the {@link CorrectionKind} of this correction
+     */
+    public @NonNull CorrectionKind getKind() {
+        return CorrectionKind.OTHER;
+    }
     
+    /**
+     * Returns the individual alternatives of this correction as separate corrections. Each of the returned corrections
+     * corrects the same {@link Divergence}s as this correction, but describes only one of its alternatives.
+     * 
+     * @return the alternatives of this correction as separate corrections; never empty
+     */
+    public @NonNull List<@NonNull Correction> getAlternatives() {
+        List<@NonNull String> alternativeDescriptions = getAlternativeDescriptions();
+        List<@NonNull Correction> alternatives = new ArrayList<>(alternativeDescriptions.size());
+        for (int i = 0; i < alternativeDescriptions.size(); i++) {
+            alternatives.add(new AlternativeCorrection(this, i));
+        }
+        return alternatives;
+    }
+    
+    /**
+     * Merges the given correction into this correction. Afterwards, this correction also corrects the
+     * {@link Divergence}s of the given correction. Hence, its description covers the involved variables, source files,
+     * and code elements of both corrections.
+     * 
+     * @param other the correction to merge into this correction; should be of the same type as this correction
+     */
+    public void merge(@NonNull Correction other) {
+        if (mergedVariables == null) {
+            mergedVariables = toSet(getInvolvedVariablesString());
+            mergedSourceFiles = toSet(getInvolvedSourceFilesString());
+            mergedCodeElements = toSet(getInvolvedCodeElementsString());
+        }
+        addTokens(mergedVariables, other.getInvolvedVariablesString());
+        addTokens(mergedSourceFiles, other.getInvolvedSourceFilesString());
+        addTokens(mergedCodeElements, other.getInvolvedCodeElementsString());
+        divergencesCounter += other.divergencesCounter;
+        mergedVariablesString = null;
+        mergedSourceFilesString = null;
+        mergedCodeElementsString = null;
+        alternativeDescriptions = null;
+        structuredAlternatives = null;
+        validationResults = null;
+        description = null;
+        fingerprint = 0;
+    }
+    
+    /**
+     * Releases the {@link Divergence}s and all cached data of this correction after it was written to an output. This
+     * correction must not be used afterwards; in particular, its header and content are no longer available.
+     */
+    public void release() {
+        divergence = null;
+        mergedVariables = null;
+        mergedSourceFiles = null;
+        mergedCodeElements = null;
+        mergedVariablesString = null;
+        mergedSourceFilesString = null;
+        mergedCodeElementsString = null;
+        alternativeDescriptions = null;
+        structuredAlternatives = null;
+        validationResults = null;
+        description = null;
+    }
+    
+    /**
+     * Marks this correction as the aggregation of the group of corrections identified by the given key. Aggregating
+     * corrections are written with the aggregation columns instead of the columns of their {@link Divergence}.
+     * 
+     * @param groupKey the key of the group of corrections aggregated by this correction
+     */
+    public void setGroupKey(@NonNull String groupKey) {
+        this.groupKey = groupKey;
+    }
+    
+    /**
+     * Returns the key of the group of corrections aggregated by this correction.
+     * 
+     * @return the key of the group of corrections aggregated by this correction or <code>null</code>, if this
+     *         correction is not the result of grouping corrections
+     */
+    public @Nullable String getGroupKey() {
+        return groupKey;
+    }
+    
+    /**
+     * Returns the number of {@link Divergence}s corrected by this correction.
+     * 
+     * @return the number of {@link Divergence}s corrected by this correction; always greater than <code>0</code>
+     */
+    public int getDivergencesCount() {
+        return divergencesCounter;
+    }
+    
+    /**
+     * Returns the whitespace-separated variables involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the involved variables; can be <i>empty</i>
+     */
+    public @NonNull String getInvolvedVariablesString() {
+        String involvedVariables = mergedVariablesString;
+        if (involvedVariables == null) {
+            involvedVariables = getInvolvedElementsString(mergedVariables,
+                    divergence != null ? divergence.getInvolvedVariablesString() : null);
+            if (mergedVariables != null) {
+                mergedVariablesString = involvedVariables;
+            }
+        }
+        return involvedVariables;
+    }
+    
+    /**
+     * Returns the whitespace-separated source files involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the involved source files; can be <i>empty</i>
+     */
+    public @NonNull String getInvolvedSourceFilesString() {
+        String involvedSourceFiles = mergedSourceFilesString;
+        if (involvedSourceFiles == null) {
+            involvedSourceFiles = getInvolvedElementsString(mergedSourceFiles,
+                    divergence != null ? divergence.getInvolvedSourceFilesString() : null);
+            if (mergedSourceFiles != null) {
+                mergedSourceFilesString = involvedSourceFiles;
+            }
+        }
+        return involvedSourceFiles;
+    }
+    
+    /**
+     * Returns the whitespace-separated code elements involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the involved code elements; can be <i>empty</i>
+     */
+    public @NonNull String getInvolvedCodeElementsString() {
+        String involvedCodeElements = mergedCodeElementsString;
+        if (involvedCodeElements == null) {
+            involvedCodeElements = getInvolvedElementsString(mergedCodeElements,
+                    divergence != null ? divergence.getInvolvedCodeElementsString() : null);
+            if (mergedCodeElements != null) {
+                mergedCodeElementsString = involvedCodeElements;
+            }
+        }
+        return involvedCodeElements;
+    }
+    
+    /**
+     * Returns the number of variables involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the number of involved variables
+     */
+    public int getInvolvedVariablesCount() {
+        return countTokens(getInvolvedVariablesString());
+    }
+    
+    /**
+     * Returns the number of source files involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the number of involved source files
+     */
+    public int getInvolvedSourceFilesCount() {
+        return countTokens(getInvolvedSourceFilesString());
+    }
+    
+    /**
+     * Returns the number of code elements involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the number of involved code elements
+     */
+    public int getInvolvedCodeElementsCount() {
+        return countTokens(getInvolvedCodeElementsString());
+    }
+    
+    /**
+     * Returns the variables involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the involved variables; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getInvolvedVariables() {
+        return toList(getInvolvedVariablesString());
+    }
+    
+    /**
+     * Returns the source files involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the involved source files; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getInvolvedSourceFiles() {
+        return toList(getInvolvedSourceFilesString());
+    }
+    
+    /**
+     * Returns the code elements involved in the {@link Divergence}s corrected by this correction.
+     * 
+     * @return the involved code elements; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getInvolvedCodeElements() {
+        return toList(getInvolvedCodeElementsString());
+    }
+    
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * The returned array is shared by all corrections of the same type of {@link Divergence}s and, hence, must not be
+     * modified.
+     */
     @Override
     public @Nullable Object @NonNull [] getHeader() {
-        // For writing the Excel-sheet headers: extend divergence table by "Correction" column
-        String correctionHeader = "Correction";
-        Object[] headers = {correctionHeader};
-        if (divergence != null) {
-            headers = extend(divergence.getHeader(), correctionHeader);
+        Object[] headers;
+        if (groupKey != null) {
+            // For writing the Excel-sheet headers of aggregated corrections
+            headers = AGGREGATED_HEADER;
+        } else if (divergence != null) {
+            // For writing the Excel-sheet headers: extend divergence table by "Correction" column
+            headers = HEADERS.get(divergence.getClass());
+            if (headers == null) {
+                headers = extend(divergence.getHeader(), CORRECTION_HEADER);
+                HEADERS.put(divergence.getClass(), headers);
+            }
+        } else {
+            headers = new Object[] {CORRECTION_HEADER};
         }
         return headers;
     }
 
     @Override
     public @Nullable Object @NonNull [] getContent() {
-        // For writing each correction as an extension to the divergence row to the Excel-sheet
+        Object[] content;
         String correctionContent = getDescription();
-        Object[] content = {correctionContent};
-        if (divergence != null) {
+        if (groupKey != null) {
+            // For writing each aggregated correction as a row of its own to the Excel-sheet
+            content = new Object[] {getCorrectionType(), groupKey, divergencesCounter, correctionContent};
+        } else if (divergence != null) {
+            // For writing each correction as an extension to the divergence row to the Excel-sheet
             content = extend(divergence.getContent(), correctionContent);
+        } else {
+            content = new Object[] {correctionContent};
         }
         return content;
     }
@@ -86,45 +637,220 @@ public abstract class Correction implements ITableRow {
      *         <i>empty</i> if the given string does not contain any characters
      */
     protected @NonNull String toDescriptionString(@NonNull String involvedElements) {
-        StringBuilder descriptionStringBuilder = new StringBuilder("");
-        if (!involvedElements.isEmpty()) {            
-            String[] splittedInvolvedElements = involvedElements.split("\\s+");
-            int involvedElementsNumber = splittedInvolvedElements.length;
-            if (involvedElementsNumber > 0) {
-                descriptionStringBuilder.append("\"" + splittedInvolvedElements[0] + "\"");
-                if (involvedElementsNumber == 2) {
-                    // Exactly 2 elements: return ""Elem1" and "Elem2""
-                    descriptionStringBuilder.append(" and ");
-                    descriptionStringBuilder.append("\"" + splittedInvolvedElements[1] + "\"");
-                } else if (involvedElementsNumber > 2) {
-                    // More than 2 elements: return ""Elem1, Elem2, [...], and "ElemX""
-                    for (int i = 1; i < involvedElementsNumber - 1; i++) {
-                        descriptionStringBuilder.append(", ");
-                        descriptionStringBuilder.append(splittedInvolvedElements[i]);
+        // Each element is quoted at most and separated by at most ", and " (6 characters)
+        StringBuilder descriptionStringBuilder = new StringBuilder(involvedElements.length()
+                + 8 * countTokens(involvedElements));
+        DescriptionFormat.PLAIN.appendList(descriptionStringBuilder, involvedElements);
+        return descriptionStringBuilder.toString();
+    }
+    
+    /**
+     * Renders the template with the given key of the {@link DescriptionTemplates} of this correction. This
+     * is the preferred way for subclasses to create the descriptions of their alternatives in
+     * {@link #createAlternativeDescriptions()}.
+     * 
+     * @param key the key of the template to render; must not be a locations template
+     * @return the rendered template
+     */
+    protected @NonNull String renderDescription(@NonNull DescriptionTemplateKey key) {
+        return descriptionTemplates.render(key, this);
+    }
+    
+    /**
+     * Returns the locations of the given kind of the variables involved in the {@link Divergence}s corrected by this
+     * correction as a string appropriate for appending it to a correction description, e.g.:
+     * <code>" (see "drivers/Kconfig:12:8" and "drivers/Makefile:3:10")"</code>. At most
+     * {@link #MAX_DESCRIBED_LOCATIONS} locations are listed; the number of further locations is appended. The string
+     * is rendered by the locations templates of the {@link DescriptionTemplates} of this correction.
+     * 
+     * @param kind the kind of the locations to describe
+     * @return a string containing the locations properly formatted for a correction description; is <i>empty</i>, if
+     *         no {@link LocationIndex} is set or the involved variables do not have locations of the given kind
+     */
+    protected @NonNull String toLocationsDescription(@NonNull LocationKind kind) {
+        StringBuilder descriptionStringBuilder = new StringBuilder();
+        appendLocations(descriptionStringBuilder, descriptionTemplates, kind);
+        return descriptionStringBuilder.toString();
+    }
+    
+    /**
+     * Appends a space followed by the locations of the given kind of the variables involved in the {@link Divergence}s
+     * corrected by this correction to the given {@link StringBuilder}. Nothing is appended, if no
+     * {@link LocationIndex} is set or the involved variables do not have locations of the given kind.
+     * 
+     * @param output the {@link StringBuilder} to append the locations to
+     * @param templates the {@link DescriptionTemplates} providing the locations templates
+     * @param kind the kind of the locations to describe
+     */
+    void appendLocations(@NonNull StringBuilder output, @NonNull DescriptionTemplates templates,
+            @NonNull LocationKind kind) {
+        LocationIndex index = locationIndex;
+        if (index != null) {
+            StringBuilder locationsStringBuilder = null;
+            int locationsCounter = 0;
+            for (String involvedVariable : getInvolvedVariables()) {
+                for (Location location : index.getLocations(involvedVariable, kind)) {
+                    if (locationsCounter < MAX_DESCRIBED_LOCATIONS) {
+                        if (locationsStringBuilder == null) {
+                            locationsStringBuilder = new StringBuilder();
+                        }
+                        locationsStringBuilder.append(location).append(' ');
                     }
-                    descriptionStringBuilder.append(", and ");
-                    descriptionStringBuilder.append("\"" + splittedInvolvedElements[involvedElementsNumber - 1] + "\"");
+                    locationsCounter++;
                 }
             }
+            if (locationsStringBuilder != null) {
+                output.append(' ');
+                templates.renderLocations(output, locationsStringBuilder.toString(),
+                        Math.max(0, locationsCounter - MAX_DESCRIBED_LOCATIONS));
+            }
         }
-        return descriptionStringBuilder.toString();
     }
     
     /**
-     * Extends the given array by the given object.
+     * Counts the whitespace-separated elements in the given string.
+     * 
+     * @param involvedElements the string containing whitespace-separated elements
+     * @return the number of elements in the given string
+     */
+    static int countTokens(@NonNull String involvedElements) {
+        int tokenCounter = 0;
+        int tokenStart = nextTokenStart(involvedElements, 0);
+        while (tokenStart < involvedElements.length()) {
+            tokenCounter++;
+            tokenStart = nextTokenStart(involvedElements, nextTokenEnd(involvedElements, tokenStart));
+        }
+        return tokenCounter;
+    }
+    
+    /**
+     * Returns the index of the first non-whitespace character in the given string starting at the given index.
+     * 
+     * @param involvedElements the string containing whitespace-separated elements
+     * @param fromIndex the index to start searching from
+     * @return the index of the first character of the next element or the length of the given string, if no further
+     *         element exists
+     */
+    static int nextTokenStart(@NonNull String involvedElements, int fromIndex) {
+        int index = fromIndex;
+        while (index < involvedElements.length() && isWhitespace(involvedElements.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+    
+    /**
+     * Returns the index of the first whitespace character in the given string starting at the given index.
+     * 
+     * @param involvedElements the string containing whitespace-separated elements
+     * @param fromIndex the index of the first character of an element
+     * @return the index directly after the last character of the element starting at the given index
+     */
+    static int nextTokenEnd(@NonNull String involvedElements, int fromIndex) {
+        int index = fromIndex;
+        while (index < involvedElements.length() && !isWhitespace(involvedElements.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+    
+    /**
+     * Checks whether the given character is a whitespace character as defined by the regular expression class
+     * <code>\s</code>, which separates the elements involved in a {@link Divergence}.
+     * 
+     * @param character the character to check
+     * @return <code>true</code>, if the given character is a whitespace character; <code>false</code> otherwise
+     */
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\u000B'
+                || character == '\f' || character == '\r';
+    }
+    
+    /**
+     * Returns the given merged elements as a whitespace-separated string or, if they are <code>null</code>, the given
+     * elements of the {@link #divergence}.
+     * 
+     * @param mergedElements the elements of all merged {@link Divergence}s; may be <code>null</code>
+     * @param divergenceElements the whitespace-separated elements of the {@link #divergence}; may be <code>null</code>
+     * @return the whitespace-separated elements; can be <i>empty</i>
+     */
+    private @NonNull String getInvolvedElementsString(@Nullable Set<String> mergedElements,
+            @Nullable String divergenceElements) {
+        String involvedElements;
+        if (mergedElements != null) {
+            involvedElements = String.join(" ", mergedElements);
+        } else if (divergenceElements != null) {
+            involvedElements = divergenceElements;
+        } else {
+            involvedElements = "";
+        }
+        return involvedElements;
+    }
+    
+    /**
+     * Creates a new, insertion-ordered set containing the elements of the given whitespace-separated string.
+     * 
+     * @param involvedElements the string containing whitespace-separated elements
+     * @return the set of elements; can be <i>empty</i>
+     */
+    private static @NonNull Set<String> toSet(@NonNull String involvedElements) {
+        Set<String> elements = new LinkedHashSet<>();
+        addTokens(elements, involvedElements);
+        return elements;
+    }
+    
+    /**
+     * Creates a new list containing the elements of the given whitespace-separated string in their order of
+     * occurrence.
+     * 
+     * @param involvedElements the string containing whitespace-separated elements
+     * @return the list of elements; can be <i>empty</i>
+     */
+    private static @NonNull List<@NonNull String> toList(@NonNull String involvedElements) {
+        List<@NonNull String> elements = new ArrayList<>(countTokens(involvedElements));
+        int tokenStart = nextTokenStart(involvedElements, 0);
+        while (tokenStart < involvedElements.length()) {
+            int tokenEnd = nextTokenEnd(involvedElements, tokenStart);
+            elements.add(involvedElements.substring(tokenStart, tokenEnd));
+            tokenStart = nextTokenStart(involvedElements, tokenEnd);
+        }
+        return elements;
+    }
+    
+    /**
+     * Adds the elements of the given whitespace-separated string to the given set. The added elements are the
+     * canonical instances provided by the {@link NamePool}.
+     * 
+     * @param elements the set to add the elements to; may be <code>null</code>, which results in adding nothing
+     * @param involvedElements the string containing whitespace-separated elements
+     */
+    private static void addTokens(@Nullable Set<String> elements, @NonNull String involvedElements) {
+        if (elements != null) {
+            int tokenStart = nextTokenStart(involvedElements, 0);
+            while (tokenStart < involvedElements.length()) {
+                int tokenEnd = nextTokenEnd(involvedElements, tokenStart);
+                elements.add(NamePool.get(involvedElements.substring(tokenStart, tokenEnd)));
+                tokenStart = nextTokenStart(involvedElements, tokenEnd);
+            }
+        }
+    }
+    
+    /**
+     * Extends the given array by the given object. The returned array is created with its final size and filled by a
+     * single copy of the given array.
      * 
      * @param extensible the array to be extended by the extension
      * @param extension the extension to be added to the extensible
      * @return an array, which contains all elements of the given array and the extension
      */
-    private @NonNull Object[] extend(Object[] extensible, Object extension) {
-        List<Object> extended = new ArrayList<Object>();
+    private static @NonNull Object[] extend(Object[] extensible, Object extension) {
+        Object[] extended;
         if (extensible != null) {
-            for (int i = 0; i < extensible.length; i++) {
-                extended.add(extensible[i]);
-            }
+            extended = Arrays.copyOf(extensible, extensible.length + 1, Object[].class);
+            extended[extensible.length] = extension;
+        } else {
+            extended = new Object[] {extension};
         }
-        extended.add(extension);
-        return extended.toArray();
+        return extended;
     }
 }
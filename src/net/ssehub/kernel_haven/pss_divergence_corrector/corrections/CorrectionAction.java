@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+/**
+ * This enumeration defines the actions of the alternatives of {@link Correction}s (see {@link CorrectionAlternative}).
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum CorrectionAction {
+
+    /**
+     * The involved variables are defined in the target artifact.
+     */
+    DEFINE,
+
+    /**
+     * The involved variables or their references are removed from the target artifact.
+     */
+    REMOVE,
+
+    /**
+     * At least one reference to the involved variables is added to the target artifact.
+     */
+    REFERENCE;
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.util.List;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class represents a single alternative of a {@link Correction} in a structured way: the {@link CorrectionAction}
+ * to perform, the {@link CorrectionArtifact} to change, and the elements involved in this change. In contrast to the
+ * textual descriptions of a correction, these alternatives can be evaluated or serialized without parsing any text.
+ * <br>
+ * Instances of this class are immutable.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public final class CorrectionAlternative {
+
+    /**
+     * The {@link CorrectionAction} of this alternative.
+     */
+    private @NonNull CorrectionAction action;
+
+    /**
+     * The {@link CorrectionArtifact} changed by this alternative.
+     */
+    private @NonNull CorrectionArtifact artifact;
+
+    /**
+     * The variables the {@link #action} is performed for.
+     */
+    private @NonNull List<@NonNull String> variables;
+
+    /**
+     * The source files whose presence conditions are changed by this alternative.
+     */
+    private @NonNull List<@NonNull String> sourceFiles;
+
+    /**
+     * The code elements whose presence conditions are changed by this alternative.
+     */
+    private @NonNull List<@NonNull String> codeElements;
+
+    /**
+     * The key of the template describing this alternative; is <code>null</code>, if this alternative is not described
+     * by a template.
+     */
+    private @Nullable DescriptionTemplateKey templateKey;
+
+    /**
+     * Creates a {@link CorrectionAlternative} instance.
+     * 
+     * @param action the {@link CorrectionAction} of the alternative
+     * @param artifact the {@link CorrectionArtifact} changed by the alternative
+     * @param variables the unmodifiable variables the action is performed for
+     * @param sourceFiles the unmodifiable source files whose presence conditions are changed; can be <i>empty</i>
+     * @param codeElements the unmodifiable code elements whose presence conditions are changed; can be <i>empty</i>
+     * @param templateKey the key of the template describing the alternative; may be <code>null</code>
+     */
+    public CorrectionAlternative(@NonNull CorrectionAction action, @NonNull CorrectionArtifact artifact,
+            @NonNull List<@NonNull String> variables, @NonNull List<@NonNull String> sourceFiles,
+            @NonNull List<@NonNull String> codeElements, @Nullable DescriptionTemplateKey templateKey) {
+        this.action = action;
+        this.artifact = artifact;
+        this.variables = variables;
+        this.sourceFiles = sourceFiles;
+        this.codeElements = codeElements;
+        this.templateKey = templateKey;
+    }
+
+    /**
+     * Returns the {@link CorrectionAction} of this alternative.
+     * 
+     * @return the {@link CorrectionAction} of this alternative
+     */
+    public @NonNull CorrectionAction getAction() {
+        return action;
+    }
+
+    /**
+     * Returns the {@link CorrectionArtifact} changed by this alternative.
+     * 
+     * @return the {@link CorrectionArtifact} of this alternative
+     */
+    public @NonNull CorrectionArtifact getArtifact() {
+        return artifact;
+    }
+
+    /**
+     * Returns the variables the {@link CorrectionAction} of this alternative is performed for.
+     * 
+     * @return the unmodifiable variables of this alternative
+     */
+    public @NonNull List<@NonNull String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Returns the source files whose presence conditions are changed by this alternative.
+     * 
+     * @return the unmodifiable source files of this alternative; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getSourceFiles() {
+        return sourceFiles;
+    }
+
+    /**
+     * Returns the code elements whose presence conditions are changed by this alternative.
+     * 
+     * @return the unmodifiable code elements of this alternative; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getCodeElements() {
+        return codeElements;
+    }
+
+    /**
+     * Returns the key of the template describing this alternative.
+     * 
+     * @return the {@link DescriptionTemplateKey} of this alternative or <code>null</code>, if this alternative is not
+     *         described by a template
+     */
+    public @Nullable DescriptionTemplateKey getTemplateKey() {
+        return templateKey;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return action + " " + variables + " in " + artifact;
+    }
+
+}
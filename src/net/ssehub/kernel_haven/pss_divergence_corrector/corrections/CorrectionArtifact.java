@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+/**
+ * This enumeration defines the artifacts targeted by the alternatives of {@link Correction}s (see
+ * {@link CorrectionAlternative}).
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum CorrectionArtifact {
+
+    /**
+     * The variability model, e.g., the Kconfig files.
+     */
+    VARIABILITY_MODEL,
+
+    /**
+     * The build artifacts, e.g., the Makefiles.
+     */
+    BUILD,
+
+    /**
+     * The code artifacts, e.g., the C source and header files.
+     */
+    CODE,
+
+    /**
+     * Either the build or the code artifacts; the alternative is applied to at least one of them.
+     */
+    BUILD_OR_CODE;
+
+}
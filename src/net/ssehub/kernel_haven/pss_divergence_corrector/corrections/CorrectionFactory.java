@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This interface defines a factory creating specific {@link Correction}s for a specific type of {@link Divergence}s.
+ * Factories are registered at the {@link CorrectionProvider}, either directly, via the {@link java.util.ServiceLoader}
+ * mechanism (<i>META-INF/services/net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionFactory</i>),
+ * or via the configuration setting <i>analysis.pss_corrector.correction_factories</i>. Hence, plug-ins can provide
+ * their own corrections without changing this plug-in.<br>
+ * <br>
+ * Implementations must be thread-safe, as corrections may be created by multiple worker threads concurrently.
+ * Implementations registered via the {@link java.util.ServiceLoader} or the configuration must provide a public
+ * constructor without parameters.
+ *
+ * @author Christian Kröher
+ *
+ */
+public interface CorrectionFactory {
+
+    /**
+     * Returns the type of {@link Divergence}s for which this factory creates {@link Correction}s. This factory will
+     * also be used for subclasses of the returned type, if no other factory is registered for a more specific type.
+     *
+     * @return the type of {@link Divergence}s supported by this factory
+     */
+    @NonNull Class<? extends Divergence> getDivergenceType();
+
+    /**
+     * Creates a {@link Correction} for the given {@link Divergence}.
+     *
+     * @param divergence the {@link Divergence} to correct; is always an instance of {@link #getDivergenceType()}
+     * @return a {@link Correction} or <code>null</code> if the given divergence cannot be corrected
+     */
+    @Nullable Correction createCorrection(@NonNull Divergence divergence);
+
+}
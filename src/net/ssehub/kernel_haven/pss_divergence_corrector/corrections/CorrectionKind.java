@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This enumeration defines the kinds of {@link Correction}s provided by this plug-in. Corrections provided by other
+ * plug-ins are of kind {@link #OTHER}; their type is identified by {@link Correction#getCorrectionType()}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum CorrectionKind {
+
+    /**
+     * The kind of {@link Correction}s provided by {@link UnusedVariableCorrection}s.
+     */
+    UNUSED_VARIABLE,
+
+    /**
+     * The kind of {@link Correction}s provided by {@link UndefinedVariableCorrection}s.
+     */
+    UNDEFINED_VARIABLE,
+
+    /**
+     * The kind of all other {@link Correction}s.
+     */
+    OTHER;
+
+    /**
+     * The constants of this enumeration indexed by their ordinal.
+     */
+    private static final @NonNull CorrectionKind @NonNull [] VALUES = values();
+
+    /**
+     * Returns the {@link CorrectionKind} with the given ordinal.
+     * 
+     * @param ordinal the ordinal of the requested {@link CorrectionKind}
+     * @return the {@link CorrectionKind} with the given ordinal or {@link #OTHER}, if no such kind exists
+     */
+    public static @NonNull CorrectionKind fromOrdinal(int ordinal) {
+        CorrectionKind kind = OTHER;
+        if (ordinal >= 0 && ordinal < VALUES.length) {
+            kind = VALUES[ordinal];
+        }
+        return kind;
+    }
+
+}
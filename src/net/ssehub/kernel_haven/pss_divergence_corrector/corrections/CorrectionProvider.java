@@ -12,45 +12,309 @@
  */
 package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import net.ssehub.kernel_haven.SetUpException;
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.Logger;
 import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
 
 /**
- * This class provides the specific {@link Correction}s for identified {@link Divergence}s.
+ * This class provides the specific {@link Correction}s for identified {@link Divergence}s. For this purpose, it
+ * maintains a registry of {@link CorrectionFactory}s indexed by the type of {@link Divergence}s they support. The
+ * factory for a concrete divergence type is resolved only once and cached afterwards. Hence, providing a correction
+ * requires constant time independent of the number of registered factories. Registering a factory never modifies the
+ * registry used by concurrently providing threads; it swaps in a new, immutable registry with an empty cache instead.
+ * <br>
+ * The singleton instance (see {@link #getInstance()}) discovers the factories of this plug-in and of other plug-ins.
+ * Each {@link net.ssehub.kernel_haven.pss_divergence_corrector.ProblemSolutionSpaceDivergenceCorrector} derives its
+ * own provider from the singleton instance (see {@link #CorrectionProvider(CorrectionProvider)}) for registering the
+ * factories of its configuration. Hence, these registrations neither affect other correctors nor later runs.
  *
  * @author Christian Kröher
  *
  */
 public class CorrectionProvider {
 
+    /**
+     * The {@link Logger} for logging the registration of {@link CorrectionFactory}s.
+     */
+    private static final @NonNull Logger LOGGER = Logger.get();
+
+    /**
+     * The {@link CorrectionFactory} used as a marker in the {@link Registry#resolvedFactories} for divergence types
+     * without a registered factory; {@link ConcurrentHashMap}s do not support <code>null</code> values.
+     */
+    private static final @NonNull CorrectionFactory NO_FACTORY = new TypedCorrectionFactory(Divergence.class,
+        (divergence) -> null);
+
     /**
      * The singleton instance of the {@link CorrectionProvider}.
      */
     private static @NonNull CorrectionProvider instance = new CorrectionProvider();
-    
+
+    /**
+     * The current {@link Registry} of {@link CorrectionFactory}s. Each registration replaces this registry by a new
+     * one; threads providing corrections always resolve against a consistent registry.
+     */
+    private volatile @NonNull Registry registry;
+
+    /**
+     * Creates a {@link CorrectionProvider} instance, which registers the {@link CorrectionFactory}s of this plug-in
+     * and all factories available via the {@link ServiceLoader}.
+     */
+    private CorrectionProvider() {
+        Map<Class<?>, CorrectionFactory> factories = new HashMap<>();
+        put(factories, new TypedCorrectionFactory(UnusedVariableDivergence.class, UnusedVariableCorrection::new));
+        put(factories, new TypedCorrectionFactory(UndefinedVariableDivergence.class,
+                UndefinedVariableCorrection::new));
+        try {
+            for (CorrectionFactory factory : ServiceLoader.load(CorrectionFactory.class, getClassLoader())) {
+                put(factories, factory);
+            }
+        } catch (ServiceConfigurationError e) {
+            LOGGER.logException("Loading correction factories via service loader failed", e);
+        }
+        registry = new Registry(factories);
+    }
+
+    /**
+     * Creates a {@link CorrectionProvider} instance, which initially provides the same {@link CorrectionFactory}s as
+     * the given provider. Registering factories at either provider afterwards does not affect the other provider.
+     *
+     * @param defaults the {@link CorrectionProvider} providing the initially registered factories, e.g., the
+     *        singleton instance
+     */
+    public CorrectionProvider(@NonNull CorrectionProvider defaults) {
+        // Registries are immutable; hence, they can be shared until the next registration
+        registry = defaults.registry;
+    }
+
+    /**
+     * Returns the singleton instance of the {@link CorrectionProvider}.
+     *
+     * @return the singleton instance of the {@link CorrectionProvider}
+     */
+    public static @NonNull CorrectionProvider getInstance() {
+        return instance;
+    }
+
+    /**
+     * Registers the given {@link CorrectionFactory}. If another factory is already registered for the same type of
+     * {@link Divergence}s, the given factory replaces that factory.
+     *
+     * @param factory the {@link CorrectionFactory} to register
+     */
+    public void register(@NonNull CorrectionFactory factory) {
+        registerAll(Collections.singletonList(factory));
+    }
+
+    /**
+     * Registers all given {@link CorrectionFactory}s at once by swapping in a single new {@link Registry}. Factories
+     * later in the given list replace earlier factories for the same type of {@link Divergence}s.
+     *
+     * @param factories the {@link CorrectionFactory}s to register
+     */
+    private synchronized void registerAll(@NonNull List<@NonNull CorrectionFactory> factories) {
+        Map<Class<?>, CorrectionFactory> registeredFactories = new HashMap<>(registry.registeredFactories);
+        for (CorrectionFactory factory : factories) {
+            put(registeredFactories, factory);
+        }
+        registry = new Registry(registeredFactories);
+    }
+
+    /**
+     * Puts the given {@link CorrectionFactory} into the given map of factories indexed by the type of
+     * {@link Divergence}s they support. A replaced factory is logged.
+     *
+     * @param factories the map of factories to put the given factory into
+     * @param factory the {@link CorrectionFactory} to put into the given map
+     */
+    private static void put(@NonNull Map<Class<?>, CorrectionFactory> factories,
+            @NonNull CorrectionFactory factory) {
+        CorrectionFactory replacedFactory = factories.put(factory.getDivergenceType(), factory);
+        if (replacedFactory != null && replacedFactory != factory) {
+            LOGGER.logInfo2("Correction factory ", factory.getClass().getName(), " replaces ",
+                    replacedFactory.getClass().getName(), " for ", factory.getDivergenceType().getName());
+        }
+    }
+
     /**
-     * Creates a {@link CorrectionProvider} instance.
+     * Returns the {@link ClassLoader} for loading {@link CorrectionFactory}s. This is the context class loader of the
+     * current thread, which knows the classes of other plug-ins, or, if not available, the class loader of this class.
+     *
+     * @return the {@link ClassLoader} for loading factories
      */
-    private CorrectionProvider() {}
-    
+    private static @NonNull ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = CorrectionProvider.class.getClassLoader();
+        }
+        return classLoader;
+    }
+
+    /**
+     * Instantiates and registers the {@link CorrectionFactory}s with the given fully qualified class names. All
+     * factories are instantiated before the first one is registered; if one of them fails, none is registered.
+     *
+     * @param factoryClassNames the fully qualified class names of the {@link CorrectionFactory}s to register; may be
+     *        <code>null</code>, which results in registering no factories
+     * @throws SetUpException if one of the given classes cannot be found, is not a {@link CorrectionFactory}, or
+     *         cannot be instantiated
+     */
+    public void register(@Nullable List<String> factoryClassNames) throws SetUpException {
+        if (factoryClassNames != null) {
+            List<@NonNull CorrectionFactory> factories = new ArrayList<>(factoryClassNames.size());
+            for (String factoryClassName : factoryClassNames) {
+                try {
+                    Class<?> factoryClass = Class.forName(factoryClassName.trim(), true, getClassLoader());
+                    factories.add((CorrectionFactory) factoryClass.getConstructor().newInstance());
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new SetUpException("Cannot register correction factory \"" + factoryClassName + "\"", e);
+                }
+            }
+            registerAll(factories);
+        }
+    }
+
     /**
-     * Returns a {@link Correction} for the given {@link Divergence}.
-     * 
+     * Returns a {@link Correction} for the given {@link Divergence} created by the {@link CorrectionFactory}s of the
+     * singleton instance.
+     *
      * @param divergence the {@link Divergence} to correct
      * @return a {@link Correction} or <code>null</code> if no correction for the given divergence is known
      */
     public static Correction getCorrection(Divergence divergence) {
+        return instance.createCorrection(divergence);
+    }
+
+    /**
+     * Returns a {@link Correction} for the given {@link Divergence} created by the {@link CorrectionFactory}s
+     * registered at this provider.
+     *
+     * @param divergence the {@link Divergence} to correct
+     * @return a {@link Correction} or <code>null</code> if no correction for the given divergence is known
+     */
+    public @Nullable Correction createCorrection(@Nullable Divergence divergence) {
         Correction correction = null;
-        // TODO their should be a better and more flexible way of detecting and providing corrections
-        // TODO their could also be more than one corrections for a single divergence and vice-versa
-        if (divergence instanceof UnusedVariableDivergence) {
-            correction = new UnusedVariableCorrection(divergence);
-        } else if (divergence instanceof UndefinedVariableDivergence) {
-            correction = new UndefinedVariableCorrection(divergence);
+        if (divergence != null) {
+            correction = registry.resolve(divergence.getClass()).createCorrection(divergence);
         }
         return correction;
     }
 
+    /**
+     * This class represents an immutable registry of {@link CorrectionFactory}s together with the cache of the
+     * factories resolved for concrete {@link Divergence} types. As the registered factories never change, the cache
+     * never needs to be cleared.
+     *
+     * @author Christian Kröher
+     *
+     */
+    private static class Registry {
+
+        /**
+         * The registered {@link CorrectionFactory}s indexed by the type of {@link Divergence}s they support.
+         */
+        private @NonNull Map<Class<?>, CorrectionFactory> registeredFactories;
+
+        /**
+         * The {@link CorrectionFactory}s resolved for concrete {@link Divergence} types so far.
+         */
+        private @NonNull Map<Class<?>, CorrectionFactory> resolvedFactories;
+
+        /**
+         * Creates a {@link Registry} instance.
+         *
+         * @param factories the {@link CorrectionFactory}s indexed by the type of {@link Divergence}s they support;
+         *        the map is not modified by this registry and must not be modified afterwards
+         */
+        private Registry(@NonNull Map<Class<?>, CorrectionFactory> factories) {
+            registeredFactories = Collections.unmodifiableMap(factories);
+            resolvedFactories = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Returns the {@link CorrectionFactory} for the given concrete type of {@link Divergence}s. This is either the
+         * factory registered for exactly this type or, if no such factory exists, the factory registered for the
+         * closest supertype. The result is cached per concrete type.
+         *
+         * @param divergenceType the concrete type of {@link Divergence}s for which the factory shall be returned
+         * @return the resolved {@link CorrectionFactory} or {@link #NO_FACTORY}, if no factory is registered for the
+         *         given type or any of its supertypes
+         */
+        private @NonNull CorrectionFactory resolve(@NonNull Class<?> divergenceType) {
+            CorrectionFactory factory = resolvedFactories.get(divergenceType);
+            if (factory == null) {
+                factory = NO_FACTORY;
+                Class<?> currentType = divergenceType;
+                while (factory == NO_FACTORY && currentType != null) {
+                    CorrectionFactory registeredFactory = registeredFactories.get(currentType);
+                    if (registeredFactory != null) {
+                        factory = registeredFactory;
+                    }
+                    currentType = currentType.getSuperclass();
+                }
+                resolvedFactories.put(divergenceType, factory);
+            }
+            return factory;
+        }
+
+    }
+
+    /**
+     * This class realizes a {@link CorrectionFactory} based on a given type of {@link Divergence}s and a function
+     * creating the respective {@link Correction}s, e.g., a constructor reference. It is used for registering the
+     * corrections provided by this plug-in.
+     *
+     * @author Christian Kröher
+     *
+     */
+    private static class TypedCorrectionFactory implements CorrectionFactory {
+
+        /**
+         * The type of {@link Divergence}s supported by this factory.
+         */
+        private @NonNull Class<? extends Divergence> divergenceType;
+
+        /**
+         * The function creating the {@link Correction} for a given {@link Divergence}.
+         */
+        private @NonNull Function<@NonNull Divergence, @Nullable Correction> constructor;
+
+        /**
+         * Creates a {@link TypedCorrectionFactory} instance.
+         *
+         * @param divergenceType the type of {@link Divergence}s supported by this factory
+         * @param constructor the function creating the {@link Correction} for a given {@link Divergence}
+         */
+        private TypedCorrectionFactory(@NonNull Class<? extends Divergence> divergenceType,
+                @NonNull Function<@NonNull Divergence, @Nullable Correction> constructor) {
+            this.divergenceType = divergenceType;
+            this.constructor = constructor;
+        }
+
+        @Override
+        public @NonNull Class<? extends Divergence> getDivergenceType() {
+            return divergenceType;
+        }
+
+        @Override
+        public @Nullable Correction createCorrection(@NonNull Divergence divergence) {
+            return constructor.apply(divergence);
+        }
+
+    }
+
 }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.util.List;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This enumeration defines the formats in which the descriptions of {@link Correction}s are rendered. The compiled
+ * {@link DescriptionTemplates} are shared by all formats; a format only defines how the literal text of a template,
+ * the listings of involved elements, and the alternatives of a correction are written.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum DescriptionFormat {
+
+    /**
+     * Plain text: listed elements are separated by commas, the first and the last element are quoted, and the
+     * alternatives of a correction are separated by lines containing "OR".
+     */
+    PLAIN,
+
+    /**
+     * Markdown: each listed element is formatted as code and the alternatives of a correction are separated by
+     * paragraphs containing a bold "OR".
+     */
+    MARKDOWN,
+
+    /**
+     * JSON: the elements are listed as in {@link #PLAIN} text, but each alternative is written as an escaped JSON
+     * string and the description of a correction is a JSON array of its alternatives.
+     */
+    JSON;
+
+    /**
+     * Encodes the given literal text of a template for this format. This method is called only while compiling
+     * templates; rendering appends the encoded literals without further processing.
+     * 
+     * @param literal the literal text to encode
+     * @return the encoded literal text
+     */
+    @NonNull String encodeLiteral(@NonNull String literal) {
+        String encodedLiteral = literal;
+        if (this == JSON) {
+            StringBuilder literalStringBuilder = new StringBuilder(literal.length() + 8);
+            JsonStrings.appendEscaped(literalStringBuilder, literal, 0, literal.length());
+            encodedLiteral = literalStringBuilder.toString();
+        }
+        return encodedLiteral;
+    }
+
+    /**
+     * Appends the given whitespace-separated elements as a listing to the given {@link StringBuilder}, e.g.,
+     * <code>"VariableA", VariableB, and "VariableC"</code> in {@link #PLAIN} text. The elements are appended directly
+     * from the given string without creating intermediate strings.
+     * 
+     * @param output the {@link StringBuilder} to append the listing to
+     * @param involvedElements the string containing whitespace-separated elements
+     */
+    void appendList(@NonNull StringBuilder output, @NonNull String involvedElements) {
+        int involvedElementsNumber = Correction.countTokens(involvedElements);
+        int tokenIndex = 0;
+        int tokenStart = Correction.nextTokenStart(involvedElements, 0);
+        while (tokenStart < involvedElements.length()) {
+            int tokenEnd = Correction.nextTokenEnd(involvedElements, tokenStart);
+            boolean isFirst = tokenIndex == 0;
+            boolean isLast = tokenIndex == involvedElementsNumber - 1;
+            if (!isFirst) {
+                if (!isLast) {
+                    // More than 2 elements: ""Elem1, Elem2, [...], and "ElemX""
+                    output.append(", ");
+                } else if (involvedElementsNumber == 2) {
+                    // Exactly 2 elements: ""Elem1" and "Elem2""
+                    output.append(" and ");
+                } else {
+                    output.append(", and ");
+                }
+            }
+            switch (this) {
+            case MARKDOWN:
+                output.append('`').append(involvedElements, tokenStart, tokenEnd).append('`');
+                break;
+            case JSON:
+                if (isFirst || isLast) {
+                    output.append("\\\"");
+                    JsonStrings.appendEscaped(output, involvedElements, tokenStart, tokenEnd);
+                    output.append("\\\"");
+                } else {
+                    JsonStrings.appendEscaped(output, involvedElements, tokenStart, tokenEnd);
+                }
+                break;
+            default:
+                if (isFirst || isLast) {
+                    output.append('"').append(involvedElements, tokenStart, tokenEnd).append('"');
+                } else {
+                    output.append(involvedElements, tokenStart, tokenEnd);
+                }
+                break;
+            }
+            tokenIndex++;
+            tokenStart = Correction.nextTokenStart(involvedElements, tokenEnd);
+        }
+    }
+
+    /**
+     * Joins the given, already rendered alternatives of a correction to the description of that correction.
+     * 
+     * @param alternatives the rendered alternatives of a correction; never empty
+     * @return the description of the correction
+     */
+    @NonNull String joinAlternatives(@NonNull List<@NonNull String> alternatives) {
+        String description;
+        switch (this) {
+        case MARKDOWN:
+            description = String.join("\n\n**OR**\n\n", alternatives);
+            break;
+        case JSON:
+            int length = 2;
+            for (String alternative : alternatives) {
+                length += alternative.length() + 3;
+            }
+            StringBuilder descriptionStringBuilder = new StringBuilder(length);
+            descriptionStringBuilder.append('[');
+            for (int i = 0; i < alternatives.size(); i++) {
+                if (i > 0) {
+                    descriptionStringBuilder.append(',');
+                }
+                descriptionStringBuilder.append('"').append(alternatives.get(i)).append('"');
+            }
+            description = descriptionStringBuilder.append(']').toString();
+            break;
+        default:
+            description = String.join("\nOR\n", alternatives);
+            break;
+        }
+        return description;
+    }
+
+}
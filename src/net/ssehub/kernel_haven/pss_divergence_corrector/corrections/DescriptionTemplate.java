@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationKind;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class represents a compiled description template (see {@link DescriptionTemplateKey}). Compiling splits the
+ * text of the template once into an array of placeholders and the arrays of literal fragments between them, which
+ * are encoded for each {@link DescriptionFormat} in advance. Rendering only appends these fragments and the values
+ * of the placeholders to a single {@link StringBuilder}.<br>
+ * <br>
+ * Instances of this class are immutable and, hence, thread-safe.
+ * 
+ * @author Christian Kröher
+ *
+ */
+final class DescriptionTemplate {
+
+    /**
+     * This enumeration defines the placeholders supported in description templates.
+     */
+    enum Placeholder {
+
+        /**
+         * The listing of the involved variables.
+         */
+        VARIABLES("variables", null),
+
+        /**
+         * The listing of the involved source files.
+         */
+        SOURCE_FILES("source_files", null),
+
+        /**
+         * The listing of the involved code elements.
+         */
+        CODE_ELEMENTS("code_elements", null),
+
+        /**
+         * The number of corrected divergences.
+         */
+        DIVERGENCES("divergences", null),
+
+        /**
+         * The definitions of the involved variables in Kconfig files.
+         */
+        KCONFIG_DEFINITIONS("kconfig_definitions", LocationKind.KCONFIG_DEFINITION),
+
+        /**
+         * The references to the involved variables in Kconfig files.
+         */
+        KCONFIG_REFERENCES("kconfig_references", LocationKind.KCONFIG_REFERENCE),
+
+        /**
+         * The references to the involved variables in build files.
+         */
+        BUILD_REFERENCES("build_references", LocationKind.BUILD_REFERENCE),
+
+        /**
+         * The references to the involved variables in code files.
+         */
+        CODE_REFERENCES("code_references", LocationKind.CODE_REFERENCE),
+
+        /**
+         * The listing of the locations in a locations template.
+         */
+        LOCATIONS("locations", null),
+
+        /**
+         * The number of locations not listed in a locations template.
+         */
+        MORE("more", null);
+
+        /**
+         * The name of this placeholder as written in templates (without curly braces).
+         */
+        private @NonNull String name;
+
+        /**
+         * The kind of locations this placeholder is replaced by; is <code>null</code>, if this placeholder is not
+         * replaced by locations of the involved variables.
+         */
+        private @Nullable LocationKind locationKind;
+
+        /**
+         * Creates a {@link Placeholder} instance.
+         * 
+         * @param name the name of the placeholder as written in templates
+         * @param locationKind the kind of locations the placeholder is replaced by; may be <code>null</code>
+         */
+        Placeholder(@NonNull String name, @Nullable LocationKind locationKind) {
+            this.name = name;
+            this.locationKind = locationKind;
+        }
+
+        /**
+         * Checks whether this placeholder is supported by the given kind of template.
+         * 
+         * @param locationsTemplate whether the template describes locations
+         * @return <code>true</code>, if this placeholder may be used in the given kind of template;
+         *         <code>false</code> otherwise
+         */
+        private boolean isSupportedBy(boolean locationsTemplate) {
+            return (this == LOCATIONS || this == MORE) == locationsTemplate;
+        }
+
+    }
+
+    /**
+     * The constants of {@link DescriptionFormat} indexed by their ordinal.
+     */
+    private static final @NonNull DescriptionFormat @NonNull [] FORMATS = DescriptionFormat.values();
+
+    /**
+     * The placeholders of this template in their order of occurrence.
+     */
+    private @NonNull Placeholder @NonNull [] placeholders;
+
+    /**
+     * The literal fragments of this template encoded for each {@link DescriptionFormat}; indexed by the ordinal of
+     * the format and the position of the fragment. The fragment at position <code>i</code> precedes the placeholder at
+     * position <code>i</code>; the last fragment follows the last placeholder.
+     */
+    private @NonNull String @NonNull [] @NonNull [] literals;
+
+    /**
+     * The total length of the literal fragments of this template in plain text.
+     */
+    private int literalsLength;
+
+    /**
+     * Creates a {@link DescriptionTemplate} instance by compiling the given text.
+     * 
+     * @param key the key of the template to compile; only used for error messages and for checking the supported
+     *        placeholders
+     * @param template the text of the template to compile
+     * @throws IllegalArgumentException if the given text contains an unknown, unsupported, or unterminated
+     *         placeholder
+     */
+    DescriptionTemplate(@NonNull DescriptionTemplateKey key, @NonNull String template)
+            throws IllegalArgumentException {
+        List<@NonNull Placeholder> placeholderList = new ArrayList<>();
+        List<@NonNull String> literalList = new ArrayList<>();
+        StringBuilder literalStringBuilder = new StringBuilder();
+        int index = 0;
+        while (index < template.length()) {
+            char character = template.charAt(index);
+            if (character != '{') {
+                literalStringBuilder.append(character);
+                index++;
+            } else if (index + 1 < template.length() && template.charAt(index + 1) == '{') {
+                literalStringBuilder.append('{');
+                index += 2;
+            } else {
+                int placeholderEnd = template.indexOf('}', index);
+                if (placeholderEnd < 0) {
+                    throw new IllegalArgumentException("Unterminated placeholder in description template "
+                            + key.getName() + ": \"" + template + "\"");
+                }
+                placeholderList.add(toPlaceholder(key, template.substring(index + 1, placeholderEnd)));
+                literalList.add(literalStringBuilder.toString());
+                literalStringBuilder.setLength(0);
+                index = placeholderEnd + 1;
+            }
+        }
+        literalList.add(literalStringBuilder.toString());
+        placeholders = placeholderList.toArray(new Placeholder[placeholderList.size()]);
+        literals = new String[FORMATS.length][];
+        for (DescriptionFormat format : FORMATS) {
+            String[] encodedLiterals = new String[literalList.size()];
+            for (int i = 0; i < encodedLiterals.length; i++) {
+                encodedLiterals[i] = format.encodeLiteral(literalList.get(i));
+            }
+            literals[format.ordinal()] = encodedLiterals;
+        }
+        for (String literal : literalList) {
+            literalsLength += literal.length();
+        }
+    }
+
+    /**
+     * Renders this template for the given {@link Correction} and appends the result to the given
+     * {@link StringBuilder}.
+     * 
+     * @param output the {@link StringBuilder} to append the rendered template to
+     * @param templates the {@link DescriptionTemplates} providing the {@link DescriptionFormat} and the locations
+     *        templates
+     * @param correction the {@link Correction} providing the values of the placeholders; may be <code>null</code> for
+     *        locations templates
+     * @param locations the whitespace-separated locations replacing <code>{locations}</code>
+     * @param moreLocations the number replacing <code>{more}</code>
+     */
+    void render(@NonNull StringBuilder output, @NonNull DescriptionTemplates templates,
+            @Nullable Correction correction, @NonNull String locations, int moreLocations) {
+        DescriptionFormat format = templates.getFormat();
+        String[] formatLiterals = literals[format.ordinal()];
+        for (int i = 0; i < placeholders.length; i++) {
+            output.append(formatLiterals[i]);
+            Placeholder placeholder = placeholders[i];
+            if (placeholder == Placeholder.LOCATIONS) {
+                format.appendList(output, locations);
+            } else if (placeholder == Placeholder.MORE) {
+                output.append(moreLocations);
+            } else if (correction != null) {
+                LocationKind locationKind = placeholder.locationKind;
+                if (locationKind != null) {
+                    correction.appendLocations(output, templates, locationKind);
+                } else if (placeholder == Placeholder.DIVERGENCES) {
+                    output.append(correction.getDivergencesCount());
+                } else {
+                    format.appendList(output, getValue(correction, placeholder));
+                }
+            }
+        }
+        output.append(formatLiterals[placeholders.length]);
+    }
+
+    /**
+     * Estimates the length of this template rendered for the given {@link Correction} for sizing the
+     * {@link StringBuilder} passed to {@link #render(StringBuilder, DescriptionTemplates, Correction, String, int)}.
+     * 
+     * @param correction the {@link Correction} providing the values of the placeholders
+     * @return the estimated length of the rendered template
+     */
+    int estimateLength(@NonNull Correction correction) {
+        int length = literalsLength;
+        for (Placeholder placeholder : placeholders) {
+            if (placeholder.locationKind != null || placeholder == Placeholder.DIVERGENCES) {
+                length += 16;
+            } else {
+                // Each element is quoted at most and separated by at most ", and "
+                length += getValue(correction, placeholder).length() + 16;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the whitespace-separated involved elements replacing the given listing placeholder.
+     * 
+     * @param correction the {@link Correction} providing the involved elements
+     * @param placeholder one of {@link Placeholder#VARIABLES}, {@link Placeholder#SOURCE_FILES}, or
+     *        {@link Placeholder#CODE_ELEMENTS}
+     * @return the whitespace-separated involved elements; can be <i>empty</i>
+     */
+    private static @NonNull String getValue(@NonNull Correction correction, @NonNull Placeholder placeholder) {
+        String value;
+        if (placeholder == Placeholder.SOURCE_FILES) {
+            value = correction.getInvolvedSourceFilesString();
+        } else if (placeholder == Placeholder.CODE_ELEMENTS) {
+            value = correction.getInvolvedCodeElementsString();
+        } else if (placeholder == Placeholder.VARIABLES) {
+            value = correction.getInvolvedVariablesString();
+        } else {
+            value = "";
+        }
+        return value;
+    }
+
+    /**
+     * Returns the {@link Placeholder} with the given name.
+     * 
+     * @param key the key of the template containing the placeholder
+     * @param name the name of the placeholder without curly braces
+     * @return the {@link Placeholder} with the given name
+     * @throws IllegalArgumentException if no placeholder with the given name exists or the placeholder is not
+     *         supported by the template with the given key
+     */
+    private static @NonNull Placeholder toPlaceholder(@NonNull DescriptionTemplateKey key, @NonNull String name)
+            throws IllegalArgumentException {
+        Placeholder placeholder = null;
+        for (Placeholder candidate : Placeholder.values()) {
+            if (candidate.name.equals(name) && candidate.isSupportedBy(key.isLocationsTemplate())) {
+                placeholder = candidate;
+            }
+        }
+        if (placeholder == null) {
+            throw new IllegalArgumentException("Unknown placeholder {" + name + "} in description template "
+                    + key.getName());
+        }
+        return placeholder;
+    }
+
+}
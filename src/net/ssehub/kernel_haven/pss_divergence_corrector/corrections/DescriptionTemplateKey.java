@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This enumeration defines the templates of the descriptions of the corrections provided by this plug-in. Each
+ * template is a text containing placeholders in curly braces, which are replaced by the elements involved in the
+ * corrected divergences while rendering a description:
+ * <ul>
+ * <li><code>{variables}</code>, <code>{source_files}</code>, and <code>{code_elements}</code> are replaced by the
+ *     listing of the involved variables, source files, and code elements</li>
+ * <li><code>{divergences}</code> is replaced by the number of corrected divergences</li>
+ * <li><code>{kconfig_definitions}</code>, <code>{kconfig_references}</code>, <code>{build_references}</code>, and
+ *     <code>{code_references}</code> are replaced by a space followed by the {@link #LOCATIONS} of the involved
+ *     variables of the respective kind or by nothing, if no such locations are known</li>
+ * </ul>
+ * The {@link #LOCATIONS} templates only support the placeholders <code>{locations}</code> (the listing of the
+ * locations) and <code>{more}</code> (the number of locations not listed). A literal opening curly brace is written as
+ * <code>{{</code>.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum DescriptionTemplateKey {
+
+    /**
+     * The alternative of an {@link UnusedVariableCorrection} removing the variables from the variability model.
+     */
+    UNUSED_VARIABLE_REMOVAL("unused_variable.removal",
+            "Remove {variables} from the variability model{kconfig_definitions}", false),
+
+    /**
+     * The alternative of an {@link UnusedVariableCorrection} referencing the variables in the variability model.
+     */
+    UNUSED_VARIABLE_MODEL_REFERENCE("unused_variable.model_reference", "Define at least one reference to {variables}"
+            + " as part of another variables constraint in the variability model", false),
+
+    /**
+     * The alternative of an {@link UnusedVariableCorrection} referencing the variables in the build or code artifacts.
+     */
+    UNUSED_VARIABLE_ARTIFACT_REFERENCE("unused_variable.artifact_reference",
+            "Define at least one reference to {variables} in a build or code artifact", false),
+
+    /**
+     * The alternative of an {@link UndefinedVariableCorrection} defining the variables in the variability model.
+     */
+    UNDEFINED_VARIABLE_DEFINITION("undefined_variable.definition", "Define {variables} in the variability model",
+            false),
+
+    /**
+     * The alternative of an {@link UndefinedVariableCorrection} removing the references in the build artifacts.
+     */
+    UNDEFINED_VARIABLE_BUILD_REMOVAL("undefined_variable.build_removal", "Remove references to {variables} in the"
+            + " build artifacts controlling the presence or absence of {source_files}{build_references}", false),
+
+    /**
+     * The alternative of an {@link UndefinedVariableCorrection} removing the references in the code artifacts.
+     */
+    UNDEFINED_VARIABLE_CODE_REMOVAL("undefined_variable.code_removal", "Remove references to {variables} in the"
+            + " conditions controlling the presence or absence of the following code elements:"
+            + " {code_elements}{code_references}", false),
+
+    /**
+     * The locations of the involved variables, if all locations are listed.
+     */
+    LOCATIONS("locations", "(see {locations})", true),
+
+    /**
+     * The locations of the involved variables, if only some of the locations are listed.
+     */
+    LOCATIONS_TRUNCATED("locations_truncated", "(see {locations}; {more} more)", true);
+
+    /**
+     * The name of this template, which identifies it in the configuration.
+     */
+    private @NonNull String name;
+
+    /**
+     * The built-in text of this template.
+     */
+    private @NonNull String defaultTemplate;
+
+    /**
+     * Whether this template describes locations and, hence, only supports the location placeholders.
+     */
+    private boolean locationsTemplate;
+
+    /**
+     * Creates a {@link DescriptionTemplateKey} instance.
+     * 
+     * @param name the name of the template, which identifies it in the configuration
+     * @param defaultTemplate the built-in text of the template
+     * @param locationsTemplate whether the template describes locations
+     */
+    DescriptionTemplateKey(@NonNull String name, @NonNull String defaultTemplate, boolean locationsTemplate) {
+        this.name = name;
+        this.defaultTemplate = defaultTemplate;
+        this.locationsTemplate = locationsTemplate;
+    }
+
+    /**
+     * Returns the name of this template, which identifies it in the configuration.
+     * 
+     * @return the name of this template
+     */
+    public @NonNull String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the built-in text of this template.
+     * 
+     * @return the built-in text of this template
+     */
+    public @NonNull String getDefaultTemplate() {
+        return defaultTemplate;
+    }
+
+    /**
+     * Returns whether this template describes locations and, hence, only supports the placeholders
+     * <code>{locations}</code> and <code>{more}</code>.
+     * 
+     * @return <code>true</code>, if this template describes locations; <code>false</code> otherwise
+     */
+    public boolean isLocationsTemplate() {
+        return locationsTemplate;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class provides the compiled templates of the descriptions of corrections (see {@link DescriptionTemplateKey})
+ * and the {@link DescriptionFormat} in which they are rendered. The templates are compiled once when creating an
+ * instance of this class; the same compiled templates serve all formats. Each {@link Correction} renders its
+ * description by the instance set via {@link Correction#setDescriptionTemplates(DescriptionTemplates)}; by default,
+ * these are the built-in templates rendered in {@link DescriptionFormat#PLAIN} text (see {@link #getDefault()}).<br>
+ * <br>
+ * Instances of this class are immutable and, hence, thread-safe.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public final class DescriptionTemplates {
+
+    /**
+     * The constants of {@link DescriptionTemplateKey} indexed by their ordinal.
+     */
+    private static final @NonNull DescriptionTemplateKey @NonNull [] KEYS = DescriptionTemplateKey.values();
+
+    /**
+     * The built-in templates rendered in {@link DescriptionFormat#PLAIN} text.
+     */
+    private static final @NonNull DescriptionTemplates DEFAULT = new DescriptionTemplates(Collections.emptyMap(),
+            DescriptionFormat.PLAIN);
+
+    /**
+     * The compiled templates indexed by the ordinal of their {@link DescriptionTemplateKey}.
+     */
+    private @NonNull DescriptionTemplate @NonNull [] templates;
+
+    /**
+     * The {@link DescriptionFormat} in which the templates are rendered.
+     */
+    private @NonNull DescriptionFormat format;
+
+    /**
+     * The signature identifying the texts of the templates and the {@link #format}.
+     */
+    private @NonNull String signature;
+
+    /**
+     * Creates a {@link DescriptionTemplates} instance by compiling the given templates.
+     * 
+     * @param customTemplates the texts of the templates replacing the built-in ones; templates not contained in this
+     *        map are compiled from their {@link DescriptionTemplateKey#getDefaultTemplate()}
+     * @param format the {@link DescriptionFormat} in which the templates are rendered
+     * @throws IllegalArgumentException if one of the given templates contains an unknown, unsupported, or
+     *         unterminated placeholder
+     */
+    public DescriptionTemplates(@NonNull Map<@NonNull DescriptionTemplateKey, @NonNull String> customTemplates,
+            @NonNull DescriptionFormat format) throws IllegalArgumentException {
+        this.format = format;
+        templates = new DescriptionTemplate[KEYS.length];
+        StringBuilder templatesStringBuilder = new StringBuilder();
+        for (DescriptionTemplateKey key : KEYS) {
+            String template = customTemplates.get(key);
+            if (template == null) {
+                template = key.getDefaultTemplate();
+            }
+            templates[key.ordinal()] = new DescriptionTemplate(key, template);
+            templatesStringBuilder.append(template).append('\0');
+        }
+        signature = format.name() + ":" + Integer.toHexString(templatesStringBuilder.toString().hashCode());
+    }
+
+    /**
+     * Returns the {@link DescriptionFormat} in which the templates are rendered.
+     * 
+     * @return the {@link DescriptionFormat} of the descriptions
+     */
+    public @NonNull DescriptionFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the signature identifying the texts of the templates and the {@link DescriptionFormat}. Descriptions
+     * rendered by instances with different signatures are different.
+     * 
+     * @return the signature of these templates
+     */
+    public @NonNull String getSignature() {
+        return signature;
+    }
+
+    /**
+     * Renders the template with the given key for the given {@link Correction}.
+     * 
+     * @param key the key of the template to render; must not be a locations template
+     * @param correction the {@link Correction} providing the values of the placeholders
+     * @return the rendered template
+     */
+    @NonNull String render(@NonNull DescriptionTemplateKey key, @NonNull Correction correction) {
+        DescriptionTemplate template = templates[key.ordinal()];
+        StringBuilder output = new StringBuilder(template.estimateLength(correction));
+        template.render(output, this, correction, "", 0);
+        return output.toString();
+    }
+
+    /**
+     * Renders the {@link DescriptionTemplateKey#LOCATIONS} or, if further locations exist, the
+     * {@link DescriptionTemplateKey#LOCATIONS_TRUNCATED} template and appends the result to the given
+     * {@link StringBuilder}.
+     * 
+     * @param output the {@link StringBuilder} to append the rendered template to
+     * @param locations the whitespace-separated locations to list
+     * @param moreLocations the number of further locations not listed
+     */
+    void renderLocations(@NonNull StringBuilder output, @NonNull String locations, int moreLocations) {
+        DescriptionTemplateKey key = moreLocations > 0 ? DescriptionTemplateKey.LOCATIONS_TRUNCATED
+                : DescriptionTemplateKey.LOCATIONS;
+        templates[key.ordinal()].render(output, this, null, locations, moreLocations);
+    }
+
+    /**
+     * Joins the given, already rendered alternatives of a correction to the description of that correction.
+     * 
+     * @param alternatives the rendered alternatives of a correction; never empty
+     * @return the description of the correction in the {@link DescriptionFormat} of these templates
+     */
+    @NonNull String joinAlternatives(@NonNull List<@NonNull String> alternatives) {
+        return format.joinAlternatives(alternatives);
+    }
+
+    /**
+     * Returns the built-in templates rendered in {@link DescriptionFormat#PLAIN} text.
+     * 
+     * @return the built-in templates
+     */
+    public static @NonNull DescriptionTemplates getDefault() {
+        return DEFAULT;
+    }
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.util.List;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class computes stable 64-bit fingerprints identifying {@link Correction}s across analysis runs. A fingerprint
+ * is a FNV-1a hash over the type of the corrected divergence, the type of the correction, and the involved variables,
+ * source files, and code elements. Each involved element is hashed separately and the mixed hashes of the elements of
+ * each kind are summed up. Hence, their order in the divergence does not affect the fingerprint and computing it
+ * requires neither splitting the whitespace-separated elements nor sorting them. Further, this class sorts pairs of
+ * fingerprints and values, e.g., for searching or merging fingerprints.
+ *
+ * @author Christian Kröher
+ *
+ */
+public class Fingerprint {
+
+    /**
+     * The offset basis of the 64-bit FNV-1a hash.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * The prime of the 64-bit FNV-1a hash.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * The character separating the hashed parts; it cannot be part of any name.
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * Creates a {@link Fingerprint} instance, which should never be used as this class only provides static methods.
+     */
+    private Fingerprint() {}
+
+    /**
+     * Computes the fingerprint of a correction with the given properties.
+     *
+     * @param divergenceType the fully qualified class name of the corrected divergence
+     * @param correctionType the type of the correction (see {@link Correction#getCorrectionType()})
+     * @param involvedVariables the whitespace-separated involved variables
+     * @param involvedSourceFiles the whitespace-separated involved source files
+     * @param involvedCodeElements the whitespace-separated involved code elements
+     * @return the fingerprint
+     */
+    public static long of(@NonNull String divergenceType, @NonNull String correctionType,
+            @NonNull String involvedVariables, @NonNull String involvedSourceFiles,
+            @NonNull String involvedCodeElements) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, divergenceType);
+        hash = hash(hash, correctionType);
+        hash = hashElements(hash, involvedVariables);
+        hash = hashElements(hash, involvedSourceFiles);
+        hash = hashElements(hash, involvedCodeElements);
+        return hash;
+    }
+
+    /**
+     * Computes the fingerprint of a correction with the given properties. The result is equal to the fingerprint
+     * computed by {@link #of(String, String, String, String, String)} for the same elements.
+     *
+     * @param divergenceType the fully qualified class name of the corrected divergence
+     * @param correctionType the type of the correction (see {@link Correction#getCorrectionType()})
+     * @param involvedVariables the involved variables
+     * @param involvedSourceFiles the involved source files
+     * @param involvedCodeElements the involved code elements
+     * @return the fingerprint
+     */
+    public static long of(@NonNull String divergenceType, @NonNull String correctionType,
+            @NonNull List<@NonNull String> involvedVariables, @NonNull List<@NonNull String> involvedSourceFiles,
+            @NonNull List<@NonNull String> involvedCodeElements) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, divergenceType);
+        hash = hash(hash, correctionType);
+        hash = hashElements(hash, involvedVariables);
+        hash = hashElements(hash, involvedSourceFiles);
+        hash = hashElements(hash, involvedCodeElements);
+        return hash;
+    }
+
+    /**
+     * Extends the given fingerprint by the given part, e.g., for distinguishing the alternatives of a correction.
+     *
+     * @param fingerprint the fingerprint to extend
+     * @param part the part to add to the given fingerprint
+     * @return the extended fingerprint
+     */
+    public static long extend(long fingerprint, @NonNull String part) {
+        return hash(fingerprint, part);
+    }
+
+    /**
+     * Sorts the given pairs of fingerprints and values in place by a heap sort, which requires no additional memory.
+     * The pairs are sorted by their fingerprints and, for equal fingerprints, by their values.
+     *
+     * @param fingerprints the fingerprints of the pairs
+     * @param values the values of the pairs in the same order as the fingerprints
+     * @param count the number of pairs to sort; only the first <code>count</code> elements of both arrays are sorted
+     */
+    public static void sort(long @NonNull [] fingerprints, int @NonNull [] values, int count) {
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(fingerprints, values, i, count);
+        }
+        for (int end = count - 1; end > 0; end--) {
+            swap(fingerprints, values, 0, end);
+            siftDown(fingerprints, values, 0, end);
+        }
+    }
+
+    /**
+     * Moves the pair at the given position down the max-heap consisting of the given number of pairs.
+     *
+     * @param fingerprints the fingerprints of the pairs
+     * @param values the values of the pairs
+     * @param position the position of the pair to move
+     * @param heapSize the number of pairs in the heap
+     */
+    private static void siftDown(long @NonNull [] fingerprints, int @NonNull [] values, int position, int heapSize) {
+        int current = position;
+        int child = 2 * current + 1;
+        while (child < heapSize) {
+            if (child + 1 < heapSize && isLess(fingerprints, values, child, child + 1)) {
+                child++;
+            }
+            if (isLess(fingerprints, values, current, child)) {
+                swap(fingerprints, values, current, child);
+                current = child;
+                child = 2 * current + 1;
+            } else {
+                child = heapSize;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the pair at the first position is ordered before the pair at the second position.
+     *
+     * @param fingerprints the fingerprints of the pairs
+     * @param values the values of the pairs
+     * @param first the position of the first pair
+     * @param second the position of the second pair
+     * @return <code>true</code>, if the first pair is ordered before the second pair, <code>false</code> otherwise
+     */
+    private static boolean isLess(long @NonNull [] fingerprints, int @NonNull [] values, int first, int second) {
+        int order = Long.compare(fingerprints[first], fingerprints[second]);
+        return order < 0 || (order == 0 && values[first] < values[second]);
+    }
+
+    /**
+     * Swaps the pairs at the given positions.
+     *
+     * @param fingerprints the fingerprints of the pairs
+     * @param values the values of the pairs
+     * @param first the position of the first pair
+     * @param second the position of the second pair
+     */
+    private static void swap(long @NonNull [] fingerprints, int @NonNull [] values, int first, int second) {
+        long fingerprint = fingerprints[first];
+        fingerprints[first] = fingerprints[second];
+        fingerprints[second] = fingerprint;
+        int value = values[first];
+        values[first] = values[second];
+        values[second] = value;
+    }
+
+    /**
+     * Continues the given hash with the whitespace-separated elements of the given string independent of their order.
+     *
+     * @param hash the hash to continue
+     * @param elements the whitespace-separated elements to hash
+     * @return the continued hash
+     */
+    private static long hashElements(long hash, @NonNull String elements) {
+        long sum = 0;
+        int count = 0;
+        int elementStart = Correction.nextTokenStart(elements, 0);
+        while (elementStart < elements.length()) {
+            int elementEnd = Correction.nextTokenEnd(elements, elementStart);
+            sum += hashElement(elements, elementStart, elementEnd);
+            count++;
+            elementStart = Correction.nextTokenStart(elements, elementEnd);
+        }
+        return hashSum(hash, sum, count);
+    }
+
+    /**
+     * Continues the given hash with the given elements independent of their order.
+     *
+     * @param hash the hash to continue
+     * @param elements the elements to hash; this list is not modified
+     * @return the continued hash
+     */
+    private static long hashElements(long hash, @NonNull List<@NonNull String> elements) {
+        long sum = 0;
+        for (String element : elements) {
+            sum += hashElement(element, 0, element.length());
+        }
+        return hashSum(hash, sum, elements.size());
+    }
+
+    /**
+     * Continues the given hash with the given sum of the mixed hashes of a number of elements followed by the
+     * {@link #SEPARATOR}.
+     *
+     * @param hash the hash to continue
+     * @param sum the sum of the mixed hashes of the elements
+     * @param count the number of elements
+     * @return the continued hash
+     */
+    private static long hashSum(long hash, long sum, int count) {
+        long result = (hash ^ sum) * FNV_PRIME;
+        result = (result ^ count) * FNV_PRIME;
+        return hash(result, SEPARATOR);
+    }
+
+    /**
+     * Computes the mixed hash of the element in the given range of the given string. Mixing the FNV-1a hash of the
+     * element by the finalizer of MurmurHash3 spreads its bits, such that the sum of multiple element hashes does not
+     * cancel out similar elements.
+     *
+     * @param string the string containing the element
+     * @param start the index of the first character of the element
+     * @param end the index directly after the last character of the element
+     * @return the mixed hash of the element
+     */
+    private static long hashElement(@NonNull String string, int start, int end) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            hash = hash(hash, string.charAt(i));
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Continues the given hash with the characters of the given string followed by the {@link #SEPARATOR}.
+     *
+     * @param hash the hash to continue
+     * @param string the string to hash
+     * @return the continued hash
+     */
+    private static long hash(long hash, @NonNull String string) {
+        long result = hash;
+        for (int i = 0; i < string.length(); i++) {
+            result = hash(result, string.charAt(i));
+        }
+        return hash(result, SEPARATOR);
+    }
+
+    /**
+     * Continues the given hash with the given character (both bytes, low byte first).
+     *
+     * @param hash the hash to continue
+     * @param character the character to hash
+     * @return the continued hash
+     */
+    private static long hash(long hash, char character) {
+        long result = (hash ^ (character & 0xFF)) * FNV_PRIME;
+        return (result ^ (character >>> 8)) * FNV_PRIME;
+    }
+
+}
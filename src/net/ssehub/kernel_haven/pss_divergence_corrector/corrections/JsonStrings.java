@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class escapes text for the content of JSON strings. It is shared by all JSON output of this plug-in, i.e., the
+ * {@link DescriptionFormat#JSON} descriptions, the JSON output of corrections, and the exported metrics. Quotes,
+ * backslashes, line breaks, and tabulators are escaped by their short escape sequences; all other control characters
+ * are escaped by their Unicode escape sequences. Runs of characters, which need no escaping, are appended at once.
+ *
+ * @author Christian Kröher
+ *
+ */
+public class JsonStrings {
+
+    /**
+     * The hexadecimal digits for writing Unicode escape sequences.
+     */
+    private static final char @NonNull [] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Creates a {@link JsonStrings} instance, which should never be used as this class only provides static methods.
+     */
+    private JsonStrings() {}
+
+    /**
+     * Appends the given range of characters to the given {@link StringBuilder} escaped for the content of a JSON
+     * string.
+     *
+     * @param output the {@link StringBuilder} to append the escaped characters to
+     * @param text the text containing the characters to escape
+     * @param start the index of the first character to escape
+     * @param end the index directly after the last character to escape
+     */
+    public static void appendEscaped(@NonNull StringBuilder output, @NonNull String text, int start, int end) {
+        try {
+            appendEscaped((Appendable) output, text, start, end);
+        } catch (IOException e) {
+            // Cannot happen, as appending to a StringBuilder does not throw IOExceptions
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the given range of characters to the given {@link Appendable}, e.g., a {@link java.io.Writer}, escaped
+     * for the content of a JSON string. The enclosing quotes are not appended.
+     *
+     * @param output the {@link Appendable} to append the escaped characters to
+     * @param text the text containing the characters to escape
+     * @param start the index of the first character to escape
+     * @param end the index directly after the last character to escape
+     * @throws IOException if appending to the given {@link Appendable} fails
+     */
+    public static void appendEscaped(@NonNull Appendable output, @NonNull String text, int start, int end)
+            throws IOException {
+        int unescapedStart = start;
+        for (int i = start; i < end; i++) {
+            char character = text.charAt(i);
+            if (character == '"' || character == '\\' || character < 0x20) {
+                appendUnescaped(output, text, unescapedStart, i);
+                output.append('\\');
+                switch (character) {
+                case '\n':
+                    output.append('n');
+                    break;
+                case '\r':
+                    output.append('r');
+                    break;
+                case '\t':
+                    output.append('t');
+                    break;
+                case '"':
+                case '\\':
+                    output.append(character);
+                    break;
+                default:
+                    output.append("u00").append(HEX_DIGITS[character >>> 4]).append(HEX_DIGITS[character & 0xF]);
+                    break;
+                }
+                unescapedStart = i + 1;
+            }
+        }
+        appendUnescaped(output, text, unescapedStart, end);
+    }
+
+    /**
+     * Appends the given range of characters, which need no escaping, to the given {@link Appendable}. A range covering
+     * the entire text is appended as is, as {@link java.io.Writer}s copy ranges into intermediate strings.
+     *
+     * @param output the {@link Appendable} to append the characters to
+     * @param text the text containing the characters to append
+     * @param start the index of the first character to append
+     * @param end the index directly after the last character to append
+     * @throws IOException if appending to the given {@link Appendable} fails
+     */
+    private static void appendUnescaped(@NonNull Appendable output, @NonNull String text, int start, int end)
+            throws IOException {
+        if (start == 0 && end == text.length()) {
+            output.append(text);
+        } else if (start < end) {
+            output.append(text, start, end);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class provides a pool of canonical instances of the names of variables, source files, and code elements
+ * involved in divergences. The same names occur in many divergences; retaining a single instance per name reduces
+ * the memory required for merged and cached corrections. In contrast to {@link String#intern()}, this pool can be
+ * cleared at the end of an analysis.
+ *
+ * @author Christian Kröher
+ *
+ */
+public class NamePool {
+
+    /**
+     * The canonical instance of each pooled name.
+     */
+    private static final @NonNull Map<String, String> POOL = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@link NamePool} instance, which should never be used as this class only provides static methods.
+     */
+    private NamePool() {}
+
+    /**
+     * Returns the canonical instance of the given name. If the pool does not contain this name yet, the given instance
+     * becomes its canonical instance.
+     *
+     * @param name the name for which the canonical instance shall be returned
+     * @return the canonical instance of the given name
+     */
+    public static @NonNull String get(@NonNull String name) {
+        String canonicalName = POOL.putIfAbsent(name, name);
+        if (canonicalName == null) {
+            canonicalName = name;
+        }
+        return canonicalName;
+    }
+
+    /**
+     * Removes all names from this pool.
+     */
+    public static void clear() {
+        POOL.clear();
+    }
+
+}
@@ -12,6 +12,10 @@
  */
 package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
 import net.ssehub.kernel_haven.util.null_checks.NonNull;
@@ -34,80 +38,45 @@ public class UndefinedVariableCorrection extends Correction {
     }
 
     @Override
-    public @NonNull String getDescription() {
-        StringBuilder descriptionBuilder = new StringBuilder();
-        String involvedVariablesDescription = toDescriptionString(divergence.getInvolvedVariablesString());
-        String involvedSourceFilesDescription = toDescriptionString(divergence.getInvolvedSourceFilesString());
-        String involvedCodeElementsDescription = toDescriptionString(divergence.getInvolvedCodeElementsString());
+    public @NonNull CorrectionKind getKind() {
+        return CorrectionKind.UNDEFINED_VARIABLE;
+    }
+
+    @Override
+    protected @NonNull List<@NonNull CorrectionAlternative> createStructuredAlternatives() {
+        List<@NonNull CorrectionAlternative> alternatives = new ArrayList<>(3);
+        List<@NonNull String> involvedVariables = Collections.unmodifiableList(getInvolvedVariables());
+        List<@NonNull String> none = Collections.emptyList();
         
         // Correction in the variability model
-        descriptionBuilder.append("Define ");
-        descriptionBuilder.append(involvedVariablesDescription);
-        descriptionBuilder.append(" in the variability model");
+        alternatives.add(new CorrectionAlternative(CorrectionAction.DEFINE, CorrectionArtifact.VARIABILITY_MODEL,
+                involvedVariables, none, none, DescriptionTemplateKey.UNDEFINED_VARIABLE_DEFINITION));
+        /*
+         * TODO presence conditions in build artifacts are not represented in divergences due to missing information
+         * provided by the extractor. The exact locations of the references to the undefined variable in the build
+         * artifacts are only available, if the LocationIndex is enabled.
+         */
         // Correction in the build artifacts (if involved)
-        if (!involvedSourceFilesDescription.isEmpty()) {
-            descriptionBuilder.append("\n");
-            descriptionBuilder.append("OR");
-            descriptionBuilder.append("\n");
-            descriptionBuilder.append(getBuildCorrectionDescription(involvedVariablesDescription,
-                    involvedSourceFilesDescription));
+        List<@NonNull String> involvedSourceFiles = getInvolvedSourceFiles();
+        if (!involvedSourceFiles.isEmpty()) {
+            alternatives.add(new CorrectionAlternative(CorrectionAction.REMOVE, CorrectionArtifact.BUILD,
+                    involvedVariables, Collections.unmodifiableList(involvedSourceFiles), none,
+                    DescriptionTemplateKey.UNDEFINED_VARIABLE_BUILD_REMOVAL));
         }
         // Correction in the code artifacts (if involved)
-        if (!involvedCodeElementsDescription.isEmpty()) {
-            descriptionBuilder.append("\n");
-            descriptionBuilder.append("OR");
-            descriptionBuilder.append("\n");
-            descriptionBuilder.append(getCodeCorrectionDescription(involvedVariablesDescription,
-                    involvedCodeElementsDescription));
+        List<@NonNull String> involvedCodeElements = getInvolvedCodeElements();
+        if (!involvedCodeElements.isEmpty()) {
+            alternatives.add(new CorrectionAlternative(CorrectionAction.REMOVE, CorrectionArtifact.CODE,
+                    involvedVariables, none, Collections.unmodifiableList(involvedCodeElements),
+                    DescriptionTemplateKey.UNDEFINED_VARIABLE_CODE_REMOVAL));
         }
         
-        return descriptionBuilder.toString();
+        return alternatives;
     }
-    
-    /**
-     * Returns a textual description of how to correct the build artifacts, if they reference the undefined variable.
-     * 
-     * @param involvedVariablesDescription the string containing the variables description as provided by
-     *        {@link #toDescriptionString(String)} called with {@link Divergence#getInvolvedVariablesString()}
-     * @param involvedSourceFilesDescription the string containing the source files description as provided by
-     *        {@link #toDescriptionString(String)} called with {@link Divergence#getInvolvedSourceFilesString()}
-     * @return a string containing a textual description of a build artifacts correction; can be <i>empty</i> if no
-     *         build artifacts are involved in the divergence.
-     */
-    private @NonNull String getBuildCorrectionDescription(String involvedVariablesDescription,
-            String involvedSourceFilesDescription) {
-        /*
-         * TODO presence conditions in build artifacts are not represented in divergences due to missing information
-         * provided by the extractor. It would be nice, if we could point exactly to the location in the build artifacts
-         * where the references to the undefined variable exist.
-         */
-        StringBuilder buildCorrectionStringBuilder = new StringBuilder();
-        buildCorrectionStringBuilder.append("Remove references to ");
-        buildCorrectionStringBuilder.append(involvedVariablesDescription);
-        buildCorrectionStringBuilder.append(" in the build artifacts controlling the presence or absence of ");
-        buildCorrectionStringBuilder.append(involvedSourceFilesDescription);               
-        return buildCorrectionStringBuilder.toString();
-    }
-    
-    /**
-     * Returns a textual description of how to correct the code artifacts, if they reference the undefined variable.
-     * 
-     * @param involvedVariablesDescription the string containing the variables description as provided by
-     *        {@link #toDescriptionString(String)} called with {@link Divergence#getInvolvedVariablesString()}
-     * @param involvedCodeElementsDescription the string containing the source files description as provided by
-     *        {@link #toDescriptionString(String)} called with {@link Divergence#getInvolvedSourceFilesString()}
-     * @return a string containing a textual description of a code elements correction; can be <i>empty</i> if no code
-     *         elements are involved in the divergence.
-     */
-    private @NonNull String getCodeCorrectionDescription(String involvedVariablesDescription,
-            String involvedCodeElementsDescription) {
-        StringBuilder codeCorrectionStringBuilder = new StringBuilder();
-        codeCorrectionStringBuilder.append("Remove references to ");
-        codeCorrectionStringBuilder.append(involvedVariablesDescription);
-        codeCorrectionStringBuilder.append(" in the conditions controlling the presence or absence of the following"
-                + " code elements: ");
-        codeCorrectionStringBuilder.append(involvedCodeElementsDescription);               
-        return codeCorrectionStringBuilder.toString();
+
+    @Override
+    protected @NonNull List<@NonNull String> createAlternativeDescriptions() {
+        return describeStructuredAlternatives();
     }
 
 }
@@ -12,6 +12,10 @@
  */
 package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
 import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
 import net.ssehub.kernel_haven.util.null_checks.NonNull;
@@ -34,29 +38,31 @@ public class UnusedVariableCorrection extends Correction {
     }
 
     @Override
-    public @NonNull String getDescription() {
-        StringBuilder descriptionBuilder = new StringBuilder();
-        String involvedVariablesDescription = toDescriptionString(divergence.getInvolvedVariablesString());
+    public @NonNull CorrectionKind getKind() {
+        return CorrectionKind.UNUSED_VARIABLE;
+    }
+
+    @Override
+    protected @NonNull List<@NonNull CorrectionAlternative> createStructuredAlternatives() {
+        List<@NonNull CorrectionAlternative> alternatives = new ArrayList<>(3);
+        List<@NonNull String> involvedVariables = Collections.unmodifiableList(getInvolvedVariables());
+        List<@NonNull String> none = Collections.emptyList();
         
         // Correction in the variability model
-        descriptionBuilder.append("Remove ");
-        descriptionBuilder.append(involvedVariablesDescription);
-        descriptionBuilder.append(" from the variability model");
-        descriptionBuilder.append("\n");
-        descriptionBuilder.append("OR");
-        descriptionBuilder.append("\n");
-        descriptionBuilder.append("Define at least one reference to ");
-        descriptionBuilder.append(involvedVariablesDescription);
-        descriptionBuilder.append(" as part of another variables constraint in the variability model");
+        alternatives.add(new CorrectionAlternative(CorrectionAction.REMOVE, CorrectionArtifact.VARIABILITY_MODEL,
+                involvedVariables, none, none, DescriptionTemplateKey.UNUSED_VARIABLE_REMOVAL));
+        alternatives.add(new CorrectionAlternative(CorrectionAction.REFERENCE, CorrectionArtifact.VARIABILITY_MODEL,
+                involvedVariables, none, none, DescriptionTemplateKey.UNUSED_VARIABLE_MODEL_REFERENCE));
         // Correction in the build or code artifacts
-        descriptionBuilder.append("\n");
-        descriptionBuilder.append("OR");
-        descriptionBuilder.append("\n");
-        descriptionBuilder.append("Define at least one reference to ");
-        descriptionBuilder.append(involvedVariablesDescription);
-        descriptionBuilder.append(" in a build or code artifact");
+        alternatives.add(new CorrectionAlternative(CorrectionAction.REFERENCE, CorrectionArtifact.BUILD_OR_CODE,
+                involvedVariables, none, none, DescriptionTemplateKey.UNUSED_VARIABLE_ARTIFACT_REFERENCE));
         
-        return descriptionBuilder.toString();
+        return alternatives;
+    }
+
+    @Override
+    protected @NonNull List<@NonNull String> createAlternativeDescriptions() {
+        return describeStructuredAlternatives();
     }
 
 }
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+/**
+ * This enumeration defines the results of validating a {@link CorrectionAlternative} by applying it virtually to a
+ * snapshot of the variability, build, and code models and re-evaluating the condition of the corrected divergence.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum ValidationResult {
+
+    /**
+     * Applying the alternative resolves the divergence without introducing new divergences.
+     */
+    RESOLVES,
+
+    /**
+     * Applying the alternative resolves the divergence, but introduces new divergences, e.g., removing a variable from
+     * the variability model, which is still referenced in other artifacts.
+     */
+    RESOLVES_WITH_NEW_DIVERGENCES,
+
+    /**
+     * Applying the alternative alone does not resolve the divergence, e.g., removing the references to an undefined
+     * variable from the build artifacts, while the code artifacts still reference it.
+     */
+    DOES_NOT_RESOLVE,
+
+    /**
+     * The alternative cannot be validated, e.g., because the snapshot does not reproduce the divergence or the
+     * correction is not provided by this plug-in.
+     */
+    UNKNOWN;
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.diff;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Fingerprint;
+import net.ssehub.kernel_haven.pss_divergence_corrector.diff.FingerprintSorter.FingerprintCursor;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.BinaryCorrectionReader;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.StoredCorrection;
+import net.ssehub.kernel_haven.util.io.ITableCollection;
+import net.ssehub.kernel_haven.util.io.ITableWriter;
+import net.ssehub.kernel_haven.util.io.TableCollectionWriterFactory;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class compares the corrections of a baseline run and a current run, which are stored in files of the binary
+ * correction format. Each correction is identified by its kind, its type, and its involved variables; its source
+ * files, code elements, and description may change between runs, e.g., if code referencing a variable is added,
+ * without affecting its identity. The identities are compared via their fingerprints (see {@link Fingerprint}); if
+ * two fingerprints are equal, the identities themselves are compared to exclude fingerprint collisions. Corrections
+ * only provided by the current run are {@link DiffStatus#NEW}, corrections only provided by the baseline run are
+ * {@link DiffStatus#FIXED}, and corrections provided by both runs are {@link DiffStatus#PERSISTENT}. If a run provides
+ * multiple corrections with the same identity (e.g., the alternatives of a fanned out correction), they are paired in
+ * the order in which they were written.<br>
+ * <br>
+ * The fingerprints of both runs are sorted by a {@link FingerprintSorter} within the given memory budget and merged
+ * in a single pass. The corrections themselves are only read from the memory-mapped files when writing them to the
+ * output table. Hence, the memory required by this class is bounded independently of the number of corrections.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionDiff {
+
+    /**
+     * The name of the table containing the compared corrections.
+     */
+    private static final @NonNull String TABLE_NAME = "PSS_Correction_Diff";
+
+    /**
+     * The maximum number of fingerprints sorted in memory for each run.
+     */
+    private int maxPairsInMemory;
+
+    /**
+     * The directory, in which the temporary run files of the external merge sort are created.
+     */
+    private @NonNull File temporaryDirectory;
+
+    /**
+     * The number of {@link DiffStatus#NEW} corrections of the last comparison.
+     */
+    private int newCounter;
+
+    /**
+     * The number of {@link DiffStatus#FIXED} corrections of the last comparison.
+     */
+    private int fixedCounter;
+
+    /**
+     * The number of {@link DiffStatus#PERSISTENT} corrections of the last comparison.
+     */
+    private int persistentCounter;
+
+    /**
+     * Creates a {@link CorrectionDiff} instance.
+     * 
+     * @param memoryBudget the maximum number of bytes used for sorting the fingerprints of both runs in memory;
+     *        fingerprints exceeding this budget are sorted in temporary run files
+     * @param temporaryDirectory the directory, in which the temporary run files are created
+     */
+    public CorrectionDiff(long memoryBudget, @NonNull File temporaryDirectory) {
+        // Both runs are sorted at the same time; hence, each run gets half of the budget
+        long maxPairs = memoryBudget / 2 / FingerprintSorter.BYTES_PER_PAIR;
+        maxPairsInMemory = (int) Math.max(1, Math.min(maxPairs, Integer.MAX_VALUE - 8));
+        this.temporaryDirectory = temporaryDirectory;
+    }
+
+    /**
+     * Compares the corrections of the given files and writes all compared corrections with their {@link DiffStatus}
+     * to the given table file.
+     * 
+     * @param baselineFile the file of the binary correction format containing the corrections of the baseline run
+     * @param currentFile the file of the binary correction format containing the corrections of the current run
+     * @param outputFile the table file to write the compared corrections to
+     * @throws IOException if reading the given correction files, sorting their fingerprints, or writing the output
+     *         file fails
+     */
+    public void diff(@NonNull File baselineFile, @NonNull File currentFile, @NonNull File outputFile)
+            throws IOException {
+        newCounter = 0;
+        fixedCounter = 0;
+        persistentCounter = 0;
+        try (BinaryCorrectionReader baseline = new BinaryCorrectionReader(baselineFile);
+                BinaryCorrectionReader current = new BinaryCorrectionReader(currentFile);
+                FingerprintSorter baselineSorter = new FingerprintSorter(maxPairsInMemory, temporaryDirectory);
+                FingerprintSorter currentSorter = new FingerprintSorter(maxPairsInMemory, temporaryDirectory);
+                ITableCollection tableCollection = TableCollectionWriterFactory.INSTANCE
+                        .createCollection(outputFile);
+                ITableWriter tableWriter = tableCollection.getWriter(TABLE_NAME)) {
+            FingerprintCursor baselineCursor = sort(baseline, baselineSorter);
+            FingerprintCursor currentCursor = sort(current, currentSorter);
+            tableWriter.writeHeader("Status", "Correction Type", "Variables", "Source Files", "Code Elements",
+                    "Correction");
+            boolean hasBaseline = baselineCursor.next();
+            boolean hasCurrent = currentCursor.next();
+            while (hasBaseline || hasCurrent) {
+                int order;
+                if (!hasBaseline) {
+                    order = 1;
+                } else if (!hasCurrent) {
+                    order = -1;
+                } else {
+                    order = Long.compare(baselineCursor.getFingerprint(), currentCursor.getFingerprint());
+                }
+                if (order < 0) {
+                    write(tableWriter, DiffStatus.FIXED, baseline.get(baselineCursor.getIndex()));
+                    fixedCounter++;
+                    hasBaseline = baselineCursor.next();
+                } else if (order > 0) {
+                    write(tableWriter, DiffStatus.NEW, current.get(currentCursor.getIndex()));
+                    newCounter++;
+                    hasCurrent = currentCursor.next();
+                } else {
+                    StoredCorrection baselineCorrection = baseline.get(baselineCursor.getIndex());
+                    StoredCorrection currentCorrection = current.get(currentCursor.getIndex());
+                    if (haveSameIdentity(baselineCorrection, currentCorrection)) {
+                        write(tableWriter, DiffStatus.PERSISTENT, currentCorrection);
+                        persistentCounter++;
+                        hasBaseline = baselineCursor.next();
+                        hasCurrent = currentCursor.next();
+                    } else {
+                        // Fingerprint collision: the current correction may still pair with the next baseline one
+                        write(tableWriter, DiffStatus.FIXED, baselineCorrection);
+                        fixedCounter++;
+                        hasBaseline = baselineCursor.next();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the fingerprints of all corrections of the given reader to the given sorter and sorts them.
+     * 
+     * @param reader the {@link BinaryCorrectionReader} providing the corrections
+     * @param sorter the empty {@link FingerprintSorter}
+     * @return the cursor over the sorted fingerprints and the indices of their corrections
+     * @throws IOException if reading a corrupt correction or sorting the fingerprints fails
+     */
+    private static @NonNull FingerprintCursor sort(@NonNull BinaryCorrectionReader reader,
+            @NonNull FingerprintSorter sorter) throws IOException {
+        for (int i = 0; i < reader.size(); i++) {
+            sorter.add(getIdentity(reader.get(i)), i);
+        }
+        return sorter.sort();
+    }
+
+    /**
+     * Returns the fingerprint of the identity of the given stored correction.
+     * 
+     * @param correction the stored correction
+     * @return the fingerprint of the kind, the type, and the involved variables of the given correction
+     */
+    private static long getIdentity(@NonNull StoredCorrection correction) {
+        return Fingerprint.of(correction.getKind().name(), correction.getCorrectionType(),
+                correction.getInvolvedVariables(), Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Checks whether the given stored corrections have the same identity, i.e., the same kind, type, and involved
+     * variables independent of their order.
+     * 
+     * @param first the first stored correction
+     * @param second the second stored correction
+     * @return <code>true</code>, if both corrections have the same identity, <code>false</code> otherwise
+     */
+    private static boolean haveSameIdentity(@NonNull StoredCorrection first, @NonNull StoredCorrection second) {
+        return first.getKind() == second.getKind() && first.getCorrectionType().equals(second.getCorrectionType())
+                && getSortedVariables(first).equals(getSortedVariables(second));
+    }
+
+    /**
+     * Returns the sorted involved variables of the given stored correction.
+     * 
+     * @param correction the stored correction
+     * @return a new, sorted list of the involved variables; the stored list is unmodifiable
+     */
+    private static @NonNull List<@NonNull String> getSortedVariables(@NonNull StoredCorrection correction) {
+        List<@NonNull String> variables = new ArrayList<>(correction.getInvolvedVariables());
+        Collections.sort(variables);
+        return variables;
+    }
+
+    /**
+     * Writes the given stored correction with the given status as a row of the output table.
+     * 
+     * @param tableWriter the {@link ITableWriter} of the output table
+     * @param status the {@link DiffStatus} of the given correction
+     * @param correction the stored correction to write
+     * @throws IOException if writing the row fails
+     */
+    private static void write(@NonNull ITableWriter tableWriter, @NonNull DiffStatus status,
+            @NonNull StoredCorrection correction) throws IOException {
+        String description = correction.getDescription();
+        tableWriter.writeRow(status.name(), correction.getCorrectionType(),
+                String.join(" ", correction.getInvolvedVariables()),
+                String.join(" ", correction.getInvolvedSourceFiles()),
+                String.join(" ", correction.getInvolvedCodeElements()), description != null ? description : "");
+    }
+
+    /**
+     * Returns the number of {@link DiffStatus#NEW} corrections of the last comparison.
+     * 
+     * @return the number of new corrections
+     */
+    public int getNewCount() {
+        return newCounter;
+    }
+
+    /**
+     * Returns the number of {@link DiffStatus#FIXED} corrections of the last comparison.
+     * 
+     * @return the number of fixed corrections
+     */
+    public int getFixedCount() {
+        return fixedCounter;
+    }
+
+    /**
+     * Returns the number of {@link DiffStatus#PERSISTENT} corrections of the last comparison.
+     * 
+     * @return the number of persistent corrections
+     */
+    public int getPersistentCount() {
+        return persistentCounter;
+    }
+
+}
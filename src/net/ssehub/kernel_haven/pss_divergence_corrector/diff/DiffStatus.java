@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.diff;
+
+/**
+ * This enumeration defines the status of a correction in the {@link CorrectionDiff} between two analysis runs.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum DiffStatus {
+
+    /**
+     * The correction is only provided by the current run, i.e., its divergence was introduced since the baseline run.
+     */
+    NEW,
+
+    /**
+     * The correction is only provided by the baseline run, i.e., its divergence was fixed since the baseline run.
+     */
+    FIXED,
+
+    /**
+     * The correction is provided by both runs, i.e., its divergence still exists.
+     */
+    PERSISTENT;
+
+}
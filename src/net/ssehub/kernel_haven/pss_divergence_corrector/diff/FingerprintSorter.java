@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.diff;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Fingerprint;
+import net.ssehub.kernel_haven.util.Logger;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class sorts pairs of fingerprints and record indices by an external merge sort. Pairs are collected in memory
+ * up to a given number of pairs; if this number is exceeded, the collected pairs are sorted and written to a
+ * temporary run file. {@link #sort()} merges all run files (and the pairs remaining in memory) into a single sorted
+ * stream. Hence, the memory required by this class is bounded independently of the number of sorted pairs.<br>
+ * <br>
+ * Pairs are sorted by their fingerprints and, for equal fingerprints, by their indices (see
+ * {@link Fingerprint#sort(long[], int[], int)}). Instances of this class are not thread-safe.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class FingerprintSorter implements Closeable {
+
+    /**
+     * The {@link Logger} for logging problems with temporary run files.
+     */
+    private static final @NonNull Logger LOGGER = Logger.get();
+
+    /**
+     * The number of bytes required for each pair in memory.
+     */
+    static final int BYTES_PER_PAIR = Long.BYTES + Integer.BYTES;
+
+    /**
+     * The size of the buffer of each run file in bytes.
+     */
+    private static final int RUN_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The directory, in which the temporary run files are created.
+     */
+    private @NonNull File temporaryDirectory;
+
+    /**
+     * The fingerprints of the pairs collected in memory; only the first {@link #pairsCount} elements are valid.
+     */
+    private long @NonNull [] fingerprints;
+
+    /**
+     * The indices of the pairs collected in memory; only the first {@link #pairsCount} elements are valid.
+     */
+    private int @NonNull [] indices;
+
+    /**
+     * The number of pairs collected in memory.
+     */
+    private int pairsCount;
+
+    /**
+     * The maximum number of pairs collected in memory.
+     */
+    private int maxPairs;
+
+    /**
+     * The temporary run files written so far; each contains sorted pairs.
+     */
+    private @NonNull List<@NonNull File> runFiles;
+
+    /**
+     * The open cursors of the sorted stream returned by {@link #sort()}.
+     */
+    private @NonNull List<@NonNull Closeable> openCursors;
+
+    /**
+     * Creates a {@link FingerprintSorter} instance.
+     * 
+     * @param maxPairsInMemory the maximum number of pairs collected in memory before writing a run file; must be
+     *        greater than <code>0</code>
+     * @param temporaryDirectory the directory, in which the temporary run files are created
+     */
+    FingerprintSorter(int maxPairsInMemory, @NonNull File temporaryDirectory) {
+        this.temporaryDirectory = temporaryDirectory;
+        // Do not allocate the full budget for small inputs; the arrays grow up to the maximum number of pairs
+        int initialCapacity = Math.min(maxPairsInMemory, 1 << 12);
+        fingerprints = new long[initialCapacity];
+        indices = new int[initialCapacity];
+        maxPairs = maxPairsInMemory;
+        pairsCount = 0;
+        runFiles = new ArrayList<>();
+        openCursors = new ArrayList<>();
+    }
+
+    /**
+     * Adds the given pair.
+     * 
+     * @param fingerprint the fingerprint of the pair
+     * @param index the index of the pair
+     * @throws IOException if writing a run file fails
+     */
+    void add(long fingerprint, int index) throws IOException {
+        if (pairsCount == maxPairs) {
+            writeRun();
+        }
+        if (pairsCount == fingerprints.length) {
+            int newCapacity = (int) Math.min(maxPairs, 2L * fingerprints.length);
+            fingerprints = Arrays.copyOf(fingerprints, newCapacity);
+            indices = Arrays.copyOf(indices, newCapacity);
+        }
+        fingerprints[pairsCount] = fingerprint;
+        indices[pairsCount] = index;
+        pairsCount++;
+    }
+
+    /**
+     * Returns the number of temporary run files written so far.
+     * 
+     * @return the number of run files
+     */
+    int getRunsCount() {
+        return runFiles.size();
+    }
+
+    /**
+     * Sorts all added pairs. Afterwards, no more pairs must be added.
+     * 
+     * @return the cursor over all added pairs in sorted order
+     * @throws IOException if writing or reading a run file fails
+     */
+    @NonNull FingerprintCursor sort() throws IOException {
+        Fingerprint.sort(fingerprints, indices, pairsCount);
+        FingerprintCursor cursor;
+        if (runFiles.isEmpty()) {
+            cursor = new MemoryCursor(fingerprints, indices, pairsCount);
+        } else {
+            // Write the remaining pairs as the last run, which keeps the memory of the merge bounded by the buffers
+            writeRun();
+            fingerprints = new long[0];
+            indices = new int[0];
+            List<@NonNull FingerprintCursor> runCursors = new ArrayList<>(runFiles.size());
+            for (File runFile : runFiles) {
+                RunCursor runCursor = new RunCursor(runFile);
+                openCursors.add(runCursor);
+                runCursors.add(runCursor);
+            }
+            cursor = new MergeCursor(runCursors);
+        }
+        return cursor;
+    }
+
+    /**
+     * Closes all open run files and deletes all temporary run files.
+     */
+    @Override
+    public void close() {
+        for (Closeable openCursor : openCursors) {
+            try {
+                openCursor.close();
+            } catch (IOException e) {
+                LOGGER.logException("Closing temporary run file failed", e);
+            }
+        }
+        openCursors.clear();
+        for (File runFile : runFiles) {
+            if (!runFile.delete()) {
+                LOGGER.logWarning2("Cannot delete temporary run file ", runFile.getAbsolutePath());
+            }
+        }
+        runFiles.clear();
+    }
+
+    /**
+     * Sorts the pairs collected in memory and writes them to a new temporary run file.
+     * 
+     * @throws IOException if writing the run file fails
+     */
+    private void writeRun() throws IOException {
+        Fingerprint.sort(fingerprints, indices, pairsCount);
+        File runFile = File.createTempFile("pss_corrections", ".run", temporaryDirectory);
+        runFiles.add(runFile);
+        try (DataOutputStream runOutputStream = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(runFile), RUN_BUFFER_SIZE))) {
+            for (int i = 0; i < pairsCount; i++) {
+                runOutputStream.writeLong(fingerprints[i]);
+                runOutputStream.writeInt(indices[i]);
+            }
+        }
+        pairsCount = 0;
+    }
+
+    /**
+     * This interface defines a cursor over a sorted stream of pairs of fingerprints and indices.
+     */
+    interface FingerprintCursor {
+
+        /**
+         * Moves this cursor to the next pair.
+         * 
+         * @return <code>true</code>, if this cursor points to the next pair, or <code>false</code>, if the end of the
+         *         stream is reached
+         * @throws IOException if reading the next pair fails
+         */
+        boolean next() throws IOException;
+
+        /**
+         * Returns the fingerprint of the current pair.
+         * 
+         * @return the fingerprint of the current pair
+         */
+        long getFingerprint();
+
+        /**
+         * Returns the index of the current pair.
+         * 
+         * @return the index of the current pair
+         */
+        int getIndex();
+
+    }
+
+    /**
+     * This class realizes a {@link FingerprintCursor} over sorted pairs in memory.
+     */
+    private static class MemoryCursor implements FingerprintCursor {
+
+        /**
+         * The sorted fingerprints of the pairs.
+         */
+        private long @NonNull [] fingerprints;
+
+        /**
+         * The indices of the pairs.
+         */
+        private int @NonNull [] indices;
+
+        /**
+         * The number of pairs.
+         */
+        private int pairsCount;
+
+        /**
+         * The position of the current pair.
+         */
+        private int position;
+
+        /**
+         * Creates a {@link MemoryCursor} instance.
+         * 
+         * @param fingerprints the sorted fingerprints of the pairs
+         * @param indices the indices of the pairs
+         * @param pairsCount the number of pairs
+         */
+        private MemoryCursor(long @NonNull [] fingerprints, int @NonNull [] indices, int pairsCount) {
+            this.fingerprints = fingerprints;
+            this.indices = indices;
+            this.pairsCount = pairsCount;
+            position = -1;
+        }
+
+        @Override
+        public boolean next() {
+            position++;
+            return position < pairsCount;
+        }
+
+        @Override
+        public long getFingerprint() {
+            return fingerprints[position];
+        }
+
+        @Override
+        public int getIndex() {
+            return indices[position];
+        }
+
+    }
+
+    /**
+     * This class realizes a {@link FingerprintCursor} over the sorted pairs of a run file.
+     */
+    private static class RunCursor implements FingerprintCursor, Closeable {
+
+        /**
+         * The stream reading the run file.
+         */
+        private @NonNull DataInputStream runInputStream;
+
+        /**
+         * The fingerprint of the current pair.
+         */
+        private long fingerprint;
+
+        /**
+         * The index of the current pair.
+         */
+        private int index;
+
+        /**
+         * Creates a {@link RunCursor} instance.
+         * 
+         * @param runFile the run file to read
+         * @throws IOException if opening the run file fails
+         */
+        private RunCursor(@NonNull File runFile) throws IOException {
+            runInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(runFile),
+                    RUN_BUFFER_SIZE));
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            boolean hasNext;
+            try {
+                fingerprint = runInputStream.readLong();
+                index = runInputStream.readInt();
+                hasNext = true;
+            } catch (EOFException e) {
+                hasNext = false;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            runInputStream.close();
+        }
+
+    }
+
+    /**
+     * This class realizes a {@link FingerprintCursor}, which merges multiple sorted cursors using a min-heap.
+     */
+    private static class MergeCursor implements FingerprintCursor {
+
+        /**
+         * The merged cursors, which have a current pair, with the cursor of the smallest pair at the head.
+         */
+        private @NonNull PriorityQueue<FingerprintCursor> cursors;
+
+        /**
+         * The fingerprint of the current pair.
+         */
+        private long fingerprint;
+
+        /**
+         * The index of the current pair.
+         */
+        private int index;
+
+        /**
+         * Creates a {@link MergeCursor} instance.
+         * 
+         * @param mergedCursors the sorted cursors to merge; none of them must be moved before
+         * @throws IOException if reading the first pair of a cursor fails
+         */
+        private MergeCursor(@NonNull List<@NonNull FingerprintCursor> mergedCursors) throws IOException {
+            cursors = new PriorityQueue<>(Math.max(1, mergedCursors.size()), (first, second) -> {
+                int order = Long.compare(first.getFingerprint(), second.getFingerprint());
+                return order != 0 ? order : Integer.compare(first.getIndex(), second.getIndex());
+            });
+            for (FingerprintCursor mergedCursor : mergedCursors) {
+                if (mergedCursor.next()) {
+                    cursors.add(mergedCursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            FingerprintCursor smallestCursor = cursors.poll();
+            boolean hasNext = smallestCursor != null;
+            if (smallestCursor != null) {
+                fingerprint = smallestCursor.getFingerprint();
+                index = smallestCursor.getIndex();
+                if (smallestCursor.next()) {
+                    cursors.add(smallestCursor);
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+/**
+ * This package provides the comparison of the corrections of two analysis runs, e.g., for two releases of the
+ * analyzed software. The {@link net.ssehub.kernel_haven.pss_divergence_corrector.diff.CorrectionDiff} classifies the
+ * corrections stored in two files of the binary correction format as new, fixed, or persistent using an external merge
+ * sort, which requires a fixed amount of memory independent of the number of corrections.
+ * 
+ * @author Christian Kröher
+ *
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.diff;
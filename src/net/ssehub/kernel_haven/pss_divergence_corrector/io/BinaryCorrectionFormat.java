@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+/**
+ * This class defines the constants of the binary correction format. A file of this format consists of the following
+ * sections (all numbers in big-endian byte order):
+ * <ol>
+ * <li><b>Header</b>: the {@link #MAGIC} number (4 bytes), the {@link #VERSION} (2 bytes), and the flags (1 byte,
+ *     e.g., {@link #FLAG_DESCRIPTIONS})</li>
+ * <li><b>Records</b>: one record per correction consisting of its kind (1 byte, the ordinal of the
+ *     {@link net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionKind}), the dictionary id of its
+ *     type, the number of corrected divergences, the number and dictionary ids of its involved variables, source
+ *     files, and code elements, and, if {@link #FLAG_DESCRIPTIONS} is set, its UTF-8 encoded description preceded by
+ *     its length in bytes; all numbers in a record are unsigned variable-length integers (7 bits per byte, least
+ *     significant group first)</li>
+ * <li><b>Dictionary</b>: the number of entries (4 bytes) followed by each entry as its length in bytes (4 bytes) and
+ *     its UTF-8 encoded string; the dictionary id of an entry is its position in the dictionary</li>
+ * <li><b>Index</b>: the offset of each record in the file (8 bytes each)</li>
+ * <li><b>Footer</b>: the offset of the dictionary (8 bytes), the offset of the index (8 bytes), the number of records
+ *     (4 bytes), and the {@link #MAGIC} number (4 bytes)</li>
+ * </ol>
+ * The names of variables, source files, and code elements as well as the correction types are stored only once in
+ * the dictionary. The index allows random access to each record without reading the preceding records. All offsets
+ * are stored as 8 bytes, but files are limited to {@link #MAX_FILE_SIZE} bytes, such that they can be mapped into
+ * memory as a whole.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class BinaryCorrectionFormat {
+
+    /**
+     * The magic number identifying files of this format ("PSSC" in ASCII).
+     */
+    static final int MAGIC = 0x50535343;
+
+    /**
+     * The version of this format.
+     */
+    static final short VERSION = 2;
+
+    /**
+     * The flag indicating that each record contains the description of its correction.
+     */
+    static final byte FLAG_DESCRIPTIONS = 0x01;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 4 + 2 + 1;
+
+    /**
+     * The maximum size of a file in bytes; this is the maximum size of a single memory-mapped buffer.
+     */
+    static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * The size of the footer in bytes.
+     */
+    static final int FOOTER_SIZE = 8 + 8 + 4 + 4;
+
+    /**
+     * Creates a {@link BinaryCorrectionFormat} instance, which should never be used as this class only provides
+     * constants.
+     */
+    private BinaryCorrectionFormat() {}
+
+}
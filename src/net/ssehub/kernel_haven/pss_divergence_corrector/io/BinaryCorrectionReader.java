@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionKind;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class reads files of the binary correction format (see {@link BinaryCorrectionFormat}). The file is mapped into
+ * memory; only the offsets of the dictionary entries are read when opening the file. Records are decoded on demand,
+ * either sequentially via {@link #iterator()} or randomly via {@link #get(int)}, and dictionary entries are decoded
+ * only once when they are first referenced. All sizes, offsets, and dictionary ids read from the file are checked
+ * against the bounds of their sections; violations are reported as {@link IOException}s.<br>
+ * <br>
+ * Instances of this class are not thread-safe. Files larger than {@link BinaryCorrectionFormat#MAX_FILE_SIZE} bytes
+ * are rejected; they are never written by the {@link BinaryCorrectionWriter}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class BinaryCorrectionReader implements Closeable, Iterable<@NonNull StoredCorrection> {
+
+    /**
+     * The file read by this reader.
+     */
+    private @NonNull File inputFile;
+
+    /**
+     * The {@link RandomAccessFile} providing the mapped file.
+     */
+    private @NonNull RandomAccessFile file;
+
+    /**
+     * The content of the mapped file.
+     */
+    private @NonNull ByteBuffer buffer;
+
+    /**
+     * Defines whether the records contain the descriptions of their corrections.
+     */
+    private boolean hasDescriptions;
+
+    /**
+     * The offset of the dictionary in the file, which is the end of the records.
+     */
+    private int dictionaryOffset;
+
+    /**
+     * The offset of the index in the file.
+     */
+    private int indexOffset;
+
+    /**
+     * The number of records in the file.
+     */
+    private int recordCount;
+
+    /**
+     * The offset of each dictionary entry (pointing to its length) in the file.
+     */
+    private int @NonNull [] dictionaryOffsets;
+
+    /**
+     * The dictionary entries decoded so far; entries not decoded yet are <code>null</code>.
+     */
+    private String @NonNull [] dictionary;
+
+    /**
+     * Creates a {@link BinaryCorrectionReader} instance for the given file.
+     * 
+     * @param inputFile the file of the binary correction format to read
+     * @throws IOException if the given file cannot be read, is larger than the
+     *         {@link BinaryCorrectionFormat#MAX_FILE_SIZE}, is not a file of the binary correction format, or is
+     *         corrupt
+     */
+    public BinaryCorrectionReader(@NonNull File inputFile) throws IOException {
+        this.inputFile = inputFile;
+        file = new RandomAccessFile(inputFile, "r");
+        try {
+            long fileSize = file.length();
+            if (fileSize > BinaryCorrectionFormat.MAX_FILE_SIZE) {
+                throw new IOException("Correction file " + inputFile + " is larger than "
+                        + BinaryCorrectionFormat.MAX_FILE_SIZE + " bytes");
+            }
+            if (fileSize < BinaryCorrectionFormat.HEADER_SIZE + BinaryCorrectionFormat.FOOTER_SIZE) {
+                throw new IOException("Correction file " + inputFile + " is truncated");
+            }
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            int footerOffset = toOffset(fileSize - BinaryCorrectionFormat.FOOTER_SIZE);
+            if (buffer.getInt(0) != BinaryCorrectionFormat.MAGIC
+                    || buffer.getInt(footerOffset + 20) != BinaryCorrectionFormat.MAGIC) {
+                throw new IOException(inputFile + " is not a correction file");
+            }
+            if (buffer.getShort(4) != BinaryCorrectionFormat.VERSION) {
+                throw new IOException("Unsupported version " + buffer.getShort(4) + " of correction file "
+                        + inputFile);
+            }
+            hasDescriptions = (buffer.get(6) & BinaryCorrectionFormat.FLAG_DESCRIPTIONS) != 0;
+            dictionaryOffset = toOffset(buffer.getLong(footerOffset));
+            indexOffset = toOffset(buffer.getLong(footerOffset + 8));
+            recordCount = buffer.getInt(footerOffset + 16);
+            if (recordCount < 0 || indexOffset + 8L * recordCount > footerOffset
+                    || dictionaryOffset + 4L > indexOffset) {
+                throw corrupt("invalid offsets of its sections");
+            }
+            int dictionarySize = buffer.getInt(dictionaryOffset);
+            // Each entry consists of at least its length
+            if (dictionarySize < 0 || dictionarySize > (indexOffset - dictionaryOffset - 4) / 4) {
+                throw corrupt("invalid dictionary size " + dictionarySize);
+            }
+            dictionaryOffsets = new int[dictionarySize];
+            dictionary = new String[dictionarySize];
+            long entryOffset = dictionaryOffset + 4L;
+            for (int i = 0; i < dictionarySize; i++) {
+                dictionaryOffsets[i] = (int) entryOffset;
+                int entryLength = buffer.getInt((int) entryOffset);
+                entryOffset += 4L + entryLength;
+                if (entryLength < 0 || entryOffset > indexOffset) {
+                    throw corrupt("invalid length " + entryLength + " of dictionary entry " + i);
+                }
+            }
+        } catch (IllegalStateException e) {
+            file.close();
+            throw new IOException("Correction file " + inputFile + " is corrupt", e);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of stored corrections.
+     * 
+     * @return the number of stored corrections
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the stored correction with the given index.
+     * 
+     * @param index the index of the stored correction in the order of writing; must be less than {@link #size()}
+     * @return the stored correction with the given index
+     * @throws IndexOutOfBoundsException if the given index is negative or not less than {@link #size()}
+     * @throws IOException if the record of the stored correction is corrupt
+     */
+    public @NonNull StoredCorrection get(int index) throws IndexOutOfBoundsException, IOException {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " not in [0, " + recordCount + ")");
+        }
+        long recordOffset = buffer.getLong(indexOffset + 8 * index);
+        if (recordOffset < BinaryCorrectionFormat.HEADER_SIZE || recordOffset >= dictionaryOffset) {
+            throw corrupt("invalid offset " + recordOffset + " of record " + index);
+        }
+        StoredCorrection correction;
+        try {
+            correction = readRecord((int) recordOffset);
+        } catch (BufferUnderflowException e) {
+            throw corrupt("record " + index + " exceeds the records section");
+        }
+        return correction;
+    }
+
+    /**
+     * Returns whether the stored corrections contain their descriptions.
+     * 
+     * @return <code>true</code>, if the stored corrections contain their descriptions, <code>false</code> otherwise
+     */
+    public boolean hasDescriptions() {
+        return hasDescriptions;
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * <br>
+     * The returned iterator throws an {@link UncheckedIOException}, if the record of the next stored correction is
+     * corrupt (see {@link #get(int)}).
+     */
+    @Override
+    public @NonNull Iterator<@NonNull StoredCorrection> iterator() {
+        return new Iterator<@NonNull StoredCorrection>() {
+
+            /**
+             * The index of the stored correction returned by the next call of {@link #next()}.
+             */
+            private int nextIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < recordCount;
+            }
+
+            @Override
+            public @NonNull StoredCorrection next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return get(nextIndex++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * Creates the exception reporting that the file of this reader is corrupt.
+     * 
+     * @param reason the reason why the file is corrupt
+     * @return the exception to throw
+     */
+    private @NonNull IOException corrupt(@NonNull String reason) {
+        return new IOException("Correction file " + inputFile + " is corrupt: " + reason);
+    }
+
+    /**
+     * Decodes the record starting at the given offset.
+     * 
+     * @param offset the offset of the record in the file
+     * @return the decoded record
+     * @throws BufferUnderflowException if the record exceeds the records section
+     * @throws IOException if the record contains invalid numbers or dictionary ids
+     */
+    private @NonNull StoredCorrection readRecord(int offset) throws BufferUnderflowException, IOException {
+        ByteBuffer recordBuffer = buffer.duplicate();
+        recordBuffer.limit(dictionaryOffset);
+        recordBuffer.position(offset);
+        CorrectionKind kind = CorrectionKind.fromOrdinal(recordBuffer.get());
+        String correctionType = getDictionaryEntry(readVarInt(recordBuffer));
+        int divergencesCount = readVarInt(recordBuffer);
+        List<@NonNull String> involvedVariables = readNames(recordBuffer);
+        List<@NonNull String> involvedSourceFiles = readNames(recordBuffer);
+        List<@NonNull String> involvedCodeElements = readNames(recordBuffer);
+        String description = null;
+        if (hasDescriptions) {
+            int descriptionLength = readVarInt(recordBuffer);
+            if (descriptionLength > recordBuffer.remaining()) {
+                throw corrupt("invalid description length " + descriptionLength);
+            }
+            byte[] encodedDescription = new byte[descriptionLength];
+            recordBuffer.get(encodedDescription);
+            description = new String(encodedDescription, StandardCharsets.UTF_8);
+        }
+        return new StoredCorrection(kind, correctionType, divergencesCount, involvedVariables, involvedSourceFiles,
+                involvedCodeElements, description);
+    }
+
+    /**
+     * Checks that the given offset read from the file is within the mapped file. As the mapped file is never larger
+     * than the {@link BinaryCorrectionFormat#MAX_FILE_SIZE}, each such offset fits into an integer.
+     * 
+     * @param offset the offset to check
+     * @return the given offset
+     * @throws IllegalStateException if the given offset is outside of the mapped file, i.e., the file is corrupt
+     */
+    private int toOffset(long offset) throws IllegalStateException {
+        if (offset < BinaryCorrectionFormat.HEADER_SIZE || offset > buffer.limit()) {
+            throw new IllegalStateException("Offset " + offset + " is outside of the correction file");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Reads the number of names followed by their dictionary ids from the given buffer.
+     * 
+     * @param recordBuffer the buffer positioned at the number of names
+     * @return the unmodifiable list of names; can be <i>empty</i>
+     * @throws IOException if the buffer contains invalid numbers or dictionary ids
+     */
+    private @NonNull List<@NonNull String> readNames(@NonNull ByteBuffer recordBuffer) throws IOException {
+        int namesCount = readVarInt(recordBuffer);
+        List<@NonNull String> names;
+        if (namesCount == 0) {
+            names = Collections.emptyList();
+        } else if (namesCount > recordBuffer.remaining()) {
+            // Each dictionary id consists of at least one byte
+            throw corrupt("invalid number of names " + namesCount);
+        } else {
+            names = new ArrayList<>(namesCount);
+            for (int i = 0; i < namesCount; i++) {
+                names.add(getDictionaryEntry(readVarInt(recordBuffer)));
+            }
+            names = Collections.unmodifiableList(names);
+        }
+        return names;
+    }
+
+    /**
+     * Returns the dictionary entry with the given id. The entry is decoded on its first request.
+     * 
+     * @param id the id of the dictionary entry
+     * @return the dictionary entry
+     * @throws IOException if the given id is not the id of a dictionary entry
+     */
+    private @NonNull String getDictionaryEntry(int id) throws IOException {
+        if (id >= dictionary.length) {
+            throw corrupt("invalid dictionary id " + id);
+        }
+        String entry = dictionary[id];
+        if (entry == null) {
+            int entryOffset = dictionaryOffsets[id];
+            byte[] encodedEntry = new byte[buffer.getInt(entryOffset)];
+            ByteBuffer entryBuffer = buffer.duplicate();
+            entryBuffer.position(entryOffset + 4);
+            entryBuffer.get(encodedEntry);
+            entry = new String(encodedEntry, StandardCharsets.UTF_8);
+            dictionary[id] = entry;
+        }
+        return entry;
+    }
+
+    /**
+     * Reads an unsigned variable-length integer from the given buffer.
+     * 
+     * @param recordBuffer the buffer positioned at the integer
+     * @return the read integer
+     * @throws IOException if the integer is negative or exceeds the range of integers
+     */
+    private int readVarInt(@NonNull ByteBuffer recordBuffer) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = recordBuffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0 && shift < 35);
+        if ((current & 0x80) != 0 || value > Integer.MAX_VALUE) {
+            throw corrupt("invalid variable-length integer");
+        }
+        return (int) value;
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class writes {@link Correction}s to a file of the binary correction format (see
+ * {@link BinaryCorrectionFormat}). The corrections are written sequentially as they are passed to this writer; only
+ * the dictionary of names and the offsets of the records are kept in memory until the writer is closed. Writing fails,
+ * if the file would exceed the {@link BinaryCorrectionFormat#MAX_FILE_SIZE}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class BinaryCorrectionWriter implements Closeable {
+
+    /**
+     * The stream writing to the output file.
+     */
+    private @NonNull DataOutputStream outputStream;
+
+    /**
+     * The file to write the corrections to.
+     */
+    private @NonNull File outputFile;
+
+    /**
+     * Defines whether the description of each correction is written.
+     */
+    private boolean writeDescriptions;
+
+    /**
+     * The number of bytes written to the {@link #outputStream} so far.
+     */
+    private long position;
+
+    /**
+     * The dictionary id of each name written so far.
+     */
+    private @NonNull Map<String, Integer> dictionaryIds;
+
+    /**
+     * The names in the dictionary in the order of their ids.
+     */
+    private @NonNull List<String> dictionary;
+
+    /**
+     * The offsets of the records written so far; only the first {@link #recordCounter} elements are valid.
+     */
+    private long @NonNull [] recordOffsets;
+
+    /**
+     * The number of records written so far.
+     */
+    private int recordCounter;
+
+    /**
+     * Creates a {@link BinaryCorrectionWriter} instance, which creates or overwrites the given file.
+     * 
+     * @param outputFile the file to write the corrections to
+     * @param writeDescriptions <code>true</code>, if the description of each correction shall be written, or
+     *        <code>false</code>, if only the kinds, types, and involved elements of the corrections shall be written
+     * @throws IOException if creating the given file fails
+     */
+    public BinaryCorrectionWriter(@NonNull File outputFile, boolean writeDescriptions) throws IOException {
+        outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile), 1 << 16));
+        this.outputFile = outputFile;
+        this.writeDescriptions = writeDescriptions;
+        position = 0;
+        dictionaryIds = new HashMap<>();
+        dictionary = new ArrayList<>();
+        recordOffsets = new long[1024];
+        recordCounter = 0;
+        outputStream.writeInt(BinaryCorrectionFormat.MAGIC);
+        outputStream.writeShort(BinaryCorrectionFormat.VERSION);
+        outputStream.writeByte(writeDescriptions ? BinaryCorrectionFormat.FLAG_DESCRIPTIONS : 0);
+        position += BinaryCorrectionFormat.HEADER_SIZE;
+    }
+
+    /**
+     * Writes the given {@link Correction} as the next record.
+     * 
+     * @param correction the {@link Correction} to write
+     * @throws IOException if writing the correction fails or the file exceeds the
+     *         {@link BinaryCorrectionFormat#MAX_FILE_SIZE}
+     */
+    public void write(@NonNull Correction correction) throws IOException {
+        if (recordCounter == recordOffsets.length) {
+            recordOffsets = Arrays.copyOf(recordOffsets, recordOffsets.length * 2);
+        }
+        recordOffsets[recordCounter++] = position;
+        outputStream.writeByte(correction.getKind().ordinal());
+        position++;
+        writeVarInt(getDictionaryId(correction.getCorrectionType()));
+        writeVarInt(correction.getDivergencesCount());
+        writeNames(correction.getInvolvedVariables());
+        writeNames(correction.getInvolvedSourceFiles());
+        writeNames(correction.getInvolvedCodeElements());
+        if (writeDescriptions) {
+            byte[] description = correction.getDescription().getBytes(StandardCharsets.UTF_8);
+            writeVarInt(description.length);
+            outputStream.write(description);
+            position += description.length;
+        }
+        checkSize(position);
+    }
+
+    /**
+     * Returns the number of {@link Correction}s written so far.
+     * 
+     * @return the number of written corrections
+     */
+    public int getRecordCount() {
+        return recordCounter;
+    }
+
+    /**
+     * Writes the dictionary, the index, and the footer and closes the output file.
+     * 
+     * @throws IOException if writing or closing the output file fails or the file exceeds the
+     *         {@link BinaryCorrectionFormat#MAX_FILE_SIZE}
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long dictionaryOffset = position;
+            outputStream.writeInt(dictionary.size());
+            for (String name : dictionary) {
+                byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+                outputStream.writeInt(encodedName.length);
+                outputStream.write(encodedName);
+                position += 4 + encodedName.length;
+            }
+            position += 4;
+            long indexOffset = position;
+            checkSize(indexOffset + 8L * recordCounter + BinaryCorrectionFormat.FOOTER_SIZE);
+            for (int i = 0; i < recordCounter; i++) {
+                outputStream.writeLong(recordOffsets[i]);
+            }
+            outputStream.writeLong(dictionaryOffset);
+            outputStream.writeLong(indexOffset);
+            outputStream.writeInt(recordCounter);
+            outputStream.writeInt(BinaryCorrectionFormat.MAGIC);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Checks that the given size of the output file does not exceed the {@link BinaryCorrectionFormat#MAX_FILE_SIZE}.
+     * 
+     * @param fileSize the (expected) size of the output file in bytes
+     * @throws IOException if the given size exceeds the maximum file size
+     */
+    private void checkSize(long fileSize) throws IOException {
+        if (fileSize > BinaryCorrectionFormat.MAX_FILE_SIZE) {
+            throw new IOException("Correction file " + outputFile + " exceeds the maximum size of "
+                    + BinaryCorrectionFormat.MAX_FILE_SIZE + " bytes");
+        }
+    }
+
+    /**
+     * Writes the number of the given names followed by their dictionary ids.
+     * 
+     * @param names the names to write
+     * @throws IOException if writing fails
+     */
+    private void writeNames(@NonNull List<@NonNull String> names) throws IOException {
+        writeVarInt(names.size());
+        for (String name : names) {
+            writeVarInt(getDictionaryId(name));
+        }
+    }
+
+    /**
+     * Returns the dictionary id of the given name. If the name is not part of the dictionary yet, it is added.
+     * 
+     * @param name the name for which the dictionary id shall be returned
+     * @return the dictionary id of the given name
+     */
+    private int getDictionaryId(@NonNull String name) {
+        Integer id = dictionaryIds.get(name);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.add(name);
+            dictionaryIds.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Writes the given non-negative number as an unsigned variable-length integer.
+     * 
+     * @param value the number to write
+     * @throws IOException if writing fails
+     */
+    private void writeVarInt(int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            outputStream.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+            position++;
+        }
+        outputStream.writeByte(remaining);
+        position++;
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionAlternative;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.JsonStrings;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.ValidationResult;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class writes {@link Correction}s as JSON Lines, i.e., one JSON object per line and correction. Each object
+ * contains the type, the kind, the fingerprint (as hexadecimal string), the number of corrected divergences, and the
+ * involved variables, source files, and code elements of the correction as well as its structured alternatives (see
+ * {@link Correction#getStructuredAlternatives()}) including their {@link ValidationResult}s, if the correction was
+ * validated, e.g.:
+ * <pre>
+ * {"type":"UnusedVariableCorrection","kind":"UNUSED_VARIABLE","fingerprint":"9c3f...","divergences":1,
+ *  "variables":["CONFIG_X"],"sourceFiles":[],"codeElements":[],"alternatives":[{"action":"REMOVE",
+ *  "artifact":"VARIABILITY_MODEL","variables":["CONFIG_X"],"sourceFiles":[],"codeElements":[]},...]}
+ * </pre>
+ * The objects are streamed directly to the output file; neither descriptions nor intermediate strings are created.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class JsonCorrectionWriter implements Closeable {
+
+    /**
+     * The writer writing to the output file.
+     */
+    private @NonNull Writer writer;
+
+    /**
+     * The number of corrections written so far.
+     */
+    private int correctionCounter;
+
+    /**
+     * Creates a {@link JsonCorrectionWriter} instance, which creates or overwrites the given file.
+     * 
+     * @param outputFile the file to write the corrections to
+     * @throws IOException if creating the given file fails
+     */
+    public JsonCorrectionWriter(@NonNull File outputFile) throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8),
+                1 << 16);
+        correctionCounter = 0;
+    }
+
+    /**
+     * Writes the given {@link Correction} as the next line.
+     * 
+     * @param correction the {@link Correction} to write
+     * @throws IOException if writing the correction fails
+     */
+    public void write(@NonNull Correction correction) throws IOException {
+        writer.write("{\"type\":");
+        writeString(correction.getCorrectionType());
+        writer.write(",\"kind\":\"");
+        writer.write(correction.getKind().name());
+        writer.write("\",\"fingerprint\":\"");
+        writer.write(Long.toHexString(correction.getFingerprint()));
+        writer.write("\",\"divergences\":");
+        writer.write(Integer.toString(correction.getDivergencesCount()));
+        writeElements(correction.getInvolvedVariables(), correction.getInvolvedSourceFiles(),
+                correction.getInvolvedCodeElements());
+        writer.write(",\"alternatives\":[");
+        List<@NonNull CorrectionAlternative> alternatives = correction.getStructuredAlternatives();
+        List<@NonNull ValidationResult> validationResults = correction.getValidationResults();
+        for (int i = 0; i < alternatives.size(); i++) {
+            CorrectionAlternative alternative = alternatives.get(i);
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write("{\"action\":\"");
+            writer.write(alternative.getAction().name());
+            writer.write("\",\"artifact\":\"");
+            writer.write(alternative.getArtifact().name());
+            writer.write('"');
+            writeElements(alternative.getVariables(), alternative.getSourceFiles(), alternative.getCodeElements());
+            if (i < validationResults.size()) {
+                writer.write(",\"validation\":\"");
+                writer.write(validationResults.get(i).name());
+                writer.write('"');
+            }
+            writer.write('}');
+        }
+        writer.write("]}\n");
+        correctionCounter++;
+    }
+
+    /**
+     * Returns the number of {@link Correction}s written so far.
+     * 
+     * @return the number of written corrections
+     */
+    public int getCorrectionCount() {
+        return correctionCounter;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Writes the given variables, source files, and code elements as the members <code>variables</code>,
+     * <code>sourceFiles</code>, and <code>codeElements</code> of the current object, each preceded by a comma.
+     * 
+     * @param variables the variables to write
+     * @param sourceFiles the source files to write
+     * @param codeElements the code elements to write
+     * @throws IOException if writing fails
+     */
+    private void writeElements(@NonNull List<@NonNull String> variables, @NonNull List<@NonNull String> sourceFiles,
+            @NonNull List<@NonNull String> codeElements) throws IOException {
+        writer.write(",\"variables\":");
+        writeArray(variables);
+        writer.write(",\"sourceFiles\":");
+        writeArray(sourceFiles);
+        writer.write(",\"codeElements\":");
+        writeArray(codeElements);
+    }
+
+    /**
+     * Writes the given strings as a JSON array.
+     * 
+     * @param elements the strings to write
+     * @throws IOException if writing fails
+     */
+    private void writeArray(@NonNull List<@NonNull String> elements) throws IOException {
+        writer.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeString(elements.get(i));
+        }
+        writer.write(']');
+    }
+
+    /**
+     * Writes the given string as an escaped JSON string including the enclosing quotes.
+     * 
+     * @param value the string to write
+     * @throws IOException if writing fails
+     */
+    private void writeString(@NonNull String value) throws IOException {
+        writer.write('"');
+        JsonStrings.appendEscaped(writer, value, 0, value.length());
+        writer.write('"');
+    }
+
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class provides line-based access to a file mapped into memory. The file is scanned only once for its line
+ * starts when creating an instance; lines are decoded on demand. Lines are decoded as ISO-8859-1, which maps each byte
+ * to exactly one character. Hence, unchanged bytes of any encoding are preserved when writing edited lines back.<br>
+ * <br>
+ * Instances of this class are immutable and, hence, thread-safe. Files larger than 2 GB are not supported.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class MappedSourceFile {
+
+    /**
+     * The number of columns of a tab character for computing indentations.
+     */
+    private static final int TAB_WIDTH = 8;
+
+    /**
+     * The content of the mapped file.
+     */
+    private @NonNull ByteBuffer buffer;
+
+    /**
+     * The offset of the first byte of each line in the {@link #buffer}; only the first {@link #lineCount} entries are
+     * valid.
+     */
+    private int @NonNull [] lineStarts;
+
+    /**
+     * The number of lines of the file.
+     */
+    private int lineCount;
+
+    /**
+     * Defines whether the last line of the file is terminated by a line feed.
+     */
+    private boolean endsWithNewline;
+
+    /**
+     * Creates a {@link MappedSourceFile} instance, which maps the given file into memory and determines its lines.
+     * 
+     * @param file the file to map
+     * @throws IOException if the given file cannot be read or is larger than 2 GB
+     */
+    public MappedSourceFile(@NonNull File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + file.getAbsolutePath() + " is larger than 2 GB");
+            }
+            if (size > 0) {
+                // The mapping remains valid after closing the channel
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate(0);
+            }
+        }
+        int size = buffer.limit();
+        lineStarts = new int[Math.max(16, size / 32)];
+        lineCount = 0;
+        int lineStart = 0;
+        for (int i = 0; i < size; i++) {
+            if (buffer.get(i) == '\n') {
+                addLineStart(lineStart);
+                lineStart = i + 1;
+            }
+        }
+        endsWithNewline = lineStart == size;
+        if (!endsWithNewline) {
+            addLineStart(lineStart);
+        }
+    }
+
+    /**
+     * Adds the given line start to the {@link #lineStarts}.
+     * 
+     * @param lineStart the offset of the first byte of the next line
+     */
+    private void addLineStart(int lineStart) {
+        if (lineCount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+        }
+        lineStarts[lineCount++] = lineStart;
+    }
+
+    /**
+     * Returns the number of lines of the file.
+     * 
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns whether the last line of the file is terminated by a line feed.
+     * 
+     * @return <code>true</code>, if the file is empty or its last line is terminated by a line feed,
+     *         <code>false</code> otherwise
+     */
+    public boolean endsWithNewline() {
+        return endsWithNewline;
+    }
+
+    /**
+     * Returns the offset of the first byte after the content of the given line (excluding the line feed).
+     * 
+     * @param line the index of the line
+     * @return the end offset of the content of the given line
+     */
+    private int getLineEnd(int line) {
+        int lineEnd;
+        if (line + 1 < lineCount) {
+            lineEnd = lineStarts[line + 1] - 1;
+        } else {
+            lineEnd = endsWithNewline ? buffer.limit() - 1 : buffer.limit();
+        }
+        return lineEnd;
+    }
+
+    /**
+     * Returns the content of the given line.
+     * 
+     * @param line the index of the line
+     * @return the content of the given line without the line feed
+     */
+    public @NonNull String getLine(int line) {
+        int lineStart = lineStarts[line];
+        byte[] content = new byte[getLineEnd(line) - lineStart];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = buffer.get(lineStart + i);
+        }
+        return new String(content, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Checks whether the file contains the given bytes.
+     * 
+     * @param needle the bytes to search for
+     * @return <code>true</code>, if the file contains the given bytes, <code>false</code> otherwise
+     */
+    public boolean contains(byte @NonNull [] needle) {
+        return indexOf(needle, 0, buffer.limit()) >= 0;
+    }
+
+    /**
+     * Checks whether the given line contains the given bytes.
+     * 
+     * @param line the index of the line
+     * @param needle the bytes to search for
+     * @return <code>true</code>, if the given line contains the given bytes, <code>false</code> otherwise
+     */
+    public boolean lineContains(int line, byte @NonNull [] needle) {
+        return indexOf(needle, lineStarts[line], getLineEnd(line)) >= 0;
+    }
+
+    /**
+     * Searches the given bytes in the given range of the {@link #buffer}.
+     * 
+     * @param needle the bytes to search for
+     * @param from the start offset of the range (inclusive)
+     * @param to the end offset of the range (exclusive)
+     * @return the offset of the first occurrence of the given bytes or <code>-1</code>, if the range does not contain
+     *         them
+     */
+    private int indexOf(byte @NonNull [] needle, int from, int to) {
+        int index = -1;
+        int last = to - needle.length;
+        for (int i = from; i <= last && index < 0; i++) {
+            if (buffer.get(i) == needle[0]) {
+                int j = 1;
+                while (j < needle.length && buffer.get(i + j) == needle[j]) {
+                    j++;
+                }
+                if (j == needle.length) {
+                    index = i;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether the given line contains only whitespace.
+     * 
+     * @param line the index of the line
+     * @return <code>true</code>, if the given line is blank, <code>false</code> otherwise
+     */
+    public boolean isBlank(int line) {
+        return getContentStart(line) == getLineEnd(line);
+    }
+
+    /**
+     * Returns the indentation of the given line in columns; tabs count as {@value #TAB_WIDTH} columns.
+     * 
+     * @param line the index of the line
+     * @return the indentation of the given line
+     */
+    public int getIndentation(int line) {
+        int indentation = 0;
+        int lineEnd = getLineEnd(line);
+        for (int i = lineStarts[line]; i < lineEnd && isWhitespace(buffer.get(i)); i++) {
+            if (buffer.get(i) == '\t') {
+                indentation = (indentation / TAB_WIDTH + 1) * TAB_WIDTH;
+            } else {
+                indentation++;
+            }
+        }
+        return indentation;
+    }
+
+    /**
+     * Returns the first word of the given line, i.e., the characters after the indentation up to the next whitespace.
+     * 
+     * @param line the index of the line
+     * @return the first word of the given line; <i>empty</i>, if the line is blank
+     */
+    public @NonNull String getFirstWord(int line) {
+        int wordStart = getContentStart(line);
+        int lineEnd = getLineEnd(line);
+        int wordEnd = wordStart;
+        while (wordEnd < lineEnd && !isWhitespace(buffer.get(wordEnd))) {
+            wordEnd++;
+        }
+        byte[] word = new byte[wordEnd - wordStart];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = buffer.get(wordStart + i);
+        }
+        return new String(word, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns the offset of the first non-whitespace byte of the given line.
+     * 
+     * @param line the index of the line
+     * @return the offset of the first non-whitespace byte or the end of the line, if the line is blank
+     */
+    private int getContentStart(int line) {
+        int lineEnd = getLineEnd(line);
+        int contentStart = lineStarts[line];
+        while (contentStart < lineEnd && isWhitespace(buffer.get(contentStart))) {
+            contentStart++;
+        }
+        return contentStart;
+    }
+
+    /**
+     * Writes the given range of lines including their line terminators unchanged to the given stream.
+     * 
+     * @param start the index of the first line to write (inclusive)
+     * @param end the index of the line after the last line to write (exclusive)
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void copyLines(int start, int end, @NonNull OutputStream out) throws IOException {
+        if (start < end) {
+            int from = lineStarts[start];
+            int to = end < lineCount ? lineStarts[end] : buffer.limit();
+            byte[] chunk = new byte[Math.min(1 << 16, to - from)];
+            while (from < to) {
+                int length = Math.min(chunk.length, to - from);
+                for (int i = 0; i < length; i++) {
+                    chunk[i] = buffer.get(from + i);
+                }
+                out.write(chunk, 0, length);
+                from += length;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given byte is a whitespace character except for the line feed.
+     * 
+     * @param character the byte to check
+     * @return <code>true</code>, if the given byte is a space, tab, carriage return, vertical tab, or form feed,
+     *         <code>false</code> otherwise
+     */
+    private static boolean isWhitespace(byte character) {
+        return character == ' ' || character == '\t' || character == '\r' || character == 0x0B || character == '\f';
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionKind;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class represents a {@link Correction} as read from a file of the binary correction format by the
+ * {@link BinaryCorrectionReader}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class StoredCorrection {
+
+    /**
+     * The {@link CorrectionKind} of the stored correction.
+     */
+    private @NonNull CorrectionKind kind;
+
+    /**
+     * The type of the stored correction (see {@link Correction#getCorrectionType()}).
+     */
+    private @NonNull String correctionType;
+
+    /**
+     * The number of divergences corrected by the stored correction.
+     */
+    private int divergencesCount;
+
+    /**
+     * The variables involved in the divergences corrected by the stored correction.
+     */
+    private @NonNull List<@NonNull String> involvedVariables;
+
+    /**
+     * The source files involved in the divergences corrected by the stored correction.
+     */
+    private @NonNull List<@NonNull String> involvedSourceFiles;
+
+    /**
+     * The code elements involved in the divergences corrected by the stored correction.
+     */
+    private @NonNull List<@NonNull String> involvedCodeElements;
+
+    /**
+     * The description of the stored correction; is <code>null</code>, if the description was not stored.
+     */
+    private @Nullable String description;
+
+    /**
+     * Creates a {@link StoredCorrection} instance.
+     * 
+     * @param kind the {@link CorrectionKind} of the stored correction
+     * @param correctionType the type of the stored correction
+     * @param divergencesCount the number of divergences corrected by the stored correction
+     * @param involvedVariables the variables involved in the corrected divergences
+     * @param involvedSourceFiles the source files involved in the corrected divergences
+     * @param involvedCodeElements the code elements involved in the corrected divergences
+     * @param description the description of the stored correction; may be <code>null</code>, if the description was
+     *        not stored
+     */
+    StoredCorrection(@NonNull CorrectionKind kind, @NonNull String correctionType, int divergencesCount,
+            @NonNull List<@NonNull String> involvedVariables, @NonNull List<@NonNull String> involvedSourceFiles,
+            @NonNull List<@NonNull String> involvedCodeElements, @Nullable String description) {
+        this.kind = kind;
+        this.correctionType = correctionType;
+        this.divergencesCount = divergencesCount;
+        this.involvedVariables = involvedVariables;
+        this.involvedSourceFiles = involvedSourceFiles;
+        this.involvedCodeElements = involvedCodeElements;
+        this.description = description;
+    }
+
+    /**
+     * Returns the {@link CorrectionKind} of the stored correction.
+     * 
+     * @return the {@link CorrectionKind} of the stored correction
+     */
+    public @NonNull CorrectionKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the type of the stored correction (see {@link Correction#getCorrectionType()}).
+     * 
+     * @return the type of the stored correction
+     */
+    public @NonNull String getCorrectionType() {
+        return correctionType;
+    }
+
+    /**
+     * Returns the number of divergences corrected by the stored correction.
+     * 
+     * @return the number of corrected divergences
+     */
+    public int getDivergencesCount() {
+        return divergencesCount;
+    }
+
+    /**
+     * Returns the variables involved in the divergences corrected by the stored correction.
+     * 
+     * @return the involved variables; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getInvolvedVariables() {
+        return involvedVariables;
+    }
+
+    /**
+     * Returns the source files involved in the divergences corrected by the stored correction.
+     * 
+     * @return the involved source files; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getInvolvedSourceFiles() {
+        return involvedSourceFiles;
+    }
+
+    /**
+     * Returns the code elements involved in the divergences corrected by the stored correction.
+     * 
+     * @return the involved code elements; can be <i>empty</i>
+     */
+    public @NonNull List<@NonNull String> getInvolvedCodeElements() {
+        return involvedCodeElements;
+    }
+
+    /**
+     * Returns the description of the stored correction.
+     * 
+     * @return the description of the stored correction or <code>null</code>, if the description was not stored (see
+     *         {@link BinaryCorrectionReader#hasDescriptions()})
+     */
+    public @Nullable String getDescription() {
+        return description;
+    }
+
+}
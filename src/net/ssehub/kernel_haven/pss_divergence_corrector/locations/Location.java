@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.locations;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class represents a single location of a variable in the source tree as provided by the {@link LocationIndex}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class Location {
+
+    /**
+     * The path of the file relative to the root of the source tree.
+     */
+    private @NonNull String file;
+
+    /**
+     * The line in the file (starting at <code>1</code>).
+     */
+    private int line;
+
+    /**
+     * The column in the line (starting at <code>1</code>).
+     */
+    private int column;
+
+    /**
+     * The kind of this location.
+     */
+    private @NonNull LocationKind kind;
+
+    /**
+     * Creates a {@link Location} instance.
+     * 
+     * @param file the path of the file relative to the root of the source tree
+     * @param line the line in the file (starting at <code>1</code>)
+     * @param column the column in the line (starting at <code>1</code>)
+     * @param kind the kind of the location
+     */
+    Location(@NonNull String file, int line, int column, @NonNull LocationKind kind) {
+        this.file = file;
+        this.line = line;
+        this.column = column;
+        this.kind = kind;
+    }
+
+    /**
+     * Returns the path of the file of this location.
+     * 
+     * @return the path of the file relative to the root of the source tree using slashes as separators
+     */
+    public @NonNull String getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the line of this location.
+     * 
+     * @return the line in the file (starting at <code>1</code>)
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the column of this location.
+     * 
+     * @return the column in the line (starting at <code>1</code>)
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the kind of this location.
+     * 
+     * @return the kind of this location
+     */
+    public @NonNull LocationKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns this location in the common format of compilers, i.e., <i>file:line:column</i>.
+     * 
+     * @return this location as a string
+     */
+    @Override
+    public @NonNull String toString() {
+        return file + ":" + line + ":" + column;
+    }
+
+}
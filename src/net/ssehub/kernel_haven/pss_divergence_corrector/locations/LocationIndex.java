@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.locations;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.Logger;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class realizes an inverted index of the {@link Location}s of variables in a source tree. It is built once per
+ * analysis run by scanning the Kconfig files, build files, and code files of the source tree in parallel. Afterwards,
+ * it is immutable and, hence, thread-safe.<br>
+ * <br>
+ * The index is not built from the variability, build, and code models of the extractors, as these models are not
+ * available to the corrector: it only receives the divergences, which do not contain any lines or columns. Hence, the
+ * index is a lexical approximation of the view of the extractors, which may disagree with them. For example, it
+ * ignores file-level presence conditions (a code file referencing a variable is indexed, even if the build model never
+ * compiles it), it indexes files, which the extractors skip, and it misses generated files, which do not exist in the
+ * source tree before building. Such disagreements only affect the locations listed in descriptions, not the
+ * corrections themselves.<br>
+ * <br>
+ * For a small memory footprint, the index stores the relative paths of the scanned files only once and each location
+ * as a single <code>long</code>, which packs the index of the file, the line, the column, and the kind of the location.
+ * The locations of each variable are stored in a single array sorted by file, line, and column. {@link Location}
+ * objects are only created when querying the index.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class LocationIndex {
+
+    /**
+     * The {@link Logger} for logging files, which cannot be scanned.
+     */
+    private static final @NonNull Logger LOGGER = Logger.get();
+
+    /**
+     * The number of bits of the packed locations reserved for the kind.
+     */
+    private static final int KIND_BITS = 2;
+
+    /**
+     * The number of bits of the packed locations reserved for the column.
+     */
+    private static final int COLUMN_BITS = 14;
+
+    /**
+     * The number of bits of the packed locations reserved for the line.
+     */
+    private static final int LINE_BITS = 22;
+
+    /**
+     * The shift of the column in the packed locations.
+     */
+    private static final int COLUMN_SHIFT = KIND_BITS;
+
+    /**
+     * The shift of the line in the packed locations.
+     */
+    private static final int LINE_SHIFT = COLUMN_SHIFT + COLUMN_BITS;
+
+    /**
+     * The shift of the index of the file in the packed locations; the remaining 26 bits limit the number of files.
+     */
+    private static final int FILE_SHIFT = LINE_SHIFT + LINE_BITS;
+
+    /**
+     * The offset basis of the 64-bit FNV-1a hash used for computing digests (see {@link #getDigest(String)}).
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * The prime of the 64-bit FNV-1a hash used for computing digests (see {@link #getDigest(String)}).
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * The kinds of locations indexed by their ordinals for unpacking locations.
+     */
+    private static final @NonNull LocationKind @NonNull [] KINDS = LocationKind.values();
+
+    /**
+     * The relative paths of the scanned files (using slashes as separators) indexed by their file indices.
+     */
+    private @NonNull String @NonNull [] files;
+
+    /**
+     * The packed locations of each variable sorted by file, line, and column; indexed by the names of the variables
+     * including the <i>CONFIG_</i> prefix.
+     */
+    private @NonNull Map<String, long[]> locations;
+
+    /**
+     * The total number of locations in this index.
+     */
+    private int locationsCount;
+
+    /**
+     * Creates a {@link LocationIndex} instance.
+     * 
+     * @param files the relative paths of the scanned files indexed by their file indices
+     * @param locations the packed locations of each variable
+     * @param locationsCount the total number of locations
+     */
+    private LocationIndex(@NonNull String @NonNull [] files, @NonNull Map<String, long[]> locations,
+            int locationsCount) {
+        this.files = files;
+        this.locations = locations;
+        this.locationsCount = locationsCount;
+    }
+
+    /**
+     * Builds the index of the given source tree. The Kconfig files (<i>Kconfig*</i>), the build files
+     * (<i>Makefile*</i>, <i>Kbuild*</i>, <i>*.mk</i>), and the code files (<i>*.c</i>, <i>*.h</i>, <i>*.S</i>) are
+     * scanned in parallel; hidden directories are skipped. Files, which cannot be read, are logged and skipped.
+     * 
+     * @param sourceTree the root directory of the source tree
+     * @param threads the number of threads used for scanning the files
+     * @return the index of the given source tree
+     * @throws IOException if walking the source tree fails
+     */
+    public static @NonNull LocationIndex build(@NonNull File sourceTree, int threads) throws IOException {
+        Path root = sourceTree.toPath();
+        List<@NonNull Path> paths = collectFiles(root);
+        if (paths.size() >= 1 << (Long.SIZE - FILE_SHIFT)) {
+            throw new IOException("Source tree " + sourceTree.getAbsolutePath() + " contains too many files");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        List<@NonNull LocationScanner> scanners;
+        try {
+            scanners = pool.submit(() -> IntStream.range(0, paths.size()).parallel()
+                    .mapToObj((index) -> scan(paths.get(index)))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Building the location index was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Building the location index failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        // Merge the scanned files in their order into exactly sized arrays; this keeps the locations sorted
+        Map<String, int[]> counts = new HashMap<>();
+        for (LocationScanner scanner : scanners) {
+            for (String variable : scanner.getVariables()) {
+                counts.computeIfAbsent(variable, (key) -> new int[1])[0]++;
+            }
+        }
+        Map<String, long[]> locations = new HashMap<>(counts.size() * 4 / 3 + 1);
+        counts.forEach((variable, count) -> locations.put(variable, new long[count[0]]));
+        counts.forEach((variable, count) -> count[0] = 0);
+        String[] files = new String[paths.size()];
+        int locationsCount = 0;
+        for (int fileIndex = 0; fileIndex < paths.size(); fileIndex++) {
+            files[fileIndex] = root.relativize(paths.get(fileIndex)).toString().replace(File.separatorChar, '/');
+            LocationScanner scanner = scanners.get(fileIndex);
+            List<@NonNull String> variables = scanner.getVariables();
+            for (int i = 0; i < scanner.getCount(); i++) {
+                String variable = variables.get(i);
+                int[] count = counts.get(variable);
+                locations.get(variable)[count[0]++] = ((long) fileIndex << FILE_SHIFT) | scanner.getPosition(i);
+            }
+            locationsCount += scanner.getCount();
+        }
+        return new LocationIndex(files, locations, locationsCount);
+    }
+
+    /**
+     * Collects the files to scan in the given source tree.
+     * 
+     * @param root the root directory of the source tree
+     * @return the files to scan sorted by their paths
+     * @throws IOException if walking the source tree fails
+     */
+    private static @NonNull List<@NonNull Path> collectFiles(@NonNull Path root) throws IOException {
+        List<@NonNull Path> paths = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                return !directory.equals(root) && directory.getFileName().toString().startsWith(".")
+                        ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && getFileType(file.getFileName().toString()) != null) {
+                    paths.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exception) {
+                LOGGER.logWarning2("Cannot visit ", file, " for the location index: ", exception.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        Collections.sort(paths);
+        return paths;
+    }
+
+    /**
+     * Returns the type of the given file, which defines how the file is scanned.
+     * 
+     * @param fileName the name of the file
+     * @return the kind of the references in the given file, i.e., {@link LocationKind#KCONFIG_REFERENCE},
+     *         {@link LocationKind#BUILD_REFERENCE}, or {@link LocationKind#CODE_REFERENCE}, or <code>null</code>, if
+     *         the given file is not scanned
+     */
+    private static @Nullable LocationKind getFileType(@NonNull String fileName) {
+        LocationKind fileType = null;
+        if (fileName.startsWith("Kconfig")) {
+            fileType = LocationKind.KCONFIG_REFERENCE;
+        } else if (fileName.startsWith("Makefile") || fileName.startsWith("Kbuild") || fileName.endsWith(".mk")) {
+            fileType = LocationKind.BUILD_REFERENCE;
+        } else if (fileName.endsWith(".c") || fileName.endsWith(".h") || fileName.endsWith(".S")) {
+            fileType = LocationKind.CODE_REFERENCE;
+        }
+        return fileType;
+    }
+
+    /**
+     * Scans the given file for locations of variables.
+     * 
+     * @param file the file to scan
+     * @return the {@link LocationScanner} containing the found locations; is empty, if the file cannot be read
+     */
+    private static @NonNull LocationScanner scan(@NonNull Path file) {
+        LocationScanner scanner = new LocationScanner();
+        try {
+            MappedSourceFile source = new MappedSourceFile(file.toFile());
+            LocationKind fileType = getFileType(file.getFileName().toString());
+            if (fileType == LocationKind.KCONFIG_REFERENCE) {
+                scanner.scanKconfig(source);
+            } else if (fileType == LocationKind.BUILD_REFERENCE) {
+                scanner.scanBuild(source);
+            } else {
+                scanner.scanCode(source);
+            }
+        } catch (IOException e) {
+            LOGGER.logException("Scanning " + file + " for the location index failed", e);
+            scanner = new LocationScanner();
+        }
+        return scanner;
+    }
+
+    /**
+     * Packs the given location into a single <code>long</code>. Lines and columns exceeding their number of bits are
+     * saturated to their maximum values.
+     * 
+     * @param fileIndex the index of the file
+     * @param line the line (starting at <code>1</code>)
+     * @param column the column (starting at <code>1</code>)
+     * @param kind the kind of the location
+     * @return the packed location
+     */
+    static long pack(int fileIndex, int line, int column, @NonNull LocationKind kind) {
+        return ((long) fileIndex << FILE_SHIFT)
+                | ((long) Math.min(line, (1 << LINE_BITS) - 1) << LINE_SHIFT)
+                | ((long) Math.min(column, (1 << COLUMN_BITS) - 1) << COLUMN_SHIFT)
+                | kind.ordinal();
+    }
+
+    /**
+     * Unpacks the given location.
+     * 
+     * @param packedLocation the location packed by {@link #pack(int, int, int, LocationKind)}
+     * @return the unpacked {@link Location}
+     */
+    private @NonNull Location unpack(long packedLocation) {
+        return new Location(files[(int) (packedLocation >>> FILE_SHIFT)],
+                (int) (packedLocation >>> LINE_SHIFT) & ((1 << LINE_BITS) - 1),
+                (int) (packedLocation >>> COLUMN_SHIFT) & ((1 << COLUMN_BITS) - 1),
+                KINDS[(int) packedLocation & ((1 << KIND_BITS) - 1)]);
+    }
+
+    /**
+     * Returns all locations of the given variable.
+     * 
+     * @param variable the name of the variable with or without the <i>CONFIG_</i> prefix
+     * @return the locations of the given variable sorted by file, line, and column; is <i>empty</i>, if the given
+     *         variable has no locations
+     */
+    public @NonNull List<@NonNull Location> getLocations(@NonNull String variable) {
+        return getLocations(variable, null);
+    }
+
+    /**
+     * Returns the locations of the given kind of the given variable.
+     * 
+     * @param variable the name of the variable with or without the <i>CONFIG_</i> prefix
+     * @param kind the kind of the locations to return or <code>null</code> for returning all locations
+     * @return the locations of the given variable sorted by file, line, and column; is <i>empty</i>, if the given
+     *         variable has no such locations
+     */
+    public @NonNull List<@NonNull Location> getLocations(@NonNull String variable, @Nullable LocationKind kind) {
+        String key = variable.startsWith(LocationScanner.MACRO_PREFIX) ? variable
+                : LocationScanner.MACRO_PREFIX + variable;
+        long[] packedLocations = locations.get(key);
+        List<@NonNull Location> result;
+        if (packedLocations == null) {
+            result = Collections.emptyList();
+        } else {
+            result = new ArrayList<>();
+            for (long packedLocation : packedLocations) {
+                if (kind == null || (packedLocation & ((1 << KIND_BITS) - 1)) == kind.ordinal()) {
+                    result.add(unpack(packedLocation));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the kinds of the locations of the given variable as a bit set without creating any {@link Location}
+     * objects. The bit <code>1 &lt;&lt; kind.ordinal()</code> is set, if the given variable has at least one location
+     * of the respective {@link LocationKind}.
+     * 
+     * @param variable the name of the variable with or without the <i>CONFIG_</i> prefix
+     * @return the bit set of the kinds of the locations of the given variable; is <code>0</code>, if the given variable
+     *         has no locations
+     */
+    public int getLocationKinds(@NonNull String variable) {
+        String key = variable.startsWith(LocationScanner.MACRO_PREFIX) ? variable
+                : LocationScanner.MACRO_PREFIX + variable;
+        long[] packedLocations = locations.get(key);
+        int kinds = 0;
+        if (packedLocations != null) {
+            for (long packedLocation : packedLocations) {
+                kinds |= 1 << (int) (packedLocation & ((1 << KIND_BITS) - 1));
+            }
+        }
+        return kinds;
+    }
+
+    /**
+     * Returns the number of scanned files.
+     * 
+     * @return the number of scanned files
+     */
+    public int getFilesCount() {
+        return files.length;
+    }
+
+    /**
+     * Returns the number of variables with at least one location.
+     * 
+     * @return the number of variables
+     */
+    public int getVariablesCount() {
+        return locations.size();
+    }
+
+    /**
+     * Returns the total number of locations.
+     * 
+     * @return the total number of locations
+     */
+    public int getLocationsCount() {
+        return locationsCount;
+    }
+
+    /**
+     * Returns the digest of the locations of the given variable. It is computed from the paths of the files, the
+     * lines, the columns, and the kinds of the locations of the given variable in their order. Hence, the digests of
+     * the same variable in two indices of the same source tree differ, if (with high probability) any location of this
+     * variable changed; changes of other files or locations of other variables do not affect the digest.
+     * 
+     * @param variable the name of the variable with or without the <i>CONFIG_</i> prefix
+     * @return the digest of the locations of the given variable
+     */
+    public long getDigest(@NonNull String variable) {
+        String key = variable.startsWith(LocationScanner.MACRO_PREFIX) ? variable
+                : LocationScanner.MACRO_PREFIX + variable;
+        long[] packedLocations = locations.get(key);
+        long digest = FNV_OFFSET_BASIS;
+        if (packedLocations != null) {
+            for (long packedLocation : packedLocations) {
+                // The index of a file changes, if other files are added or removed; hence, its path is used
+                digest = (digest ^ files[(int) (packedLocation >>> FILE_SHIFT)].hashCode()) * FNV_PRIME;
+                digest = (digest ^ (packedLocation & ((1L << FILE_SHIFT) - 1))) * FNV_PRIME;
+            }
+        }
+        return digest;
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.locations;
+
+/**
+ * This enumeration defines the kinds of {@link Location}s of variables in the source tree.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum LocationKind {
+
+    /**
+     * The definition of a variable in a Kconfig file, i.e., its <code>config</code> or <code>menuconfig</code> entry.
+     */
+    KCONFIG_DEFINITION,
+
+    /**
+     * A reference to a variable in a Kconfig file, e.g., in a <code>depends on</code> or <code>select</code>
+     * attribute of another variable.
+     */
+    KCONFIG_REFERENCE,
+
+    /**
+     * A reference to a variable in a build file, i.e., a Makefile or a Kbuild file.
+     */
+    BUILD_REFERENCE,
+
+    /**
+     * A reference to a variable in a code file, e.g., in the condition of an <code>#ifdef</code> directive.
+     */
+    CODE_REFERENCE;
+
+}
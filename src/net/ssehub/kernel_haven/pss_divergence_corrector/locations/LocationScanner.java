@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.locations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class scans a single file of the source tree for the {@link Location}s of variables. Only lines, which may
+ * contain a location, are decoded. The found locations are stored as the names of the variables and their packed
+ * positions (see {@link LocationIndex#pack(int, int, int, LocationKind)}) without the file.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class LocationScanner {
+
+    /**
+     * The prefix of the names of configuration variables in the build and code artifacts.
+     */
+    static final @NonNull String MACRO_PREFIX = "CONFIG_";
+
+    /**
+     * The {@link #MACRO_PREFIX} as bytes for quickly skipping lines, which do not reference any variable.
+     */
+    private static final byte @NonNull [] MACRO_PREFIX_BYTES = MACRO_PREFIX.getBytes();
+
+    /**
+     * The bytes starting or ending block comments for quickly detecting lines, which change the comment state.
+     */
+    private static final byte @NonNull [] @NonNull [] COMMENT_DELIMITERS = {{'/', '*'}, {'*', '/'}};
+
+    /**
+     * The keywords of Kconfig lines, which do not contain references to variables.
+     */
+    private static final @NonNull Set<String> KCONFIG_TEXT_KEYWORDS = new HashSet<>(Arrays.asList("source",
+            "rsource", "osource", "orsource", "mainmenu", "comment", "menu", "prompt"));
+
+    /**
+     * The names of the variables of the found locations (including the {@link #MACRO_PREFIX}).
+     */
+    private @NonNull List<@NonNull String> variables;
+
+    /**
+     * The packed positions of the found locations without the file; only the first {@link #count} entries are valid.
+     */
+    private long @NonNull [] positions;
+
+    /**
+     * The number of found locations.
+     */
+    private int count;
+
+    /**
+     * Defines whether the current position of a code file is inside a block comment.
+     */
+    private boolean inBlockComment;
+
+    /**
+     * Creates an empty {@link LocationScanner} instance.
+     */
+    LocationScanner() {
+        variables = new ArrayList<>();
+        positions = new long[16];
+        count = 0;
+    }
+
+    /**
+     * Returns the names of the variables of the found locations.
+     * 
+     * @return the names of the variables including the {@link #MACRO_PREFIX}
+     */
+    @NonNull List<@NonNull String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Returns the packed position of the found location with the given index.
+     * 
+     * @param index the index of the location
+     * @return the packed position without the file
+     */
+    long getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Returns the number of found locations.
+     * 
+     * @return the number of found locations
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Adds a found location.
+     * 
+     * @param variable the name of the variable including the {@link #MACRO_PREFIX}
+     * @param line the index of the line (starting at <code>0</code>)
+     * @param column the index of the column (starting at <code>0</code>)
+     * @param kind the kind of the location
+     */
+    private void add(@NonNull String variable, int line, int column, @NonNull LocationKind kind) {
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+        }
+        variables.add(variable);
+        positions[count++] = LocationIndex.pack(0, line + 1, column + 1, kind);
+    }
+
+    /**
+     * Scans the given Kconfig file for definitions of and references to variables. Help texts and quoted strings are
+     * skipped. References are all identifiers in upper case, e.g., <i>X</i> and <i>64BIT</i> in
+     * <code>depends on X &amp;&amp; !64BIT</code>.
+     * 
+     * @param source the content of the Kconfig file
+     */
+    void scanKconfig(@NonNull MappedSourceFile source) {
+        boolean inHelp = false;
+        int helpKeywordIndentation = 0;
+        int helpIndentation = -1;
+        for (int i = 0; i < source.getLineCount(); i++) {
+            if (inHelp && !source.isBlank(i)) {
+                // Help texts end at the first line indented less than their first line
+                int indentation = source.getIndentation(i);
+                if (helpIndentation < 0 && indentation > helpKeywordIndentation) {
+                    helpIndentation = indentation;
+                } else if (helpIndentation < 0 || indentation < helpIndentation) {
+                    inHelp = false;
+                }
+            }
+            if (!inHelp && !source.isBlank(i)) {
+                String keyword = source.getFirstWord(i);
+                if (keyword.equals("help") || keyword.equals("---help---")) {
+                    inHelp = true;
+                    helpKeywordIndentation = source.getIndentation(i);
+                    helpIndentation = -1;
+                } else if (keyword.equals("config") || keyword.equals("menuconfig")) {
+                    String line = source.getLine(i);
+                    int symbolStart = skipWhitespace(line, line.indexOf(keyword) + keyword.length());
+                    int symbolEnd = identifierEnd(line, symbolStart);
+                    if (symbolEnd > symbolStart) {
+                        add(MACRO_PREFIX + line.substring(symbolStart, symbolEnd), i, symbolStart,
+                                LocationKind.KCONFIG_DEFINITION);
+                    }
+                } else if (!KCONFIG_TEXT_KEYWORDS.contains(keyword) && !keyword.startsWith("#")) {
+                    scanKconfigReferences(source.getLine(i), i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the given line of a Kconfig file for references to variables.
+     * 
+     * @param line the line to scan
+     * @param lineIndex the index of the line
+     */
+    private void scanKconfigReferences(@NonNull String line, int lineIndex) {
+        int index = 0;
+        while (index < line.length() && line.charAt(index) != '#') {
+            char character = line.charAt(index);
+            if (character == '"' || character == '\'') {
+                index = skipLiteral(line, index);
+            } else if (isIdentifierPart(character)) {
+                int end = identifierEnd(line, index);
+                if (isUpperCaseSymbol(line, index, end)) {
+                    add(MACRO_PREFIX + line.substring(index, end), lineIndex, index, LocationKind.KCONFIG_REFERENCE);
+                }
+                index = end;
+            } else {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Scans the given build file for references to variables, i.e., identifiers starting with the
+     * {@link #MACRO_PREFIX}. Comments are skipped.
+     * 
+     * @param source the content of the build file
+     */
+    void scanBuild(@NonNull MappedSourceFile source) {
+        for (int i = 0; i < source.getLineCount(); i++) {
+            if (source.lineContains(i, MACRO_PREFIX_BYTES)) {
+                String line = source.getLine(i);
+                int index = 0;
+                while (index < line.length() && line.charAt(index) != '#') {
+                    if (isIdentifierPart(line.charAt(index))) {
+                        int end = identifierEnd(line, index);
+                        addMacro(line, index, end, i, LocationKind.BUILD_REFERENCE);
+                        index = end;
+                    } else {
+                        index++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the given code file for references to variables, i.e., identifiers starting with the
+     * {@link #MACRO_PREFIX}. Comments and string literals are skipped.
+     * 
+     * @param source the content of the code file
+     */
+    void scanCode(@NonNull MappedSourceFile source) {
+        inBlockComment = false;
+        for (int i = 0; i < source.getLineCount(); i++) {
+            // Only lines referencing a variable or changing the comment state are decoded
+            if (source.lineContains(i, MACRO_PREFIX_BYTES) || source.lineContains(i, COMMENT_DELIMITERS[0])
+                    || source.lineContains(i, COMMENT_DELIMITERS[1])) {
+                scanCodeLine(source.getLine(i), i);
+            }
+        }
+    }
+
+    /**
+     * Scans the given line of a code file for references to variables.
+     * 
+     * @param line the line to scan
+     * @param lineIndex the index of the line
+     */
+    private void scanCodeLine(@NonNull String line, int lineIndex) {
+        int index = 0;
+        while (index < line.length()) {
+            char character = line.charAt(index);
+            if (inBlockComment) {
+                int commentEnd = line.indexOf("*/", index);
+                inBlockComment = commentEnd < 0;
+                index = commentEnd < 0 ? line.length() : commentEnd + 2;
+            } else if (character == '/' && line.startsWith("/*", index)) {
+                inBlockComment = true;
+                index += 2;
+            } else if (character == '/' && line.startsWith("//", index)) {
+                index = line.length();
+            } else if (character == '"' || character == '\'') {
+                index = skipLiteral(line, index);
+            } else if (isIdentifierPart(character)) {
+                int end = identifierEnd(line, index);
+                addMacro(line, index, end, lineIndex, LocationKind.CODE_REFERENCE);
+                index = end;
+            } else {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Adds the given identifier as a location, if it starts with the {@link #MACRO_PREFIX}.
+     * 
+     * @param line the line containing the identifier
+     * @param start the index of the first character of the identifier
+     * @param end the index after the last character of the identifier
+     * @param lineIndex the index of the line
+     * @param kind the kind of the location
+     */
+    private void addMacro(@NonNull String line, int start, int end, int lineIndex, @NonNull LocationKind kind) {
+        if (end - start > MACRO_PREFIX.length() && line.startsWith(MACRO_PREFIX, start)) {
+            add(line.substring(start, end), lineIndex, start, kind);
+        }
+    }
+
+    /**
+     * Checks whether the given identifier is a Kconfig symbol in upper case, i.e., contains at least one upper case
+     * letter, but no lower case letters.
+     * 
+     * @param line the line containing the identifier
+     * @param start the index of the first character of the identifier
+     * @param end the index after the last character of the identifier
+     * @return <code>true</code>, if the given identifier is a symbol in upper case, <code>false</code> otherwise
+     */
+    private static boolean isUpperCaseSymbol(@NonNull String line, int start, int end) {
+        boolean upperCase = false;
+        boolean lowerCase = false;
+        for (int i = start; i < end; i++) {
+            char character = line.charAt(i);
+            upperCase |= character >= 'A' && character <= 'Z';
+            lowerCase |= character >= 'a' && character <= 'z';
+        }
+        return upperCase && !lowerCase;
+    }
+
+    /**
+     * Checks whether the given character can be part of an identifier.
+     * 
+     * @param character the character to check
+     * @return <code>true</code>, if the given character is a letter, a digit, or an underscore, <code>false</code>
+     *         otherwise
+     */
+    private static boolean isIdentifierPart(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z')
+                || (character >= '0' && character <= '9') || character == '_';
+    }
+
+    /**
+     * Returns the end of the identifier starting at the given index.
+     * 
+     * @param line the line containing the identifier
+     * @param start the index of the first character of the identifier
+     * @return the index after the last character of the identifier
+     */
+    private static int identifierEnd(@NonNull String line, int start) {
+        int end = start;
+        while (end < line.length() && isIdentifierPart(line.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index of the first non-whitespace character at or after the given index.
+     * 
+     * @param line the line to search
+     * @param start the index to start searching at
+     * @return the index of the first non-whitespace character or the length of the given line
+     */
+    private static int skipWhitespace(@NonNull String line, int start) {
+        int index = start;
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index after the string or character literal starting at the given index.
+     * 
+     * @param line the line containing the literal
+     * @param start the index of the opening quote
+     * @return the index after the closing quote or the length of the given line, if the literal is not closed
+     */
+    private static int skipLiteral(@NonNull String line, int start) {
+        char quote = line.charAt(start);
+        int index = start + 1;
+        int end = -1;
+        while (end < 0 && index < line.length()) {
+            char character = line.charAt(index);
+            if (character == '\\') {
+                index += 2;
+            } else if (character == quote) {
+                end = index + 1;
+            } else {
+                index++;
+            }
+        }
+        return end >= 0 ? end : line.length();
+    }
+
+}
@@ -0,0 +1,22 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+/**
+ * This package provides the index of the locations of variables in the source tree. The
+ * {@link net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndex} maps each variable to the files,
+ * lines, and columns of its definitions and references in the Kconfig files, build files, and code files. It is built
+ * once per analysis run and queried when the descriptions of corrections are created.
+ * 
+ * @author Christian Kröher
+ *
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.locations;
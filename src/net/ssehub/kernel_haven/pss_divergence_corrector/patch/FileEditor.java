@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import java.io.File;
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class is the super class of all editors computing the {@link LineEdit}s of a specific kind of files, e.g.,
+ * Kconfig files. An editor computes all edits of a file for all corrections of an analysis run in a single pass over
+ * the lines of the file.
+ * 
+ * @author Christian Kröher
+ *
+ */
+abstract class FileEditor {
+
+    /**
+     * The prefix of the names of configuration variables in the build and code artifacts.
+     */
+    static final @NonNull String MACRO_PREFIX = "CONFIG_";
+
+    /**
+     * The {@link #MACRO_PREFIX} as bytes for quickly skipping lines, which do not reference any variable.
+     */
+    static final byte @NonNull [] MACRO_PREFIX_BYTES = {'C', 'O', 'N', 'F', 'I', 'G', '_'};
+
+    /**
+     * Computes the edits of the given file.
+     * 
+     * @param file the file to edit
+     * @param source the content of the given file
+     * @return the non-overlapping edits of the given file sorted by their positions; <i>empty</i>, if the given file
+     *         does not need to be changed
+     */
+    abstract @NonNull List<@NonNull LineEdit> edit(@NonNull File file, @NonNull MappedSourceFile source);
+
+    /**
+     * Checks whether the given character can be part of an identifier in the build and code artifacts.
+     * 
+     * @param character the character to check
+     * @return <code>true</code>, if the given character is a letter, a digit, or an underscore, <code>false</code>
+     *         otherwise
+     */
+    static boolean isIdentifierPart(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z')
+                || (character >= '0' && character <= '9') || character == '_';
+    }
+
+    /**
+     * Returns the end of the identifier starting at the given index.
+     * 
+     * @param line the line containing the identifier
+     * @param start the index of the first character of the identifier
+     * @return the index after the last character of the identifier; equal to the given start, if no identifier starts
+     *         at the given index
+     */
+    static int identifierEnd(@NonNull String line, int start) {
+        int end = start;
+        while (end < line.length() && isIdentifierPart(line.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index of the first non-whitespace character at or after the given index.
+     * 
+     * @param line the line to search
+     * @param start the index to start searching at
+     * @return the index of the first non-whitespace character or the length of the given line
+     */
+    static int skipWhitespace(@NonNull String line, int start) {
+        int index = start;
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class computes the edits of Kconfig files. It removes the definitions of unused variables, i.e., their
+ * <code>config</code> or <code>menuconfig</code> entries including all attributes and help texts, as well as all
+ * <code>select</code> and <code>imply</code> attributes of other entries, which refer to these variables. All other
+ * references to these variables, e.g., in <code>depends on</code>, <code>default</code>, or <code>if</code>
+ * expressions, are replaced by the constant <code>n</code>, which is the value of an undefined variable in Kconfig.
+ * Hence, these expressions keep their meaning and do not refer to removed variables. Further, it appends the
+ * definitions of undefined variables as new Boolean entries to their target Kconfig files.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class KconfigEditor extends FileEditor {
+
+    /**
+     * The keywords starting a new entry in a Kconfig file, which terminate the previous entry.
+     */
+    private static final @NonNull Set<String> ENTRY_KEYWORDS = new HashSet<>(Arrays.asList("config", "menuconfig",
+            "choice", "endchoice", "comment", "menu", "endmenu", "if", "endif", "source", "rsource", "osource",
+            "orsource", "mainmenu"));
+
+    /**
+     * The names of the variables (without {@link #MACRO_PREFIX}), whose definitions shall be removed.
+     */
+    private @NonNull Set<String> removedSymbols;
+
+    /**
+     * The names of the variables (without {@link #MACRO_PREFIX}), which shall be defined, indexed by the Kconfig file
+     * they shall be defined in.
+     */
+    private @NonNull Map<File, ? extends Set<String>> definedSymbols;
+
+    /**
+     * Creates a {@link KconfigEditor} instance.
+     * 
+     * @param removedSymbols the names of the variables (without {@link #MACRO_PREFIX}), whose definitions shall be
+     *        removed
+     * @param definedSymbols the names of the variables (without {@link #MACRO_PREFIX}), which shall be defined,
+     *        indexed by the Kconfig file they shall be defined in
+     */
+    KconfigEditor(@NonNull Set<String> removedSymbols, @NonNull Map<File, ? extends Set<String>> definedSymbols) {
+        this.removedSymbols = removedSymbols;
+        this.definedSymbols = definedSymbols;
+    }
+
+    @Override
+    @NonNull List<@NonNull LineEdit> edit(@NonNull File file, @NonNull MappedSourceFile source) {
+        List<@NonNull LineEdit> edits = new ArrayList<>();
+        int lineCount = source.getLineCount();
+        boolean inHelp = false;
+        int helpKeywordIndentation = 0;
+        int helpIndentation = -1;
+        int removalStart = -1;
+        for (int i = 0; i < lineCount; i++) {
+            if (inHelp && !source.isBlank(i)) {
+                // Help texts end at the first line indented less than their first line
+                int indentation = source.getIndentation(i);
+                if (helpIndentation < 0 && indentation > helpKeywordIndentation) {
+                    helpIndentation = indentation;
+                } else if (helpIndentation < 0 || indentation < helpIndentation) {
+                    inHelp = false;
+                }
+            }
+            if (!inHelp && !source.isBlank(i)) {
+                String keyword = source.getFirstWord(i);
+                if (keyword.equals("help") || keyword.equals("---help---")) {
+                    inHelp = true;
+                    helpKeywordIndentation = source.getIndentation(i);
+                    helpIndentation = -1;
+                } else if (ENTRY_KEYWORDS.contains(keyword)) {
+                    if (removalStart >= 0) {
+                        edits.add(createRemoval(source, removalStart, i));
+                        removalStart = -1;
+                    }
+                    if ((keyword.equals("config") || keyword.equals("menuconfig"))
+                            && removedSymbols.contains(getSecondWord(source.getLine(i)))) {
+                        removalStart = i;
+                    } else if (keyword.equals("if")) {
+                        addReplacement(edits, source.getLine(i), i);
+                    }
+                } else if (removalStart < 0) {
+                    String line = source.getLine(i);
+                    if ((keyword.equals("select") || keyword.equals("imply"))
+                            && removedSymbols.contains(getSecondWord(line))) {
+                        edits.add(new LineEdit(i, i + 1, Collections.emptyList()));
+                    } else {
+                        addReplacement(edits, line, i);
+                    }
+                }
+            }
+        }
+        if (removalStart >= 0) {
+            edits.add(createRemoval(source, removalStart, lineCount));
+        }
+        Set<String> symbols = definedSymbols.get(file);
+        if (symbols != null && !symbols.isEmpty()) {
+            edits.add(new LineEdit(lineCount, lineCount, createDefinitions(symbols)));
+        }
+        return edits;
+    }
+
+    /**
+     * Creates the {@link LineEdit} removing the entry in the given range of lines. Trailing blank lines and comments of
+     * the range are preserved, as they typically separate or describe the next entry, unless the removed entry is
+     * surrounded by blank lines.
+     * 
+     * @param source the content of the edited file
+     * @param start the index of the first line of the entry (inclusive)
+     * @param end the index of the line starting the next entry or the number of lines (exclusive)
+     * @return the {@link LineEdit} removing the entry
+     */
+    private @NonNull LineEdit createRemoval(@NonNull MappedSourceFile source, int start, int end) {
+        int removalEnd = end;
+        while (removalEnd - 1 > start
+                && (source.isBlank(removalEnd - 1) || source.getFirstWord(removalEnd - 1).startsWith("#"))) {
+            removalEnd--;
+        }
+        if (start > 0 && source.isBlank(start - 1) && removalEnd < source.getLineCount()
+                && source.isBlank(removalEnd)) {
+            removalEnd++;
+        }
+        return new LineEdit(start, removalEnd, Collections.emptyList());
+    }
+
+    /**
+     * Adds the {@link LineEdit} replacing the references to the removed variables in the given line by the constant
+     * <code>n</code>, if the given line refers to any removed variable.
+     * 
+     * @param edits the edits of the file to add the edit to
+     * @param line the attribute or <code>if</code> line to edit
+     * @param index the index of the given line
+     */
+    private void addReplacement(@NonNull List<@NonNull LineEdit> edits, @NonNull String line, int index) {
+        String editedLine = replaceRemovedSymbols(line);
+        if (editedLine != line) {
+            edits.add(new LineEdit(index, index + 1, Collections.singletonList(editedLine)));
+        }
+    }
+
+    /**
+     * Replaces the references to the removed variables in the given line by the constant <code>n</code>. Strings and
+     * comments are not changed.
+     * 
+     * @param line the attribute or <code>if</code> line to edit
+     * @return the edited line; the given line itself, if it does not refer to any removed variable
+     */
+    private @NonNull String replaceRemovedSymbols(@NonNull String line) {
+        StringBuilder editedLine = null;
+        int copiedUntil = 0;
+        int index = 0;
+        while (index < line.length()) {
+            char character = line.charAt(index);
+            if (character == '#') {
+                index = line.length();
+            } else if (character == '"' || character == '\'') {
+                int closingIndex = line.indexOf(character, index + 1);
+                index = closingIndex < 0 ? line.length() : closingIndex + 1;
+            } else if (isIdentifierPart(character)) {
+                int identifierEnd = identifierEnd(line, index);
+                if (removedSymbols.contains(line.substring(index, identifierEnd))) {
+                    if (editedLine == null) {
+                        editedLine = new StringBuilder(line.length());
+                    }
+                    editedLine.append(line, copiedUntil, index).append('n');
+                    copiedUntil = identifierEnd;
+                }
+                index = identifierEnd;
+            } else {
+                index++;
+            }
+        }
+        String result = line;
+        if (editedLine != null) {
+            result = editedLine.append(line, copiedUntil, line.length()).toString();
+        }
+        return result;
+    }
+
+    /**
+     * Creates the lines defining the given variables as Boolean entries.
+     * 
+     * @param symbols the names of the variables (without {@link #MACRO_PREFIX}) to define
+     * @return the lines defining the given variables, each preceded by a blank line
+     */
+    private static @NonNull List<@NonNull String> createDefinitions(@NonNull Set<String> symbols) {
+        List<@NonNull String> definitions = new ArrayList<>(symbols.size() * 6);
+        for (String symbol : symbols) {
+            definitions.add("");
+            definitions.add("config " + symbol);
+            definitions.add("\tbool \"" + symbol + "\"");
+            definitions.add("\thelp");
+            definitions.add("\t  " + symbol + " is referenced in the build or code artifacts, but was not defined in");
+            definitions.add("\t  the variability model.");
+        }
+        return definitions;
+    }
+
+    /**
+     * Returns the second word of the given line, i.e., the name of the variable of a <code>config</code>,
+     * <code>menuconfig</code>, <code>select</code>, or <code>imply</code> line.
+     * 
+     * @param line the line to return the second word of
+     * @return the second word of the given line; <i>empty</i>, if the line contains less than two words
+     */
+    private static @NonNull String getSecondWord(@NonNull String line) {
+        int firstWordStart = skipWhitespace(line, 0);
+        int firstWordEnd = firstWordStart;
+        while (firstWordEnd < line.length() && !Character.isWhitespace(line.charAt(firstWordEnd))) {
+            firstWordEnd++;
+        }
+        int secondWordStart = skipWhitespace(line, firstWordEnd);
+        return line.substring(secondWordStart, identifierEnd(line, secondWordStart));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import java.util.List;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class represents a single edit of a file, which replaces a range of lines by other lines. Insertions are
+ * represented by an empty range and deletions by empty replacement lines.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class LineEdit implements Comparable<@NonNull LineEdit> {
+
+    /**
+     * The index of the first replaced line (inclusive).
+     */
+    private int start;
+
+    /**
+     * The index of the line after the last replaced line (exclusive).
+     */
+    private int end;
+
+    /**
+     * The replacement lines without line terminators.
+     */
+    private @NonNull List<@NonNull String> replacement;
+
+    /**
+     * Creates a {@link LineEdit} instance.
+     * 
+     * @param start the index of the first replaced line (inclusive)
+     * @param end the index of the line after the last replaced line (exclusive); equal to the given start for
+     *        insertions
+     * @param replacement the replacement lines without line terminators; <i>empty</i> for deletions
+     */
+    LineEdit(int start, int end, @NonNull List<@NonNull String> replacement) {
+        this.start = start;
+        this.end = end;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Returns the index of the first replaced line.
+     * 
+     * @return the index of the first replaced line (inclusive)
+     */
+    int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the index of the line after the last replaced line.
+     * 
+     * @return the index of the line after the last replaced line (exclusive)
+     */
+    int getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the replacement lines.
+     * 
+     * @return the replacement lines without line terminators
+     */
+    @NonNull List<@NonNull String> getReplacement() {
+        return replacement;
+    }
+
+    @Override
+    public int compareTo(@NonNull LineEdit other) {
+        int comparison = Integer.compare(start, other.start);
+        if (comparison == 0) {
+            comparison = Integer.compare(end, other.end);
+        }
+        return comparison;
+    }
+
+}
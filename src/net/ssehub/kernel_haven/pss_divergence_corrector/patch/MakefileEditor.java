@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class computes the edits of Makefiles and Kbuild files, which reference undefined variables. As an undefined
+ * variable is never selected, its references always expand to an empty string. Hence, the following edits preserve the
+ * behavior of the build:
+ * <ul>
+ * <li>Assignments to lists named after an undefined variable, e.g., <code>obj-$(CONFIG_X) += x.o</code>, are removed
+ * including their continuation lines</li>
+ * <li><code>ifdef CONFIG_X</code> becomes <code>ifneq (,)</code> and <code>ifndef CONFIG_X</code> becomes
+ * <code>ifeq (,)</code></li>
+ * <li>All other references <code>$(CONFIG_X)</code> and <code>${CONFIG_X}</code> are removed, e.g., in
+ * <code>ifeq ($(CONFIG_X),y)</code></li>
+ * </ul>
+ * 
+ * @author Christian Kröher
+ *
+ */
+class MakefileEditor extends FileEditor {
+
+    /**
+     * The names of the undefined variables including the {@link #MACRO_PREFIX}.
+     */
+    private @NonNull Set<String> undefinedMacros;
+
+    /**
+     * Creates a {@link MakefileEditor} instance.
+     * 
+     * @param undefinedMacros the names of the undefined variables including the {@link #MACRO_PREFIX}
+     */
+    MakefileEditor(@NonNull Set<String> undefinedMacros) {
+        this.undefinedMacros = undefinedMacros;
+    }
+
+    @Override
+    @NonNull List<@NonNull LineEdit> edit(@NonNull File file, @NonNull MappedSourceFile source) {
+        List<@NonNull LineEdit> edits = new ArrayList<>();
+        int lineCount = source.getLineCount();
+        int i = 0;
+        while (i < lineCount) {
+            int next = i + 1;
+            // Comment lines are not edited
+            if (source.lineContains(i, MACRO_PREFIX_BYTES) && !source.getFirstWord(i).startsWith("#")) {
+                String line = source.getLine(i);
+                int wordStart = skipWhitespace(line, 0);
+                int wordEnd = getAssignmentTargetEnd(line, wordStart);
+                String word = line.substring(wordStart, wordEnd);
+                int operatorIndex = skipWhitespace(line, wordEnd);
+                boolean assignment = operatorIndex < line.length() && ":+?=".indexOf(line.charAt(operatorIndex)) >= 0;
+                if (assignment && removeReferences(word) != word) {
+                    // Assignment to a list named after an undefined variable: remove it including its continuations
+                    while (next < lineCount && source.getLine(next - 1).trim().endsWith("\\")) {
+                        next++;
+                    }
+                    edits.add(new LineEdit(i, next, Collections.emptyList()));
+                } else if (word.equals("ifdef") || word.equals("ifndef")) {
+                    int macroStart = skipWhitespace(line, wordEnd);
+                    int macroEnd = identifierEnd(line, macroStart);
+                    if (undefinedMacros.contains(line.substring(macroStart, macroEnd))) {
+                        String replacement = word.equals("ifdef") ? "ifneq (,)" : "ifeq (,)";
+                        edits.add(new LineEdit(i, next, Collections.singletonList(line.substring(0, wordStart)
+                                + replacement + line.substring(macroEnd))));
+                    }
+                } else {
+                    String editedLine = removeReferences(line);
+                    if (editedLine != line) {
+                        edits.add(new LineEdit(i, next, Collections.singletonList(editedLine)));
+                    }
+                }
+            }
+            i = next;
+        }
+        return edits;
+    }
+
+    /**
+     * Returns the end of the first word of the given line, which is the target of an assignment, e.g.,
+     * <code>obj-$(CONFIG_X)</code> in <code>obj-$(CONFIG_X) += x.o</code>.
+     * 
+     * @param line the line containing the word
+     * @param start the index of the first character of the word
+     * @return the index after the last character of the word
+     */
+    private static int getAssignmentTargetEnd(@NonNull String line, int start) {
+        int end = start;
+        boolean inReference = false;
+        while (end < line.length() && (inReference || (!Character.isWhitespace(line.charAt(end))
+                && ":+?=".indexOf(line.charAt(end)) < 0))) {
+            char character = line.charAt(end);
+            if (character == '(' || character == '{') {
+                inReference = true;
+            } else if (character == ')' || character == '}') {
+                inReference = false;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Removes all references <code>$(CONFIG_X)</code> and <code>${CONFIG_X}</code> to undefined variables from the
+     * given string.
+     * 
+     * @param string the string to remove the references from
+     * @return the given string instance, if it does not contain any references to undefined variables, or a new
+     *         string without these references
+     */
+    private @NonNull String removeReferences(@NonNull String string) {
+        StringBuilder editedString = null;
+        int copiedUntil = 0;
+        int index = string.indexOf('$');
+        while (index >= 0 && index + 1 < string.length()) {
+            char opening = string.charAt(index + 1);
+            int nameEnd = -1;
+            if (opening == '(' || opening == '{') {
+                nameEnd = identifierEnd(string, index + 2);
+            }
+            char closing = opening == '(' ? ')' : '}';
+            if (nameEnd >= 0 && nameEnd < string.length() && string.charAt(nameEnd) == closing
+                    && string.startsWith(MACRO_PREFIX, index + 2)
+                    && undefinedMacros.contains(string.substring(index + 2, nameEnd))) {
+                if (editedString == null) {
+                    editedString = new StringBuilder(string.length());
+                }
+                editedString.append(string, copiedUntil, index);
+                copiedUntil = nameEnd + 1;
+                index = string.indexOf('$', copiedUntil);
+            } else {
+                index = string.indexOf('$', index + 1);
+            }
+        }
+        String result = string;
+        if (editedString != null) {
+            result = editedString.append(string, copiedUntil, string.length()).toString();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionKind;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.Logger;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class generates patches, which correct divergences automatically. It collects the {@link Correction}s of an
+ * analysis run via {@link #add(Correction)} and translates them into edits of the source tree in
+ * {@link #generate(File, boolean)}:
+ * <ul>
+ * <li>Unused variables are removed from the Kconfig files (see {@link KconfigEditor})</li>
+ * <li>Undefined variables are either defined in the nearest Kconfig file of their first involved source file or their
+ * references in the Makefiles (see {@link MakefileEditor}) and code files (see {@link PreprocessorEditor}) are
+ * replaced, depending on the {@link UndefinedVariableStrategy}</li>
+ * </ul>
+ * Corrections of other kinds are not supported. Adding a correction only records the involved variables and the files
+ * to edit. All edits are computed afterwards in a single batch, in which each affected file is mapped into memory and
+ * edited in a single pass for all corrections. Hence, the costs of generating patches depend on the number of affected
+ * files rather than the number of corrections.<br>
+ * <br>
+ * Instances of this class are not thread-safe.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class PatchGenerator {
+
+    /**
+     * The {@link Logger} for logging the generated patches and problems with single files.
+     */
+    private static final @NonNull Logger LOGGER = Logger.get();
+
+    /**
+     * The names of the build files searched in the directories of the involved source files and their parents.
+     */
+    private static final @NonNull String @NonNull [] BUILD_FILE_NAMES = {"Kbuild", "Makefile"};
+
+    /**
+     * The name of the Kconfig files, in which undefined variables are defined.
+     */
+    private static final @NonNull String KCONFIG_FILE_NAME = "Kconfig";
+
+    /**
+     * The root directory of the source tree.
+     */
+    private @NonNull File sourceTree;
+
+    /**
+     * The strategy for correcting undefined variables.
+     */
+    private @NonNull UndefinedVariableStrategy undefinedVariableStrategy;
+
+    /**
+     * The names of the unused variables (without prefix), whose definitions shall be removed.
+     */
+    private @NonNull Set<String> removedSymbols;
+
+    /**
+     * The names of the undefined variables (without prefix) to define indexed by the Kconfig files to define them in.
+     */
+    private @NonNull Map<File, Set<String>> definedSymbols;
+
+    /**
+     * The names of the undefined variables (without prefix) already assigned to a Kconfig file in
+     * {@link #definedSymbols}.
+     */
+    private @NonNull Set<String> assignedSymbols;
+
+    /**
+     * The names of the undefined variables (including the prefix), whose references shall be replaced.
+     */
+    private @NonNull Set<String> undefinedMacros;
+
+    /**
+     * The code files referencing undefined variables.
+     */
+    private @NonNull Set<File> codeFiles;
+
+    /**
+     * The build files, which may reference undefined variables.
+     */
+    private @NonNull Set<File> buildFiles;
+
+    /**
+     * The directories already searched for {@link #BUILD_FILE_NAMES}.
+     */
+    private @NonNull Set<File> searchedDirectories;
+
+    /**
+     * The nearest Kconfig file of each directory resolved so far.
+     */
+    private @NonNull Map<File, File> nearestKconfigFiles;
+
+    /**
+     * Creates a {@link PatchGenerator} instance.
+     * 
+     * @param sourceTree the root directory of the source tree to patch
+     * @param undefinedVariableStrategy the strategy for correcting undefined variables
+     */
+    public PatchGenerator(@NonNull File sourceTree, @NonNull UndefinedVariableStrategy undefinedVariableStrategy) {
+        this.sourceTree = sourceTree.getAbsoluteFile();
+        this.undefinedVariableStrategy = undefinedVariableStrategy;
+        removedSymbols = new HashSet<>();
+        definedSymbols = new TreeMap<>();
+        assignedSymbols = new HashSet<>();
+        undefinedMacros = new HashSet<>();
+        codeFiles = new TreeSet<>();
+        buildFiles = new TreeSet<>();
+        searchedDirectories = new HashSet<>();
+        nearestKconfigFiles = new HashMap<>();
+    }
+
+    /**
+     * Adds the given {@link Correction} to the patches. Corrections, which cannot be applied automatically, are
+     * ignored.
+     * 
+     * @param correction the {@link Correction} to add
+     */
+    public void add(@NonNull Correction correction) {
+        if (correction.getKind() == CorrectionKind.UNUSED_VARIABLE) {
+            for (String variable : correction.getInvolvedVariables()) {
+                removedSymbols.add(toSymbol(variable));
+            }
+        } else if (correction.getKind() == CorrectionKind.UNDEFINED_VARIABLE) {
+            List<@NonNull File> involvedFiles = new ArrayList<>();
+            for (String sourceFile : correction.getInvolvedSourceFiles()) {
+                involvedFiles.add(new File(sourceTree, sourceFile));
+            }
+            for (String codeElement : correction.getInvolvedCodeElements()) {
+                // Code elements may be qualified by their location in the source file, e.g., "file.c:42"
+                int locationIndex = codeElement.indexOf(':');
+                File codeFile = new File(sourceTree, locationIndex > 0 ? codeElement.substring(0, locationIndex)
+                        : codeElement);
+                if (codeFile.isFile()) {
+                    involvedFiles.add(codeFile);
+                }
+            }
+            if (undefinedVariableStrategy == UndefinedVariableStrategy.DEFINE) {
+                addDefinitions(correction.getInvolvedVariables(), involvedFiles);
+            } else {
+                addReferences(correction.getInvolvedVariables(), involvedFiles);
+            }
+        }
+    }
+
+    /**
+     * Adds the definitions of the given undefined variables to the nearest Kconfig file of the first given file.
+     * 
+     * @param variables the undefined variables
+     * @param involvedFiles the files referencing the given variables
+     */
+    private void addDefinitions(@NonNull List<@NonNull String> variables, @NonNull List<@NonNull File> involvedFiles) {
+        File directory = involvedFiles.isEmpty() ? sourceTree : involvedFiles.get(0).getParentFile();
+        File kconfigFile = getNearestKconfigFile(directory);
+        if (kconfigFile != null) {
+            for (String variable : variables) {
+                String symbol = toSymbol(variable);
+                if (assignedSymbols.add(symbol)) {
+                    definedSymbols.computeIfAbsent(kconfigFile, (file) -> new TreeSet<>()).add(symbol);
+                }
+            }
+        } else {
+            LOGGER.logWarning2("No Kconfig file found for defining ", variables, " - skipping definition");
+        }
+    }
+
+    /**
+     * Adds the replacement of the references to the given undefined variables in the given files and the build files
+     * of their directories and parent directories.
+     * 
+     * @param variables the undefined variables
+     * @param involvedFiles the files referencing the given variables
+     */
+    private void addReferences(@NonNull List<@NonNull String> variables, @NonNull List<@NonNull File> involvedFiles) {
+        for (String variable : variables) {
+            undefinedMacros.add(FileEditor.MACRO_PREFIX + toSymbol(variable));
+        }
+        for (File involvedFile : involvedFiles) {
+            if (isBuildFile(involvedFile)) {
+                buildFiles.add(involvedFile);
+            } else if (involvedFile.isFile()) {
+                codeFiles.add(involvedFile);
+            }
+            File directory = involvedFile.getParentFile();
+            // Parent directories reference sub-directories, e.g., "obj-$(CONFIG_X) += dir/"
+            while (isInSourceTree(directory) && searchedDirectories.add(directory)) {
+                for (String buildFileName : BUILD_FILE_NAMES) {
+                    File buildFile = new File(directory, buildFileName);
+                    if (buildFile.isFile()) {
+                        buildFiles.add(buildFile);
+                    }
+                }
+                directory = directory.getParentFile();
+            }
+        }
+    }
+
+    /**
+     * Returns the nearest Kconfig file of the given directory, i.e., the Kconfig file in the given directory or its
+     * nearest parent directory within the source tree.
+     * 
+     * @param directory the directory to start searching at
+     * @return the nearest Kconfig file or <code>null</code>, if no Kconfig file exists in the given directory or its
+     *         parents within the source tree
+     */
+    private @Nullable File getNearestKconfigFile(@Nullable File directory) {
+        File kconfigFile = null;
+        if (isInSourceTree(directory)) {
+            if (nearestKconfigFiles.containsKey(directory)) {
+                kconfigFile = nearestKconfigFiles.get(directory);
+            } else {
+                File candidate = new File(directory, KCONFIG_FILE_NAME);
+                kconfigFile = candidate.isFile() ? candidate : getNearestKconfigFile(directory.getParentFile());
+                nearestKconfigFiles.put(directory, kconfigFile);
+            }
+        }
+        return kconfigFile;
+    }
+
+    /**
+     * Generates the patches for all added {@link Correction}s.
+     * 
+     * @param diffFile the file to write the patches to as a unified diff relative to the root of the source tree
+     * @param apply <code>true</code>, if the patches shall also be applied to the source tree, <code>false</code>
+     *        otherwise
+     * @return the number of patched files
+     * @throws IOException if writing the given diff file fails; problems with single files of the source tree are
+     *         logged and the respective files are skipped
+     */
+    public int generate(@NonNull File diffFile, boolean apply) throws IOException {
+        Map<File, FileEditor> editors = new TreeMap<>();
+        KconfigEditor kconfigEditor = new KconfigEditor(removedSymbols, definedSymbols);
+        if (!removedSymbols.isEmpty()) {
+            for (File kconfigFile : findKconfigFiles()) {
+                editors.put(kconfigFile, kconfigEditor);
+            }
+        }
+        for (File kconfigFile : definedSymbols.keySet()) {
+            editors.put(kconfigFile, kconfigEditor);
+        }
+        if (!undefinedMacros.isEmpty()) {
+            MakefileEditor makefileEditor = new MakefileEditor(undefinedMacros);
+            for (File buildFile : buildFiles) {
+                editors.put(buildFile, makefileEditor);
+            }
+            PreprocessorEditor preprocessorEditor = new PreprocessorEditor(undefinedMacros);
+            for (File codeFile : codeFiles) {
+                editors.put(codeFile, preprocessorEditor);
+            }
+        }
+
+        int patchedFilesCounter = 0;
+        int editsCounter = 0;
+        try (UnifiedDiffWriter diffWriter = new UnifiedDiffWriter(diffFile)) {
+            for (Map.Entry<File, FileEditor> entry : editors.entrySet()) {
+                File file = entry.getKey();
+                try {
+                    MappedSourceFile source = new MappedSourceFile(file);
+                    List<@NonNull LineEdit> edits = entry.getValue().edit(file, source);
+                    if (!edits.isEmpty()) {
+                        normalizeEnd(source, edits);
+                        diffWriter.write(getRelativePath(file), source, edits);
+                        if (apply) {
+                            apply(file, source, edits);
+                        }
+                        patchedFilesCounter++;
+                        editsCounter += edits.size();
+                    }
+                } catch (IOException e) {
+                    LOGGER.logException("Patching " + file.getAbsolutePath() + " failed - file skipped", e);
+                }
+            }
+        }
+        LOGGER.logInfo2("Patches: ", editsCounter, " edits in ", patchedFilesCounter, " of ", editors.size(),
+                " scanned files ", apply ? "applied to the source tree and " : "", "written to ",
+                diffFile.getAbsolutePath());
+        return patchedFilesCounter;
+    }
+
+    /**
+     * Converts an insertion at the end of a file without a terminating line feed into a replacement of the last
+     * line. Otherwise, the inserted lines would be appended to the last line.
+     * 
+     * @param source the content of the edited file
+     * @param edits the edits of the file sorted by their positions; is changed by this method
+     */
+    private static void normalizeEnd(@NonNull MappedSourceFile source, @NonNull List<@NonNull LineEdit> edits) {
+        int lineCount = source.getLineCount();
+        LineEdit lastEdit = edits.get(edits.size() - 1);
+        if (!source.endsWithNewline() && lastEdit.getStart() == lineCount) {
+            edits.remove(edits.size() - 1);
+            List<@NonNull String> replacement = new ArrayList<>();
+            int start = lineCount - 1;
+            LineEdit previousEdit = edits.isEmpty() ? null : edits.get(edits.size() - 1);
+            if (previousEdit != null && previousEdit.getEnd() == lineCount) {
+                // The last line is already replaced or removed by the previous edit
+                edits.remove(edits.size() - 1);
+                start = previousEdit.getStart();
+                replacement.addAll(previousEdit.getReplacement());
+            } else {
+                replacement.add(source.getLine(lineCount - 1));
+            }
+            replacement.addAll(lastEdit.getReplacement());
+            edits.add(new LineEdit(start, lineCount, replacement));
+        }
+    }
+
+    /**
+     * Applies the given edits to the given file. The edited content is written to a temporary file first, which
+     * replaces the given file afterwards.
+     * 
+     * @param file the file to edit
+     * @param source the original content of the given file
+     * @param edits the non-overlapping edits of the given file sorted by their positions
+     * @throws IOException if writing the edited file fails
+     */
+    private static void apply(@NonNull File file, @NonNull MappedSourceFile source,
+            @NonNull List<@NonNull LineEdit> edits) throws IOException {
+        File temporaryFile = File.createTempFile(file.getName(), ".patched", file.getParentFile());
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temporaryFile), 1 << 16)) {
+                int position = 0;
+                for (LineEdit edit : edits) {
+                    source.copyLines(position, edit.getStart(), out);
+                    for (String line : edit.getReplacement()) {
+                        out.write(line.getBytes(StandardCharsets.ISO_8859_1));
+                        out.write('\n');
+                    }
+                    position = edit.getEnd();
+                }
+                source.copyLines(position, source.getLineCount(), out);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Finds all Kconfig files in the source tree, i.e., files whose names start with {@link #KCONFIG_FILE_NAME}.
+     * Hidden directories, e.g., <i>.git</i>, are skipped.
+     * 
+     * @return the Kconfig files of the source tree
+     * @throws IOException if walking the source tree fails
+     */
+    private @NonNull List<@NonNull File> findKconfigFiles() throws IOException {
+        List<@NonNull File> kconfigFiles = new ArrayList<>();
+        Files.walkFileTree(sourceTree.toPath(), new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                Path name = directory.getFileName();
+                boolean hidden = name != null && name.toString().startsWith(".") && !directory.equals(
+                        sourceTree.toPath());
+                return hidden ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && file.getFileName().toString().startsWith(KCONFIG_FILE_NAME)) {
+                    kconfigFiles.add(file.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        return kconfigFiles;
+    }
+
+    /**
+     * Returns the path of the given file relative to the root of the source tree.
+     * 
+     * @param file the file in the source tree
+     * @return the relative path using slashes as separators
+     */
+    private @NonNull String getRelativePath(@NonNull File file) {
+        return sourceTree.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Checks whether the given directory is the root of the source tree or one of its sub-directories.
+     * 
+     * @param directory the directory to check; may be <code>null</code>
+     * @return <code>true</code>, if the given directory is part of the source tree, <code>false</code> otherwise
+     */
+    private boolean isInSourceTree(@Nullable File directory) {
+        return directory != null && directory.toPath().startsWith(sourceTree.toPath());
+    }
+
+    /**
+     * Checks whether the given file is a build file, i.e., a Makefile or a Kbuild file.
+     * 
+     * @param file the file to check
+     * @return <code>true</code>, if the given file is a build file, <code>false</code> otherwise
+     */
+    private static boolean isBuildFile(@NonNull File file) {
+        String name = file.getName();
+        return name.startsWith("Makefile") || name.startsWith("Kbuild") || name.endsWith(".mk");
+    }
+
+    /**
+     * Returns the name of the given variable without the prefix used in the build and code artifacts.
+     * 
+     * @param variable the name of a variable as provided by a {@link Correction}, e.g., <i>CONFIG_X</i>
+     * @return the name of the given variable as defined in the Kconfig files, e.g., <i>X</i>
+     */
+    private static @NonNull String toSymbol(@NonNull String variable) {
+        return variable.startsWith(FileEditor.MACRO_PREFIX) ? variable.substring(FileEditor.MACRO_PREFIX.length())
+                : variable;
+    }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class computes the edits of code files, which reference undefined variables. As an undefined variable is never
+ * selected, each reference is replaced by its constant value, which preserves the behavior of the code:
+ * <ul>
+ * <li><code>#ifdef CONFIG_X</code> becomes <code>#if 0</code> and <code>#ifndef CONFIG_X</code> becomes
+ * <code>#if 1</code></li>
+ * <li><code>defined(CONFIG_X)</code>, <code>defined CONFIG_X</code>, and <code>CONFIG_X</code> in the conditions of
+ * <code>#if</code> and <code>#elif</code> directives become <code>0</code></li>
+ * <li><code>IS_ENABLED(CONFIG_X)</code>, <code>IS_BUILTIN(CONFIG_X)</code>, <code>IS_MODULE(CONFIG_X)</code>, and
+ * <code>IS_REACHABLE(CONFIG_X)</code> become <code>0</code> everywhere in the code</li>
+ * </ul>
+ * Comments and string literals are not changed. Removing the code, which becomes dead by these edits, is left to the
+ * developers.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class PreprocessorEditor extends FileEditor {
+
+    /**
+     * The macros of the Linux kernel checking the selection of a variable in C expressions.
+     */
+    private static final @NonNull Set<String> SELECTION_MACROS = new HashSet<>(Arrays.asList("IS_ENABLED",
+            "IS_BUILTIN", "IS_MODULE", "IS_REACHABLE"));
+
+    /**
+     * The bytes starting or ending block comments for quickly detecting lines, which change the comment state.
+     */
+    private static final byte @NonNull [] @NonNull [] COMMENT_DELIMITERS = {{'/', '*'}, {'*', '/'}};
+
+    /**
+     * The names of the undefined variables including the {@link #MACRO_PREFIX}.
+     */
+    private @NonNull Set<String> undefinedMacros;
+
+    /**
+     * Creates a {@link PreprocessorEditor} instance.
+     * 
+     * @param undefinedMacros the names of the undefined variables including the {@link #MACRO_PREFIX}
+     */
+    PreprocessorEditor(@NonNull Set<String> undefinedMacros) {
+        this.undefinedMacros = undefinedMacros;
+    }
+
+    @Override
+    @NonNull List<@NonNull LineEdit> edit(@NonNull File file, @NonNull MappedSourceFile source) {
+        List<@NonNull LineEdit> edits = new ArrayList<>();
+        LineScanner scanner = new LineScanner();
+        boolean continuedCondition = false;
+        int lineCount = source.getLineCount();
+        for (int i = 0; i < lineCount; i++) {
+            // Only lines referencing a variable, changing the comment state, or continuing a condition are decoded
+            if (continuedCondition || source.lineContains(i, MACRO_PREFIX_BYTES)
+                    || source.lineContains(i, COMMENT_DELIMITERS[0]) || source.lineContains(i, COMMENT_DELIMITERS[1])) {
+                String line = source.getLine(i);
+                String editedLine = scanner.scan(line, continuedCondition);
+                continuedCondition = scanner.isCondition() && line.trim().endsWith("\\");
+                if (!editedLine.equals(line)) {
+                    edits.add(new LineEdit(i, i + 1, Collections.singletonList(editedLine)));
+                }
+            }
+        }
+        return edits;
+    }
+
+    /**
+     * This class scans and edits the lines of a single code file. It tracks whether the current position is inside a
+     * block comment across lines.
+     */
+    private class LineScanner {
+
+        /**
+         * Defines whether the current position is inside a block comment.
+         */
+        private boolean inBlockComment;
+
+        /**
+         * Defines whether the last scanned line is (part of) the condition of an <code>#if</code> or
+         * <code>#elif</code> directive.
+         */
+        private boolean condition;
+
+        /**
+         * Returns whether the last scanned line is (part of) the condition of an <code>#if</code> or
+         * <code>#elif</code> directive.
+         * 
+         * @return <code>true</code>, if the last scanned line is a condition, <code>false</code> otherwise
+         */
+        private boolean isCondition() {
+            return condition;
+        }
+
+        /**
+         * Scans the given line and replaces all references to undefined variables.
+         * 
+         * @param line the line to scan
+         * @param continuedCondition <code>true</code>, if the given line continues the condition of the previous line,
+         *        <code>false</code> otherwise
+         * @return the edited line; equal to the given line, if it does not reference any undefined variables
+         */
+        private @NonNull String scan(@NonNull String line, boolean continuedCondition) {
+            String scannedLine = line;
+            int start = 0;
+            condition = continuedCondition;
+            if (!inBlockComment && !continuedCondition) {
+                int hashIndex = skipWhitespace(line, 0);
+                if (hashIndex < line.length() && line.charAt(hashIndex) == '#') {
+                    int directiveStart = skipWhitespace(line, hashIndex + 1);
+                    int directiveEnd = identifierEnd(line, directiveStart);
+                    String directive = line.substring(directiveStart, directiveEnd);
+                    if (directive.equals("ifdef") || directive.equals("ifndef")) {
+                        int macroStart = skipWhitespace(line, directiveEnd);
+                        int macroEnd = identifierEnd(line, macroStart);
+                        start = directiveEnd;
+                        if (undefinedMacros.contains(line.substring(macroStart, macroEnd))) {
+                            String replacement = directive.equals("ifdef") ? "if 0" : "if 1";
+                            scannedLine = line.substring(0, directiveStart) + replacement + line.substring(macroEnd);
+                            start = directiveStart + replacement.length();
+                        }
+                    } else if (directive.equals("if") || directive.equals("elif")) {
+                        condition = true;
+                        start = directiveEnd;
+                    }
+                }
+            }
+            return replace(scannedLine, start);
+        }
+
+        /**
+         * Replaces the references to undefined variables in the given line starting at the given index.
+         * 
+         * @param line the line to edit
+         * @param start the index to start at
+         * @return the edited line
+         */
+        private @NonNull String replace(@NonNull String line, int start) {
+            StringBuilder editedLine = null;
+            int copiedUntil = 0;
+            int index = start;
+            while (index < line.length()) {
+                char character = line.charAt(index);
+                if (inBlockComment) {
+                    int commentEnd = line.indexOf("*/", index);
+                    if (commentEnd < 0) {
+                        index = line.length();
+                    } else {
+                        inBlockComment = false;
+                        index = commentEnd + 2;
+                    }
+                } else if (character == '/' && index + 1 < line.length() && line.charAt(index + 1) == '*') {
+                    inBlockComment = true;
+                    index += 2;
+                } else if (character == '/' && index + 1 < line.length() && line.charAt(index + 1) == '/') {
+                    index = line.length();
+                } else if (character == '"' || character == '\'') {
+                    index = skipLiteral(line, index);
+                } else if (isIdentifierPart(character)) {
+                    int identifierEnd = identifierEnd(line, index);
+                    int referenceEnd = getReferenceEnd(line, index, identifierEnd);
+                    if (referenceEnd >= 0) {
+                        if (editedLine == null) {
+                            editedLine = new StringBuilder(line.length());
+                        }
+                        editedLine.append(line, copiedUntil, index).append('0');
+                        copiedUntil = referenceEnd;
+                        index = referenceEnd;
+                    } else {
+                        index = identifierEnd;
+                    }
+                } else {
+                    index++;
+                }
+            }
+            String result = line;
+            if (editedLine != null) {
+                result = editedLine.append(line, copiedUntil, line.length()).toString();
+            }
+            return result;
+        }
+
+        /**
+         * Returns the end of the reference to an undefined variable starting with the given identifier.
+         * 
+         * @param line the line containing the identifier
+         * @param identifierStart the index of the first character of the identifier
+         * @param identifierEnd the index after the last character of the identifier
+         * @return the index after the reference or <code>-1</code>, if the identifier does not start a reference to an
+         *         undefined variable
+         */
+        private int getReferenceEnd(@NonNull String line, int identifierStart, int identifierEnd) {
+            int referenceEnd = -1;
+            String identifier = line.substring(identifierStart, identifierEnd);
+            if (SELECTION_MACROS.contains(identifier) || (condition && identifier.equals("defined"))) {
+                int argumentStart = skipWhitespace(line, identifierEnd);
+                boolean parenthesized = argumentStart < line.length() && line.charAt(argumentStart) == '(';
+                if (parenthesized) {
+                    argumentStart = skipWhitespace(line, argumentStart + 1);
+                }
+                int argumentEnd = identifierEnd(line, argumentStart);
+                if (isUndefinedMacro(line, argumentStart, argumentEnd)) {
+                    referenceEnd = argumentEnd;
+                    if (parenthesized) {
+                        int closingIndex = skipWhitespace(line, argumentEnd);
+                        referenceEnd = closingIndex < line.length() && line.charAt(closingIndex) == ')'
+                                ? closingIndex + 1 : -1;
+                    }
+                }
+            } else if (condition && isUndefinedMacro(line, identifierStart, identifierEnd)) {
+                referenceEnd = identifierEnd;
+            }
+            return referenceEnd;
+        }
+
+        /**
+         * Checks whether the given range of the given line is the name of an undefined variable.
+         * 
+         * @param line the line to check
+         * @param start the start of the range (inclusive)
+         * @param end the end of the range (exclusive)
+         * @return <code>true</code>, if the range is the name of an undefined variable, <code>false</code> otherwise
+         */
+        private boolean isUndefinedMacro(@NonNull String line, int start, int end) {
+            return end > start && line.startsWith(MACRO_PREFIX, start)
+                    && undefinedMacros.contains(line.substring(start, end));
+        }
+
+    }
+
+    /**
+     * Returns the index after the string or character literal starting at the given index.
+     * 
+     * @param line the line containing the literal
+     * @param start the index of the opening quote
+     * @return the index after the closing quote or the length of the given line, if the literal is not closed
+     */
+    private static int skipLiteral(@NonNull String line, int start) {
+        char quote = line.charAt(start);
+        int index = start + 1;
+        int end = -1;
+        while (end < 0 && index < line.length()) {
+            char character = line.charAt(index);
+            if (character == '\\') {
+                index += 2;
+            } else if (character == quote) {
+                end = index + 1;
+            } else {
+                index++;
+            }
+        }
+        return end >= 0 ? end : line.length();
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+/**
+ * This enumeration defines the available strategies for correcting undefined variables automatically, i.e., variables
+ * referenced in the build or code artifacts, but not defined in the variability model.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public enum UndefinedVariableStrategy {
+
+    /**
+     * The references to the undefined variables in the build and code artifacts are replaced by their constant value:
+     * an undefined variable is never selected. This strategy preserves the current behavior of the source tree.
+     */
+    REMOVE_REFERENCES,
+
+    /**
+     * The undefined variables are defined as new Boolean variables in the nearest Kconfig file of their first
+     * involved source file. This strategy enables the referencing build and code artifacts.
+     */
+    DEFINE;
+
+}
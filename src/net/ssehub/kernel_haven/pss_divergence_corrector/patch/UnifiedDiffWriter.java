@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.MappedSourceFile;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class writes the {@link LineEdit}s of files as a unified diff, which can be applied to the source tree via
+ * <code>patch -p1</code> or <code>git apply</code>. Each hunk contains up to {@value #CONTEXT_LINES} unchanged lines
+ * before and after the edits; edits with overlapping context are combined into a single hunk. The diff is written as
+ * ISO-8859-1 to preserve the bytes of the edited files in any encoding.
+ * 
+ * @author Christian Kröher
+ *
+ */
+class UnifiedDiffWriter implements Closeable {
+
+    /**
+     * The number of unchanged lines before and after the edits of a hunk.
+     */
+    private static final int CONTEXT_LINES = 3;
+
+    /**
+     * The marker of a line without a terminating line feed at the end of a file.
+     */
+    private static final @NonNull String NO_NEWLINE_MARKER = "\\ No newline at end of file\n";
+
+    /**
+     * The {@link Writer} writing the diff.
+     */
+    private @NonNull Writer writer;
+
+    /**
+     * Creates a {@link UnifiedDiffWriter} instance, which writes to the given file.
+     * 
+     * @param diffFile the file to write the diff to
+     * @throws IOException if creating the given file fails
+     */
+    UnifiedDiffWriter(@NonNull File diffFile) throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(diffFile),
+                StandardCharsets.ISO_8859_1), 1 << 16);
+    }
+
+    /**
+     * Writes the diff of a single file.
+     * 
+     * @param path the path of the file relative to the root of the source tree using slashes as separators
+     * @param source the original content of the file
+     * @param edits the non-overlapping edits of the file sorted by their positions
+     * @throws IOException if writing fails
+     */
+    void write(@NonNull String path, @NonNull MappedSourceFile source, @NonNull List<@NonNull LineEdit> edits)
+            throws IOException {
+        writer.write("--- a/" + path + "\n");
+        writer.write("+++ b/" + path + "\n");
+        int lineCount = source.getLineCount();
+        int delta = 0;
+        int first = 0;
+        while (first < edits.size()) {
+            int last = first;
+            while (last + 1 < edits.size()
+                    && edits.get(last + 1).getStart() - edits.get(last).getEnd() <= 2 * CONTEXT_LINES) {
+                last++;
+            }
+            int oldStart = Math.max(0, edits.get(first).getStart() - CONTEXT_LINES);
+            int oldEnd = Math.min(lineCount, edits.get(last).getEnd() + CONTEXT_LINES);
+            int newLength = oldEnd - oldStart;
+            for (int i = first; i <= last; i++) {
+                LineEdit edit = edits.get(i);
+                newLength += edit.getReplacement().size() - (edit.getEnd() - edit.getStart());
+            }
+            writer.write("@@ -" + toRange(oldStart, oldEnd - oldStart) + " +" + toRange(oldStart + delta, newLength)
+                    + " @@\n");
+            int position = oldStart;
+            for (int i = first; i <= last; i++) {
+                LineEdit edit = edits.get(i);
+                writeLines(' ', source, position, edit.getStart());
+                writeLines('-', source, edit.getStart(), edit.getEnd());
+                for (String line : edit.getReplacement()) {
+                    writer.write('+');
+                    writer.write(line);
+                    writer.write('\n');
+                }
+                position = edit.getEnd();
+            }
+            writeLines(' ', source, position, oldEnd);
+            delta += newLength - (oldEnd - oldStart);
+            first = last + 1;
+        }
+    }
+
+    /**
+     * Writes the given range of original lines with the given prefix.
+     * 
+     * @param prefix the prefix of each line, i.e., a space for context lines or a minus for removed lines
+     * @param source the original content of the file
+     * @param start the index of the first line to write (inclusive)
+     * @param end the index of the line after the last line to write (exclusive)
+     * @throws IOException if writing fails
+     */
+    private void writeLines(char prefix, @NonNull MappedSourceFile source, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            writer.write(prefix);
+            writer.write(source.getLine(i));
+            writer.write('\n');
+            if (i == source.getLineCount() - 1 && !source.endsWithNewline()) {
+                writer.write(NO_NEWLINE_MARKER);
+            }
+        }
+    }
+
+    /**
+     * Returns the range of lines of a hunk header.
+     * 
+     * @param start the index of the first line of the range
+     * @param length the number of lines of the range
+     * @return the range as <i>line,length</i> with a line number starting at <code>1</code>; for empty ranges, the
+     *         line number refers to the line before the range
+     */
+    private static @NonNull String toRange(int start, int length) {
+        return (length == 0 ? start : start + 1) + "," + length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionAlternative;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionKind;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.ValidationResult;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * This class validates {@link Correction}s by applying each of their structured alternatives virtually to a
+ * {@link ModelSnapshot} and re-evaluating the condition of the corrected divergence for each involved variable:
+ * <ul>
+ * <li>unused variables are defined in the variability model, but not referenced in the build or code artifacts;
+ *     references in the variability model do not count</li>
+ * <li>undefined variables are referenced in the build or code artifacts, but not defined in the variability
+ *     model</li>
+ * </ul>
+ * An alternative {@link ValidationResult#RESOLVES} the divergence, if the condition does not hold anymore for any of
+ * the involved variables and no new divergence emerges. If a new divergence emerges, e.g., an undefined variable or a
+ * variability model reference to a removed variable, the result is
+ * {@link ValidationResult#RESOLVES_WITH_NEW_DIVERGENCES}. If the snapshot does not reproduce the divergence for a
+ * variable, the alternative is {@link ValidationResult#UNKNOWN}. For multiple involved variables, the worst result
+ * (in the order of the {@link ValidationResult} constants) is the result of the alternative.<br>
+ * <br>
+ * As the snapshot is immutable and the results are counted by {@link LongAdder}s, corrections can be validated by any
+ * number of threads concurrently.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionValidator {
+
+    /**
+     * The constants of {@link ValidationResult} indexed by their ordinal.
+     */
+    private static final @NonNull ValidationResult @NonNull [] RESULTS = ValidationResult.values();
+
+    /**
+     * The {@link ModelSnapshot} the alternatives are applied to.
+     */
+    private @NonNull ModelSnapshot snapshot;
+
+    /**
+     * The number of validated alternatives for each {@link ValidationResult} indexed by its ordinal.
+     */
+    private @NonNull LongAdder @NonNull [] resultCounters;
+
+    /**
+     * Creates a {@link CorrectionValidator} instance.
+     * 
+     * @param snapshot the {@link ModelSnapshot} the alternatives of the validated corrections are applied to
+     */
+    public CorrectionValidator(@NonNull ModelSnapshot snapshot) {
+        this.snapshot = snapshot;
+        resultCounters = new LongAdder[RESULTS.length];
+        for (int i = 0; i < resultCounters.length; i++) {
+            resultCounters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Validates each structured alternative of the given {@link Correction} and sets the results (see
+     * {@link Correction#setValidationResults(List)}). This method is thread-safe.
+     * 
+     * @param correction the {@link Correction} to validate
+     */
+    public void validate(@NonNull Correction correction) {
+        List<@NonNull CorrectionAlternative> alternatives = correction.getStructuredAlternatives();
+        List<@NonNull ValidationResult> results = new ArrayList<>(alternatives.size());
+        for (CorrectionAlternative alternative : alternatives) {
+            ValidationResult result = validate(correction.getKind(), alternative);
+            resultCounters[result.ordinal()].increment();
+            results.add(result);
+        }
+        correction.setValidationResults(results);
+    }
+
+    /**
+     * Returns a function, which validates each {@link Correction} constructed by the given function directly after
+     * its construction. The returned function is thread-safe, if the given function is thread-safe. Hence, the
+     * corrections are validated in parallel by the threads constructing them.
+     * 
+     * @param constructor the function constructing the correction for a given divergence
+     * @return the validating function
+     */
+    public @NonNull Function<@NonNull Divergence, @Nullable Correction> validateConstruction(
+            @NonNull Function<@NonNull Divergence, @Nullable Correction> constructor) {
+        return (divergence) -> {
+            Correction correction = constructor.apply(divergence);
+            if (correction != null) {
+                validate(correction);
+            }
+            return correction;
+        };
+    }
+
+    /**
+     * Returns a consumer, which validates each consumed {@link Correction} without validation results before passing
+     * it to the given consumer. This validates corrections, which are created by merging other corrections, e.g.,
+     * while grouping, in the thread delivering them.
+     * 
+     * @param consumer the consumer to pass the corrections to
+     * @return the validating consumer
+     */
+    public @NonNull Consumer<@NonNull Correction> validateDelivery(@NonNull Consumer<@NonNull Correction> consumer) {
+        return (correction) -> {
+            if (correction.getValidationResults().isEmpty()) {
+                validate(correction);
+            }
+            consumer.accept(correction);
+        };
+    }
+
+    /**
+     * Returns the number of validated alternatives with the given {@link ValidationResult}.
+     * 
+     * @param result the {@link ValidationResult} to count
+     * @return the number of validated alternatives with the given result
+     */
+    public long getResultCount(@NonNull ValidationResult result) {
+        return resultCounters[result.ordinal()].sum();
+    }
+
+    /**
+     * Validates the given alternative of a correction of the given kind.
+     * 
+     * @param kind the {@link CorrectionKind} of the correction providing the given alternative
+     * @param alternative the alternative to validate
+     * @return the {@link ValidationResult} of the given alternative
+     */
+    private @NonNull ValidationResult validate(@NonNull CorrectionKind kind,
+            @NonNull CorrectionAlternative alternative) {
+        List<@NonNull String> variables = alternative.getVariables();
+        ValidationResult result = ValidationResult.RESOLVES;
+        if (kind == CorrectionKind.OTHER || variables.isEmpty()) {
+            result = ValidationResult.UNKNOWN;
+        }
+        for (int i = 0; result != ValidationResult.UNKNOWN && i < variables.size(); i++) {
+            String variable = variables.get(i);
+            int state = snapshot.getState(variable);
+            ValidationResult variableResult;
+            if (!diverges(kind, state)) {
+                variableResult = ValidationResult.UNKNOWN;
+            } else {
+                int changedState = snapshot.apply(variable, state, alternative);
+                if (diverges(kind, changedState)) {
+                    variableResult = ValidationResult.DOES_NOT_RESOLVE;
+                } else if (ModelSnapshot.isUnused(changedState) || ModelSnapshot.isUndefined(changedState)
+                        || (ModelSnapshot.isDangling(changedState) && !ModelSnapshot.isDangling(state))) {
+                    variableResult = ValidationResult.RESOLVES_WITH_NEW_DIVERGENCES;
+                } else {
+                    variableResult = ValidationResult.RESOLVES;
+                }
+            }
+            result = RESULTS[Math.max(result.ordinal(), variableResult.ordinal())];
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the condition of the divergence corrected by a correction of the given kind holds for a variable
+     * with the given state.
+     * 
+     * @param kind the {@link CorrectionKind} of the correction; either {@link CorrectionKind#UNUSED_VARIABLE} or
+     *        {@link CorrectionKind#UNDEFINED_VARIABLE}
+     * @param state the state of the variable (see {@link ModelSnapshot#getState(String)})
+     * @return <code>true</code>, if the divergence condition holds; <code>false</code> otherwise
+     */
+    private static boolean diverges(@NonNull CorrectionKind kind, int state) {
+        boolean diverges;
+        if (kind == CorrectionKind.UNUSED_VARIABLE) {
+            diverges = ModelSnapshot.isUnused(state);
+        } else {
+            diverges = ModelSnapshot.isUndefined(state);
+        }
+        return diverges;
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.validation;
+
+import java.util.List;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionAlternative;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionArtifact;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.Location;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndex;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationKind;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class represents an immutable snapshot of the variability, build, and code models with respect to the
+ * definitions of and references to variables. The snapshot is derived from a {@link LocationIndex} of the source
+ * tree: the state of a variable is the bit set of the {@link LocationKind}s of its locations, i.e., whether it is
+ * defined in the variability model and whether it is referenced in the variability model, the build artifacts, or
+ * the code artifacts. Alternatives of corrections are applied virtually by deriving a new state of a variable; the
+ * snapshot itself is never changed. Hence, it can be shared by any number of threads.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public final class ModelSnapshot {
+
+    /**
+     * The state bit of variables defined in the variability model.
+     */
+    static final int DEFINED = 1 << LocationKind.KCONFIG_DEFINITION.ordinal();
+
+    /**
+     * The state bit of variables referenced in the variability model, e.g., in the constraints of other variables.
+     */
+    static final int MODEL_REFERENCED = 1 << LocationKind.KCONFIG_REFERENCE.ordinal();
+
+    /**
+     * The state bit of variables referenced in the build artifacts.
+     */
+    static final int BUILD_REFERENCED = 1 << LocationKind.BUILD_REFERENCE.ordinal();
+
+    /**
+     * The state bit of variables referenced in the code artifacts.
+     */
+    static final int CODE_REFERENCED = 1 << LocationKind.CODE_REFERENCE.ordinal();
+
+    /**
+     * The {@link LocationIndex} providing the definitions of and references to the variables.
+     */
+    private @NonNull LocationIndex index;
+
+    /**
+     * Creates a {@link ModelSnapshot} instance.
+     * 
+     * @param index the {@link LocationIndex} of the source tree providing the definitions of and references to the
+     *        variables
+     */
+    public ModelSnapshot(@NonNull LocationIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Returns the state of the given variable in this snapshot.
+     * 
+     * @param variable the name of the variable with or without the <i>CONFIG_</i> prefix
+     * @return the bit set of the {@link #DEFINED}, {@link #MODEL_REFERENCED}, {@link #BUILD_REFERENCED}, and
+     *         {@link #CODE_REFERENCED} bits of the given variable
+     */
+    int getState(@NonNull String variable) {
+        return index.getLocationKinds(variable);
+    }
+
+    /**
+     * Returns the state of the given variable after applying the given alternative virtually to this snapshot.
+     * Removing references from the build artifacts only removes the references in the build files located in the
+     * directories of the involved source files (or their parent directories). Removing references from the code
+     * artifacts only removes the references in the files of the involved code elements. The respective state bit is
+     * only cleared, if no other references remain.
+     * 
+     * @param variable the name of the variable
+     * @param state the state of the given variable before applying the given alternative
+     * @param alternative the alternative to apply
+     * @return the state of the given variable after applying the given alternative
+     */
+    int apply(@NonNull String variable, int state, @NonNull CorrectionAlternative alternative) {
+        int changedState = state;
+        CorrectionArtifact artifact = alternative.getArtifact();
+        switch (alternative.getAction()) {
+        case DEFINE:
+            if (artifact == CorrectionArtifact.VARIABILITY_MODEL) {
+                changedState |= DEFINED;
+            }
+            break;
+        case REFERENCE:
+            changedState |= getReferenceBit(artifact);
+            break;
+        case REMOVE:
+            if (artifact == CorrectionArtifact.VARIABILITY_MODEL) {
+                changedState &= ~DEFINED;
+            } else if (artifact == CorrectionArtifact.BUILD) {
+                if (!hasRemainingLocations(variable, LocationKind.BUILD_REFERENCE, alternative.getSourceFiles(),
+                        true)) {
+                    changedState &= ~BUILD_REFERENCED;
+                }
+            } else if (artifact == CorrectionArtifact.CODE) {
+                if (!hasRemainingLocations(variable, LocationKind.CODE_REFERENCE, alternative.getCodeElements(),
+                        false)) {
+                    changedState &= ~CODE_REFERENCED;
+                }
+            }
+            break;
+        default:
+            break;
+        }
+        return changedState;
+    }
+
+    /**
+     * Checks whether a variable with the given state is unused, i.e., it is defined in the variability model, but
+     * neither referenced in the build nor in the code artifacts. As for the detected divergences, references in the
+     * variability model, e.g., in the constraints of other variables, do not make a variable used.
+     * 
+     * @param state the state of the variable
+     * @return <code>true</code>, if the variable is unused; <code>false</code> otherwise
+     */
+    static boolean isUnused(int state) {
+        return (state & DEFINED) != 0 && (state & (BUILD_REFERENCED | CODE_REFERENCED)) == 0;
+    }
+
+    /**
+     * Checks whether a variable with the given state is undefined, i.e., it is referenced in the build or code
+     * artifacts, but not defined in the variability model.
+     * 
+     * @param state the state of the variable
+     * @return <code>true</code>, if the variable is undefined; <code>false</code> otherwise
+     */
+    static boolean isUndefined(int state) {
+        return (state & DEFINED) == 0 && (state & (BUILD_REFERENCED | CODE_REFERENCED)) != 0;
+    }
+
+    /**
+     * Checks whether a variable with the given state is referenced in the variability model without being defined
+     * there, e.g., selected by another variable after its removal.
+     * 
+     * @param state the state of the variable
+     * @return <code>true</code>, if the variable is referenced, but not defined in the variability model;
+     *         <code>false</code> otherwise
+     */
+    static boolean isDangling(int state) {
+        return (state & DEFINED) == 0 && (state & MODEL_REFERENCED) != 0;
+    }
+
+    /**
+     * Returns the state bit for references in the given artifact.
+     * 
+     * @param artifact the artifact to reference a variable in
+     * @return the state bit of references in the given artifact
+     */
+    private static int getReferenceBit(@NonNull CorrectionArtifact artifact) {
+        int bit;
+        if (artifact == CorrectionArtifact.VARIABILITY_MODEL) {
+            bit = MODEL_REFERENCED;
+        } else if (artifact == CorrectionArtifact.CODE) {
+            bit = CODE_REFERENCED;
+        } else {
+            // A reference in the build artifacts suffices for BUILD_OR_CODE
+            bit = BUILD_REFERENCED;
+        }
+        return bit;
+    }
+
+    /**
+     * Checks whether the given variable has locations of the given kind, which are not covered by the given targets
+     * of a removal.
+     * 
+     * @param variable the name of the variable
+     * @param kind the kind of the locations to check
+     * @param targets the source files or code elements, whose presence conditions are changed by the removal
+     * @param byDirectory <code>true</code>, if a location is covered by a target in its directory or a subdirectory
+     *        (build files); <code>false</code>, if a location is covered by a target in the same file (code files)
+     * @return <code>true</code>, if at least one location of the given kind is not covered by the given targets;
+     *         <code>false</code> otherwise
+     */
+    private boolean hasRemainingLocations(@NonNull String variable, @NonNull LocationKind kind,
+            @NonNull List<@NonNull String> targets, boolean byDirectory) {
+        List<@NonNull Location> locations = index.getLocations(variable, kind);
+        boolean remaining = false;
+        for (int i = 0; !remaining && i < locations.size(); i++) {
+            String file = locations.get(i).getFile();
+            String scope = byDirectory ? file.substring(0, file.lastIndexOf('/') + 1) : file;
+            boolean covered = false;
+            for (int j = 0; !covered && j < targets.size(); j++) {
+                String target = targets.get(j);
+                // Code elements are identified by their file optionally followed by a colon and further details
+                covered = target.startsWith(scope) && (byDirectory || target.length() == scope.length()
+                        || target.charAt(scope.length()) == ':');
+            }
+            remaining = !covered;
+        }
+        return remaining;
+    }
+
+}
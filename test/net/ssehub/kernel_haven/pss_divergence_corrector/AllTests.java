@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionProviderTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.DescriptionTemplatesTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.FingerprintTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.JsonStringsTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.diff.CorrectionDiffTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.BinaryCorrectionReaderTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.JsonCorrectionWriterTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndexTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.patch.PatchGeneratorTest;
+import net.ssehub.kernel_haven.pss_divergence_corrector.validation.CorrectionValidatorTest;
+
+/**
+ * Test suite for this plug-in.
+ * 
+ * @author Christian Kröher
+ *
+ */
+@RunWith(Suite.class)
+@SuiteClasses({
+    CorrectionWorkerPoolTest.class,
+    CorrectionProviderTest.class,
+    CorrectionGrouperTest.class,
+    CorrectionTest.class,
+    ProblemSolutionSpaceDivergenceCorrectorTest.class,
+    BinaryCorrectionReaderTest.class,
+    CorrectionCacheTest.class,
+    FingerprintTest.class,
+    JsonStringsTest.class,
+    LatencyHistogramTest.class,
+    CorrectorMetricsTest.class,
+    PatchGeneratorTest.class,
+    LocationIndexTest.class,
+    CorrectionRankerTest.class,
+    DivergenceFilterTest.class,
+    CorrectionDiffTest.class,
+    DescriptionTemplatesTest.class,
+    JsonCorrectionWriterTest.class,
+    CorrectionValidatorTest.class,
+    })
+public class AllTests {
+    // runs tests defined in SuiteClasses
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.writeFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UndefinedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndex;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link CorrectionCache}. Each test simulates consecutive analysis runs by consecutive cache instances for
+ * the same cache directory.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionCacheTest {
+
+    /**
+     * The signature of the caches of the tests.
+     */
+    private static final @NonNull String SIGNATURE = "test";
+
+    /**
+     * The temporary folder containing the cache and the output directory.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * The cache directory.
+     */
+    private File cacheDirectory;
+
+    /**
+     * The table file for writing the obsolete corrections to.
+     */
+    private File obsoleteCorrectionsFile;
+
+    /**
+     * Creates the {@link #cacheDirectory} and the output directory of the {@link #obsoleteCorrectionsFile}.
+     * 
+     * @throws IOException if creating the directories fails
+     */
+    @Before
+    public void setUp() throws IOException {
+        cacheDirectory = temporaryFolder.newFolder("cache");
+        obsoleteCorrectionsFile = new File(temporaryFolder.newFolder("output"), "obsolete.csv");
+    }
+
+    /**
+     * Tests that the descriptions recorded in the previous run are restored for corrections with the same
+     * fingerprints in the next run, and that corrections not recorded again are obsolete.
+     * 
+     * @throws IOException if writing the cache fails
+     */
+    @Test
+    public void testRestoreFromPreviousRun() throws IOException {
+        CorrectionCache firstRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        for (int i = 0; i < 3; i++) {
+            Correction correction = createCachedCorrection(i);
+            assertFalse(firstRun.restore(correction));
+            firstRun.record(correction);
+        }
+        assertEquals(0, firstRun.close(obsoleteCorrectionsFile));
+        
+        CorrectionCache secondRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        for (int i = 1; i < 4; i++) {
+            Correction correction = createCorrection(i);
+            assertEquals(i < 3, secondRun.restore(correction));
+            if (i < 3) {
+                assertEquals("Cached description of VARIABLE_" + i, correction.getDescription());
+            }
+            secondRun.record(correction);
+        }
+        assertTrue(secondRun.restore(createCorrection(1)));
+        assertFalse(secondRun.restore(createUndefinedVariableCorrection(1)));
+        // The correction with index 0 is not recorded again
+        assertEquals(1, secondRun.close(obsoleteCorrectionsFile));
+    }
+
+    /**
+     * Tests that a cache with a different signature is not restored.
+     * 
+     * @throws IOException if writing the cache fails
+     */
+    @Test
+    public void testChangedSignature() throws IOException {
+        CorrectionCache firstRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        firstRun.record(createCachedCorrection(0));
+        firstRun.close(obsoleteCorrectionsFile);
+        
+        CorrectionCache secondRun = new CorrectionCache(cacheDirectory, SIGNATURE + "+changed", null);
+        assertFalse(secondRun.restore(createCorrection(0)));
+        assertEquals(0, secondRun.close(obsoleteCorrectionsFile));
+    }
+
+    /**
+     * Tests that discarding the cache of a run keeps the cache of the previous run.
+     * 
+     * @throws IOException if writing the cache fails
+     */
+    @Test
+    public void testDiscard() throws IOException {
+        CorrectionCache firstRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        firstRun.record(createCachedCorrection(0));
+        firstRun.close(obsoleteCorrectionsFile);
+        
+        CorrectionCache discardedRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        discardedRun.record(createCachedCorrection(1));
+        discardedRun.discard();
+        
+        CorrectionCache thirdRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        assertTrue(thirdRun.restore(createCorrection(0)));
+        assertFalse(thirdRun.restore(createCorrection(1)));
+        thirdRun.discard();
+        assertEquals(1, cacheDirectory.listFiles().length);
+    }
+
+    /**
+     * Tests that the descriptions of many corrections, which require growing the recorded fingerprints, are restored,
+     * and that recording the same correction multiple times keeps the first recorded descriptions.
+     * 
+     * @throws IOException if writing the cache fails
+     */
+    @Test
+    public void testManyCorrections() throws IOException {
+        int count = 5000;
+        CorrectionCache firstRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        for (int i = 0; i < count; i++) {
+            firstRun.record(createCachedCorrection(i));
+        }
+        Correction duplicate = createCorrection(0);
+        duplicate.restoreAlternativeDescriptions(Collections.singletonList("Duplicate"));
+        firstRun.record(duplicate);
+        firstRun.close(obsoleteCorrectionsFile);
+        
+        CorrectionCache secondRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        for (int i = 0; i < count; i++) {
+            Correction correction = createCorrection(i);
+            assertTrue(secondRun.restore(correction));
+            assertEquals("Cached description of VARIABLE_" + i, correction.getDescription());
+        }
+        secondRun.discard();
+    }
+
+    /**
+     * Tests that a changed location only invalidates the cached corrections of the variable with the changed location,
+     * which are still not obsolete.
+     * 
+     * @throws IOException if creating the source tree, building the location index, or writing the cache fails
+     */
+    @Test
+    public void testChangedLocations() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Kconfig", "config VARIABLE_0\n");
+        writeFile(sourceTree, "drivers/Kconfig", "config VARIABLE_1\n");
+        CorrectionCache firstRun = new CorrectionCache(cacheDirectory, SIGNATURE,
+                LocationIndex.build(sourceTree, 1));
+        firstRun.record(createCachedCorrection(0));
+        firstRun.record(createCachedCorrection(1));
+        firstRun.close(obsoleteCorrectionsFile);
+        
+        writeFile(sourceTree, "Kconfig", "\nconfig VARIABLE_0\n");
+        CorrectionCache secondRun = new CorrectionCache(cacheDirectory, SIGNATURE,
+                LocationIndex.build(sourceTree, 1));
+        Correction movedCorrection = createCorrection(0);
+        assertFalse(secondRun.restore(movedCorrection));
+        secondRun.record(movedCorrection);
+        Correction unchangedCorrection = createCorrection(1);
+        assertTrue(secondRun.restore(unchangedCorrection));
+        assertEquals("Cached description of VARIABLE_1", unchangedCorrection.getDescription());
+        secondRun.record(unchangedCorrection);
+        assertEquals(0, secondRun.close(obsoleteCorrectionsFile));
+    }
+
+    /**
+     * Tests that a corrupt cache file is ignored.
+     * 
+     * @throws IOException if writing the cache fails
+     */
+    @Test
+    public void testCorruptCache() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("This is not a correction cache");
+        Files.write(new File(cacheDirectory, "pss_corrections.cache").toPath(), lines,
+                StandardCharsets.UTF_8);
+        
+        CorrectionCache run = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        assertFalse(run.restore(createCorrection(0)));
+        run.record(createCachedCorrection(0));
+        assertEquals(0, run.close(obsoleteCorrectionsFile));
+        
+        CorrectionCache nextRun = new CorrectionCache(cacheDirectory, SIGNATURE, null);
+        assertTrue(nextRun.restore(createCorrection(0)));
+        nextRun.discard();
+    }
+
+    /**
+     * Creates the {@link UnusedVariableCorrection} for the variable with the given index, which has a description
+     * distinguishable from the built-in descriptions.
+     * 
+     * @param index the index of the involved variable
+     * @return the correction
+     */
+    private static @NonNull Correction createCachedCorrection(int index) {
+        Correction correction = createCorrection(index);
+        correction.restoreAlternativeDescriptions(Collections.singletonList("Cached description of VARIABLE_"
+                + index));
+        return correction;
+    }
+
+    /**
+     * Creates the {@link UnusedVariableCorrection} for the variable with the given index.
+     * 
+     * @param index the index of the involved variable
+     * @return the correction
+     */
+    private static @NonNull Correction createCorrection(int index) {
+        return new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                "VARIABLE_" + index, "", ""));
+    }
+
+    /**
+     * Creates the {@link UndefinedVariableCorrection} for the variable with the given index.
+     * 
+     * @param index the index of the involved variable
+     * @return the correction
+     */
+    private static @NonNull Correction createUndefinedVariableCorrection(int index) {
+        return new UndefinedVariableCorrection(TestDivergences.create(UndefinedVariableDivergence.class,
+                "VARIABLE_" + index, "", ""));
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUndefinedVariableCorrection;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUnusedVariableCorrection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UndefinedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link CorrectionGrouper}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionGrouperTest {
+
+    /**
+     * The header of aggregated corrections.
+     */
+    private static final @NonNull Object @NonNull [] AGGREGATED_HEADER = {"Correction Type", "Group", "Divergences",
+        "Correction"};
+
+    /**
+     * Tests that grouped elements are normalized independent of their order and duplicates.
+     */
+    @Test
+    public void testNormalize() {
+        assertEquals("", CorrectionGrouper.normalize(Collections.emptyList()));
+        assertEquals("B", CorrectionGrouper.normalize(Collections.singletonList("B")));
+        assertEquals("A B C", CorrectionGrouper.normalize(Arrays.asList("C", "A", "B", "A")));
+    }
+
+    /**
+     * Tests that corrections of the same type involving the same variables in any order are merged, while
+     * corrections of other types or without shared variables are not.
+     */
+    @Test
+    public void testGroupByVariable() {
+        List<@NonNull Correction> provided = new ArrayList<>();
+        CorrectionGrouper grouper = new CorrectionGrouper(GroupingMode.VARIABLE, provided::add);
+        
+        grouper.add(createUnusedVariableCorrection("A B"));
+        grouper.add(createUndefinedVariableCorrection("A B", "a.c", ""));
+        grouper.add(createUnusedVariableCorrection("C"));
+        grouper.add(createUnusedVariableCorrection("B A A"));
+        assertEquals(0, provided.size());
+        grouper.flush();
+        
+        assertEquals(3, provided.size());
+        assertGroup(provided.get(0), "UnusedVariableCorrection", "A B", 2);
+        assertGroup(provided.get(1), "UndefinedVariableCorrection", "A B", 1);
+        assertGroup(provided.get(2), "UnusedVariableCorrection", "C", 1);
+        assertEquals("A B", provided.get(0).getInvolvedVariablesString());
+    }
+
+    /**
+     * Tests that corrections without source files are provided directly with an empty group, while the other
+     * corrections are merged by their source files.
+     */
+    @Test
+    public void testGroupBySourceFile() {
+        List<@NonNull Correction> provided = new ArrayList<>();
+        CorrectionGrouper grouper = new CorrectionGrouper(GroupingMode.SOURCE_FILE, provided::add);
+        
+        grouper.add(createUndefinedVariableCorrection("A", "b.c a.c", ""));
+        grouper.add(createUnusedVariableCorrection("B"));
+        assertEquals(1, provided.size());
+        assertGroup(provided.get(0), "UnusedVariableCorrection", "", 1);
+        grouper.add(createUndefinedVariableCorrection("C", "a.c b.c", ""));
+        grouper.add(createUndefinedVariableCorrection("D", "c.c", ""));
+        grouper.flush();
+        
+        assertEquals(3, provided.size());
+        assertGroup(provided.get(1), "UndefinedVariableCorrection", "a.c b.c", 2);
+        assertGroup(provided.get(2), "UndefinedVariableCorrection", "c.c", 1);
+        assertEquals("A C", provided.get(1).getInvolvedVariablesString());
+    }
+
+    /**
+     * Tests that corrections sharing some, but not all of their elements are merged and that a correction sharing
+     * elements with multiple groups merges these groups into the group encountered first.
+     */
+    @Test
+    public void testGroupOverlappingElements() {
+        List<@NonNull Correction> provided = new ArrayList<>();
+        CorrectionGrouper grouper = new CorrectionGrouper(GroupingMode.SOURCE_FILE, provided::add);
+        
+        grouper.add(createUndefinedVariableCorrection("A", "a.c b.c", ""));
+        grouper.add(createUndefinedVariableCorrection("B", "a.c", ""));
+        grouper.add(createUndefinedVariableCorrection("C", "c.c", ""));
+        grouper.add(createUndefinedVariableCorrection("D", "e.c", ""));
+        grouper.add(createUndefinedVariableCorrection("E", "d.c c.c", ""));
+        grouper.add(createUndefinedVariableCorrection("F", "d.c b.c", ""));
+        grouper.add(createUndefinedVariableCorrection("G", "c.c", ""));
+        grouper.flush();
+        
+        assertEquals(2, provided.size());
+        assertGroup(provided.get(0), "UndefinedVariableCorrection", "a.c b.c c.c d.c", 6);
+        assertGroup(provided.get(1), "UndefinedVariableCorrection", "e.c", 1);
+        assertEquals("A B C E F G", provided.get(0).getInvolvedVariablesString());
+    }
+
+    /**
+     * Tests that all corrections of the same type are merged and that flushing clears the groups.
+     */
+    @Test
+    public void testGroupByCorrectionType() {
+        List<@NonNull Correction> provided = new ArrayList<>();
+        CorrectionGrouper grouper = new CorrectionGrouper(GroupingMode.CORRECTION_TYPE, provided::add);
+        
+        grouper.add(createUnusedVariableCorrection("A"));
+        grouper.add(createUndefinedVariableCorrection("B", "b.c", ""));
+        grouper.add(createUnusedVariableCorrection("C"));
+        grouper.flush();
+        grouper.flush();
+        
+        assertEquals(2, provided.size());
+        assertGroup(provided.get(0), "UnusedVariableCorrection", "UnusedVariableCorrection", 2);
+        assertGroup(provided.get(1), "UndefinedVariableCorrection", "UndefinedVariableCorrection", 1);
+    }
+
+    /**
+     * Asserts that the given correction is written as the aggregation of the given group.
+     * 
+     * @param correction the aggregated {@link Correction}
+     * @param expectedType the expected type of the correction
+     * @param expectedGroup the expected key of the group
+     * @param expectedDivergences the expected number of corrected divergences
+     */
+    private static void assertGroup(@NonNull Correction correction, @NonNull String expectedType,
+            @NonNull String expectedGroup, int expectedDivergences) {
+        assertArrayEquals(AGGREGATED_HEADER, correction.getHeader());
+        Object[] content = correction.getContent();
+        assertEquals(expectedType, content[0]);
+        assertEquals(expectedGroup, content[1]);
+        assertEquals(expectedDivergences, content[2]);
+        assertEquals(correction.getDescription(), content[3]);
+        assertEquals(expectedDivergences, correction.getDivergencesCount());
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UndefinedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link CorrectionRanker}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionRankerTest {
+
+    /**
+     * Tests that only the corrections with the highest scores are kept and passed in descending order of their scores,
+     * while all other corrections are released.
+     */
+    @Test
+    public void testTopK() {
+        List<@NonNull Correction> ranked = new ArrayList<>();
+        CorrectionRanker ranker = new CorrectionRanker(RankingCriterion.VARIABLES, 3, ranked::add);
+        List<@NonNull Correction> corrections = new ArrayList<>();
+        for (String variables : new String[] {"A", "B C D", "E F", "G H I", "J", "K L M N", "O P"}) {
+            Correction correction = createCorrection(variables, "", "");
+            corrections.add(correction);
+            ranker.add(correction);
+        }
+        ranker.flush();
+        
+        assertEquals(7, ranker.getAddedCount());
+        assertEquals(Arrays.asList(corrections.get(5), corrections.get(1), corrections.get(3)), ranked);
+        assertEquals("K L M N", ranked.get(0).getInvolvedVariablesString());
+        assertEquals("B C D", ranked.get(1).getInvolvedVariablesString());
+        assertEquals("G H I", ranked.get(2).getInvolvedVariablesString());
+        for (int i : new int[] {0, 2, 4, 6}) {
+            assertEquals("", corrections.get(i).getInvolvedVariablesString());
+        }
+    }
+
+    /**
+     * Tests that corrections with equal scores are kept and passed in the order in which they were added; a later
+     * correction does not replace a kept correction with the same score.
+     */
+    @Test
+    public void testTies() {
+        List<@NonNull Correction> ranked = new ArrayList<>();
+        CorrectionRanker ranker = new CorrectionRanker(RankingCriterion.VARIABLES, 3, ranked::add);
+        for (int i = 0; i < 10; i++) {
+            ranker.add(createCorrection("VARIABLE_" + i, "", ""));
+        }
+        ranker.flush();
+        
+        assertEquals(3, ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            assertEquals("VARIABLE_" + i, ranked.get(i).getInvolvedVariablesString());
+        }
+    }
+
+    /**
+     * Tests the scores of the corrections for each {@link RankingCriterion}.
+     */
+    @Test
+    public void testCriteria() {
+        assertRanking(RankingCriterion.CODE_ELEMENTS, "C");
+        assertRanking(RankingCriterion.SOURCE_FILES, "B");
+        assertRanking(RankingCriterion.VARIABLES, "A");
+        assertRanking(RankingCriterion.INVOLVED_ELEMENTS, "D");
+        
+        List<@NonNull Correction> ranked = new ArrayList<>();
+        CorrectionRanker ranker = new CorrectionRanker(RankingCriterion.DIVERGENCES, 1, ranked::add);
+        Correction single = createCorrection("A", "", "");
+        Correction merged = createCorrection("B", "", "");
+        merged.merge(createCorrection("C", "", ""));
+        ranker.add(single);
+        ranker.add(merged);
+        ranker.flush();
+        
+        assertEquals(Arrays.asList(merged), ranked);
+    }
+
+    /**
+     * Tests that flushing clears the kept corrections, while the number of added corrections is retained.
+     */
+    @Test
+    public void testFlushClears() {
+        List<@NonNull Correction> ranked = new ArrayList<>();
+        CorrectionRanker ranker = new CorrectionRanker(RankingCriterion.VARIABLES, 5, ranked::add);
+        ranker.add(createCorrection("A", "", ""));
+        ranker.add(createCorrection("B", "", ""));
+        ranker.flush();
+        ranker.flush();
+        
+        assertEquals(2, ranked.size());
+        assertEquals(2, ranker.getAddedCount());
+        
+        ranker.add(createCorrection("C", "", ""));
+        ranker.flush();
+        
+        assertEquals(3, ranked.size());
+        assertEquals("C", ranked.get(2).getInvolvedVariablesString());
+    }
+
+    /**
+     * Asserts that a single kept correction of the given criterion is the correction involving the given variable.
+     * The candidates are, in this order: <i>A</i> with most variables, <i>B</i> with most source files, <i>C</i> with
+     * most code elements, and <i>D</i> with most elements in total.
+     * 
+     * @param criterion the {@link RankingCriterion} to rank the candidates by
+     * @param expectedVariable the first variable of the expected correction
+     */
+    private static void assertRanking(@NonNull RankingCriterion criterion, @NonNull String expectedVariable) {
+        List<@NonNull Correction> ranked = new ArrayList<>();
+        CorrectionRanker ranker = new CorrectionRanker(criterion, 1, ranked::add);
+        ranker.add(createCorrection("A A2 A3 A4", "", ""));
+        ranker.add(createCorrection("B", "b1.c b2.c b3.c b4.c b5.c", ""));
+        ranker.add(createCorrection("C", "", "c:1 c:2 c:3 c:4 c:5 c:6"));
+        ranker.add(createCorrection("D D2 D3", "d1.c d2.c d3.c d4.c", "d:1 d:2 d:3 d:4 d:5"));
+        ranker.flush();
+        
+        assertEquals(1, ranked.size());
+        assertEquals(expectedVariable, ranked.get(0).getInvolvedVariables().get(0));
+    }
+
+    /**
+     * Creates an {@link UndefinedVariableCorrection} involving the given elements.
+     * 
+     * @param variables the whitespace-separated involved variables
+     * @param sourceFiles the whitespace-separated involved source files
+     * @param codeElements the whitespace-separated involved code elements
+     * @return the {@link UndefinedVariableCorrection}
+     */
+    private static @NonNull Correction createCorrection(@NonNull String variables, @NonNull String sourceFiles,
+            @NonNull String codeElements) {
+        return new UndefinedVariableCorrection(TestDivergences.create(UndefinedVariableDivergence.class, variables,
+                sourceFiles, codeElements));
+    }
+
+}
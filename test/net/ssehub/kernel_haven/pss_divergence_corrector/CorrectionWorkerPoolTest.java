@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * Tests the {@link CorrectionWorkerPool}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionWorkerPoolTest {
+
+    /**
+     * The number of divergences submitted by each test.
+     */
+    private static final int DIVERGENCES_COUNT = 200;
+
+    /**
+     * Tests that a single thread constructs and delivers all corrections directly in the submitting thread.
+     */
+    @Test
+    public void testSingleThreadDeliversDirectly() {
+        List<@NonNull String> delivered = new ArrayList<>();
+        Thread submittingThread = Thread.currentThread();
+        CorrectionWorkerPool pool = new CorrectionWorkerPool(1, 4, true, UnusedVariableCorrection::new,
+            (correction) -> {
+                assertSame(submittingThread, Thread.currentThread());
+                delivered.add(correction.getInvolvedVariablesString());
+            });
+        
+        pool.submit(createDivergence(0));
+        assertEquals(1, delivered.size());
+        assertEquals(0, pool.getInProgressCount());
+        pool.submitAll(new Divergence[] {createDivergence(1), createDivergence(2)}, 2);
+        pool.finish();
+        
+        assertEquals(createVariables(3), delivered);
+    }
+
+    /**
+     * Tests that multiple threads in ordered mode deliver the corrections in the order of the submitted divergences,
+     * although later divergences are constructed faster than earlier ones.
+     */
+    @Test(timeout = 30000)
+    public void testOrderedDelivery() {
+        List<@NonNull String> delivered = new ArrayList<>();
+        Thread submittingThread = Thread.currentThread();
+        CorrectionWorkerPool pool = new CorrectionWorkerPool(4, 16, true, slowFirst(), (correction) -> {
+            assertSame(submittingThread, Thread.currentThread());
+            delivered.add(correction.getInvolvedVariablesString());
+        });
+        
+        submitAlternately(pool);
+        pool.finish();
+        
+        assertEquals(createVariables(DIVERGENCES_COUNT), delivered);
+        assertEquals(0, pool.getInProgressCount());
+    }
+
+    /**
+     * Tests that multiple threads in unordered mode deliver each correction exactly once in the submitting thread.
+     */
+    @Test(timeout = 30000)
+    public void testUnorderedDelivery() {
+        List<@NonNull String> delivered = new ArrayList<>();
+        Thread submittingThread = Thread.currentThread();
+        CorrectionWorkerPool pool = new CorrectionWorkerPool(4, 16, false, slowFirst(), (correction) -> {
+            assertSame(submittingThread, Thread.currentThread());
+            delivered.add(correction.getInvolvedVariablesString());
+        });
+        
+        submitAlternately(pool);
+        pool.finish();
+        
+        assertEquals(DIVERGENCES_COUNT, delivered.size());
+        assertEquals(new HashSet<>(createVariables(DIVERGENCES_COUNT)), new HashSet<>(delivered));
+        assertEquals(0, pool.getInProgressCount());
+    }
+
+    /**
+     * Tests that the number of divergences in progress never exceeds the capacity of the pool.
+     */
+    @Test(timeout = 30000)
+    public void testCapacityBoundsDivergencesInProgress() {
+        int capacity = 8;
+        for (boolean ordered : new boolean[] {true, false}) {
+            CorrectionWorkerPool pool = new CorrectionWorkerPool(4, capacity, ordered, slowFirst(),
+                (correction) -> { });
+            for (int i = 0; i < DIVERGENCES_COUNT; i++) {
+                pool.submit(createDivergence(i));
+                assertTrue(pool.getInProgressCount() <= capacity);
+            }
+            pool.finish();
+            assertEquals(0, pool.getInProgressCount());
+        }
+    }
+
+    /**
+     * Tests that failing constructions and divergences without corrections only skip their own divergences, but not
+     * the other divergences of the same chunk.
+     */
+    @Test(timeout = 30000)
+    public void testFailingConstructionsAreSkipped() {
+        for (int threads : new int[] {1, 4}) {
+            List<@NonNull String> delivered = new ArrayList<>();
+            CorrectionWorkerPool pool = new CorrectionWorkerPool(threads, 16, true, (divergence) -> {
+                Correction correction = null;
+                String variable = divergence.getInvolvedVariablesString();
+                if (variable.equals("VARIABLE_1")) {
+                    throw new IllegalStateException("Construction failure for testing");
+                } else if (!variable.equals("VARIABLE_2")) {
+                    correction = new UnusedVariableCorrection(divergence);
+                }
+                return correction;
+            }, (correction) -> delivered.add(correction.getInvolvedVariablesString()));
+            
+            Divergence[] chunk = {createDivergence(0), createDivergence(1), createDivergence(2), createDivergence(3)};
+            pool.submitAll(chunk, chunk.length);
+            pool.finish();
+            
+            List<@NonNull String> expected = new ArrayList<>();
+            expected.add("VARIABLE_0");
+            expected.add("VARIABLE_3");
+            assertEquals(expected, delivered);
+        }
+    }
+
+    /**
+     * Tests that finishing the pool in an interrupted thread neither blocks nor throws, but keeps the interrupt status
+     * of the thread.
+     * 
+     * @throws InterruptedException if waiting for the blocked construction is interrupted unexpectedly
+     */
+    @Test(timeout = 30000)
+    public void testInterruptedFinish() throws InterruptedException {
+        for (boolean ordered : new boolean[] {true, false}) {
+            CountDownLatch constructionStarted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CorrectionWorkerPool pool = new CorrectionWorkerPool(2, 16, ordered, (divergence) -> {
+                constructionStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new UnusedVariableCorrection(divergence);
+            }, (correction) -> { });
+            pool.submit(createDivergence(0));
+            assertTrue(constructionStarted.await(10, TimeUnit.SECONDS));
+            
+            Thread.currentThread().interrupt();
+            pool.finish();
+            
+            // Clears the interrupt status for the next iteration
+            assertTrue(Thread.interrupted());
+            release.countDown();
+        }
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * Submits {@link #DIVERGENCES_COUNT} divergences alternately one by one and in chunks of three divergences.
+     * 
+     * @param pool the {@link CorrectionWorkerPool} to submit the divergences to
+     */
+    private static void submitAlternately(@NonNull CorrectionWorkerPool pool) {
+        Divergence[] chunk = new Divergence[3];
+        int index = 0;
+        while (index < DIVERGENCES_COUNT) {
+            if (index % 2 == 0) {
+                pool.submit(createDivergence(index));
+                index++;
+            } else {
+                int count = 0;
+                while (count < chunk.length && index < DIVERGENCES_COUNT) {
+                    chunk[count++] = createDivergence(index++);
+                }
+                pool.submitAll(chunk, count);
+            }
+        }
+    }
+
+    /**
+     * Creates a constructor of {@link UnusedVariableCorrection}s, which takes the longer the earlier a divergence was
+     * submitted within each group of ten divergences. Hence, later divergences are usually constructed first.
+     * 
+     * @return the constructor
+     */
+    private static @NonNull Function<@NonNull Divergence, @Nullable Correction> slowFirst() {
+        return (divergence) -> {
+            String variable = divergence.getInvolvedVariablesString();
+            int index = Integer.parseInt(variable.substring(variable.indexOf('_') + 1));
+            try {
+                Thread.sleep((10 - index % 10) / 3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new UnusedVariableCorrection(divergence);
+        };
+    }
+
+    /**
+     * Creates an {@link UnusedVariableDivergence} involving the variable with the given index.
+     * 
+     * @param index the index of the involved variable
+     * @return the divergence
+     */
+    private static @NonNull Divergence createDivergence(int index) {
+        return TestDivergences.create(UnusedVariableDivergence.class, "VARIABLE_" + index, "", "");
+    }
+
+    /**
+     * Creates the variables involved in the divergences with the indices from <code>0</code> to the given count.
+     * 
+     * @param count the number of variables
+     * @return the variables in the order of their indices
+     */
+    private static @NonNull List<@NonNull String> createVariables(int count) {
+        List<@NonNull String> variables = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            variables.add("VARIABLE_" + i);
+        }
+        return variables;
+    }
+
+}
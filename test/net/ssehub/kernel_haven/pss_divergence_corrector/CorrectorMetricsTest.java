@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * Tests the {@link CorrectorMetrics}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectorMetricsTest {
+
+    /**
+     * The temporary folder for the exported metrics.
+     */
+    @Rule
+    public @NonNull TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Tests that the timed stages pass their arguments and results through unchanged and record their latencies.
+     */
+    @Test
+    public void testTimedStages() {
+        CorrectorMetrics metrics = new CorrectorMetrics();
+        Divergence divergence = TestDivergences.create(UnusedVariableDivergence.class, "A", "", "");
+        Correction correction = new UnusedVariableCorrection(divergence);
+        
+        Function<@NonNull Divergence, @Nullable Correction> constructor = metrics.timeConstruction((div) -> {
+            sleep(20);
+            return correction;
+        });
+        assertSame(correction, constructor.apply(divergence));
+        
+        List<@NonNull Correction> rendered = new ArrayList<>();
+        Consumer<@NonNull Correction> renderer = metrics.timeRendering((corr) -> {
+            sleep(20);
+            rendered.add(corr);
+        });
+        renderer.accept(correction);
+        assertEquals(1, rendered.size());
+        assertSame(correction, rendered.get(0));
+        
+        assertTrue(metrics.getBuildMillis() >= 20);
+        assertTrue(metrics.getRenderMillis() >= 20);
+        
+        metrics.recordReceived(divergence, 30_000_000);
+        metrics.recordDetectorWait(10_000_000);
+        assertEquals(40, metrics.getDetectorWaitMillis());
+        
+        metrics.stop();
+        long elapsedMillis = metrics.getElapsedMillis();
+        assertTrue(elapsedMillis >= 40);
+        sleep(20);
+        assertEquals(elapsedMillis, metrics.getElapsedMillis());
+    }
+
+    /**
+     * Tests that the exported metrics contain the counters, the render latencies, the queue depths, and the metrics
+     * per divergence type.
+     * 
+     * @throws IOException if exporting or reading the metrics fails
+     */
+    @Test
+    public void testExport() throws IOException {
+        CorrectorMetrics metrics = new CorrectorMetrics();
+        Function<@NonNull Divergence, @Nullable Correction> constructor = metrics.timeConstruction(
+            (divergence) -> divergence instanceof UnusedVariableDivergence
+                    ? new UnusedVariableCorrection(divergence) : null);
+        Consumer<@NonNull Correction> renderer = metrics.timeRendering((correction) -> { });
+        List<@NonNull Correction> delivered = new ArrayList<>();
+        Consumer<@NonNull Correction> consumer = metrics.timeDelivery(delivered::add);
+        
+        String unused = null;
+        String undefined = null;
+        for (int i = 0; i < 3; i++) {
+            Divergence divergence;
+            if (i < 2) {
+                divergence = TestDivergences.create(UnusedVariableDivergence.class, "VARIABLE_" + i, "", "");
+                unused = divergence.getClass().getSimpleName();
+            } else {
+                divergence = TestDivergences.create(UndefinedVariableDivergence.class, "VARIABLE_" + i, "", "");
+                undefined = divergence.getClass().getSimpleName();
+            }
+            metrics.recordReceived(divergence, 0);
+            metrics.recordQueueDepth(i + 1);
+            Correction correction = constructor.apply(divergence);
+            if (correction != null) {
+                renderer.accept(correction);
+                consumer.accept(correction);
+            }
+        }
+        metrics.stop();
+        
+        File metricsFile = new File(temporaryFolder.getRoot(), "metrics.json");
+        metrics.export(metricsFile, 4, 16, 5);
+        String json = new String(Files.readAllBytes(metricsFile.toPath()), StandardCharsets.UTF_8);
+        
+        assertEquals(2, delivered.size());
+        assertTrue(json.startsWith("{\n"));
+        assertTrue(json.endsWith("}\n"));
+        assertTrue(json.contains("\"threads\": 4,"));
+        assertTrue(json.contains("\"receivedDivergences\": 3,"));
+        assertTrue(json.contains("\"deliveredCorrections\": 2,"));
+        assertTrue(json.contains("\"providedCorrections\": 5,"));
+        assertTrue(json.contains("\"renderMillis\": "));
+        assertTrue(json.contains("\"renderLatencyNanos\": {\n    \"count\": 2,"));
+        assertTrue(json.contains("\"capacity\": 16,"));
+        assertTrue(json.contains("\"max\": 3,"));
+        assertTrue(json.contains("\"mean\": 2.00"));
+        assertTrue(json.contains("\"" + undefined + "\": {\n      \"received\": 1,\n      \"corrected\": 0,"));
+        assertTrue(json.contains("\"" + unused + "\": {\n      \"received\": 2,\n      \"corrected\": 2,"));
+        // types are exported in the order of their names
+        assertTrue(json.indexOf(undefined) < json.indexOf(unused));
+    }
+
+    /**
+     * Tests that exporting metrics without any recorded values provides empty latencies and queue depths.
+     * 
+     * @throws IOException if exporting or reading the metrics fails
+     */
+    @Test
+    public void testExportEmpty() throws IOException {
+        CorrectorMetrics metrics = new CorrectorMetrics();
+        metrics.stop();
+        
+        File metricsFile = new File(temporaryFolder.getRoot(), "metrics.json");
+        metrics.export(metricsFile, 1, 1, 0);
+        String json = new String(Files.readAllBytes(metricsFile.toPath()), StandardCharsets.UTF_8);
+        
+        assertTrue(json.contains("\"receivedDivergences\": 0,"));
+        assertTrue(json.contains("\"buckets\": []"));
+        assertTrue(json.contains("\"mean\": 0.00"));
+        assertTrue(json.contains("\"divergenceTypes\": {\n  }"));
+    }
+
+    /**
+     * Sleeps for the given time.
+     * 
+     * @param millis the time to sleep in milliseconds
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+
+/**
+ * Tests the {@link DivergenceFilter}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class DivergenceFilterTest {
+
+    /**
+     * Tests that a filter without any filters and a single shard accepts all divergences.
+     */
+    @Test
+    public void testNoFilter() {
+        DivergenceFilter filter = new DivergenceFilter(Collections.emptyList(), null, null, 1, 0);
+        
+        assertFalse(filter.isFiltering());
+        assertTrue(filter.accept(TestDivergences.create(UnusedVariableDivergence.class, "A", "a.c", "")));
+        assertTrue(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "", "", "")));
+        assertTrue(new DivergenceFilter(null, null, Collections.emptyList(), 1, 0).accept(
+                TestDivergences.create(UndefinedVariableDivergence.class, "B", "", "")));
+    }
+
+    /**
+     * Tests that divergences are accepted, if their type or one of their supertypes is given by its simple or fully
+     * qualified class name.
+     */
+    @Test
+    public void testTypes() {
+        Divergence unused = TestDivergences.create(UnusedVariableDivergence.class, "A", "", "");
+        Divergence undefined = TestDivergences.create(UndefinedVariableDivergence.class, "A", "", "");
+        
+        DivergenceFilter simpleNameFilter = new DivergenceFilter(Arrays.asList(" UnusedVariableDivergence "), null,
+                null, 1, 0);
+        assertTrue(simpleNameFilter.isFiltering());
+        assertTrue(simpleNameFilter.accept(unused));
+        assertFalse(simpleNameFilter.accept(undefined));
+        // The result is cached per type
+        assertTrue(simpleNameFilter.accept(unused));
+        assertFalse(simpleNameFilter.accept(undefined));
+        
+        DivergenceFilter qualifiedNameFilter = new DivergenceFilter(Arrays.asList(
+                UndefinedVariableDivergence.class.getName()), null, null, 1, 0);
+        assertFalse(qualifiedNameFilter.accept(unused));
+        assertTrue(qualifiedNameFilter.accept(undefined));
+        
+        DivergenceFilter supertypeFilter = new DivergenceFilter(Arrays.asList("Divergence"), null, null, 1, 0);
+        assertTrue(supertypeFilter.accept(unused));
+        assertTrue(supertypeFilter.accept(undefined));
+    }
+
+    /**
+     * Tests that divergences are accepted, if at least one of their involved variables matches the pattern
+     * completely.
+     */
+    @Test
+    public void testVariables() {
+        DivergenceFilter filter = new DivergenceFilter(null, Pattern.compile("CONFIG_USB_.*"), null, 1, 0);
+        
+        assertTrue(filter.isFiltering());
+        assertTrue(filter.accept(TestDivergences.create(UnusedVariableDivergence.class, "CONFIG_USB_A", "", "")));
+        assertTrue(filter.accept(TestDivergences.create(UnusedVariableDivergence.class,
+                "  CONFIG_PCI CONFIG_USB_B  ", "", "")));
+        // The pattern must match a single variable completely, not the whole string or a part of a variable
+        assertFalse(filter.accept(TestDivergences.create(UnusedVariableDivergence.class, "CONFIG_PCI_USB_A", "",
+                "")));
+        assertFalse(filter.accept(TestDivergences.create(UnusedVariableDivergence.class, "CONFIG_PCI", "", "")));
+        assertFalse(filter.accept(TestDivergences.create(UnusedVariableDivergence.class, "", "", "")));
+        
+        DivergenceFilter tokenFilter = new DivergenceFilter(null, Pattern.compile("A"), null, 1, 0);
+        assertFalse(tokenFilter.accept(TestDivergences.create(UnusedVariableDivergence.class, "AB BA", "", "")));
+        assertTrue(tokenFilter.accept(TestDivergences.create(UnusedVariableDivergence.class, "AB A", "", "")));
+    }
+
+    /**
+     * Tests that divergences are accepted, if at least one of their involved source files starts with one of the path
+     * prefixes.
+     */
+    @Test
+    public void testPaths() {
+        DivergenceFilter filter = new DivergenceFilter(null, null, Arrays.asList("drivers/usb/", " arch/x86 "), 1,
+                0);
+        
+        assertTrue(filter.isFiltering());
+        assertTrue(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "A",
+                "drivers/usb/core.c", "")));
+        assertTrue(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "A",
+                "kernel/fork.c arch/x86/Kconfig", "")));
+        assertFalse(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "A",
+                "drivers/pci/core.c kernel/drivers/usb/a.c", "")));
+        // A prefix longer than a source file does not match across the following source file
+        assertFalse(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "A",
+                "drivers/ usb/a.c", "")));
+        assertFalse(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "A", "", "")));
+    }
+
+    /**
+     * Tests that the shards partition the divergences: each divergence is accepted by exactly one shard, which only
+     * depends on its primary variable, and the shards are reasonably balanced.
+     */
+    @Test
+    public void testShards() {
+        int shardsCount = 4;
+        int divergencesCount = 4000;
+        DivergenceFilter[] filters = new DivergenceFilter[shardsCount];
+        for (int i = 0; i < shardsCount; i++) {
+            filters[i] = new DivergenceFilter(null, null, null, shardsCount, i);
+            assertTrue(filters[i].isFiltering());
+        }
+        int[] acceptedCounts = new int[shardsCount];
+        for (int i = 0; i < divergencesCount; i++) {
+            Divergence divergence = TestDivergences.create(UnusedVariableDivergence.class, "CONFIG_VARIABLE_" + i,
+                    "", "");
+            Divergence samePrimary = TestDivergences.create(UndefinedVariableDivergence.class,
+                    " CONFIG_VARIABLE_" + i + " CONFIG_OTHER", "file.c", "");
+            int acceptingShard = -1;
+            for (int shard = 0; shard < shardsCount; shard++) {
+                boolean accepted = filters[shard].accept(divergence);
+                assertEquals(accepted, filters[shard].accept(samePrimary));
+                if (accepted) {
+                    assertEquals(-1, acceptingShard);
+                    acceptingShard = shard;
+                    acceptedCounts[shard]++;
+                }
+            }
+            assertTrue(acceptingShard >= 0);
+        }
+        for (int acceptedCount : acceptedCounts) {
+            assertTrue(acceptedCount > divergencesCount / shardsCount / 2);
+        }
+    }
+
+    /**
+     * Tests that a divergence is only accepted, if it passes all filters.
+     */
+    @Test
+    public void testCombinedFilters() {
+        DivergenceFilter filter = new DivergenceFilter(Arrays.asList("UndefinedVariableDivergence"),
+                Pattern.compile("CONFIG_A"), Arrays.asList("drivers/"), 1, 0);
+        
+        assertTrue(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "CONFIG_A",
+                "drivers/a.c", "")));
+        assertFalse(filter.accept(TestDivergences.create(UnusedVariableDivergence.class, "CONFIG_A",
+                "drivers/a.c", "")));
+        assertFalse(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "CONFIG_B",
+                "drivers/a.c", "")));
+        assertFalse(filter.accept(TestDivergences.create(UndefinedVariableDivergence.class, "CONFIG_A",
+                "kernel/a.c", "")));
+    }
+
+}
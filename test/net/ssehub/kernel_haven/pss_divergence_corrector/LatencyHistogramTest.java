@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link LatencyHistogram}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that an empty histogram provides <code>0</code> for all of its values.
+     */
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getSum());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    /**
+     * Tests that latencies are counted in buckets of exponentially growing size and negative latencies as
+     * <code>0</code>.
+     */
+    @Test
+    public void testBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        histogram.record(4);
+        histogram.record(Long.MAX_VALUE);
+        
+        assertEquals(2, histogram.getBucketCount(0));
+        assertEquals(1, histogram.getBucketCount(1));
+        assertEquals(2, histogram.getBucketCount(2));
+        assertEquals(1, histogram.getBucketCount(3));
+        assertEquals(1, histogram.getBucketCount(histogram.getBucketsCount() - 1));
+        assertEquals(7, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        
+        assertEquals(0, LatencyHistogram.getUpperBound(0));
+        assertEquals(1, LatencyHistogram.getUpperBound(1));
+        assertEquals(3, LatencyHistogram.getUpperBound(2));
+        assertEquals(1023, LatencyHistogram.getUpperBound(10));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getUpperBound(histogram.getBucketsCount() - 1));
+    }
+
+    /**
+     * Tests that the percentiles are approximated by the upper bound of the bucket containing them, but never exceed
+     * the maximum latency.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10);
+        }
+        
+        assertEquals(50500, histogram.getSum());
+        assertEquals(1000, histogram.getMax());
+        // 500 is in the bucket [256, 512)
+        assertEquals(511, histogram.getPercentile(50));
+        // 900, 990, and 1000 are in the bucket [512, 1024), but 1000 is the maximum
+        assertEquals(1000, histogram.getPercentile(90));
+        assertEquals(1000, histogram.getPercentile(99));
+        assertEquals(1000, histogram.getPercentile(100));
+        // 10 is in the bucket [8, 16)
+        assertEquals(15, histogram.getPercentile(1));
+    }
+
+    /**
+     * Tests that latencies recorded by multiple threads concurrently are all counted.
+     * 
+     * @throws InterruptedException if waiting for the recording threads is interrupted
+     */
+    @Test(timeout = 30000)
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            long offset = i;
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    histogram.record(j * 4 + offset);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(40000, histogram.getCount());
+        assertEquals(39999L * 40000 / 2, histogram.getSum());
+        assertEquals(39999, histogram.getMax());
+    }
+
+}
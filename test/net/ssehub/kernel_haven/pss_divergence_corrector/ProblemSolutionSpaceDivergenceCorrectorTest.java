@@ -0,0 +1,739 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.SetUpException;
+import net.ssehub.kernel_haven.analysis.AnalysisComponent;
+import net.ssehub.kernel_haven.config.Configuration;
+import net.ssehub.kernel_haven.config.DefaultSettings;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.DescriptionFormat;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.DescriptionTemplateKey;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.diff.DiffStatus;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.BinaryCorrectionReader;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.BinaryCorrectionWriter;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.test_utils.TestConfiguration;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * Tests the {@link ProblemSolutionSpaceDivergenceCorrector} as a whole, i.e., from receiving the divergences of a
+ * detector to providing the corrections as results or writing them to the output directory.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class ProblemSolutionSpaceDivergenceCorrectorTest {
+
+    /**
+     * The number of divergences provided by the detector of each test.
+     */
+    private static final int DIVERGENCES_COUNT = 50;
+
+    /**
+     * The temporary folder serving as output and cache directory.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Tests that the corrections are provided as results in the order of their divergences, if no output file is
+     * configured.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testResults() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.THREADS.getKey(), "4");
+        
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(DIVERGENCES_COUNT, corrections.size());
+        for (int i = 0; i < DIVERGENCES_COUNT; i++) {
+            assertEquals("VARIABLE_" + i, corrections.get(i).getInvolvedVariablesString());
+            assertTrue(corrections.get(i).getDescription().contains("\"VARIABLE_" + i + "\""));
+        }
+    }
+
+    /**
+     * Tests that all combinations of threads and batch sizes measured by the <code>execute</code> benchmark provide
+     * the same corrections in the same order. Hence, the benchmark compares configurations doing the same work.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testBenchmarkedConfigurations() throws IOException, SetUpException {
+        List<@NonNull String> expectedDescriptions = null;
+        for (int threads : new int[] {1, 4}) {
+            for (int batchSize : new int[] {1, 64}) {
+                Properties properties = new Properties();
+                properties.setProperty(CorrectorSettings.THREADS.getKey(), Integer.toString(threads));
+                properties.setProperty(CorrectorSettings.BATCH_SIZE.getKey(), Integer.toString(batchSize));
+                
+                List<@NonNull String> descriptions = new ArrayList<>();
+                for (Correction correction : run(createConfiguration(properties), createDivergences())) {
+                    descriptions.add(correction.getDescription());
+                }
+                
+                assertEquals(DIVERGENCES_COUNT, descriptions.size());
+                if (expectedDescriptions == null) {
+                    expectedDescriptions = descriptions;
+                } else {
+                    assertEquals(expectedDescriptions, descriptions);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the corrector drains a detector implementing {@link BatchResultSource} in batches, if batches are
+     * enabled, and one result at a time otherwise. In both cases, all corrections are provided in the order of their
+     * divergences.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testBatchResultSource() throws IOException, SetUpException {
+        for (int batchSize : new int[] {1, 16}) {
+            Properties properties = new Properties();
+            properties.setProperty(CorrectorSettings.THREADS.getKey(), "4");
+            properties.setProperty(CorrectorSettings.BATCH_SIZE.getKey(), Integer.toString(batchSize));
+            Configuration config = createConfiguration(properties);
+            BatchTestDetector detector = new BatchTestDetector(config, createDivergences());
+            List<@NonNull Correction> corrections = run(config, detector);
+            
+            assertEquals(DIVERGENCES_COUNT, corrections.size());
+            for (int i = 0; i < DIVERGENCES_COUNT; i++) {
+                assertEquals("VARIABLE_" + i, corrections.get(i).getInvolvedVariablesString());
+            }
+            if (batchSize > 1) {
+                // Batches of at most 7 divergences followed by the call signaling the end
+                assertEquals((DIVERGENCES_COUNT + 6) / 7 + 1, detector.batchesCounter);
+                assertFalse(detector.executed);
+            } else {
+                assertEquals(0, detector.batchesCounter);
+                assertTrue(detector.executed);
+            }
+        }
+    }
+
+    /**
+     * Tests that the corrector submits each divergence of a detector not implementing {@link BatchResultSource} as it
+     * arrives, even if batches are enabled. The detector provides its second divergence only after the correction of
+     * its first divergence was provided; holding back the first divergence for a batch would never terminate.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testSubmissionWithoutBatchResultSource() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.BATCH_SIZE.getKey(), "16");
+        Configuration config = createConfiguration(properties);
+        StallingTestDetector detector = new StallingTestDetector(config, createDivergences().subList(0, 2));
+        ProblemSolutionSpaceDivergenceCorrector corrector = new ProblemSolutionSpaceDivergenceCorrector(config,
+                detector);
+        
+        Correction first = corrector.getNextResult();
+        detector.firstCorrectionProvided.countDown();
+        Correction second = corrector.getNextResult();
+        
+        assertNotNull(first);
+        assertEquals("VARIABLE_0", first.getInvolvedVariablesString());
+        assertNotNull(second);
+        assertEquals("VARIABLE_1", second.getInvolvedVariablesString());
+        assertNull(corrector.getNextResult());
+    }
+
+    /**
+     * Tests that the corrector only corrects the divergences accepted by the configured filters.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testFilter() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.THREADS.getKey(), "4");
+        properties.setProperty(CorrectorSettings.FILTER_TYPES.getKey(), "UndefinedVariableDivergence");
+        properties.setProperty(CorrectorSettings.FILTER_VARIABLES.getKey(), "VARIABLE_[0-9]");
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(5, corrections.size());
+        for (int i = 0; i < corrections.size(); i++) {
+            assertEquals("VARIABLE_" + (2 * i + 1), corrections.get(i).getInvolvedVariablesString());
+        }
+    }
+
+    /**
+     * Tests that the corrector provides only the top-ranked corrections, if ranking is enabled. The undefined variable
+     * corrections involve a source file and a code element in addition to their variable; hence, they are ranked
+     * first in the order of their divergences.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testRanking() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.THREADS.getKey(), "4");
+        properties.setProperty(CorrectorSettings.RANKING.getKey(), RankingCriterion.INVOLVED_ELEMENTS.name());
+        properties.setProperty(CorrectorSettings.RANKING_TOP_K.getKey(), "5");
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(5, corrections.size());
+        for (int i = 0; i < corrections.size(); i++) {
+            assertEquals("VARIABLE_" + (2 * i + 1), corrections.get(i).getInvolvedVariablesString());
+        }
+    }
+
+    /**
+     * Tests that the corrector exports its metrics to a JSON file in the output directory, if metrics are enabled.
+     * 
+     * @throws IOException if creating the output directory or reading the metrics file fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testMetrics() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.THREADS.getKey(), "4");
+        properties.setProperty(CorrectorSettings.METRICS.getKey(), "true");
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(DIVERGENCES_COUNT, corrections.size());
+        String json = new String(Files.readAllBytes(getOutputFile(".metrics.json").toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"threads\": 4,"));
+        assertTrue(json.contains("\"receivedDivergences\": " + DIVERGENCES_COUNT + ","));
+        assertTrue(json.contains("\"providedCorrections\": " + DIVERGENCES_COUNT + ","));
+        assertTrue(json.contains("\"renderLatencyNanos\": {\n    \"count\": " + DIVERGENCES_COUNT + ","));
+    }
+
+    /**
+     * Tests that the corrections are streamed to the output file instead of being provided as results, if an output
+     * file is configured.
+     * 
+     * @throws IOException if creating the output directory or reading the output file fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testStreamedOutput() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.OUTPUT_MODE.getKey(), OutputMode.JSON.name());
+        
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(0, corrections.size());
+        List<String> lines = Files.readAllLines(getOutputFile(".jsonl").toPath(), StandardCharsets.UTF_8);
+        assertEquals(DIVERGENCES_COUNT, lines.size());
+        for (int i = 0; i < DIVERGENCES_COUNT; i++) {
+            assertTrue(lines.get(i).contains("\"variables\":[\"VARIABLE_" + i + "\"]"));
+        }
+    }
+
+    /**
+     * Tests that the {@link OutputMode#TABLE} writes the corrections of different types of divergences with the same
+     * columns.
+     * 
+     * @throws IOException if creating the output directory or reading the output file fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testTableOutput() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.OUTPUT_MODE.getKey(), OutputMode.TABLE.name());
+        
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(0, corrections.size());
+        List<String> rows = Files.readAllLines(getOutputFile(".csv").toPath(), StandardCharsets.UTF_8);
+        assertEquals(1 + DIVERGENCES_COUNT, rows.size());
+        assertEquals("Correction Type;Group;Divergences;Variables;Source Files;Code Elements;Correction;",
+                rows.get(0));
+        assertTrue(rows.get(1).startsWith("UnusedVariableCorrection;;1;VARIABLE_0;;;"));
+        assertTrue(rows.get(2).startsWith("UndefinedVariableCorrection;;1;VARIABLE_1;file_1.c;file_1.c:1;"));
+    }
+
+    /**
+     * Tests that the {@link OutputMode#ALTERNATIVES} writes one row per structured alternative of each correction.
+     * 
+     * @throws IOException if creating the output directory or reading the output file fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testAlternativesOutput() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.OUTPUT_MODE.getKey(), OutputMode.ALTERNATIVES.name());
+        
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(0, corrections.size());
+        List<String> rows = Files.readAllLines(getOutputFile(".csv").toPath(), StandardCharsets.UTF_8);
+        assertEquals(1 + 3 * DIVERGENCES_COUNT, rows.size());
+        assertTrue(rows.get(1).endsWith(";1;1;REMOVE;VARIABILITY_MODEL;VARIABLE_0;;;;"));
+        assertTrue(rows.get(2).endsWith(";1;2;REFERENCE;VARIABILITY_MODEL;VARIABLE_0;;;;"));
+        assertTrue(rows.get(3).endsWith(";1;3;REFERENCE;BUILD_OR_CODE;VARIABLE_0;;;;"));
+        assertTrue(rows.get(4).endsWith(";1;1;DEFINE;VARIABILITY_MODEL;VARIABLE_1;;;;"));
+        assertTrue(rows.get(5).endsWith(";1;2;REMOVE;BUILD;VARIABLE_1;file_1.c;;;"));
+        assertTrue(rows.get(6).endsWith(";1;3;REMOVE;CODE;VARIABLE_1;;file_1.c:1;;"));
+    }
+
+    /**
+     * Tests that the alternatives of the corrections are validated against the configured source tree, if validation
+     * is enabled, and that the results are written with the alternatives.
+     * 
+     * @throws IOException if creating the source tree or the output directory or reading the output file fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testValidation() throws IOException, SetUpException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        Files.write(new File(sourceTree, "Kconfig").toPath(),
+                "config VARIABLE_0\n\tbool \"Variable 0\"\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(sourceTree, "file_1.c").toPath(),
+                "#ifdef CONFIG_VARIABLE_1\n#endif\n".getBytes(StandardCharsets.UTF_8));
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.OUTPUT_MODE.getKey(), OutputMode.JSON.name());
+        properties.setProperty(CorrectorSettings.VALIDATION.getKey(), "true");
+        properties.setProperty(DefaultSettings.SOURCE_TREE.getKey(), sourceTree.getAbsolutePath());
+        run(createConfiguration(properties), createDivergences());
+        
+        List<String> lines = Files.readAllLines(getOutputFile(".jsonl").toPath(), StandardCharsets.UTF_8);
+        assertEquals(DIVERGENCES_COUNT, lines.size());
+        // Referencing the unused variable in the variability model does not make it used
+        assertEquals(Arrays.asList("RESOLVES", "DOES_NOT_RESOLVE", "RESOLVES"), getValidationResults(lines.get(0)));
+        assertEquals(Arrays.asList("RESOLVES", "DOES_NOT_RESOLVE", "RESOLVES"), getValidationResults(lines.get(1)));
+        // The source tree does not confirm the divergences of the other variables
+        assertEquals(Arrays.asList("UNKNOWN", "UNKNOWN", "UNKNOWN"), getValidationResults(lines.get(2)));
+        assertEquals(Arrays.asList("UNKNOWN", "UNKNOWN", "UNKNOWN"), getValidationResults(lines.get(3)));
+    }
+
+    /**
+     * Tests that the corrections are written to a binary correction file without descriptions, if descriptions are
+     * disabled for that file.
+     * 
+     * @throws IOException if creating the output directory or reading the output file fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testBinaryOutput() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.OUTPUT_MODE.getKey(), OutputMode.BINARY.name());
+        properties.setProperty(CorrectorSettings.OUTPUT_BINARY_DESCRIPTIONS.getKey(), "false");
+        
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(0, corrections.size());
+        try (BinaryCorrectionReader reader = new BinaryCorrectionReader(getOutputFile(".pssc"))) {
+            assertFalse(reader.hasDescriptions());
+            assertEquals(DIVERGENCES_COUNT, reader.size());
+            for (int i = 0; i < DIVERGENCES_COUNT; i++) {
+                assertEquals(Collections.singletonList("VARIABLE_" + i), reader.get(i).getInvolvedVariables());
+            }
+        }
+    }
+
+    /**
+     * Tests that the corrections written to a binary correction file are compared to the corrections of a baseline
+     * run, if a baseline file is defined.
+     * 
+     * @throws IOException if writing the baseline file, creating the output directory, or reading the diff fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testDiff() throws IOException, SetUpException {
+        File baselineFile = new File(temporaryFolder.newFolder("baseline"), "baseline.pssc");
+        try (BinaryCorrectionWriter writer = new BinaryCorrectionWriter(baselineFile, false)) {
+            for (int i = 0; i < 10; i += 2) {
+                writer.write(new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                        "VARIABLE_" + i, "", "")));
+            }
+            writer.write(new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                    "FIXED_VARIABLE", "", "")));
+        }
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.OUTPUT_MODE.getKey(), OutputMode.BINARY.name());
+        properties.setProperty(CorrectorSettings.DIFF_BASELINE.getKey(), baselineFile.getAbsolutePath());
+        run(createConfiguration(properties), createDivergences());
+        
+        int[] statusCounts = new int[DiffStatus.values().length];
+        List<String> rows = Files.readAllLines(getOutputFile(".diff.csv").toPath(), StandardCharsets.UTF_8);
+        for (String row : rows.subList(1, rows.size())) {
+            statusCounts[DiffStatus.valueOf(row.substring(0, row.indexOf(';'))).ordinal()]++;
+        }
+        assertEquals(DIVERGENCES_COUNT - 5, statusCounts[DiffStatus.NEW.ordinal()]);
+        assertEquals(1, statusCounts[DiffStatus.FIXED.ordinal()]);
+        assertEquals(5, statusCounts[DiffStatus.PERSISTENT.ordinal()]);
+    }
+
+    /**
+     * Tests that the descriptions of the corrections are rendered in the configured format using the configured
+     * templates.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    @Test(timeout = 30000)
+    public void testDescriptionTemplates() throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.DESCRIPTION_FORMAT.getKey(), DescriptionFormat.MARKDOWN.name());
+        properties.setProperty(CorrectorSettings.DESCRIPTION_TEMPLATES
+                .get(DescriptionTemplateKey.UNDEFINED_VARIABLE_DEFINITION).getKey(), "Add {variables} to Kconfig");
+        List<@NonNull Correction> corrections = run(createConfiguration(properties), createDivergences());
+        
+        assertEquals(DIVERGENCES_COUNT, corrections.size());
+        for (int i = 0; i < corrections.size(); i++) {
+            String expectedStart = (i % 2 == 0) ? "Remove `VARIABLE_" + i + "` from the variability model"
+                    : "Add `VARIABLE_" + i + "` to Kconfig\n\n**OR**\n\n";
+            assertTrue(corrections.get(i).getDescription().startsWith(expectedStart));
+        }
+    }
+
+    /**
+     * Tests that creating a corrector with invalid settings fails instead of ignoring these settings.
+     * 
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating a valid configuration fails
+     */
+    @Test
+    public void testInvalidSettings() throws IOException, SetUpException {
+        assertInvalid(CorrectorSettings.SHARD_INDEX.getKey(), "4");
+        assertInvalid(CorrectorSettings.RANKING_TOP_K.getKey(), "0");
+        assertInvalid(CorrectorSettings.DIFF_BASELINE.getKey(), temporaryFolder.newFile("baseline.pssc")
+                .getAbsolutePath());
+        assertInvalid(CorrectorSettings.DESCRIPTION_TEMPLATES.get(DescriptionTemplateKey.LOCATIONS).getKey(),
+                "{variables}");
+        assertInvalid(CorrectorSettings.CORRECTION_FACTORIES.getKey(), "net.ssehub.UnknownCorrectionFactory");
+    }
+
+    /**
+     * Tests that a {@link CorrectionSink} releases each correction after writing it.
+     * 
+     * @throws IOException if writing the corrections fails
+     */
+    @Test
+    public void testSinkReleasesCorrections() throws IOException {
+        Correction correction = new UnusedVariableCorrection(createDivergences().get(0));
+        try (CorrectionSink sink = new JsonCorrectionSink(temporaryFolder.newFile("corrections.jsonl"))) {
+            sink.write(correction);
+        }
+        
+        assertEquals("", correction.getInvolvedVariablesString());
+        assertArrayEquals(new Object[] {"Correction"}, correction.getHeader());
+    }
+
+    /**
+     * Creates the {@link Configuration} of the corrector, which uses the temporary folder as output and cache
+     * directory.
+     * 
+     * @param properties the properties defining further settings
+     * @return the {@link Configuration}
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    private @NonNull Configuration createConfiguration(@NonNull Properties properties)
+            throws IOException, SetUpException {
+        File directory = temporaryFolder.getRoot();
+        properties.setProperty(DefaultSettings.OUTPUT_DIR.getKey(), directory.getAbsolutePath());
+        properties.setProperty(DefaultSettings.CACHE_DIR.getKey(), directory.getAbsolutePath());
+        return new TestConfiguration(properties);
+    }
+
+    /**
+     * Runs a corrector with the given configuration for the given divergences.
+     * 
+     * @param config the {@link Configuration} of the corrector
+     * @param divergences the divergences provided by the detector
+     * @return the corrections provided as results by the corrector
+     * @throws SetUpException if the settings of the corrector are invalid
+     */
+    private static @NonNull List<@NonNull Correction> run(@NonNull Configuration config,
+            @NonNull List<@NonNull Divergence> divergences) throws SetUpException {
+        return run(config, new TestDetector(config, divergences));
+    }
+
+    /**
+     * Runs a corrector with the given configuration for the divergences provided by the given detector.
+     * 
+     * @param config the {@link Configuration} of the corrector
+     * @param detector the divergence detector
+     * @return the corrections provided as results by the corrector
+     * @throws SetUpException if the settings of the corrector are invalid
+     */
+    private static @NonNull List<@NonNull Correction> run(@NonNull Configuration config,
+            @NonNull AnalysisComponent<Divergence> detector) throws SetUpException {
+        ProblemSolutionSpaceDivergenceCorrector corrector = new ProblemSolutionSpaceDivergenceCorrector(config,
+                detector);
+        List<@NonNull Correction> corrections = new ArrayList<>();
+        Correction correction;
+        while ((correction = corrector.getNextResult()) != null) {
+            corrections.add(correction);
+        }
+        return corrections;
+    }
+
+    /**
+     * Asserts that creating a corrector fails, if the given setting has the given invalid value. The other settings
+     * are valid, e.g., 4 shards and ranking corrections by their divergences.
+     * 
+     * @param key the key of the setting
+     * @param value the invalid value of the setting
+     * @throws IOException if creating the output directory fails
+     * @throws SetUpException if creating the configuration fails
+     */
+    private void assertInvalid(@NonNull String key, @NonNull String value) throws IOException, SetUpException {
+        Properties properties = new Properties();
+        properties.setProperty(CorrectorSettings.SHARD_COUNT.getKey(), "4");
+        properties.setProperty(CorrectorSettings.RANKING.getKey(), RankingCriterion.DIVERGENCES.name());
+        properties.setProperty(key, value);
+        Configuration config = createConfiguration(properties);
+        try {
+            new ProblemSolutionSpaceDivergenceCorrector(config, new TestDetector(config, createDivergences()));
+            fail("Value \"" + value + "\" of " + key + " was accepted");
+        } catch (SetUpException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * Returns the single file with the given extension in the output directory.
+     * 
+     * @param extension the extension of the file including its dot
+     * @return the output file
+     */
+    private @NonNull File getOutputFile(@NonNull String extension) {
+        File outputFile = null;
+        for (File file : temporaryFolder.getRoot().listFiles()) {
+            if (file.getName().endsWith(extension)) {
+                assertEquals(null, outputFile);
+                outputFile = file;
+            }
+        }
+        assertNotNull(outputFile);
+        return outputFile;
+    }
+
+    /**
+     * Extracts the validation results of the alternatives from the given line of a JSON Lines output file.
+     * 
+     * @param line the line describing a correction
+     * @return the validation results in the order of the alternatives
+     */
+    private static @NonNull List<@NonNull String> getValidationResults(@NonNull String line) {
+        List<@NonNull String> results = new ArrayList<>();
+        Matcher matcher = Pattern.compile("\"validation\":\"([A-Z_]+)\"").matcher(line);
+        while (matcher.find()) {
+            results.add(matcher.group(1));
+        }
+        return results;
+    }
+
+    /**
+     * Creates {@link #DIVERGENCES_COUNT} divergences, which alternate between {@link UnusedVariableDivergence}s and
+     * {@link UndefinedVariableDivergence}s. Each divergence involves a variable of its own.
+     * 
+     * @return the divergences
+     */
+    private static @NonNull List<@NonNull Divergence> createDivergences() {
+        List<@NonNull Divergence> divergences = new ArrayList<>(DIVERGENCES_COUNT);
+        for (int i = 0; i < DIVERGENCES_COUNT; i++) {
+            String variable = "VARIABLE_" + i;
+            if (i % 2 == 0) {
+                divergences.add(TestDivergences.create(UnusedVariableDivergence.class, variable, "", ""));
+            } else {
+                divergences.add(TestDivergences.create(UndefinedVariableDivergence.class, variable, "file_" + i + ".c",
+                        "file_" + i + ".c:" + i));
+            }
+        }
+        return divergences;
+    }
+
+    /**
+     * This class provides a given list of {@link Divergence}s one result at a time.
+     */
+    private static class TestDetector extends AnalysisComponent<Divergence> {
+
+        /**
+         * The divergences provided by this detector.
+         */
+        private @NonNull List<@NonNull Divergence> divergences;
+
+        /**
+         * Creates a {@link TestDetector} instance.
+         * 
+         * @param config the global {@link Configuration}
+         * @param divergences the divergences provided by this detector
+         */
+        private TestDetector(@NonNull Configuration config, @NonNull List<@NonNull Divergence> divergences) {
+            super(config);
+            this.divergences = divergences;
+        }
+
+        @Override
+        protected void execute() {
+            for (Divergence divergence : divergences) {
+                addResult(divergence);
+            }
+        }
+
+        @Override
+        public @NonNull String getResultName() {
+            return "Test Divergences";
+        }
+
+    }
+
+    /**
+     * This class realizes a divergence detector, which provides the first of the given divergences immediately and the
+     * remaining divergences only after {@link #firstCorrectionProvided} was counted down.
+     */
+    private static class StallingTestDetector extends AnalysisComponent<Divergence> {
+
+        /**
+         * The latch signaling that the correction of the first divergence was provided.
+         */
+        private final @NonNull CountDownLatch firstCorrectionProvided = new CountDownLatch(1);
+
+        /**
+         * The divergences provided by this detector.
+         */
+        private @NonNull List<@NonNull Divergence> divergences;
+
+        /**
+         * Creates a {@link StallingTestDetector} instance.
+         * 
+         * @param config the global {@link Configuration}
+         * @param divergences the divergences provided by this detector
+         */
+        private StallingTestDetector(@NonNull Configuration config, @NonNull List<@NonNull Divergence> divergences) {
+            super(config);
+            this.divergences = divergences;
+        }
+
+        @Override
+        protected void execute() {
+            addResult(divergences.get(0));
+            try {
+                firstCorrectionProvided.await();
+                for (int i = 1; i < divergences.size(); i++) {
+                    addResult(divergences.get(i));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public @NonNull String getResultName() {
+            return "Test Divergences";
+        }
+
+    }
+
+    /**
+     * This class realizes a divergence detector, which provides the given divergences in batches of at most 7
+     * divergences via {@link BatchResultSource} or one at a time via {@link #getNextResult()}.
+     */
+    private static class BatchTestDetector extends AnalysisComponent<Divergence>
+            implements BatchResultSource<Divergence> {
+
+        /**
+         * The divergences provided by this detector.
+         */
+        private @NonNull List<@NonNull Divergence> divergences;
+
+        /**
+         * The index of the next divergence provided via {@link #getNextResults(Divergence[])}.
+         */
+        private int nextIndex;
+
+        /**
+         * The number of calls of {@link #getNextResults(Divergence[])}.
+         */
+        private int batchesCounter;
+
+        /**
+         * Defines whether {@link #execute()} was called, i.e., whether the divergences were provided one at a time.
+         */
+        private volatile boolean executed;
+
+        /**
+         * Creates a {@link BatchTestDetector} instance.
+         * 
+         * @param config the global {@link Configuration}
+         * @param divergences the divergences provided by this detector
+         */
+        private BatchTestDetector(@NonNull Configuration config, @NonNull List<@NonNull Divergence> divergences) {
+            super(config);
+            this.divergences = divergences;
+        }
+
+        @Override
+        public int getNextResults(@Nullable Divergence @NonNull [] results) {
+            batchesCounter++;
+            int count = Math.min(Math.min(7, results.length), divergences.size() - nextIndex);
+            for (int i = 0; i < count; i++) {
+                results[i] = divergences.get(nextIndex++);
+            }
+            return count;
+        }
+
+        @Override
+        protected void execute() {
+            executed = true;
+            for (Divergence divergence : divergences) {
+                addResult(divergence);
+            }
+        }
+
+        @Override
+        public @NonNull String getResultName() {
+            return "Test Divergences";
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UndefinedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * This class creates {@link Divergence}s with given involved elements for the tests and generates synthetic streams of
+ * such divergences for the benchmarks. The created divergences are instances of generated subclasses of the requested
+ * divergence types, which return their involved elements, header, and content from plain fields. These instances are
+ * created without calling any constructor of the divergence types. Hence, neither the tests nor the benchmarks depend
+ * on how the divergence detector creates its divergences, and the benchmarks do not measure any overhead beyond field
+ * accesses for querying the divergences. Further, this class provides the corrections of such divergences and writes
+ * the files of source trees, which are shared by multiple tests.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class TestDivergences {
+
+    /**
+     * The header returned by all created divergences.
+     */
+    public static final @NonNull Object @NonNull [] HEADER = {"Divergence", "Variables", "Source Files",
+        "Code Elements"};
+
+    /**
+     * The names of the fields of the generated subclasses in the order of the parameters of
+     * {@link #create(Class, String, String, String)} followed by the header and the content.
+     */
+    private static final @NonNull String @NonNull [] FIELDS = {"variables", "sourceFiles", "codeElements", "header",
+        "content"};
+
+    /**
+     * The names of the getters returning the {@link #FIELDS} in the same order.
+     */
+    private static final @NonNull String @NonNull [] GETTERS = {"getInvolvedVariablesString",
+        "getInvolvedSourceFilesString", "getInvolvedCodeElementsString", "getHeader", "getContent"};
+
+    /**
+     * The seed of the random generator of {@link #generate(int, int, int)}; fixed for reproducible streams.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * The {@link Objenesis} instance creating the divergences without calling their constructors.
+     */
+    private static final @NonNull Objenesis OBJENESIS = new ObjenesisStd(true);
+
+    /**
+     * The generated subclasses indexed by the divergence types they extend.
+     */
+    private static final @NonNull Map<Class<?>, Class<?>> SUBCLASSES = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@link TestDivergences} instance, which should never be used as this class only provides static
+     * methods.
+     */
+    private TestDivergences() {}
+
+    /**
+     * Creates a divergence of the given type. Its content consists of the simple name of the given type followed by
+     * the given involved elements.
+     * 
+     * @param <D> the type of the divergence
+     * @param type the class of the divergence
+     * @param variables the whitespace-separated involved variables
+     * @param sourceFiles the whitespace-separated involved source files
+     * @param codeElements the whitespace-separated involved code elements
+     * @return the divergence
+     */
+    public static <D extends Divergence> @NonNull D create(@NonNull Class<D> type, @NonNull String variables,
+            @NonNull String sourceFiles, @NonNull String codeElements) {
+        Class<?> subclass = SUBCLASSES.computeIfAbsent(type, TestDivergences::generateSubclass);
+        Object[] values = {variables, sourceFiles, codeElements, HEADER,
+            new Object[] {type.getSimpleName(), variables, sourceFiles, codeElements}};
+        Object divergence = OBJENESIS.newInstance(subclass);
+        try {
+            for (int i = 0; i < FIELDS.length; i++) {
+                Field field = subclass.getField(FIELDS[i]);
+                field.set(divergence, values[i]);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot initialize test " + type.getSimpleName(), e);
+        }
+        return type.cast(divergence);
+    }
+
+    /**
+     * Generates the given number of divergences. Every second divergence is an {@link UnusedVariableDivergence}, all
+     * others are {@link UndefinedVariableDivergence}s. Each divergence involves one variable drawn from a pool of
+     * variables (so that variables repeat across divergences like in real kernels) and the given number of source
+     * files and code elements.
+     * 
+     * @param count the number of divergences to generate
+     * @param involvedElements the number of source files and code elements involved in each undefined variable
+     *        divergence
+     * @param variablesPoolSize the number of distinct variables
+     * @return the generated divergences
+     */
+    public static @NonNull List<@NonNull Divergence> generate(int count, int involvedElements,
+            int variablesPoolSize) {
+        Random random = new Random(SEED);
+        List<@NonNull Divergence> divergences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String variable = "CONFIG_SYNTHETIC_" + random.nextInt(Math.max(1, variablesPoolSize));
+            if (i % 2 == 0) {
+                divergences.add(create(UnusedVariableDivergence.class, variable, "", ""));
+            } else {
+                StringBuilder sourceFiles = new StringBuilder();
+                StringBuilder codeElements = new StringBuilder();
+                for (int j = 0; j < involvedElements; j++) {
+                    int file = random.nextInt(10000);
+                    sourceFiles.append("drivers/synthetic/dir_").append(file % 100).append("/file_").append(file)
+                            .append(".c ");
+                    codeElements.append("drivers/synthetic/dir_").append(file % 100).append("/file_").append(file)
+                            .append(".c:").append(random.nextInt(5000)).append(' ');
+                }
+                divergences.add(create(UndefinedVariableDivergence.class, variable, sourceFiles.toString().trim(),
+                        codeElements.toString().trim()));
+            }
+        }
+        return divergences;
+    }
+
+    /**
+     * Creates an {@link UnusedVariableCorrection} for the given involved variables.
+     * 
+     * @param variables the whitespace-separated involved variables
+     * @return the created {@link Correction}
+     */
+    public static @NonNull Correction createUnusedVariableCorrection(@NonNull String variables) {
+        return new UnusedVariableCorrection(create(UnusedVariableDivergence.class, variables, "", ""));
+    }
+
+    /**
+     * Creates an {@link UndefinedVariableCorrection} for the given involved elements.
+     * 
+     * @param variables the whitespace-separated involved variables
+     * @param sourceFiles the whitespace-separated involved source files
+     * @param codeElements the whitespace-separated involved code elements
+     * @return the created {@link Correction}
+     */
+    public static @NonNull Correction createUndefinedVariableCorrection(@NonNull String variables,
+            @NonNull String sourceFiles, @NonNull String codeElements) {
+        return new UndefinedVariableCorrection(create(UndefinedVariableDivergence.class, variables, sourceFiles,
+                codeElements));
+    }
+
+    /**
+     * Writes the given content to the given file of the given source tree, creating its parent directories.
+     * 
+     * @param sourceTree the root directory of the source tree
+     * @param path the path of the file relative to the source tree
+     * @param content the content of the file
+     * @throws IOException if writing the file fails
+     */
+    public static void writeFile(@NonNull File sourceTree, @NonNull String path, @NonNull String content)
+            throws IOException {
+        File file = new File(sourceTree, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Generates a subclass of the given divergence type, which returns the values of its public {@link #FIELDS} via
+     * the respective {@link #GETTERS}.
+     * 
+     * @param type the divergence type to extend
+     * @return the generated subclass
+     */
+    private static @NonNull Class<?> generateSubclass(@NonNull Class<?> type) {
+        DynamicType.Builder<?> builder = new ByteBuddy()
+                .subclass(type, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .name(type.getName() + "$Test");
+        for (int i = 0; i < FIELDS.length; i++) {
+            Class<?> fieldType = i < 3 ? String.class : Object[].class;
+            builder = builder.defineField(FIELDS[i], fieldType, Visibility.PUBLIC)
+                    .method(named(GETTERS[i])).intercept(FieldAccessor.ofField(FIELDS[i]));
+        }
+        return builder.make().load(type.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER).getLoaded();
+    }
+
+}
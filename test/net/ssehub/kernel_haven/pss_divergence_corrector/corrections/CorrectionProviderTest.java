@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.SetUpException;
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * Tests the {@link CorrectionProvider}. The tests register their factories only at providers derived from the
+ * singleton instance and only for the divergence type {@link #CUSTOM_DIVERGENCE}, which is not used by any other test.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionProviderTest {
+
+    /**
+     * A divergence of a type, for which this plug-in does not provide any correction.
+     */
+    private static final @NonNull Divergence CUSTOM_DIVERGENCE = TestDivergences.create(Divergence.class,
+            "CUSTOM_VARIABLE", "", "");
+
+    /**
+     * Tests that the built-in corrections are provided for subclasses of the supported divergence types.
+     */
+    @Test
+    public void testBuiltInCorrections() {
+        Correction unusedVariableCorrection = CorrectionProvider.getCorrection(
+                TestDivergences.create(UnusedVariableDivergence.class, "A", "", ""));
+        Correction undefinedVariableCorrection = CorrectionProvider.getCorrection(
+                TestDivergences.create(UndefinedVariableDivergence.class, "B", "a.c", "a.c:1"));
+        
+        assertTrue(unusedVariableCorrection instanceof UnusedVariableCorrection);
+        assertTrue(undefinedVariableCorrection instanceof UndefinedVariableCorrection);
+        assertNull(CorrectionProvider.getCorrection(null));
+    }
+
+    /**
+     * Tests that a registered factory provides the corrections for its divergence type and that registering another
+     * factory for the same type replaces it.
+     */
+    @Test
+    public void testRegisteredFactoryReplacesPrevious() {
+        CorrectionProvider provider = new CorrectionProvider(CorrectionProvider.getInstance());
+        
+        provider.register(new TestFactory());
+        Correction correction = provider.createCorrection(CUSTOM_DIVERGENCE);
+        assertTrue(correction instanceof UnusedVariableCorrection);
+        assertEquals("CUSTOM_VARIABLE", correction.getInvolvedVariablesString());
+        
+        provider.register(new NoCorrectionFactory());
+        assertNull(provider.createCorrection(CUSTOM_DIVERGENCE));
+    }
+
+    /**
+     * Tests that a derived provider inherits the factories of its defaults, while registrations at either provider do
+     * not affect the other one.
+     */
+    @Test
+    public void testDerivedProviderIsIsolated() {
+        CorrectionProvider defaults = new CorrectionProvider(CorrectionProvider.getInstance());
+        defaults.register(new TestFactory());
+        CorrectionProvider provider = new CorrectionProvider(defaults);
+        
+        assertTrue(provider.createCorrection(CUSTOM_DIVERGENCE) instanceof UnusedVariableCorrection);
+        assertTrue(provider.createCorrection(TestDivergences.create(UndefinedVariableDivergence.class, "B", "", ""))
+                instanceof UndefinedVariableCorrection);
+        
+        provider.register(new NoCorrectionFactory());
+        assertNull(provider.createCorrection(CUSTOM_DIVERGENCE));
+        assertTrue(defaults.createCorrection(CUSTOM_DIVERGENCE) instanceof UnusedVariableCorrection);
+        assertNull(CorrectionProvider.getCorrection(CUSTOM_DIVERGENCE));
+    }
+
+    /**
+     * Tests registering factories by their fully qualified class names.
+     * 
+     * @throws SetUpException if registering the valid factory fails unexpectedly
+     */
+    @Test
+    public void testRegisterByClassName() throws SetUpException {
+        CorrectionProvider provider = new CorrectionProvider(CorrectionProvider.getInstance());
+        
+        provider.register(Arrays.asList(" " + TestFactory.class.getName() + " "));
+        assertTrue(provider.createCorrection(CUSTOM_DIVERGENCE) instanceof UnusedVariableCorrection);
+        provider.register(Collections.singletonList(NoCorrectionFactory.class.getName()));
+        assertNull(provider.createCorrection(CUSTOM_DIVERGENCE));
+        provider.register((List<String>) null);
+        
+        assertRegistrationFails(provider, "net.ssehub.kernel_haven.UnknownFactory");
+        assertRegistrationFails(provider, String.class.getName());
+    }
+
+    /**
+     * Tests that registering factories by their class names registers none of them, if one of them is invalid.
+     */
+    @Test
+    public void testFailedRegistrationRegistersNothing() {
+        CorrectionProvider provider = new CorrectionProvider(CorrectionProvider.getInstance());
+        
+        assertRegistrationFails(provider, TestFactory.class.getName(), "net.ssehub.kernel_haven.UnknownFactory");
+        
+        assertNull(provider.createCorrection(CUSTOM_DIVERGENCE));
+    }
+
+    /**
+     * Tests that registering factories while other threads provide corrections never affects the corrections of
+     * other divergence types.
+     * 
+     * @throws Exception if a providing thread fails unexpectedly
+     */
+    @Test(timeout = 30000)
+    public void testConcurrentRegistration() throws Exception {
+        CorrectionProvider provider = new CorrectionProvider(CorrectionProvider.getInstance());
+        Divergence divergence = TestDivergences.create(UnusedVariableDivergence.class, "A", "", "");
+        AtomicBoolean registering = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> providers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                providers.add(executor.submit(() -> {
+                    boolean provided = true;
+                    while (provided && registering.get()) {
+                        provided = provider.createCorrection(divergence) instanceof UnusedVariableCorrection;
+                    }
+                    return provided;
+                }));
+            }
+            for (int i = 0; i < 1000; i++) {
+                provider.register(i % 2 == 0 ? new TestFactory() : new NoCorrectionFactory());
+            }
+            registering.set(false);
+            for (Future<Boolean> providing : providers) {
+                assertTrue(providing.get());
+            }
+        } finally {
+            registering.set(false);
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Asserts that registering the factories with the given class names fails due to the last one.
+     * 
+     * @param provider the {@link CorrectionProvider} to register the factories at
+     * @param factoryClassNames the fully qualified class names of the factories
+     */
+    private static void assertRegistrationFails(@NonNull CorrectionProvider provider,
+            @NonNull String... factoryClassNames) {
+        SetUpException exception = null;
+        try {
+            provider.register(Arrays.asList(factoryClassNames));
+        } catch (SetUpException e) {
+            exception = e;
+        }
+        assertTrue(exception != null
+                && exception.getMessage().contains(factoryClassNames[factoryClassNames.length - 1]));
+    }
+
+    /**
+     * This class provides {@link UnusedVariableCorrection}s for the type of the {@link #CUSTOM_DIVERGENCE}.
+     */
+    public static class TestFactory implements CorrectionFactory {
+
+        @Override
+        public @NonNull Class<? extends Divergence> getDivergenceType() {
+            return CUSTOM_DIVERGENCE.getClass();
+        }
+
+        @Override
+        public @Nullable Correction createCorrection(@NonNull Divergence divergence) {
+            assertSame(CUSTOM_DIVERGENCE.getClass(), divergence.getClass());
+            return new UnusedVariableCorrection(divergence);
+        }
+
+    }
+
+    /**
+     * This class provides no corrections for the type of the {@link #CUSTOM_DIVERGENCE}.
+     */
+    public static class NoCorrectionFactory implements CorrectionFactory {
+
+        @Override
+        public @NonNull Class<? extends Divergence> getDivergenceType() {
+            return CUSTOM_DIVERGENCE.getClass();
+        }
+
+        @Override
+        public @Nullable Correction createCorrection(@NonNull Divergence divergence) {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUndefinedVariableCorrection;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUnusedVariableCorrection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link Correction}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionTest {
+
+    /**
+     * Strings of whitespace-separated elements, which are tokenized like splitting them by the regular expression
+     * <code>\s+</code>.
+     */
+    private static final @NonNull String @NonNull [] ELEMENTS = {"", "A", "A B", "A  B", "A\tB\nC", "A\u000BB\fC\r\nD",
+        "A B C D ", "CONFIG_A drivers/a.c drivers/b.c:12"};
+
+    /**
+     * Tests that merging a correction unions the involved elements of both corrections and discards the description
+     * created before.
+     */
+    @Test
+    public void testMerge() {
+        Correction correction = createUndefinedVariableCorrection("A", "a.c", "a.c:1");
+        String description = correction.getDescription();
+        long fingerprint = correction.getFingerprint();
+        
+        correction.merge(createUndefinedVariableCorrection("B A", "b.c a.c", "b.c:2"));
+        
+        assertEquals("A B", correction.getInvolvedVariablesString());
+        assertEquals("a.c b.c", correction.getInvolvedSourceFilesString());
+        assertEquals("a.c:1 b.c:2", correction.getInvolvedCodeElementsString());
+        assertEquals(2, correction.getDivergencesCount());
+        assertNotEquals(description, correction.getDescription());
+        assertTrue(correction.getDescription().startsWith("Define \"A\" and \"B\" in the variability model"));
+        assertNotEquals(fingerprint, correction.getFingerprint());
+    }
+
+    /**
+     * Tests that fanning out a correction results in one correction per alternative, which describes only its
+     * alternative.
+     */
+    @Test
+    public void testFanOut() {
+        Correction correction = createUndefinedVariableCorrection("A", "a.c", "a.c:1");
+        List<@NonNull String> alternativeDescriptions = correction.getAlternativeDescriptions();
+        
+        List<@NonNull Correction> alternatives = correction.getAlternatives();
+        
+        assertEquals(3, alternatives.size());
+        assertEquals(String.join("\nOR\n", alternativeDescriptions), correction.getDescription());
+        for (int i = 0; i < alternatives.size(); i++) {
+            Correction alternative = alternatives.get(i);
+            assertEquals(alternativeDescriptions.get(i), alternative.getDescription());
+            assertEquals(correction.getCorrectionType(), alternative.getCorrectionType());
+            assertEquals(correction.getKind(), alternative.getKind());
+            assertEquals("A", alternative.getInvolvedVariablesString());
+        }
+    }
+
+    /**
+     * Tests that the description is created once and cached until the templates of the correction change.
+     */
+    @Test
+    public void testDescriptionIsCached() {
+        Correction correction = createUndefinedVariableCorrection("A", "a.c", "a.c:1");
+        
+        String description = correction.getDescription();
+        assertSame(description, correction.getDescription());
+        assertSame(correction.getAlternativeDescriptions(), correction.getAlternativeDescriptions());
+        
+        correction.setDescriptionTemplates(DescriptionTemplates.getDefault());
+        String recreatedDescription = correction.getDescription();
+        assertNotSame(description, recreatedDescription);
+        assertEquals(description, recreatedDescription);
+    }
+
+    /**
+     * Tests that restored descriptions replace the descriptions of a correction without creating them.
+     */
+    @Test
+    public void testRestoredDescriptions() {
+        Correction correction = createUndefinedVariableCorrection("A", "a.c", "a.c:1");
+        
+        correction.restoreAlternativeDescriptions(Arrays.asList("First", "Second"));
+        
+        assertEquals(Arrays.asList("First", "Second"), correction.getAlternativeDescriptions());
+        assertEquals("First\nOR\nSecond", correction.getDescription());
+    }
+
+    /**
+     * Tests that tokenizing involved elements results in the same elements and listings as splitting them by the
+     * regular expression <code>\s+</code> as done before.
+     */
+    @Test
+    public void testTokenizerMatchesRegexSplit() {
+        Correction correction = createUnusedVariableCorrection("");
+        for (String elements : ELEMENTS) {
+            List<@NonNull String> splitElements = elements.isEmpty() ? Collections.emptyList()
+                    : Arrays.asList(elements.split("\\s+"));
+            assertEquals(splitElements, createUnusedVariableCorrection(elements).getInvolvedVariables());
+            assertEquals(splitElements.size(), Correction.countTokens(elements));
+            assertEquals(toDescriptionStringBySplit(elements), correction.toDescriptionString(elements));
+        }
+    }
+
+    /**
+     * Tests that leading whitespace does not result in an empty element, which splitting by a regular expression
+     * results in.
+     */
+    @Test
+    public void testTokenizerIgnoresLeadingWhitespace() {
+        assertEquals(Arrays.asList("A", "B"), createUnusedVariableCorrection(" \tA B").getInvolvedVariables());
+        assertEquals(2, Correction.countTokens("\n A B"));
+        assertEquals(0, Correction.countTokens(" \t "));
+    }
+
+    /**
+     * Tests that all corrections of the same divergence type share the header of that type, which extends the header
+     * of the divergence by the description column.
+     */
+    @Test
+    public void testSharedHeader() {
+        Correction first = createUndefinedVariableCorrection("A", "a.c", "a.c:1");
+        Correction second = createUndefinedVariableCorrection("B", "b.c", "b.c:2");
+        Correction other = createUnusedVariableCorrection("C");
+        
+        assertArrayEquals(new Object[] {"Divergence", "Variables", "Source Files", "Code Elements", "Correction"},
+                first.getHeader());
+        assertSame(first.getHeader(), second.getHeader());
+        assertNotSame(first.getHeader(), other.getHeader());
+        assertArrayEquals(first.getHeader(), other.getHeader());
+        
+        first.setGroupKey("A");
+        second.setGroupKey("B");
+        assertSame(first.getHeader(), second.getHeader());
+    }
+
+    /**
+     * Tests that the content of a correction extends the content of its divergence by its description and that the
+     * header and content of a released correction only consist of the description column.
+     */
+    @Test
+    public void testContent() {
+        Correction correction = createUndefinedVariableCorrection("A", "a.c", "a.c:1");
+        
+        assertArrayEquals(new Object[] {"UndefinedVariableDivergence", "A", "a.c", "a.c:1",
+            correction.getDescription()}, correction.getContent());
+        
+        correction.release();
+        assertArrayEquals(new Object[] {"Correction"}, correction.getHeader());
+        assertEquals(1, correction.getContent().length);
+    }
+
+    /**
+     * Converts the given elements into a listing for a description like the original implementation of
+     * {@link Correction#toDescriptionString(String)}, which split the elements by a regular expression.
+     * 
+     * @param involvedElements the string containing whitespace-separated elements
+     * @return the listing of the given elements
+     */
+    private static @NonNull String toDescriptionStringBySplit(@NonNull String involvedElements) {
+        StringBuilder descriptionStringBuilder = new StringBuilder("");
+        if (!involvedElements.isEmpty()) {
+            String[] splittedInvolvedElements = involvedElements.split("\\s+");
+            int involvedElementsNumber = splittedInvolvedElements.length;
+            if (involvedElementsNumber > 0) {
+                descriptionStringBuilder.append("\"" + splittedInvolvedElements[0] + "\"");
+                if (involvedElementsNumber == 2) {
+                    descriptionStringBuilder.append(" and ");
+                    descriptionStringBuilder.append("\"" + splittedInvolvedElements[1] + "\"");
+                } else if (involvedElementsNumber > 2) {
+                    for (int i = 1; i < involvedElementsNumber - 1; i++) {
+                        descriptionStringBuilder.append(", ");
+                        descriptionStringBuilder.append(splittedInvolvedElements[i]);
+                    }
+                    descriptionStringBuilder.append(", and ");
+                    descriptionStringBuilder.append("\"" + splittedInvolvedElements[involvedElementsNumber - 1]
+                            + "\"");
+                }
+            }
+        }
+        return descriptionStringBuilder.toString();
+    }
+
+    /**
+     * Tests that the structured alternatives of the corrections match their descriptions in number and order.
+     */
+    @Test
+    public void testStructuredAlternatives() {
+        Correction unusedCorrection = createUnusedVariableCorrection("A B");
+        Correction undefinedCorrection = createUndefinedVariableCorrection("C", "c.c", "c.c:3");
+        Correction modelOnlyCorrection = createUndefinedVariableCorrection("D", "", "");
+        
+        assertAlternatives(unusedCorrection, "REMOVE [A, B] in VARIABILITY_MODEL",
+                "REFERENCE [A, B] in VARIABILITY_MODEL", "REFERENCE [A, B] in BUILD_OR_CODE");
+        assertAlternatives(undefinedCorrection, "DEFINE [C] in VARIABILITY_MODEL", "REMOVE [C] in BUILD",
+                "REMOVE [C] in CODE");
+        assertEquals(Arrays.asList("c.c"), undefinedCorrection.getStructuredAlternatives().get(1).getSourceFiles());
+        assertEquals(Arrays.asList("c.c:3"),
+                undefinedCorrection.getStructuredAlternatives().get(2).getCodeElements());
+        assertAlternatives(modelOnlyCorrection, "DEFINE [D] in VARIABILITY_MODEL");
+    }
+
+    /**
+     * Tests that merging a correction discards its structured alternatives created before.
+     */
+    @Test
+    public void testMergeRecreatesStructuredAlternatives() {
+        Correction correction = createUndefinedVariableCorrection("A", "", "");
+        assertEquals(1, correction.getStructuredAlternatives().size());
+        
+        correction.merge(createUndefinedVariableCorrection("B", "b.c", "b.c:2"));
+        
+        assertAlternatives(correction, "DEFINE [A, B] in VARIABILITY_MODEL", "REMOVE [A, B] in BUILD",
+                "REMOVE [A, B] in CODE");
+    }
+
+    /**
+     * Tests that the fanned out alternatives of a correction carry their structured alternative and have distinct
+     * fingerprints.
+     */
+    @Test
+    public void testFanOutStructuredAlternatives() {
+        Correction correction = createUnusedVariableCorrection("A");
+        List<@NonNull CorrectionAlternative> structuredAlternatives = correction.getStructuredAlternatives();
+        
+        List<@NonNull Correction> alternatives = correction.getAlternatives();
+        
+        Set<Long> fingerprints = new HashSet<>();
+        fingerprints.add(correction.getFingerprint());
+        for (int i = 0; i < alternatives.size(); i++) {
+            Correction alternative = alternatives.get(i);
+            assertEquals(Collections.singletonList(structuredAlternatives.get(i)),
+                    alternative.getStructuredAlternatives());
+            assertTrue(fingerprints.add(alternative.getFingerprint()));
+            assertEquals(alternative.getFingerprint(), correction.getAlternatives().get(i).getFingerprint());
+        }
+    }
+
+    /**
+     * Asserts that the structured alternatives of the given correction are the expected ones and that the correction
+     * has a description for each of them.
+     * 
+     * @param correction the correction to check
+     * @param expectedAlternatives the expected string representations of the structured alternatives
+     */
+    private static void assertAlternatives(@NonNull Correction correction, @NonNull String... expectedAlternatives) {
+        List<@NonNull CorrectionAlternative> alternatives = correction.getStructuredAlternatives();
+        List<@NonNull String> actualAlternatives = new ArrayList<>();
+        for (CorrectionAlternative alternative : alternatives) {
+            actualAlternatives.add(alternative.toString());
+        }
+        assertEquals(Arrays.asList(expectedAlternatives), actualAlternatives);
+        assertEquals(alternatives.size(), correction.getAlternativeDescriptions().size());
+    }
+
+}
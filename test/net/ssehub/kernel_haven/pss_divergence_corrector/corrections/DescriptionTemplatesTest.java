@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUndefinedVariableCorrection;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUnusedVariableCorrection;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link DescriptionTemplates}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class DescriptionTemplatesTest {
+
+    /**
+     * Tests that the built-in templates render the same plain text descriptions as before.
+     */
+    @Test
+    public void testDefaultPlain() {
+        Correction correction = createUnusedVariableCorrection("A B C");
+        correction.setDescriptionTemplates(DescriptionTemplates.getDefault());
+        
+        assertSame(DescriptionFormat.PLAIN, DescriptionTemplates.getDefault().getFormat());
+        assertEquals("Remove \"A\", B, and \"C\" from the variability model\nOR\n"
+                + "Define at least one reference to \"A\", B, and \"C\" as part of another variables constraint in the"
+                + " variability model\nOR\n"
+                + "Define at least one reference to \"A\", B, and \"C\" in a build or code artifact",
+                correction.getDescription());
+    }
+
+    /**
+     * Tests that the {@link DescriptionFormat#MARKDOWN} format encloses each element in backticks and separates the
+     * alternatives by bold "OR" paragraphs.
+     */
+    @Test
+    public void testMarkdown() {
+        Correction correction = createUnusedVariableCorrection("A B");
+        correction.setDescriptionTemplates(new DescriptionTemplates(Collections.emptyMap(),
+                DescriptionFormat.MARKDOWN));
+        
+        assertEquals("Remove `A` and `B` from the variability model\n\n**OR**\n\n"
+                + "Define at least one reference to `A` and `B` as part of another variables constraint in the"
+                + " variability model\n\n**OR**\n\n"
+                + "Define at least one reference to `A` and `B` in a build or code artifact",
+                correction.getDescription());
+    }
+
+    /**
+     * Tests that the {@link DescriptionFormat#JSON} format renders an array of escaped alternatives.
+     */
+    @Test
+    public void testJson() {
+        Map<@NonNull DescriptionTemplateKey, @NonNull String> customTemplates =
+                new EnumMap<>(DescriptionTemplateKey.class);
+        customTemplates.put(DescriptionTemplateKey.UNDEFINED_VARIABLE_DEFINITION, "Define {variables}\t\"now\"\n");
+        customTemplates.put(DescriptionTemplateKey.UNDEFINED_VARIABLE_BUILD_REMOVAL, "Build \\ {source_files}");
+        customTemplates.put(DescriptionTemplateKey.UNDEFINED_VARIABLE_CODE_REMOVAL, "Code {code_elements}");
+        Correction correction = createUndefinedVariableCorrection("A B C", "a.c", "a.c:1 b.c:2");
+        correction.setDescriptionTemplates(new DescriptionTemplates(customTemplates, DescriptionFormat.JSON));
+        
+        assertEquals("[\"Define \\\"A\\\", B, and \\\"C\\\"\\t\\\"now\\\"\\n\","
+                + "\"Build \\\\ \\\"a.c\\\"\","
+                + "\"Code \\\"a.c:1\\\" and \\\"b.c:2\\\"\"]", correction.getDescription());
+    }
+
+    /**
+     * Tests that custom templates replace the built-in templates, support the number of divergences, and render
+     * doubled opening braces as literal braces.
+     */
+    @Test
+    public void testCustomTemplates() {
+        Map<@NonNull DescriptionTemplateKey, @NonNull String> customTemplates =
+                new EnumMap<>(DescriptionTemplateKey.class);
+        customTemplates.put(DescriptionTemplateKey.UNDEFINED_VARIABLE_DEFINITION,
+                "{{{variables}} fixes {divergences} divergence(s)");
+        Correction correction = createUndefinedVariableCorrection("A", "a.c", "a.c:1");
+        correction.merge(createUndefinedVariableCorrection("B", "b.c", "b.c:2"));
+        correction.setDescriptionTemplates(new DescriptionTemplates(customTemplates, DescriptionFormat.PLAIN));
+        
+        assertEquals("{\"A\" and \"B\"} fixes 2 divergence(s)", correction.getAlternativeDescriptions().get(0));
+        assertEquals("Remove references to \"A\" and \"B\" in the build artifacts controlling the presence or absence"
+                + " of \"a.c\" and \"b.c\"", correction.getAlternativeDescriptions().get(1));
+    }
+
+    /**
+     * Tests that invalid templates are rejected.
+     */
+    @Test
+    public void testInvalidTemplates() {
+        assertInvalid(DescriptionTemplateKey.UNDEFINED_VARIABLE_DEFINITION, "Define {variable}");
+        assertInvalid(DescriptionTemplateKey.UNDEFINED_VARIABLE_DEFINITION, "Define {variables");
+        assertInvalid(DescriptionTemplateKey.UNDEFINED_VARIABLE_DEFINITION, "Define {variables} {locations}");
+        assertInvalid(DescriptionTemplateKey.UNUSED_VARIABLE_REMOVAL, "Remove {variables}; {more} more");
+        assertInvalid(DescriptionTemplateKey.LOCATIONS, "(see {variables})");
+        assertInvalid(DescriptionTemplateKey.LOCATIONS_TRUNCATED, "(see {locations}; {divergences} more)");
+    }
+
+    /**
+     * Tests that the signature identifies the format and the texts of the templates.
+     */
+    @Test
+    public void testSignature() {
+        Map<@NonNull DescriptionTemplateKey, @NonNull String> customTemplates =
+                new EnumMap<>(DescriptionTemplateKey.class);
+        customTemplates.put(DescriptionTemplateKey.LOCATIONS, "(at {locations})");
+        String defaultSignature = DescriptionTemplates.getDefault().getSignature();
+        
+        assertEquals(defaultSignature,
+                new DescriptionTemplates(Collections.emptyMap(), DescriptionFormat.PLAIN).getSignature());
+        assertEquals(new DescriptionTemplates(customTemplates, DescriptionFormat.PLAIN).getSignature(),
+                new DescriptionTemplates(customTemplates, DescriptionFormat.PLAIN).getSignature());
+        assertNotEquals(defaultSignature,
+                new DescriptionTemplates(Collections.emptyMap(), DescriptionFormat.MARKDOWN).getSignature());
+        assertNotEquals(defaultSignature,
+                new DescriptionTemplates(Collections.emptyMap(), DescriptionFormat.JSON).getSignature());
+        assertNotEquals(defaultSignature, new DescriptionTemplates(customTemplates, DescriptionFormat.PLAIN)
+                .getSignature());
+    }
+
+    /**
+     * Tests that the truncated locations template is rendered only, if further locations exist.
+     */
+    @Test
+    public void testLocationsTemplates() {
+        Map<@NonNull DescriptionTemplateKey, @NonNull String> customTemplates =
+                new EnumMap<>(DescriptionTemplateKey.class);
+        customTemplates.put(DescriptionTemplateKey.LOCATIONS_TRUNCATED, "[{locations} +{more}]");
+        DescriptionTemplates templates = new DescriptionTemplates(customTemplates, DescriptionFormat.MARKDOWN);
+        
+        StringBuilder output = new StringBuilder();
+        templates.renderLocations(output, "Kconfig:1 a.c:2", 0);
+        output.append('|');
+        templates.renderLocations(output, "Kconfig:1 a.c:2", 3);
+        
+        assertEquals("(see `Kconfig:1` and `a.c:2`)|[`Kconfig:1` and `a.c:2` +3]", output.toString());
+    }
+
+    /**
+     * Asserts that creating {@link DescriptionTemplates} with the given custom template fails.
+     * 
+     * @param key the key of the custom template
+     * @param template the invalid text of the custom template
+     */
+    private static void assertInvalid(@NonNull DescriptionTemplateKey key, @NonNull String template) {
+        try {
+            new DescriptionTemplates(Collections.singletonMap(key, template), DescriptionFormat.PLAIN);
+            fail("Template \"" + template + "\" for " + key.getName() + " was accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link Fingerprint}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class FingerprintTest {
+
+    /**
+     * Tests that the fingerprints of whitespace-separated elements and of lists of the same elements are equal and
+     * that computing the fingerprint of lists does not modify them.
+     */
+    @Test
+    public void testStringsAndListsAreEquivalent() {
+        List<@NonNull String> variables = Arrays.asList("B", "A");
+        List<@NonNull String> sourceFiles = Collections.singletonList("a.c");
+        List<@NonNull String> codeElements = new ArrayList<>();
+        
+        assertEquals(Fingerprint.of("Divergence", "Correction", " B\tA ", "a.c", ""),
+                Fingerprint.of("Divergence", "Correction", variables, sourceFiles, codeElements));
+        assertEquals(Arrays.asList("B", "A"), variables);
+    }
+
+    /**
+     * Tests that the order of the involved elements does not affect the fingerprint, while the elements, their kinds,
+     * and the types do.
+     */
+    @Test
+    public void testIdentifyingProperties() {
+        long fingerprint = Fingerprint.of("Divergence", "Correction", "A B C", "a.c", "a.c:1");
+        
+        assertEquals(fingerprint, Fingerprint.of("Divergence", "Correction", "C A B", "a.c", "a.c:1"));
+        assertNotEquals(fingerprint, Fingerprint.of("OtherDivergence", "Correction", "A B C", "a.c", "a.c:1"));
+        assertNotEquals(fingerprint, Fingerprint.of("Divergence", "OtherCorrection", "A B C", "a.c", "a.c:1"));
+        assertNotEquals(fingerprint, Fingerprint.of("Divergence", "Correction", "A B D", "a.c", "a.c:1"));
+        assertNotEquals(fingerprint, Fingerprint.of("Divergence", "Correction", "A B", "C a.c", "a.c:1"));
+        assertNotEquals(fingerprint, Fingerprint.of("Divergence", "Correction", "A B C C", "a.c", "a.c:1"));
+        assertNotEquals(fingerprint, Fingerprint.extend(fingerprint, "0"));
+        assertNotEquals(Fingerprint.extend(fingerprint, "0"), Fingerprint.extend(fingerprint, "1"));
+    }
+
+    /**
+     * Tests that similar variables, which only differ in their last characters, result in distinct fingerprints.
+     */
+    @Test
+    public void testSimilarVariables() {
+        Set<Long> fingerprints = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            fingerprints.add(Fingerprint.of("Divergence", "Correction", "CONFIG_" + i + " CONFIG_COMMON", "", ""));
+        }
+        assertEquals(10000, fingerprints.size());
+    }
+
+    /**
+     * Tests that {@link Fingerprint#sort(long[], int[], int)} orders the pairs by their fingerprints and values, while
+     * leaving the elements after the given count untouched.
+     */
+    @Test
+    public void testSort() {
+        long[] fingerprints = {5, -3, 5, 0, -3, 7};
+        int[] values = {1, 4, 0, 2, 3, 9};
+        
+        Fingerprint.sort(fingerprints, values, 5);
+        
+        assertArrayEquals(new long[] {-3, -3, 0, 5, 5, 7}, fingerprints);
+        assertArrayEquals(new int[] {3, 4, 2, 0, 1, 9}, values);
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.corrections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link JsonStrings}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class JsonStringsTest {
+
+    /**
+     * Tests that quotes, backslashes, and control characters are escaped, while all other characters are kept.
+     */
+    @Test
+    public void testEscaping() {
+        String text = "\"A\" B\\C\nD\r\tE\u0001\u001fÄ";
+        StringBuilder output = new StringBuilder();
+        
+        JsonStrings.appendEscaped(output, text, 0, text.length());
+        
+        assertEquals("\\\"A\\\" B\\\\C\\nD\\r\\tE\\u0001\\u001fÄ", output.toString());
+    }
+
+    /**
+     * Tests that only the given range of characters is escaped and that writing to a {@link java.io.Writer} and
+     * appending to a {@link StringBuilder} result in the same output.
+     * 
+     * @throws IOException if writing to the {@link StringWriter} fails
+     */
+    @Test
+    public void testRange() throws IOException {
+        String text = "x\"A\"\tB\"y";
+        StringBuilder output = new StringBuilder();
+        StringWriter writer = new StringWriter();
+        
+        JsonStrings.appendEscaped(output, text, 1, 7);
+        JsonStrings.appendEscaped(writer, text, 1, 7);
+        JsonStrings.appendEscaped(writer, "", 0, 0);
+        
+        assertEquals("\\\"A\\\"\\tB\\\"", output.toString());
+        assertEquals(output.toString(), writer.toString());
+    }
+
+}
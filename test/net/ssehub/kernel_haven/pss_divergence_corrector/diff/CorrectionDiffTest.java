@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UndefinedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.io.BinaryCorrectionWriter;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link CorrectionDiff} and the {@link FingerprintSorter}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionDiffTest {
+
+    /**
+     * The temporary folder containing the correction files, the temporary run files, and the output files.
+     */
+    @Rule
+    public @NonNull TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Tests that corrections are identified by their kind, their type, and their variables independent of their
+     * order, while changed source files and code elements do not affect their identity.
+     * 
+     * @throws IOException if writing or comparing the correction files fails
+     */
+    @Test
+    public void testDiff() throws IOException {
+        File baselineFile = write(createUnused("CONFIG_A"), createUndefined("CONFIG_B", "x.c"),
+                createUnused("CONFIG_C CONFIG_D"));
+        File currentFile = write(createUndefined("CONFIG_B", "y.c"), createUnused("CONFIG_D CONFIG_C"),
+                createUnused("CONFIG_E"), createUndefined("CONFIG_A", "a.c"));
+        File outputFile = temporaryFolder.newFile("diff.csv");
+        CorrectionDiff diff = new CorrectionDiff(1 << 20, temporaryFolder.getRoot());
+        diff.diff(baselineFile, currentFile, outputFile);
+        
+        assertEquals(2, diff.getNewCount());
+        assertEquals(1, diff.getFixedCount());
+        assertEquals(2, diff.getPersistentCount());
+        List<@NonNull String> rows = readRows(outputFile);
+        assertEquals("Status;Correction Type;Variables;Source Files;Code Elements;Correction;", rows.get(0));
+        rows = rows.subList(1, rows.size());
+        rows.sort(null);
+        assertEquals(Arrays.asList(
+                "FIXED;UnusedVariableCorrection;CONFIG_A;;",
+                "NEW;UndefinedVariableCorrection;CONFIG_A;a.c;",
+                "NEW;UnusedVariableCorrection;CONFIG_E;;",
+                "PERSISTENT;UndefinedVariableCorrection;CONFIG_B;y.c;",
+                "PERSISTENT;UnusedVariableCorrection;CONFIG_D CONFIG_C;;"), rows);
+    }
+
+    /**
+     * Tests that multiple corrections with the same identity in a run are paired with the corrections of the other
+     * run one by one.
+     * 
+     * @throws IOException if writing or comparing the correction files fails
+     */
+    @Test
+    public void testDuplicates() throws IOException {
+        File baselineFile = write(createUnused("CONFIG_A"), createUnused("CONFIG_A"), createUnused("CONFIG_A"));
+        File currentFile = write(createUnused("CONFIG_A"));
+        CorrectionDiff diff = new CorrectionDiff(1 << 20, temporaryFolder.getRoot());
+        
+        diff.diff(baselineFile, currentFile, temporaryFolder.newFile("diff.csv"));
+        assertEquals(0, diff.getNewCount());
+        assertEquals(2, diff.getFixedCount());
+        assertEquals(1, diff.getPersistentCount());
+        
+        diff.diff(currentFile, baselineFile, temporaryFolder.newFile("reverse.csv"));
+        assertEquals(2, diff.getNewCount());
+        assertEquals(0, diff.getFixedCount());
+        assertEquals(1, diff.getPersistentCount());
+    }
+
+    /**
+     * Tests that a memory budget, which is too small for sorting the fingerprints in memory, provides the same
+     * comparison as sorting in memory and deletes all temporary run files afterwards.
+     * 
+     * @throws IOException if writing or comparing the correction files fails
+     */
+    @Test
+    public void testExternalSort() throws IOException {
+        Correction[] baselineCorrections = new Correction[1000];
+        Correction[] currentCorrections = new Correction[1000];
+        for (int i = 0; i < 1000; i++) {
+            baselineCorrections[i] = createUnused("CONFIG_VARIABLE_" + i);
+            currentCorrections[i] = createUnused("CONFIG_VARIABLE_" + (i + 500));
+        }
+        File baselineFile = write(baselineCorrections);
+        File currentFile = write(currentCorrections);
+        File temporaryDirectory = temporaryFolder.newFolder("runs");
+        File inMemoryFile = temporaryFolder.newFile("in_memory.csv");
+        File externalFile = temporaryFolder.newFile("external.csv");
+        
+        new CorrectionDiff(1 << 20, temporaryDirectory).diff(baselineFile, currentFile, inMemoryFile);
+        CorrectionDiff diff = new CorrectionDiff(1600, temporaryDirectory);
+        diff.diff(baselineFile, currentFile, externalFile);
+        
+        assertEquals(500, diff.getNewCount());
+        assertEquals(500, diff.getFixedCount());
+        assertEquals(500, diff.getPersistentCount());
+        assertEquals(readRows(inMemoryFile), readRows(externalFile));
+        assertEquals(0, temporaryDirectory.list().length);
+    }
+
+    /**
+     * Tests that the {@link FingerprintSorter} sorts the pairs by fingerprint and index across multiple run files.
+     * 
+     * @throws IOException if writing or reading the run files fails
+     */
+    @Test
+    public void testSorter() throws IOException {
+        File temporaryDirectory = temporaryFolder.newFolder("runs");
+        List<long[]> expected = new ArrayList<>();
+        try (FingerprintSorter sorter = new FingerprintSorter(7, temporaryDirectory)) {
+            for (int i = 0; i < 100; i++) {
+                long fingerprint = (i * 0x9E3779B97F4A7C15L) % 10 - 5;
+                sorter.add(fingerprint, i);
+                expected.add(new long[] {fingerprint, i});
+            }
+            assertTrue(sorter.getRunsCount() > 1);
+            expected.sort((first, second) -> first[0] != second[0] ? Long.compare(first[0], second[0])
+                    : Long.compare(first[1], second[1]));
+            
+            FingerprintSorter.FingerprintCursor cursor = sorter.sort();
+            for (long[] pair : expected) {
+                assertTrue(cursor.next());
+                assertEquals(pair[0], cursor.getFingerprint());
+                assertEquals(pair[1], cursor.getIndex());
+            }
+            assertFalse(cursor.next());
+        }
+        assertEquals(0, temporaryDirectory.list().length);
+    }
+
+    /**
+     * Writes the given corrections to a new file of the binary correction format.
+     * 
+     * @param corrections the corrections to write
+     * @return the written file
+     * @throws IOException if writing the file fails
+     */
+    private @NonNull File write(@NonNull Correction... corrections) throws IOException {
+        File file = temporaryFolder.newFile();
+        try (BinaryCorrectionWriter writer = new BinaryCorrectionWriter(file, false)) {
+            for (Correction correction : corrections) {
+                writer.write(correction);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Reads the rows of the given output table without their descriptions.
+     * 
+     * @param outputFile the output table
+     * @return the header followed by the rows, each without its description
+     * @throws IOException if reading the file fails
+     */
+    private static @NonNull List<@NonNull String> readRows(@NonNull File outputFile) throws IOException {
+        List<@NonNull String> rows = new ArrayList<>();
+        boolean header = true;
+        for (String row : Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8)) {
+            rows.add(header ? row : row.substring(0, row.lastIndexOf(';', row.length() - 2)));
+            header = false;
+        }
+        return rows;
+    }
+
+    /**
+     * Creates an {@link UnusedVariableCorrection} for the given variables.
+     * 
+     * @param variables the whitespace-separated involved variables
+     * @return the {@link UnusedVariableCorrection}
+     */
+    private static @NonNull Correction createUnused(@NonNull String variables) {
+        return new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class, variables, "",
+                ""));
+    }
+
+    /**
+     * Creates an {@link UndefinedVariableCorrection} for the given variable referenced in the given source file.
+     * 
+     * @param variable the undefined variable
+     * @param sourceFile the source file referencing the given variable
+     * @return the {@link UndefinedVariableCorrection}
+     */
+    private static @NonNull Correction createUndefined(@NonNull String variable, @NonNull String sourceFile) {
+        return new UndefinedVariableCorrection(TestDivergences.create(UndefinedVariableDivergence.class, variable,
+                sourceFile, ""));
+    }
+
+}
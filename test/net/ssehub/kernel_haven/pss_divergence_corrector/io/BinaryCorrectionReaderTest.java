@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.CorrectionKind;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UndefinedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link BinaryCorrectionReader} by reading the files written by the {@link BinaryCorrectionWriter}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class BinaryCorrectionReaderTest {
+
+    /**
+     * The temporary folder containing the written correction files.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Tests that reading a written file results in the written corrections including their descriptions.
+     * 
+     * @throws IOException if writing or reading the file fails
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<@NonNull Correction> corrections = createCorrections();
+        File file = write(corrections, true);
+        
+        try (BinaryCorrectionReader reader = new BinaryCorrectionReader(file)) {
+            assertTrue(reader.hasDescriptions());
+            assertEquals(corrections.size(), reader.size());
+            Iterator<@NonNull StoredCorrection> storedCorrections = reader.iterator();
+            for (Correction correction : corrections) {
+                StoredCorrection storedCorrection = storedCorrections.next();
+                assertStored(correction, storedCorrection);
+                assertEquals(correction.getDescription(), storedCorrection.getDescription());
+            }
+            assertFalse(storedCorrections.hasNext());
+            // Random access to a record does not depend on the preceding records
+            assertStored(corrections.get(2), reader.get(2));
+        }
+    }
+
+    /**
+     * Tests that files written without descriptions do not provide descriptions.
+     * 
+     * @throws IOException if writing or reading the file fails
+     */
+    @Test
+    public void testRoundTripWithoutDescriptions() throws IOException {
+        List<@NonNull Correction> corrections = createCorrections();
+        File file = write(corrections, false);
+        
+        try (BinaryCorrectionReader reader = new BinaryCorrectionReader(file)) {
+            assertFalse(reader.hasDescriptions());
+            for (int i = 0; i < corrections.size(); i++) {
+                assertStored(corrections.get(i), reader.get(i));
+                assertNull(reader.get(i).getDescription());
+            }
+        }
+    }
+
+    /**
+     * Tests that a file without corrections is read as an empty file.
+     * 
+     * @throws IOException if writing or reading the file fails
+     */
+    @Test
+    public void testEmptyFile() throws IOException {
+        try (BinaryCorrectionReader reader = new BinaryCorrectionReader(write(new ArrayList<>(), true))) {
+            assertEquals(0, reader.size());
+            assertFalse(reader.iterator().hasNext());
+        }
+    }
+
+    /**
+     * Tests that accessing a record outside the stored corrections fails.
+     * 
+     * @throws IOException if writing or reading the file fails
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() throws IOException {
+        try (BinaryCorrectionReader reader = new BinaryCorrectionReader(write(createCorrections(), true))) {
+            reader.get(reader.size());
+        }
+    }
+
+    /**
+     * Tests that truncated files, files of other formats, and files with corrupt offsets are rejected.
+     * 
+     * @throws IOException if writing the files fails
+     */
+    @Test
+    public void testInvalidFiles() throws IOException {
+        File truncatedFile = temporaryFolder.newFile("truncated.pssc");
+        Files.write(truncatedFile.toPath(), Arrays.copyOf(Files.readAllBytes(write(createCorrections(),
+                true).toPath()), 10));
+        assertRejected(truncatedFile);
+        
+        File otherFile = write(createCorrections(), true);
+        try (RandomAccessFile file = new RandomAccessFile(otherFile, "rw")) {
+            file.writeInt(0xCAFEBABE);
+        }
+        assertRejected(otherFile);
+        
+        File corruptFile = write(createCorrections(), true);
+        try (RandomAccessFile file = new RandomAccessFile(corruptFile, "rw")) {
+            // The offset of the index in the footer
+            file.seek(file.length() - 16);
+            file.writeLong(Long.MAX_VALUE);
+        }
+        assertRejected(corruptFile);
+    }
+
+    /**
+     * Tests that files with a corrupt dictionary size or dictionary entry length are rejected.
+     * 
+     * @throws IOException if writing the files fails
+     */
+    @Test
+    public void testCorruptDictionary() throws IOException {
+        File corruptSizeFile = write(createCorrections(), true);
+        try (RandomAccessFile file = new RandomAccessFile(corruptSizeFile, "rw")) {
+            file.seek(getDictionaryOffset(file));
+            file.writeInt(Integer.MAX_VALUE);
+        }
+        assertRejected(corruptSizeFile);
+        
+        File negativeSizeFile = write(createCorrections(), true);
+        try (RandomAccessFile file = new RandomAccessFile(negativeSizeFile, "rw")) {
+            file.seek(getDictionaryOffset(file));
+            file.writeInt(-1);
+        }
+        assertRejected(negativeSizeFile);
+        
+        File corruptEntryFile = write(createCorrections(), true);
+        try (RandomAccessFile file = new RandomAccessFile(corruptEntryFile, "rw")) {
+            // The length of the first dictionary entry
+            file.seek(getDictionaryOffset(file) + 4);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+        assertRejected(corruptEntryFile);
+    }
+
+    /**
+     * Tests that reading records with a corrupt offset or dictionary id fails, while the other records are still
+     * readable.
+     * 
+     * @throws IOException if writing or reading the files fails
+     */
+    @Test
+    public void testCorruptRecords() throws IOException {
+        List<@NonNull Correction> corrections = createCorrections();
+        File file = write(corrections, true);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            long dictionaryOffset = getDictionaryOffset(randomAccessFile);
+            long indexOffset = getIndexOffset(randomAccessFile);
+            // The dictionary id of the type of the first record exceeds the dictionary
+            randomAccessFile.seek(indexOffset);
+            randomAccessFile.seek(randomAccessFile.readLong() + 1);
+            randomAccessFile.writeByte(0x7F);
+            // The offset of the second record points into the dictionary
+            randomAccessFile.seek(indexOffset + 8);
+            randomAccessFile.writeLong(dictionaryOffset);
+        }
+        
+        try (BinaryCorrectionReader reader = new BinaryCorrectionReader(file)) {
+            assertRecordRejected(reader, 0);
+            assertRecordRejected(reader, 1);
+            assertStored(corrections.get(2), reader.get(2));
+            Iterator<@NonNull StoredCorrection> storedCorrections = reader.iterator();
+            UncheckedIOException exception = null;
+            try {
+                storedCorrections.next();
+            } catch (UncheckedIOException e) {
+                exception = e;
+            }
+            assertTrue(exception != null);
+        }
+    }
+
+    /**
+     * Asserts that the given stored correction contains the data of the given correction.
+     * 
+     * @param expected the written {@link Correction}
+     * @param actual the read {@link StoredCorrection}
+     */
+    private static void assertStored(@NonNull Correction expected, @NonNull StoredCorrection actual) {
+        assertEquals(expected.getKind(), actual.getKind());
+        assertEquals(expected.getCorrectionType(), actual.getCorrectionType());
+        assertEquals(expected.getDivergencesCount(), actual.getDivergencesCount());
+        assertEquals(expected.getInvolvedVariables(), actual.getInvolvedVariables());
+        assertEquals(expected.getInvolvedSourceFiles(), actual.getInvolvedSourceFiles());
+        assertEquals(expected.getInvolvedCodeElements(), actual.getInvolvedCodeElements());
+    }
+
+    /**
+     * Asserts that reading the given file fails.
+     * 
+     * @param file the file to read
+     */
+    private static void assertRejected(@NonNull File file) {
+        IOException exception = null;
+        try (BinaryCorrectionReader reader = new BinaryCorrectionReader(file)) {
+            reader.size();
+        } catch (IOException e) {
+            exception = e;
+        }
+        assertTrue(exception != null);
+    }
+
+    /**
+     * Asserts that reading the stored correction with the given index fails.
+     * 
+     * @param reader the reader of the corrupt file
+     * @param index the index of the corrupt record
+     */
+    private static void assertRecordRejected(@NonNull BinaryCorrectionReader reader, int index) {
+        IOException exception = null;
+        try {
+            reader.get(index);
+        } catch (IOException e) {
+            exception = e;
+        }
+        assertTrue(exception != null);
+    }
+
+    /**
+     * Reads the offset of the dictionary from the footer of the given file.
+     * 
+     * @param file the file of the binary correction format
+     * @return the offset of the dictionary
+     * @throws IOException if reading the file fails
+     */
+    private static long getDictionaryOffset(@NonNull RandomAccessFile file) throws IOException {
+        file.seek(file.length() - 24);
+        return file.readLong();
+    }
+
+    /**
+     * Reads the offset of the index from the footer of the given file.
+     * 
+     * @param file the file of the binary correction format
+     * @return the offset of the index
+     * @throws IOException if reading the file fails
+     */
+    private static long getIndexOffset(@NonNull RandomAccessFile file) throws IOException {
+        file.seek(file.length() - 16);
+        return file.readLong();
+    }
+
+    /**
+     * Writes the given corrections to a new file.
+     * 
+     * @param corrections the {@link Correction}s to write
+     * @param writeDescriptions whether the descriptions of the corrections shall be written
+     * @return the written file
+     * @throws IOException if writing the file fails
+     */
+    private @NonNull File write(@NonNull List<@NonNull Correction> corrections, boolean writeDescriptions)
+            throws IOException {
+        File file = temporaryFolder.newFile();
+        try (BinaryCorrectionWriter writer = new BinaryCorrectionWriter(file, writeDescriptions)) {
+            for (Correction correction : corrections) {
+                writer.write(correction);
+            }
+            assertEquals(corrections.size(), writer.getRecordCount());
+        }
+        return file;
+    }
+
+    /**
+     * Creates corrections of both kinds, which share some of their involved elements, including a merged correction
+     * and a correction with non-ASCII elements.
+     * 
+     * @return the corrections
+     */
+    private static @NonNull List<@NonNull Correction> createCorrections() {
+        List<@NonNull Correction> corrections = new ArrayList<>();
+        corrections.add(new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                "CONFIG_A", "", "")));
+        corrections.add(new UndefinedVariableCorrection(TestDivergences.create(UndefinedVariableDivergence.class,
+                "CONFIG_B", "drivers/a.c drivers/b.c", "drivers/a.c:12 drivers/b.c:3")));
+        Correction merged = new UndefinedVariableCorrection(TestDivergences.create(UndefinedVariableDivergence.class,
+                "CONFIG_A", "drivers/a.c", "drivers/a.c:20"));
+        merged.merge(new UndefinedVariableCorrection(TestDivergences.create(UndefinedVariableDivergence.class,
+                "CONFIG_C", "drivers/ä.c", "drivers/ä.c:1")));
+        corrections.add(merged);
+        assertEquals(CorrectionKind.UNDEFINED_VARIABLE, merged.getKind());
+        return corrections;
+    }
+
+}
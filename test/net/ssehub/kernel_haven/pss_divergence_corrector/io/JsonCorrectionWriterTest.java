@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UndefinedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link JsonCorrectionWriter}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class JsonCorrectionWriterTest {
+
+    /**
+     * The temporary folder containing the written JSON Lines files.
+     */
+    @Rule
+    public @NonNull TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Tests that each correction is written as a single line containing its involved elements and its structured
+     * alternatives.
+     * 
+     * @throws IOException if writing or reading the file fails
+     */
+    @Test
+    public void testWrite() throws IOException {
+        Correction unusedCorrection = new UnusedVariableCorrection(TestDivergences.create(
+                UnusedVariableDivergence.class, "A", "", ""));
+        Correction undefinedCorrection = new UndefinedVariableCorrection(TestDivergences.create(
+                UndefinedVariableDivergence.class, "B", "b.c", "b.c:2"));
+        
+        List<String> lines = write(unusedCorrection, undefinedCorrection);
+        
+        assertEquals(2, lines.size());
+        assertEquals("{\"type\":\"UnusedVariableCorrection\",\"kind\":\"" + unusedCorrection.getKind().name()
+                + "\",\"fingerprint\":\"" + Long.toHexString(unusedCorrection.getFingerprint())
+                + "\",\"divergences\":1,\"variables\":[\"A\"],\"sourceFiles\":[],\"codeElements\":[],\"alternatives\":["
+                + "{\"action\":\"REMOVE\",\"artifact\":\"VARIABILITY_MODEL\",\"variables\":[\"A\"],\"sourceFiles\":[],"
+                + "\"codeElements\":[]},"
+                + "{\"action\":\"REFERENCE\",\"artifact\":\"VARIABILITY_MODEL\",\"variables\":[\"A\"],"
+                + "\"sourceFiles\":[],\"codeElements\":[]},"
+                + "{\"action\":\"REFERENCE\",\"artifact\":\"BUILD_OR_CODE\",\"variables\":[\"A\"],\"sourceFiles\":[],"
+                + "\"codeElements\":[]}]}", lines.get(0));
+        assertEquals("{\"type\":\"UndefinedVariableCorrection\",\"kind\":\"" + undefinedCorrection.getKind().name()
+                + "\",\"fingerprint\":\"" + Long.toHexString(undefinedCorrection.getFingerprint())
+                + "\",\"divergences\":1,\"variables\":[\"B\"],\"sourceFiles\":[\"b.c\"],\"codeElements\":[\"b.c:2\"],"
+                + "\"alternatives\":["
+                + "{\"action\":\"DEFINE\",\"artifact\":\"VARIABILITY_MODEL\",\"variables\":[\"B\"],\"sourceFiles\":[],"
+                + "\"codeElements\":[]},"
+                + "{\"action\":\"REMOVE\",\"artifact\":\"BUILD\",\"variables\":[\"B\"],\"sourceFiles\":[\"b.c\"],"
+                + "\"codeElements\":[]},"
+                + "{\"action\":\"REMOVE\",\"artifact\":\"CODE\",\"variables\":[\"B\"],\"sourceFiles\":[],"
+                + "\"codeElements\":[\"b.c:2\"]}]}", lines.get(1));
+    }
+
+    /**
+     * Tests that quotes, backslashes, and control characters in the involved elements are escaped.
+     * 
+     * @throws IOException if writing or reading the file fails
+     */
+    @Test
+    public void testEscaping() throws IOException {
+        Correction correction = new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                "\"A\" B\\C D\u0001", "", ""));
+        
+        List<String> lines = write(correction);
+        
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        String variables = "\"variables\":[\"\\\"A\\\"\",\"B\\\\C\",\"D\\u0001\"]";
+        // The variables of the correction and of each of its 3 alternatives
+        assertEquals(5, line.split(Pattern.quote(variables), -1).length);
+    }
+
+    /**
+     * Writes the given corrections to a new JSON Lines file and reads its lines.
+     * 
+     * @param corrections the corrections to write
+     * @return the lines of the written file
+     * @throws IOException if writing or reading the file fails
+     */
+    private @NonNull List<String> write(@NonNull Correction... corrections) throws IOException {
+        File file = new File(temporaryFolder.getRoot(), "corrections.jsonl");
+        try (JsonCorrectionWriter writer = new JsonCorrectionWriter(file)) {
+            for (Correction correction : corrections) {
+                writer.write(correction);
+            }
+            assertEquals(corrections.length, writer.getCorrectionCount());
+        }
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+}
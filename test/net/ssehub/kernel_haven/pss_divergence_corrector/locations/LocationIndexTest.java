@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.locations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.writeFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link LocationIndex} and the {@link LocationScanner}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class LocationIndexTest {
+
+    /**
+     * The temporary folder containing the source tree.
+     */
+    @Rule
+    public @NonNull TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * The root directory of the source tree to index.
+     */
+    private @NonNull File sourceTree;
+
+    /**
+     * Creates a source tree with a Kconfig file, a build file, a code file, and files, which are not scanned.
+     * 
+     * @throws IOException if creating the source tree fails
+     */
+    @Before
+    public void createSourceTree() throws IOException {
+        sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Kconfig", "config A\n"
+                + "\tbool \"A B\"\n"
+                + "\tdepends on B && !64BIT\n"
+                + "\thelp\n"
+                + "\t  Depends on B.\n"
+                + "# C\n"
+                + "source \"drivers/Kconfig\"\n");
+        writeFile(sourceTree, "drivers/Makefile", "obj-$(CONFIG_A) += a.o # CONFIG_C\n");
+        writeFile(sourceTree, "drivers/a.c", "#ifdef CONFIG_A\n"
+                + "/* CONFIG_B\n"
+                + " CONFIG_B */ int x = CONFIG_B;\n"
+                + "char *s = \"CONFIG_A\"; // CONFIG_C\n"
+                + "#endif\n");
+        writeFile(sourceTree, "drivers/README", "CONFIG_C\n");
+        writeFile(sourceTree, ".git/Kconfig", "config C\n");
+    }
+
+    /**
+     * Tests that the definitions and references of variables are found in all kinds of scanned files, while help
+     * texts, comments, and string literals are skipped.
+     * 
+     * @throws IOException if building the index fails
+     */
+    @Test
+    public void testLocations() throws IOException {
+        LocationIndex index = LocationIndex.build(sourceTree, 2);
+        
+        assertEquals(3, index.getFilesCount());
+        assertEquals(3, index.getVariablesCount());
+        assertEquals(6, index.getLocationsCount());
+        
+        List<@NonNull Location> locations = index.getLocations("A");
+        assertLocations(locations, "Kconfig:1:8", "drivers/Makefile:1:7", "drivers/a.c:1:8");
+        assertEquals(LocationKind.KCONFIG_DEFINITION, locations.get(0).getKind());
+        assertEquals(LocationKind.BUILD_REFERENCE, locations.get(1).getKind());
+        assertEquals(LocationKind.CODE_REFERENCE, locations.get(2).getKind());
+        assertEquals(locations.toString(), index.getLocations("CONFIG_A").toString());
+        assertEquals((1 << LocationKind.KCONFIG_DEFINITION.ordinal()) | (1 << LocationKind.BUILD_REFERENCE.ordinal())
+                | (1 << LocationKind.CODE_REFERENCE.ordinal()), index.getLocationKinds("A"));
+        
+        assertLocations(index.getLocations("CONFIG_B"), "Kconfig:3:13", "drivers/a.c:3:22");
+        assertLocations(index.getLocations("B", LocationKind.KCONFIG_REFERENCE), "Kconfig:3:13");
+        assertLocations(index.getLocations("B", LocationKind.BUILD_REFERENCE));
+        assertLocations(index.getLocations("64BIT"), "Kconfig:3:19");
+        assertLocations(index.getLocations("C"));
+        assertEquals(0, index.getLocationKinds("C"));
+    }
+
+    /**
+     * Tests that the digest of a variable is independent of the number of threads, of files, which are not scanned,
+     * and of the locations of other variables, but changes if a location of the variable changes.
+     * 
+     * @throws IOException if building the index or changing the source tree fails
+     */
+    @Test
+    public void testDigest() throws IOException {
+        LocationIndex index = LocationIndex.build(sourceTree, 1);
+        long digestA = index.getDigest("A");
+        long digestB = index.getDigest("CONFIG_B");
+        
+        assertEquals(digestA, index.getDigest("CONFIG_A"));
+        assertNotEquals(digestA, digestB);
+        assertEquals(digestA, LocationIndex.build(sourceTree, 4).getDigest("A"));
+        writeFile(sourceTree, "drivers/README", "CONFIG_D\n");
+        assertEquals(digestA, LocationIndex.build(sourceTree, 1).getDigest("A"));
+        
+        writeFile(sourceTree, "drivers/Makefile", "obj-$(CONFIG_A)  += a.o # CONFIG_C\n");
+        assertEquals(digestA, LocationIndex.build(sourceTree, 1).getDigest("A"));
+        
+        writeFile(sourceTree, "drivers/Makefile", "\nobj-$(CONFIG_A) += a.o # CONFIG_C\n");
+        index = LocationIndex.build(sourceTree, 1);
+        assertNotEquals(digestA, index.getDigest("A"));
+        assertEquals(digestB, index.getDigest("B"));
+    }
+
+    /**
+     * Tests that the description of a correction contains the locations of its involved variables, if an index is
+     * set.
+     * 
+     * @throws IOException if building the index fails
+     */
+    @Test
+    public void testDescribedLocations() throws IOException {
+        Correction correction = new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                "CONFIG_A", "", ""));
+        String description = correction.getDescription();
+        
+        Correction locatedCorrection = new UnusedVariableCorrection(TestDivergences.create(
+                UnusedVariableDivergence.class, "CONFIG_A", "", ""));
+        locatedCorrection.setLocationIndex(LocationIndex.build(sourceTree, 1));
+        String locatedDescription = locatedCorrection.getDescription();
+        
+        assertFalse(description.contains("Kconfig:1:8"));
+        assertTrue(locatedDescription.contains("\"Kconfig:1:8\""));
+        assertNotEquals(description, locatedDescription);
+    }
+
+    /**
+     * Tests that lines and columns exceeding their number of bits are saturated instead of corrupting the other parts
+     * of a packed location.
+     */
+    @Test
+    public void testPackSaturation() {
+        long packed = LocationIndex.pack(0, Integer.MAX_VALUE, Integer.MAX_VALUE, LocationKind.CODE_REFERENCE);
+        
+        assertEquals(LocationIndex.pack(0, (1 << 22) - 1, (1 << 14) - 1, LocationKind.CODE_REFERENCE), packed);
+        assertEquals(0, packed >>> 38);
+    }
+
+    /**
+     * Asserts that the given locations are equal to the expected locations in the order of their string
+     * representations.
+     * 
+     * @param locations the actual locations
+     * @param expected the expected locations as <i>file:line:column</i>
+     */
+    private static void assertLocations(@NonNull List<@NonNull Location> locations, @NonNull String... expected) {
+        List<@NonNull String> actual = new ArrayList<>();
+        for (Location location : locations) {
+            actual.add(location.toString());
+        }
+        assertEquals(Arrays.asList(expected), actual);
+    }
+
+}
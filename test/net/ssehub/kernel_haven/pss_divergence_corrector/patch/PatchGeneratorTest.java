@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.patch;
+
+import static org.junit.Assert.assertEquals;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUndefinedVariableCorrection;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.writeFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.UnusedVariableCorrection;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+
+/**
+ * Tests the {@link PatchGenerator}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class PatchGeneratorTest {
+
+    /**
+     * The temporary folder containing the source tree and the generated diff.
+     */
+    @Rule
+    public @NonNull TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Tests that the entry of an unused variable including its help text and its selections are removed from the
+     * Kconfig files, while the blank line separating the next entry is preserved.
+     * 
+     * @throws IOException if creating the source tree or generating the patches fails
+     */
+    @Test
+    public void testRemoveUnusedVariable() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Kconfig", "config A\n"
+                + "\tbool \"A\"\n"
+                + "\thelp\n"
+                + "\t  config B is not an entry.\n"
+                + "\n"
+                + "config B\n"
+                + "\tbool \"B\"\n"
+                + "\tselect A\n");
+        PatchGenerator generator = new PatchGenerator(sourceTree, UndefinedVariableStrategy.REMOVE_REFERENCES);
+        generator.add(new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                "CONFIG_A", "", "")));
+        File diffFile = temporaryFolder.newFile("corrections.patch");
+        
+        assertEquals(1, generator.generate(diffFile, true));
+        assertEquals("--- a/Kconfig\n"
+                + "+++ b/Kconfig\n"
+                + "@@ -1,8 +1,3 @@\n"
+                + "-config A\n"
+                + "-\tbool \"A\"\n"
+                + "-\thelp\n"
+                + "-\t  config B is not an entry.\n"
+                + " \n"
+                + " config B\n"
+                + " \tbool \"B\"\n"
+                + "-\tselect A\n", read(diffFile));
+        assertEquals("\n"
+                + "config B\n"
+                + "\tbool \"B\"\n", read(new File(sourceTree, "Kconfig")));
+    }
+
+    /**
+     * Tests that the other Kconfig references to a removed unused variable, e.g., in <code>depends on</code>,
+     * <code>default</code>, and <code>if</code> expressions, are replaced by <code>n</code>, while prompts, comments,
+     * and other variables are preserved.
+     * 
+     * @throws IOException if creating the source tree or generating the patches fails
+     */
+    @Test
+    public void testReplaceRemainingReferences() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Kconfig", "config A\n"
+                + "\tbool \"A\"\n"
+                + "\n"
+                + "config B\n"
+                + "\tbool \"B needs A\"\n"
+                + "\tdepends on A && !AB\n"
+                + "\tdefault A\n"
+                + "\tselect AB if A # A is optional\n"
+                + "\n"
+                + "if A\n"
+                + "config AB\n"
+                + "\tbool \"AB\"\n"
+                + "endif\n");
+        PatchGenerator generator = new PatchGenerator(sourceTree, UndefinedVariableStrategy.REMOVE_REFERENCES);
+        generator.add(new UnusedVariableCorrection(TestDivergences.create(UnusedVariableDivergence.class,
+                "CONFIG_A", "", "")));
+        
+        assertEquals(1, generator.generate(temporaryFolder.newFile("corrections.patch"), true));
+        assertEquals("\n"
+                + "config B\n"
+                + "\tbool \"B needs A\"\n"
+                + "\tdepends on n && !AB\n"
+                + "\tdefault n\n"
+                + "\tselect AB if n # A is optional\n"
+                + "\n"
+                + "if n\n"
+                + "config AB\n"
+                + "\tbool \"AB\"\n"
+                + "endif\n", read(new File(sourceTree, "Kconfig")));
+    }
+
+    /**
+     * Tests that an undefined variable is defined in the nearest Kconfig file of its source file and that the last
+     * line of a Kconfig file without a trailing line feed is replaced instead of being extended.
+     * 
+     * @throws IOException if creating the source tree or generating the patches fails
+     */
+    @Test
+    public void testDefineWithoutTrailingNewline() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Kconfig", "config B\n"
+                + "\tbool \"B\"");
+        writeFile(sourceTree, "drivers/x.c", "#ifdef CONFIG_X\n"
+                + "#endif\n");
+        PatchGenerator generator = new PatchGenerator(sourceTree, UndefinedVariableStrategy.DEFINE);
+        generator.add(createUndefinedVariableCorrection("CONFIG_X", "drivers/x.c", "drivers/x.c:1"));
+        File diffFile = temporaryFolder.newFile("corrections.patch");
+        
+        String definition = "\n"
+                + "config X\n"
+                + "\tbool \"X\"\n"
+                + "\thelp\n"
+                + "\t  X is referenced in the build or code artifacts, but was not defined in\n"
+                + "\t  the variability model.\n";
+        assertEquals(1, generator.generate(diffFile, true));
+        assertEquals("--- a/Kconfig\n"
+                + "+++ b/Kconfig\n"
+                + "@@ -1,2 +1,8 @@\n"
+                + " config B\n"
+                + "-\tbool \"B\"\n"
+                + "\\ No newline at end of file\n"
+                + "+\tbool \"B\"\n"
+                + definition.replaceAll("(?m)^(?=.)|(?m)^$(?=\n)", "+"), read(diffFile));
+        assertEquals("config B\n"
+                + "\tbool \"B\"\n"
+                + definition, read(new File(sourceTree, "Kconfig")));
+        assertEquals("#ifdef CONFIG_X\n"
+                + "#endif\n", read(new File(sourceTree, "drivers/x.c")));
+    }
+
+    /**
+     * Tests that the references to an undefined variable are replaced by its constant value in the code files and
+     * the build files of their directories, while comments and string literals are preserved. Assignments to lists
+     * named after an undefined variable are removed including their continuation lines.
+     * 
+     * @throws IOException if creating the source tree or generating the patches fails
+     */
+    @Test
+    public void testRemoveReferences() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Makefile", "obj-y += drivers/\n");
+        writeFile(sourceTree, "drivers/Makefile", "obj-$(CONFIG_X) += x.o\n"
+                + "x-objs-$(CONFIG_X) := a.o \\\n"
+                + "\tb.o\n"
+                + "ldflags-y := -r $(CONFIG_X) -s\n"
+                + "ifdef CONFIG_X\n"
+                + "endif\n"
+                + "# $(CONFIG_X)\n"
+                + "ccflags-$(CONFIG_Y) += -DY");
+        writeFile(sourceTree, "drivers/x.c", "#ifdef CONFIG_X\n"
+                + "#ifndef CONFIG_Y\n"
+                + "#if defined(CONFIG_X) && IS_ENABLED(CONFIG_Y)\n"
+                + "#elif CONFIG_X || \\\n"
+                + "\tdefined CONFIG_X\n"
+                + "/* CONFIG_X */ int x = IS_ENABLED(CONFIG_X);\n"
+                + "char *name = \"IS_ENABLED(CONFIG_X)\";\n"
+                + "int y = CONFIG_X;\n");
+        PatchGenerator generator = new PatchGenerator(sourceTree, UndefinedVariableStrategy.REMOVE_REFERENCES);
+        generator.add(createUndefinedVariableCorrection("CONFIG_X", "drivers/x.c", "drivers/x.c:1"));
+        File diffFile = temporaryFolder.newFile("corrections.patch");
+        
+        assertEquals(2, generator.generate(diffFile, true));
+        assertEquals("obj-y += drivers/\n", read(new File(sourceTree, "Makefile")));
+        assertEquals("ldflags-y := -r  -s\n"
+                + "ifneq (,)\n"
+                + "endif\n"
+                + "# $(CONFIG_X)\n"
+                + "ccflags-$(CONFIG_Y) += -DY", read(new File(sourceTree, "drivers/Makefile")));
+        assertEquals("#if 0\n"
+                + "#ifndef CONFIG_Y\n"
+                + "#if 0 && IS_ENABLED(CONFIG_Y)\n"
+                + "#elif 0 || \\\n"
+                + "\t0\n"
+                + "/* CONFIG_X */ int x = 0;\n"
+                + "char *name = \"IS_ENABLED(CONFIG_X)\";\n"
+                + "int y = CONFIG_X;\n", read(new File(sourceTree, "drivers/x.c")));
+    }
+
+    /**
+     * Tests that the diff marks the last line of a file without a trailing line feed, if that line is edited.
+     * 
+     * @throws IOException if creating the source tree or generating the patches fails
+     */
+    @Test
+    public void testEditLastLineWithoutTrailingNewline() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Makefile", "obj-y += a.o\n"
+                + "obj-$(CONFIG_X) += x.o");
+        writeFile(sourceTree, "x.c", "");
+        PatchGenerator generator = new PatchGenerator(sourceTree, UndefinedVariableStrategy.REMOVE_REFERENCES);
+        generator.add(createUndefinedVariableCorrection("CONFIG_X", "x.c", "x.c:1"));
+        File diffFile = temporaryFolder.newFile("corrections.patch");
+        
+        assertEquals(1, generator.generate(diffFile, false));
+        assertEquals("--- a/Makefile\n"
+                + "+++ b/Makefile\n"
+                + "@@ -1,2 +1,1 @@\n"
+                + " obj-y += a.o\n"
+                + "-obj-$(CONFIG_X) += x.o\n"
+                + "\\ No newline at end of file\n", read(diffFile));
+        // The patches are not applied
+        assertEquals("obj-y += a.o\n"
+                + "obj-$(CONFIG_X) += x.o", read(new File(sourceTree, "Makefile")));
+    }
+
+    /**
+     * Tests that corrections, which cannot be applied automatically, are ignored.
+     * 
+     * @throws IOException if creating the source tree or generating the patches fails
+     */
+    @Test
+    public void testUnsupportedCorrection() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Kconfig", "config A\n");
+        PatchGenerator generator = new PatchGenerator(sourceTree, UndefinedVariableStrategy.REMOVE_REFERENCES);
+        Divergence divergence = TestDivergences.create(Divergence.class, "CONFIG_A", "", "");
+        generator.add(new Correction(divergence) {
+
+            @Override
+            protected @NonNull List<@NonNull String> createAlternativeDescriptions() {
+                return Collections.singletonList("Test");
+            }
+
+        });
+        File diffFile = temporaryFolder.newFile("corrections.patch");
+        
+        assertEquals(0, generator.generate(diffFile, true));
+        assertEquals("", read(diffFile));
+        assertEquals("config A\n", read(new File(sourceTree, "Kconfig")));
+    }
+
+    /**
+     * Reads the content of the given file.
+     * 
+     * @param file the file to read
+     * @return the content of the given file
+     * @throws IOException if reading the file fails
+     */
+    private static @NonNull String read(@NonNull File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.ISO_8859_1);
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.ssehub.kernel_haven.pss_divergence_corrector.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUndefinedVariableCorrection;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.createUnusedVariableCorrection;
+import static net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences.writeFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.ssehub.kernel_haven.pss_divergence_corrector.TestDivergences;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.Correction;
+import net.ssehub.kernel_haven.pss_divergence_corrector.corrections.ValidationResult;
+import net.ssehub.kernel_haven.pss_divergence_corrector.locations.LocationIndex;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.Divergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UndefinedVariableDivergence;
+import net.ssehub.kernel_haven.pss_divergence_detector.divergences.UnusedVariableDivergence;
+import net.ssehub.kernel_haven.util.null_checks.NonNull;
+import net.ssehub.kernel_haven.util.null_checks.Nullable;
+
+/**
+ * Tests the {@link CorrectionValidator} and the {@link ModelSnapshot}.
+ * 
+ * @author Christian Kröher
+ *
+ */
+public class CorrectionValidatorTest {
+
+    /**
+     * The temporary folder containing the source tree.
+     */
+    @Rule
+    public @NonNull TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * The snapshot of the source tree created by {@link #createSnapshot()}.
+     */
+    private @NonNull ModelSnapshot snapshot;
+
+    /**
+     * Creates a source tree and its snapshot. The source tree contains the unused variables <code>UNUSED</code> and
+     * <code>MODEL_ONLY</code>, which is only referenced in the Kconfig file, the used variable <code>USED</code>, the
+     * variable <code>DANGLING</code>, which is only referenced in the Kconfig file without being defined, and the
+     * undefined variables <code>BUILD_AND_CODE</code> and <code>CODE_ONLY</code>.
+     * 
+     * @throws IOException if creating or indexing the source tree fails
+     */
+    @Before
+    public void createSnapshot() throws IOException {
+        File sourceTree = temporaryFolder.newFolder("linux");
+        writeFile(sourceTree, "Kconfig", "config UNUSED\n"
+                + "\tbool \"Unused\"\n"
+                + "\n"
+                + "config USED\n"
+                + "\tbool \"Used\"\n"
+                + "\tdepends on DANGLING\n"
+                + "\tdepends on MODEL_ONLY\n"
+                + "\n"
+                + "config MODEL_ONLY\n"
+                + "\tbool \"Model only\"\n");
+        writeFile(sourceTree, "drivers/Makefile", "obj-$(CONFIG_BUILD_AND_CODE) += x.o\n");
+        writeFile(sourceTree, "drivers/x.c", "#ifdef CONFIG_BUILD_AND_CODE\n"
+                + "#endif\n"
+                + "#ifdef CONFIG_CODE_ONLY\n"
+                + "#endif\n"
+                + "#ifdef CONFIG_USED\n"
+                + "#endif\n");
+        snapshot = new ModelSnapshot(LocationIndex.build(sourceTree, 1));
+    }
+
+    /**
+     * Tests that the states of the variables are derived from their definitions and references.
+     */
+    @Test
+    public void testStates() {
+        assertTrue(ModelSnapshot.isUnused(snapshot.getState("UNUSED")));
+        assertEquals(ModelSnapshot.DEFINED | ModelSnapshot.MODEL_REFERENCED, snapshot.getState("MODEL_ONLY"));
+        assertTrue(ModelSnapshot.isUnused(snapshot.getState("MODEL_ONLY")));
+        assertEquals(ModelSnapshot.DEFINED | ModelSnapshot.CODE_REFERENCED, snapshot.getState("USED"));
+        assertEquals(ModelSnapshot.BUILD_REFERENCED | ModelSnapshot.CODE_REFERENCED,
+                snapshot.getState("BUILD_AND_CODE"));
+        assertTrue(ModelSnapshot.isUndefined(snapshot.getState("CODE_ONLY")));
+        assertTrue(ModelSnapshot.isDangling(snapshot.getState("DANGLING")));
+        assertEquals(0, snapshot.getState("NONE"));
+        
+        assertFalse(ModelSnapshot.isUnused(ModelSnapshot.DEFINED | ModelSnapshot.BUILD_REFERENCED));
+        assertFalse(ModelSnapshot.isUndefined(ModelSnapshot.MODEL_REFERENCED));
+        assertFalse(ModelSnapshot.isDangling(ModelSnapshot.DEFINED | ModelSnapshot.MODEL_REFERENCED));
+    }
+
+    /**
+     * Tests that removing an unused variable or referencing it in the build or code artifacts resolves its divergence,
+     * while referencing it in the variability model does not.
+     */
+    @Test
+    public void testUnusedVariable() {
+        Correction correction = createUnusedVariableCorrection("UNUSED");
+        
+        new CorrectionValidator(snapshot).validate(correction);
+        
+        assertEquals(Arrays.asList(ValidationResult.RESOLVES, ValidationResult.DOES_NOT_RESOLVE,
+                ValidationResult.RESOLVES), correction.getValidationResults());
+    }
+
+    /**
+     * Tests that a variable, which is only referenced in the variability model, is unused and that removing it
+     * resolves its divergence with new divergences, as the references in the variability model remain.
+     */
+    @Test
+    public void testModelReferencedUnusedVariable() {
+        Correction correction = createUnusedVariableCorrection("MODEL_ONLY");
+        
+        new CorrectionValidator(snapshot).validate(correction);
+        
+        assertEquals(Arrays.asList(ValidationResult.RESOLVES_WITH_NEW_DIVERGENCES, ValidationResult.DOES_NOT_RESOLVE,
+                ValidationResult.RESOLVES), correction.getValidationResults());
+    }
+
+    /**
+     * Tests that removing references to an undefined variable resolves its divergence only, if no references remain
+     * in other artifacts or files.
+     */
+    @Test
+    public void testUndefinedVariable() {
+        CorrectionValidator validator = new CorrectionValidator(snapshot);
+        Correction buildAndCodeCorrection = createUndefinedVariableCorrection("BUILD_AND_CODE", "drivers/x.c",
+                "drivers/x.c:1");
+        Correction codeOnlyCorrection = createUndefinedVariableCorrection("CODE_ONLY", "drivers/x.c",
+                "drivers/x.c:3");
+        
+        validator.validate(buildAndCodeCorrection);
+        validator.validate(codeOnlyCorrection);
+        
+        assertEquals(Arrays.asList(ValidationResult.RESOLVES, ValidationResult.DOES_NOT_RESOLVE,
+                ValidationResult.DOES_NOT_RESOLVE), buildAndCodeCorrection.getValidationResults());
+        assertEquals(Arrays.asList(ValidationResult.RESOLVES, ValidationResult.DOES_NOT_RESOLVE,
+                ValidationResult.RESOLVES), codeOnlyCorrection.getValidationResults());
+        assertEquals(3, validator.getResultCount(ValidationResult.RESOLVES));
+        assertEquals(3, validator.getResultCount(ValidationResult.DOES_NOT_RESOLVE));
+        assertEquals(0, validator.getResultCount(ValidationResult.UNKNOWN));
+    }
+
+    /**
+     * Tests that alternatives cannot be validated, if the snapshot does not confirm the divergence of a variable, and
+     * that the result of an alternative involving multiple variables is the worst result of these variables.
+     */
+    @Test
+    public void testUnknownAndCombinedResults() {
+        CorrectionValidator validator = new CorrectionValidator(snapshot);
+        Correction usedCorrection = createUnusedVariableCorrection("USED");
+        Correction danglingCorrection = createUndefinedVariableCorrection("DANGLING", "", "");
+        Correction mixedCorrection = createUnusedVariableCorrection("UNUSED NONE");
+        Correction combinedCorrection = createUndefinedVariableCorrection("BUILD_AND_CODE CODE_ONLY", "drivers/x.c",
+                "drivers/x.c:1 drivers/x.c:3");
+        
+        validator.validate(usedCorrection);
+        validator.validate(danglingCorrection);
+        validator.validate(mixedCorrection);
+        validator.validate(combinedCorrection);
+        
+        List<@NonNull ValidationResult> unknown = Arrays.asList(ValidationResult.UNKNOWN, ValidationResult.UNKNOWN,
+                ValidationResult.UNKNOWN);
+        assertEquals(unknown, usedCorrection.getValidationResults());
+        // DANGLING is neither defined nor referenced in the build or code artifacts; hence, it is not undefined
+        assertEquals(Collections.singletonList(ValidationResult.UNKNOWN), danglingCorrection.getValidationResults());
+        assertEquals(unknown, mixedCorrection.getValidationResults());
+        // Removing the code references resolves the divergence of CODE_ONLY, but not of BUILD_AND_CODE
+        assertEquals(Arrays.asList(ValidationResult.RESOLVES, ValidationResult.DOES_NOT_RESOLVE,
+                ValidationResult.DOES_NOT_RESOLVE), combinedCorrection.getValidationResults());
+    }
+
+    /**
+     * Tests that the fanned out alternatives of a validated correction carry the result of their alternative and that
+     * merging a correction discards its results.
+     */
+    @Test
+    public void testFanOutAndMerge() {
+        Correction correction = createUndefinedVariableCorrection("CODE_ONLY", "drivers/x.c", "drivers/x.c:3");
+        new CorrectionValidator(snapshot).validate(correction);
+        List<@NonNull ValidationResult> results = correction.getValidationResults();
+        
+        List<@NonNull Correction> alternatives = correction.getAlternatives();
+        
+        for (int i = 0; i < alternatives.size(); i++) {
+            assertEquals(Collections.singletonList(results.get(i)), alternatives.get(i).getValidationResults());
+        }
+        correction.merge(createUndefinedVariableCorrection("BUILD_AND_CODE", "drivers/x.c", "drivers/x.c:1"));
+        assertTrue(correction.getValidationResults().isEmpty());
+    }
+
+    /**
+     * Tests that constructed corrections are validated and that delivered corrections are validated only, if they
+     * are not validated yet.
+     */
+    @Test
+    public void testConstructionAndDelivery() {
+        CorrectionValidator validator = new CorrectionValidator(snapshot);
+        Correction correction = createUnusedVariableCorrection("UNUSED");
+        Function<@NonNull Divergence, @Nullable Correction> constructor = validator.validateConstruction(
+                (divergence) -> divergence.getClass().getSimpleName().startsWith("Unused") ? correction : null);
+        List<@NonNull Correction> delivered = new ArrayList<>();
+        Consumer<@NonNull Correction> consumer = validator.validateDelivery(delivered::add);
+        
+        assertSame(correction, constructor.apply(TestDivergences.create(UnusedVariableDivergence.class, "UNUSED", "",
+                "")));
+        assertNull(constructor.apply(TestDivergences.create(UndefinedVariableDivergence.class, "CODE_ONLY", "", "")));
+        consumer.accept(correction);
+        Correction undefinedCorrection = createUndefinedVariableCorrection("CODE_ONLY", "drivers/x.c",
+                "drivers/x.c:3");
+        consumer.accept(undefinedCorrection);
+        
+        assertEquals(Arrays.asList(correction, undefinedCorrection), delivered);
+        assertEquals(3, correction.getValidationResults().size());
+        assertEquals(3, undefinedCorrection.getValidationResults().size());
+        assertEquals(4, validator.getResultCount(ValidationResult.RESOLVES));
+        assertEquals(2, validator.getResultCount(ValidationResult.DOES_NOT_RESOLVE));
+    }
+
+}